@@ -28,4 +28,47 @@ public interface Calculable {
 	 *            the value of the variable
 	 */
 	public void setVariable(Variable var);
+
+	/**
+	 * return the names of the variables referenced by the expression, in the
+	 * order of their first occurrence. This is the order of the values given
+	 * to {@link #calculate(Variable[])} and {@link #calculate(double[])}.
+	 * 
+	 * @return the referenced variable names
+	 */
+	public String[] getReferencedVariables();
+
+	/**
+	 * calculate the result of the expression using the given variable values
+	 * instead of the values set with {@link #setVariable(Variable)}. This
+	 * method does not modify the {@link Calculable} and may be called
+	 * concurrently.
+	 * 
+	 * @param values
+	 *            the values of the referenced variables
+	 * @return the result of the calculation
+	 */
+	public Variable calculate(Variable[] values);
+
+	/**
+	 * check whether the expression can be calculated over doubles using
+	 * {@link #calculate(double[])}, i.e. it contains no custom functions
+	 * operating on arrays.
+	 * 
+	 * @return true if the expression can be calculated over doubles
+	 */
+	public boolean isScalar();
+
+	/**
+	 * calculate the result of a scalar expression using the given double
+	 * variable values, without allocating any {@link Variable}s. This method
+	 * does not modify the {@link Calculable} and may be called concurrently.
+	 * 
+	 * @param values
+	 *            the values of the referenced variables
+	 * @return the result of the calculation
+	 * @throws IllegalStateException
+	 *             if the expression is not scalar
+	 */
+	public double calculate(double[] values);
 }
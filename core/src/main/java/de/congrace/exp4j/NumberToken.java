@@ -27,6 +27,7 @@ import java.util.Stack;
 class NumberToken extends CalculationToken {
 
 	private final double doubleValue;
+	private final Variable variable;
 
 	/**
 	 * construct a new {@link NumberToken}
@@ -37,6 +38,16 @@ class NumberToken extends CalculationToken {
 	NumberToken(String value) {
 		super(value);
 		this.doubleValue = Double.parseDouble(value);
+		this.variable = new Variable("From number " + value, doubleValue);
+	}
+
+	/**
+	 * get the value of the number
+	 * 
+	 * @return the value
+	 */
+	double getDoubleValue() {
+		return doubleValue;
 	}
 
 	@Override
@@ -55,7 +66,7 @@ class NumberToken extends CalculationToken {
 
 	@Override
 	void mutateStackForCalculation(Stack<Variable> stack, VariableSet variables) {
-		stack.push(new Variable("From number "+getValue()+" : "+hashCode(), this.doubleValue));
+		stack.push(variable);
 	}
 
 	@Override
@@ -125,15 +125,28 @@ class OperatorToken extends CalculationToken {
 				
 		//System.out.println("Applying "+operation.toString()+" to values starting "+values[0]);
 
+		return applyOperation(values[0], values.length > 1 ? values[1] : Double.NaN);
+	}
+
+	/**
+	 * apply the {@link Operation} to double values
+	 * 
+	 * @param x
+	 *            the first operand
+	 * @param y
+	 *            the second operand, ignored by unary operations
+	 * @return the result of the {@link Operation}
+	 */
+	double applyOperation(double x, double y){
 		return switch (operation) {
-			case ADDITION -> values[0] + values[1];
-			case SUBTRACTION -> values[0] - values[1];
-			case MULTIPLICATION -> values[0] * values[1];
-			case EXPONENTIATION -> Math.pow(values[0], values[1]);
-			case DIVISION -> values[0] / values[1];
-			case UNARY_MINUS -> -values[0];
-			case UNARY_PLUS -> values[0];
-			case MODULO -> values[0] % values[1];
+			case ADDITION -> x + y;
+			case SUBTRACTION -> x - y;
+			case MULTIPLICATION -> x * y;
+			case EXPONENTIATION -> Math.pow(x, y);
+			case DIVISION -> x / y;
+			case UNARY_MINUS -> -x;
+			case UNARY_PLUS -> x;
+			case MODULO -> x % y;
 			default -> 0;
 		};
 	}
@@ -16,6 +16,8 @@
  */
 package de.congrace.exp4j;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
@@ -29,6 +31,13 @@ import java.util.Stack;
 public final class PostfixExpression extends AbstractExpression implements Calculable {
 	
 	private final VariableSet variables = new VariableSet();
+
+	// the compiled form of the tokens: the variable slot of each token (-1 if
+	// not a variable), the names of the slots and the stack size needed for
+	// scalar calculation (-1 if the expression is not scalar)
+	private final int[] variableSlots;
+	private final String[] referencedVariables;
+	private final int scalarStackSize;
 	
 	/**
 	 * Factory method for creating {@link PostfixExpression}s from human
@@ -95,6 +104,42 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 	private PostfixExpression(String expression, String[] variableStrings, Set<CustomFunction> customFunctions) throws UnparsableExpressionException,
 			UnknownFunctionException {
 		super(expression, new Tokenizer(variableStrings, customFunctions).tokenize(expression), variableStrings);
+
+		final Token[] tokens = getTokens();
+		final Map<String, Integer> slots = new LinkedHashMap<>();
+		variableSlots = new int[tokens.length];
+		int depth = 0;
+		int maxDepth = 0;
+		boolean scalar = true;
+		for (int i = 0; i < tokens.length; i++) {
+			final Token t = tokens[i];
+			variableSlots[i] = -1;
+			if (t instanceof VariableToken) {
+				Integer slot = slots.get(t.getValue());
+				if (slot == null) {
+					slot = slots.size();
+					slots.put(t.getValue(), slot);
+				}
+				variableSlots[i] = slot;
+				depth++;
+			} else if (t instanceof NumberToken) {
+				depth++;
+			} else if (t instanceof OperatorToken) {
+				depth -= ((OperatorToken) t).getOperandCount() - 1;
+				if (depth <= 0) {
+					scalar = false;
+				}
+			} else if (t instanceof FunctionToken) {
+				if (depth <= 0) {
+					scalar = false;
+				}
+			} else {
+				scalar = false;
+			}
+			maxDepth = Math.max(maxDepth, depth);
+		}
+		referencedVariables = slots.keySet().toArray(new String[0]);
+		scalarStackSize = (scalar && depth >= 1) ? maxDepth : -1;
 	}
 
 	/**
@@ -115,4 +160,57 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 	public void setVariable(Variable value) {
 		variables.add(value);
 	}
+
+	@Override
+	public String[] getReferencedVariables() {
+		return referencedVariables.clone();
+	}
+
+	@Override
+	public Variable calculate(Variable[] values) {
+		final Token[] tokens = getTokens();
+		final Stack<Variable> stack = new Stack<>();
+		for (int i = 0; i < tokens.length; i++) {
+			if (variableSlots[i] >= 0) {
+				stack.push(values[variableSlots[i]]);
+			} else {
+				((CalculationToken) tokens[i]).mutateStackForCalculation(stack, null);
+			}
+		}
+		return stack.pop();
+	}
+
+	@Override
+	public boolean isScalar() {
+		return scalarStackSize > 0;
+	}
+
+	@Override
+	public double calculate(double[] values) {
+		if (scalarStackSize <= 0) {
+			throw new IllegalStateException("expression is not scalar: " + getExpression());
+		}
+		final Token[] tokens = getTokens();
+		final double[] stack = new double[scalarStackSize];
+		int top = -1;
+		for (int i = 0; i < tokens.length; i++) {
+			final Token t = tokens[i];
+			if (variableSlots[i] >= 0) {
+				stack[++top] = values[variableSlots[i]];
+			} else if (t instanceof NumberToken) {
+				stack[++top] = ((NumberToken) t).getDoubleValue();
+			} else if (t instanceof OperatorToken) {
+				final OperatorToken op = (OperatorToken) t;
+				if (op.getOperandCount() == 2) {
+					top--;
+					stack[top] = op.applyOperation(stack[top], stack[top + 1]);
+				} else {
+					stack[top] = op.applyOperation(stack[top], Double.NaN);
+				}
+			} else {
+				stack[top] = ((FunctionToken) t).applyFunction(stack[top]);
+			}
+		}
+		return stack[top];
+	}
 }
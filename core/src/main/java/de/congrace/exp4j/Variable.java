@@ -93,9 +93,10 @@ public class Variable {
 
 	@Override
 	public String toString(){
-		if ( arrayValue.length > 1 ){
-			String out = name + " is Array (length " + arrayValue.length + ") : {";
-			for (double x : arrayValue){
+		double[] array = getArrayValue();
+		if ( array.length > 1 ){
+			String out = name + " is Array (length " + array.length + ") : {";
+			for (double x : array){
 				out = out + x + ",";
 			}
 			out = out.substring(0, out.length()-1);
@@ -0,0 +1,362 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * A memoized table of the aerodynamic coefficients of a single flight configuration.
+ * <p>
+ * The drag coefficients depend only on the Mach number and the Reynolds number, and
+ * the normal force coefficients (excluding roll damping) only on the Mach number, the
+ * angle of attack and the direction of the lateral airflow.  The table samples these
+ * on a regular grid defined by a {@link CoefficientTablePolicy} and interpolates
+ * linearly between the grid nodes.  Nodes are computed by the {@link Evaluator} the
+ * first time they are needed, so only the part of the grid actually visited during
+ * a flight is ever calculated.
+ * <p>
+ * The warnings produced when computing a node are stored with the node and added to
+ * the warning set of every lookup that uses the node.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class AerodynamicCoefficientTable {
+
+	/**
+	 * The direct calculation used to compute the table nodes.
+	 */
+	interface Evaluator {
+		/**
+		 * Calculate the friction, pressure, base and override drag coefficients into
+		 * <code>drag</code>, indexed by {@link #FRICTION_CD}, {@link #PRESSURE_CD},
+		 * {@link #BASE_CD} and {@link #OVERRIDE_CD}.
+		 */
+		void calculateDrag(FlightConfiguration configuration, FlightConditions conditions, double[] drag,
+				WarningSet warnings);
+
+		/**
+		 * Calculate the non-axial forces at the specified conditions.
+		 */
+		AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
+				WarningSet warnings);
+	}
+
+	static final int FRICTION_CD = 0;
+	static final int PRESSURE_CD = 1;
+	static final int BASE_CD = 2;
+	static final int OVERRIDE_CD = 3;
+	static final int DRAG_VALUES = 4;
+
+	// Drag node layout, the last field is the index of the node warnings or NaN if not computed
+	private static final int DRAG_WARNINGS = DRAG_VALUES;
+	private static final int DRAG_FIELDS = DRAG_VALUES + 1;
+
+	// Non-axial node layout
+	private static final int CNA = 0;
+	private static final int CP_X = 1;
+	private static final int CN = 2;
+	private static final int CM = 3;
+	private static final int CSIDE = 4;
+	private static final int CYAW = 5;
+	private static final int CROLL_FORCE = 6;
+	private static final int NON_AXIAL_WARNINGS = 7;
+	private static final int NON_AXIAL_FIELDS = 8;
+
+	private static final double NO_WARNINGS = -1;
+
+	private final Evaluator evaluator;
+	private final double aerodynamicLength;
+
+	private final double machStep;
+	private final int machCount;
+	private final double logMinReynolds;
+	private final double reynoldsStep;
+	private final double minReynolds;
+	private final double maxReynolds;
+	private final int reynoldsCount;
+	private final double aoaStep;
+	private final int aoaCount;
+	private final double thetaStep;
+	private final int thetaCount;
+
+	/** Drag nodes indexed by Mach, each row containing the Reynolds number nodes */
+	private final double[][] dragNodes;
+	/** Non-axial nodes indexed by Mach and AOA, each row containing the theta nodes */
+	private final double[][][] nonAxialNodes;
+
+	/** Distinct warning sets produced by the node calculations */
+	private final List<WarningSet> warningSets = new ArrayList<>();
+
+	private final double[] nodeDrag = new double[DRAG_VALUES];
+	private FlightConditions nodeConditions = null;
+	private int nodeCount = 0;
+
+	/**
+	 * Construct an empty table.
+	 *
+	 * @param policy				the grid resolution.
+	 * @param evaluator				the calculation of the node values.
+	 * @param aerodynamicLength		the aerodynamic length of the configuration, used for the Reynolds number.
+	 */
+	AerodynamicCoefficientTable(CoefficientTablePolicy policy, Evaluator evaluator, double aerodynamicLength) {
+		this.evaluator = evaluator;
+		this.aerodynamicLength = aerodynamicLength;
+
+		this.machStep = policy.getMachStep();
+		this.machCount = (int) Math.floor(policy.getMaxMach() / machStep + 1e-9);
+
+		this.minReynolds = policy.getMinReynolds();
+		this.maxReynolds = policy.getMaxReynolds();
+		this.logMinReynolds = Math.log10(minReynolds);
+		this.reynoldsStep = policy.getReynoldsStep();
+		this.reynoldsCount = (int) Math.ceil((Math.log10(maxReynolds) - logMinReynolds) / reynoldsStep - 1e-9) + 1;
+
+		this.aoaCount = (int) Math.ceil(Math.PI / policy.getAOAStep() - 1e-9) + 1;
+		this.aoaStep = Math.PI / (aoaCount - 1);
+		this.thetaCount = (int) Math.ceil(2 * Math.PI / policy.getThetaStep() - 1e-9);
+		this.thetaStep = 2 * Math.PI / thetaCount;
+
+		this.dragNodes = new double[machCount][];
+		this.nonAxialNodes = new double[machCount][][];
+	}
+
+
+	/**
+	 * Interpolate the drag coefficients from the table.
+	 *
+	 * @param configuration	the configuration of this table.
+	 * @param conditions	the flight conditions.
+	 * @param reynolds		the Reynolds number of the rocket.
+	 * @param drag			the array in which to store the drag coefficients.
+	 * @param warnings		the set in which to add the warnings of the nodes used.
+	 * @return				whether the conditions are within the table, if <code>false</code>
+	 * 						the drag coefficients must be calculated directly.
+	 */
+	boolean getDrag(FlightConfiguration configuration, FlightConditions conditions, double reynolds,
+			double[] drag, WarningSet warnings) {
+		double mp = conditions.getMach() / machStep - 1;
+		if (!(mp >= 0 && mp <= machCount - 1 && reynolds >= minReynolds && reynolds <= maxReynolds)) {
+			return false;
+		}
+		double rp = (Math.log10(reynolds) - logMinReynolds) / reynoldsStep;
+
+		int i = Math.min((int) mp, machCount - 2);
+		int j = Math.min((int) rp, reynoldsCount - 2);
+		double fm = mp - i;
+		double fr = rp - j;
+
+		double[] row0 = getDragRow(configuration, conditions, i, j);
+		double[] row1 = getDragRow(configuration, conditions, i + 1, j);
+		int n0 = j * DRAG_FIELDS;
+		int n1 = n0 + DRAG_FIELDS;
+		for (int k = 0; k < DRAG_VALUES; k++) {
+			double v0 = row0[n0 + k] + fr * (row0[n1 + k] - row0[n0 + k]);
+			double v1 = row1[n0 + k] + fr * (row1[n1 + k] - row1[n0 + k]);
+			drag[k] = v0 + fm * (v1 - v0);
+		}
+
+		addWarnings(warnings, row0[n0 + DRAG_WARNINGS], row0[n1 + DRAG_WARNINGS],
+				row1[n0 + DRAG_WARNINGS], row1[n1 + DRAG_WARNINGS]);
+		return true;
+	}
+
+	/**
+	 * Interpolate the non-axial forces from the table.  The roll damping is not included,
+	 * since it depends on the roll rate.
+	 *
+	 * @param configuration	the configuration of this table.
+	 * @param conditions	the flight conditions.
+	 * @param warnings		the set in which to add the warnings of the nodes used.
+	 * @return				the non-axial forces, or <code>null</code> if the conditions are
+	 * 						outside the table and the forces must be calculated directly.
+	 */
+	AerodynamicForces getNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
+			WarningSet warnings) {
+		double mp = conditions.getMach() / machStep - 1;
+		if (!(mp >= 0 && mp <= machCount - 1)) {
+			return null;
+		}
+		double ap = MathUtil.clamp(conditions.getAOA(), 0, Math.PI) / aoaStep;
+		double tp = MathUtil.reduce2Pi(conditions.getTheta()) / thetaStep;
+
+		int i = Math.min((int) mp, machCount - 2);
+		int k = Math.min((int) ap, aoaCount - 2);
+		int l0 = Math.min((int) tp, thetaCount - 1);
+		int l1 = (l0 + 1) % thetaCount;
+		double fm = mp - i;
+		double fa = ap - k;
+		double ft = tp - l0;
+
+		double cna = 0, cnaX = 0, x = 0, cn = 0, cm = 0, cside = 0, cyaw = 0, crollForce = 0;
+		double lastWarnings = NO_WARNINGS;
+		for (int c = 0; c < 8; c++) {
+			int di = c & 1;
+			int dk = (c >> 1) & 1;
+			int dl = (c >> 2) & 1;
+			double w = (di == 0 ? 1 - fm : fm) * (dk == 0 ? 1 - fa : fa) * (dl == 0 ? 1 - ft : ft);
+
+			double[] row = getNonAxialRow(configuration, conditions, i + di, k + dk);
+			int n = (dl == 0 ? l0 : l1) * NON_AXIAL_FIELDS;
+			if (Double.isNaN(row[n + NON_AXIAL_WARNINGS])) {
+				computeNonAxialNode(configuration, conditions, i + di, k + dk, dl == 0 ? l0 : l1, row);
+			}
+
+			cna += w * row[n + CNA];
+			cnaX += w * row[n + CNA] * row[n + CP_X];
+			x += w * row[n + CP_X];
+			cn += w * row[n + CN];
+			cm += w * row[n + CM];
+			cside += w * row[n + CSIDE];
+			cyaw += w * row[n + CYAW];
+			crollForce += w * row[n + CROLL_FORCE];
+
+			lastWarnings = addWarnings(warnings, row[n + NON_AXIAL_WARNINGS], lastWarnings);
+		}
+
+		// The CP is the CNa-weighted average, as when merging the component forces
+		if (Math.abs(cna) >= MathUtil.pow2(MathUtil.EPSILON)) {
+			x = cnaX / cna;
+		}
+
+		AerodynamicForces forces = new AerodynamicForces().zero();
+		forces.setCNa(cna);
+		forces.setCP(new Coordinate(x, 0, 0, cna));
+		forces.setCN(cn);
+		forces.setCm(cm);
+		forces.setCside(cside);
+		forces.setCyaw(cyaw);
+		forces.setCrollForce(crollForce);
+		forces.setCroll(crollForce);
+		return forces;
+	}
+
+	/**
+	 * @return	the number of nodes computed so far.
+	 */
+	int getNodeCount() {
+		return nodeCount;
+	}
+
+
+	/**
+	 * Return the drag row of Mach index <code>i</code>, ensuring the nodes <code>j</code>
+	 * and <code>j+1</code> have been computed.
+	 */
+	private double[] getDragRow(FlightConfiguration configuration, FlightConditions template, int i, int j) {
+		double[] row = dragNodes[i];
+		if (row == null) {
+			row = new double[reynoldsCount * DRAG_FIELDS];
+			Arrays.fill(row, Double.NaN);
+			dragNodes[i] = row;
+		}
+		for (int jj = j; jj <= j + 1; jj++) {
+			if (Double.isNaN(row[jj * DRAG_FIELDS + DRAG_WARNINGS])) {
+				computeDragNode(configuration, template, i, jj, row);
+			}
+		}
+		return row;
+	}
+
+	private double[] getNonAxialRow(FlightConfiguration configuration, FlightConditions template, int i, int k) {
+		double[][] rows = nonAxialNodes[i];
+		if (rows == null) {
+			rows = new double[aoaCount][];
+			nonAxialNodes[i] = rows;
+		}
+		double[] row = rows[k];
+		if (row == null) {
+			row = new double[thetaCount * NON_AXIAL_FIELDS];
+			Arrays.fill(row, Double.NaN);
+			rows[k] = row;
+		}
+		return row;
+	}
+
+	private void computeDragNode(FlightConfiguration configuration, FlightConditions template, int i, int j,
+			double[] row) {
+		double mach = (i + 1) * machStep;
+		double reynolds = Math.pow(10, logMinReynolds + j * reynoldsStep);
+
+		// Scale the air pressure so that the node Mach number gives the node Reynolds number
+		AtmosphericConditions atmosphere = template.getAtmosphericConditions().clone();
+		double velocity = mach * atmosphere.getMachSpeed();
+		double viscosity = velocity * aerodynamicLength / reynolds;
+		atmosphere.setPressure(atmosphere.getPressure() * atmosphere.getKinematicViscosity() / viscosity);
+
+		FlightConditions cond = getNodeConditions(template);
+		cond.setAtmosphericConditions(atmosphere);
+		cond.setMach(mach);
+
+		WarningSet nodeWarnings = new WarningSet();
+		evaluator.calculateDrag(configuration, cond, nodeDrag, nodeWarnings);
+
+		int n = j * DRAG_FIELDS;
+		System.arraycopy(nodeDrag, 0, row, n, DRAG_VALUES);
+		row[n + DRAG_WARNINGS] = internWarnings(nodeWarnings);
+		nodeCount++;
+	}
+
+	private void computeNonAxialNode(FlightConfiguration configuration, FlightConditions template, int i, int k,
+			int l, double[] row) {
+		FlightConditions cond = getNodeConditions(template);
+		cond.setAtmosphericConditions(template.getAtmosphericConditions().clone());
+		cond.setMach((i + 1) * machStep);
+		cond.setAOA(k * aoaStep);
+		cond.setTheta(l * thetaStep);
+		cond.setRollRate(0);
+
+		WarningSet nodeWarnings = new WarningSet();
+		AerodynamicForces forces = evaluator.calculateNonAxialForces(configuration, cond, nodeWarnings);
+
+		int n = l * NON_AXIAL_FIELDS;
+		row[n + CNA] = forces.getCNa();
+		row[n + CP_X] = forces.getCP().x;
+		row[n + CN] = forces.getCN();
+		row[n + CM] = forces.getCm();
+		row[n + CSIDE] = forces.getCside();
+		row[n + CYAW] = forces.getCyaw();
+		row[n + CROLL_FORCE] = forces.getCrollForce();
+		row[n + NON_AXIAL_WARNINGS] = internWarnings(nodeWarnings);
+		nodeCount++;
+	}
+
+	private FlightConditions getNodeConditions(FlightConditions template) {
+		if (nodeConditions == null) {
+			nodeConditions = template.clone();
+		}
+		return nodeConditions;
+	}
+
+	private double internWarnings(WarningSet set) {
+		if (set.isEmpty()) {
+			return NO_WARNINGS;
+		}
+		int index = warningSets.indexOf(set);
+		if (index < 0) {
+			warningSets.add(set);
+			index = warningSets.size() - 1;
+		}
+		return index;
+	}
+
+	private void addWarnings(WarningSet warnings, double w0, double w1, double w2, double w3) {
+		double last = addWarnings(warnings, w0, NO_WARNINGS);
+		last = addWarnings(warnings, w1, last);
+		last = addWarnings(warnings, w2, last);
+		addWarnings(warnings, w3, last);
+	}
+
+	private double addWarnings(WarningSet warnings, double nodeWarnings, double last) {
+		if (nodeWarnings != NO_WARNINGS && nodeWarnings != last) {
+			warnings.addAll(warningSets.get((int) nodeWarnings));
+			return nodeWarnings;
+		}
+		return last;
+	}
+}
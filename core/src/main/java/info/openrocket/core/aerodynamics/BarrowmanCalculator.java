@@ -10,14 +10,14 @@ import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.aerodynamics.barrowman.FinSetCalc;
 import info.openrocket.core.aerodynamics.barrowman.RocketComponentCalc;
+import info.openrocket.core.aerodynamics.barrowman.TubeFinSetCalc;
 import info.openrocket.core.rocketcomponent.position.AxialMethod;
 import info.openrocket.core.rocketcomponent.ComponentAssembly;
 import info.openrocket.core.rocketcomponent.ExternalComponent;
 import info.openrocket.core.rocketcomponent.ExternalComponent.Finish;
 import info.openrocket.core.rocketcomponent.FinSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
-import info.openrocket.core.rocketcomponent.InstanceMap;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.ParallelStage;
 import info.openrocket.core.rocketcomponent.PodSet;
 import info.openrocket.core.rocketcomponent.Rocket;
@@ -30,12 +30,10 @@ import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.PolyInterpolator;
 import info.openrocket.core.util.Reflection;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 
@@ -58,6 +56,11 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 	private final double stallAngle = 17.5 * Math.PI / 180;
 	private double stallMargin;
+
+	private CoefficientTablePolicy tablePolicy = null;
+	private final Map<ModID, AerodynamicCoefficientTable> tables = new LinkedHashMap<>(8, 0.75f, true);
+	private final AerodynamicCoefficientTable.Evaluator tableEvaluator = new TableEvaluator();
+	private final double[] tableDrag = new double[AerodynamicCoefficientTable.DRAG_VALUES];
 	
 	public BarrowmanCalculator() {
 		
@@ -66,7 +69,34 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	@Override
 	public BarrowmanCalculator newInstance() {
-		return new BarrowmanCalculator();
+		BarrowmanCalculator calculator = new BarrowmanCalculator();
+		calculator.setCoefficientTablePolicy(tablePolicy);
+		return calculator;
+	}
+
+	/**
+	 * Return the policy of the precomputed coefficient tables used by
+	 * {@link #getAerodynamicForces(FlightConfiguration, FlightConditions, WarningSet)},
+	 * or <code>null</code> if the forces are always calculated directly.
+	 */
+	public CoefficientTablePolicy getCoefficientTablePolicy() {
+		return tablePolicy;
+	}
+
+	/**
+	 * Set the policy of the precomputed coefficient tables.  When a policy is set,
+	 * {@link #getAerodynamicForces(FlightConfiguration, FlightConditions, WarningSet)}
+	 * interpolates the coefficients from a table built for each flight configuration
+	 * instead of walking all components on every call.  The tables trade a small
+	 * interpolation error for speed, which pays off in simulations that call the
+	 * calculator many times for the same configuration.  The CP and force analysis
+	 * methods are not affected.
+	 *
+	 * @param policy	the table policy, or <code>null</code> to calculate the forces directly.
+	 */
+	public void setCoefficientTablePolicy(CoefficientTablePolicy policy) {
+		this.tablePolicy = policy;
+		tables.clear();
 	}
 
 	/**
@@ -104,12 +134,12 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			buildCalcMap(configuration);
 		}
 
-		InstanceMap instMap = configuration.getActiveInstances();
+		InstanceTable instances = configuration.getInstanceTable();
 		Map<RocketComponent, AerodynamicForces> eachMap = new LinkedHashMap<>();
 		Map<RocketComponent, AerodynamicForces> assemblyMap = new LinkedHashMap<>();
 
 		// Calculate non-axial force data
-		calculateForceAnalysis(configuration, conditions, configuration.getRocket(), instMap, eachMap, assemblyMap, warnings);
+		calculateForceAnalysis(configuration, conditions, configuration.getRocket(), instances, eachMap, assemblyMap, warnings);
 
 		// Calculate drag coefficient data
 		AerodynamicForces rocketForces = assemblyMap.get(configuration.getRocket());
@@ -119,7 +149,8 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		rocketForces.setOverrideCD(calculateOverrideCD(configuration, conditions, eachMap, assemblyMap, warnings));
 
 		Map<RocketComponent, AerodynamicForces> finalMap = new LinkedHashMap<>();
-		for (final RocketComponent comp : instMap.keySet()) {
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent comp = instances.getComponent(index);
 
 			AerodynamicForces f;
 			if (comp instanceof ComponentAssembly) {
@@ -161,7 +192,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private AerodynamicForces calculateForceAnalysis(FlightConfiguration configuration,
 			FlightConditions conds,
 			RocketComponent comp,
-			InstanceMap instances,
+			InstanceTable instances,
 			Map<RocketComponent, AerodynamicForces> eachForces,
 			Map<RocketComponent, AerodynamicForces> assemblyForces,
 			WarningSet warnings) {
@@ -176,10 +207,9 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 				throw new NullPointerException(
 						"Could not find a CalculationObject for aerodynamic Component!: " + comp.getComponentName());
 			} else {
-				List<InstanceContext> contextList = instances.get(comp);
 				// across every instance of this component:
-				AerodynamicForces compForces = calculateComponentNonAxialForces(conds, comp, calcObj, contextList,
-						warnings);
+				AerodynamicForces compForces = calculateComponentNonAxialForces(conds, comp, calcObj, instances,
+						instances.indexOf(comp), warnings);
 				eachForces.put(comp, compForces);
 				aggregateForces.merge(compForces);
 			}
@@ -213,14 +243,34 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		if (warnings == null)
 			warnings = ignoreWarningSet;
 		
+		AerodynamicCoefficientTable table = getCoefficientTable(configuration);
+
 		// Calculate non-axial force data
-		AerodynamicForces total = calculateNonAxialForces(configuration, conditions, warnings);
+		AerodynamicForces total = null;
+		if (table != null) {
+			total = table.getNonAxialForces(configuration, conditions, warnings);
+			if (total != null && conditions.getRollRate() != 0) {
+				total.setCrollDamp(calculateRollDamping(configuration, conditions, warnings));
+				total.setCroll(total.getCrollForce() - total.getCrollDamp());
+			}
+		}
+		if (total == null) {
+			total = calculateNonAxialForces(configuration, conditions, warnings);
+		}
 		
 		// Calculate friction data
-		total.setFrictionCD(calculateFrictionCD(configuration, conditions, null, warnings));
-		total.setPressureCD(calculatePressureCD(configuration, conditions, null, warnings));
-		total.setBaseCD(calculateBaseCD(configuration, conditions, null, warnings));
-		total.setOverrideCD(calculateOverrideCD(configuration, conditions, null, null, warnings));
+		if (table != null && table.getDrag(configuration, conditions,
+				calculateReynoldsNumber(configuration, conditions), tableDrag, warnings)) {
+			total.setFrictionCD(tableDrag[AerodynamicCoefficientTable.FRICTION_CD]);
+			total.setPressureCD(tableDrag[AerodynamicCoefficientTable.PRESSURE_CD]);
+			total.setBaseCD(tableDrag[AerodynamicCoefficientTable.BASE_CD]);
+			total.setOverrideCD(tableDrag[AerodynamicCoefficientTable.OVERRIDE_CD]);
+		} else {
+			total.setFrictionCD(calculateFrictionCD(configuration, conditions, null, warnings));
+			total.setPressureCD(calculatePressureCD(configuration, conditions, null, warnings));
+			total.setBaseCD(calculateBaseCD(configuration, conditions, null, warnings));
+			total.setOverrideCD(calculateOverrideCD(configuration, conditions, null, null, warnings));
+		}
 		
 		total.setCD(total.getFrictionCD() + total.getPressureCD() + total.getBaseCD() + total.getOverrideCD());
 		
@@ -240,19 +290,22 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private AerodynamicForces calculateComponentNonAxialForces(FlightConditions conditions,
 			RocketComponent comp,
 			RocketComponentCalc calcObj,
-			List<InstanceContext> contextList,
+			InstanceTable instances,
+			int index,
 			WarningSet warnings) {
 		// across every instance of this component:
 		final AerodynamicForces componentForces = new AerodynamicForces().zero();
 
 		// iterate across component instances
-		for (InstanceContext context : contextList) {
+		final int first = (index < 0) ? 0 : instances.getFirstInstance(index);
+		final int end = (index < 0) ? 0 : instances.getEndInstance(index);
+		for (int row = first; row < end; row++) {
 			// specific to this _instance_ of this component:
 			AerodynamicForces instanceForces = new AerodynamicForces().zero();
-			calcObj.calculateNonaxialForces(conditions, context.transform, instanceForces, warnings);
+			calcObj.calculateNonaxialForces(conditions, instances.getTransform(row), instanceForces, warnings);
 
 			Coordinate cp_inst = instanceForces.getCP();
-			Coordinate cp_abs = context.transform.transform(cp_inst);
+			Coordinate cp_abs = instances.transform(row, cp_inst);
 			cp_abs = cp_abs.setY(0.0).setZ(0.0);
 
 			instanceForces.setCP(cp_abs);
@@ -282,20 +335,19 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 		checkGeometry(configuration, configuration.getRocket(), warnings);
 		
-		final InstanceMap imap = configuration.getActiveInstances();
+		final InstanceTable instances = configuration.getInstanceTable();
 
 		// across the _entire_ assembly -- like a rocket, or a stage
 		final AerodynamicForces assemblyForces = new AerodynamicForces().zero();
 
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> mapEntry : imap.entrySet()) {
-			final RocketComponent comp = mapEntry.getKey();
-			final List<InstanceContext> contextList = mapEntry.getValue();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent comp = instances.getComponent(index);
 
 			RocketComponentCalc calcObj = calcMap.get(comp);
 			if (null != calcObj) {
 				// calculated across all component instances
 				final AerodynamicForces componentForces = calculateComponentNonAxialForces(conditions, comp, calcObj,
-						contextList, warnings);
+						instances, index, warnings);
 
 				assemblyForces.merge(componentForces);
 			}
@@ -476,9 +528,9 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		double[] roughnessLimited = new double[Finish.values().length];
 		Arrays.fill(roughnessLimited, Double.NaN);
 
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
+		final InstanceTable instances = configuration.getInstanceTable();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent c = instances.getComponent(index);
 
 			if (!c.isAerodynamic()) {
 				continue;
@@ -519,7 +571,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			}
 
 			double componentFrictionCD = calcMap.get(c).calculateFrictionCD(conditions, componentCf, warningSet);
-			int instanceCount = entry.getValue().size();
+			int instanceCount = instances.getInstanceCount(index);
 			
 			if (c instanceof SymmetricComponent) {
 				SymmetricComponent s = (SymmetricComponent) c;
@@ -708,9 +760,9 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		base = calculateBaseCD(conditions.getMach());
 
 		total = 0;
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
+		final InstanceTable instances = configuration.getInstanceTable();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent c = instances.getComponent(index);
 
 			if (!c.isAerodynamic()) {
 				continue;
@@ -721,7 +773,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 				continue;
 			}
 			
-			int instanceCount = entry.getValue().size();
+			int instanceCount = instances.getInstanceCount(index);
 
 			// Pressure drag of this component
 			double cd = calcMap.get(c).calculatePressureCD(conditions, stagnation, base,
@@ -786,9 +838,9 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		base = calculateBaseCD(conditions.getMach());
 		total = 0;
 		
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
+		final InstanceTable instances = configuration.getInstanceTable();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent c = instances.getComponent(index);
 
 			if (!(c instanceof SymmetricComponent)) {
 				continue;
@@ -810,7 +862,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 				foreRadius = aftRadius = componentMaxR;
 			}
 
-			int instanceCount = entry.getValue().size();
+			int instanceCount = instances.getInstanceCount(index);
 
 			// get forward radius of next component
 			final SymmetricComponent nextComponent = s.getNextSymmetricComponent();
@@ -930,10 +982,10 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			buildCalcMap(configuration);
 
 		double total = 0;
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
-			int instanceCount = entry.getValue().size();
+		final InstanceTable instances = configuration.getInstanceTable();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent c = instances.getComponent(index);
+			int instanceCount = instances.getInstanceCount(index);
 
 			if (!c.isAerodynamic() &&
 					!(c instanceof ComponentAssembly)) {
@@ -1026,6 +1078,76 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	
 	
+	////////  The coefficient tables
+
+	/**
+	 * Return the coefficient table of the configuration, or <code>null</code> if tables
+	 * are not in use.  The least recently used tables are discarded when more than the
+	 * policy's maximum number of configurations are in use.
+	 */
+	private AerodynamicCoefficientTable getCoefficientTable(FlightConfiguration configuration) {
+		if (tablePolicy == null) {
+			return null;
+		}
+		AerodynamicCoefficientTable table = tables.get(configuration.getModID());
+		if (table == null) {
+			table = new AerodynamicCoefficientTable(tablePolicy, tableEvaluator, configuration.getLengthAerodynamic());
+			tables.put(configuration.getModID(), table);
+			if (tables.size() > tablePolicy.getMaxConfigurations()) {
+				tables.remove(tables.keySet().iterator().next());
+			}
+			log.debug("Created aerodynamic coefficient table for configuration " + configuration.getId());
+		}
+		return table;
+	}
+
+	/**
+	 * Calculate the roll damping moment of all fin sets.  The damping depends on the
+	 * roll rate and is therefore not included in the coefficient tables.
+	 */
+	private double calculateRollDamping(FlightConfiguration configuration, FlightConditions conditions,
+			WarningSet warnings) {
+		if (calcMap == null)
+			buildCalcMap(configuration);
+
+		double damping = 0;
+		final InstanceTable instances = configuration.getInstanceTable();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			RocketComponentCalc calcObj = calcMap.get(instances.getComponent(index));
+			if (!(calcObj instanceof FinSetCalc) && !(calcObj instanceof TubeFinSetCalc)) {
+				continue;
+			}
+			for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+				AerodynamicForces instanceForces = new AerodynamicForces().zero();
+				calcObj.calculateNonaxialForces(conditions, instances.getTransform(row), instanceForces, warnings);
+				damping += instanceForces.getCrollDamp();
+			}
+		}
+		return damping;
+	}
+
+	/**
+	 * Computes the coefficient table nodes using the direct calculation.
+	 */
+	private class TableEvaluator implements AerodynamicCoefficientTable.Evaluator {
+		@Override
+		public void calculateDrag(FlightConfiguration configuration, FlightConditions conditions, double[] drag,
+				WarningSet warnings) {
+			drag[AerodynamicCoefficientTable.FRICTION_CD] = calculateFrictionCD(configuration, conditions, null, warnings);
+			drag[AerodynamicCoefficientTable.PRESSURE_CD] = calculatePressureCD(configuration, conditions, null, warnings);
+			drag[AerodynamicCoefficientTable.BASE_CD] = calculateBaseCD(configuration, conditions, null, warnings);
+			drag[AerodynamicCoefficientTable.OVERRIDE_CD] = calculateOverrideCD(configuration, conditions, null, null,
+					warnings);
+		}
+
+		@Override
+		public AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration,
+				FlightConditions conditions, WarningSet warnings) {
+			return BarrowmanCalculator.this.calculateNonAxialForces(configuration, conditions, warnings);
+		}
+	}
+
+
 	////////  The calculator map
 	
 	@Override
@@ -1035,6 +1157,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		calcMap = null;
 		cacheDiameter = -1;
 		cacheLength = -1;
+		tables.clear();
 	}
 	
 	
@@ -0,0 +1,113 @@
+package info.openrocket.core.aerodynamics;
+
+/**
+ * The resolution and retention settings of the precomputed aerodynamic coefficient
+ * tables used by {@link BarrowmanCalculator}.
+ * <p>
+ * The drag coefficients are tabulated over Mach number and Reynolds number (on a
+ * logarithmic scale), and the normal force, moment and roll forcing coefficients over
+ * Mach number, angle of attack and the direction of the lateral airflow.  Smaller steps
+ * give more accurate results at the cost of computing more table nodes.  Conditions
+ * outside the tabulated range are calculated directly.
+ * <p>
+ * A table is built for each flight configuration (identified by its modification ID),
+ * and at most {@link #getMaxConfigurations()} tables are retained per calculator.  All
+ * tables are discarded when the aerodynamics of the rocket change.
+ * <p>
+ * Instances of this class are immutable.
+ */
+public final class CoefficientTablePolicy {
+
+	/** The default policy, accurate to about 0.1% for typical rockets. */
+	public static final CoefficientTablePolicy DEFAULT = new CoefficientTablePolicy(0.01, 5.0,
+			Math.toRadians(1), Math.toRadians(5), 0.05, 1e4, 1e9, 4);
+
+	private final double machStep;
+	private final double maxMach;
+	private final double aoaStep;
+	private final double thetaStep;
+	private final double reynoldsStep;
+	private final double minReynolds;
+	private final double maxReynolds;
+	private final int maxConfigurations;
+
+	/**
+	 * Construct a new coefficient table policy.
+	 *
+	 * @param machStep			the Mach number step, also the lowest tabulated Mach number.
+	 * @param maxMach			the highest tabulated Mach number.
+	 * @param aoaStep			the angle of attack step, in radians.
+	 * @param thetaStep			the lateral airflow direction step, in radians.
+	 * @param reynoldsStep		the Reynolds number step, in decades.
+	 * @param minReynolds		the lowest tabulated Reynolds number.
+	 * @param maxReynolds		the highest tabulated Reynolds number.
+	 * @param maxConfigurations	the maximum number of configuration tables retained.
+	 */
+	public CoefficientTablePolicy(double machStep, double maxMach, double aoaStep, double thetaStep,
+			double reynoldsStep, double minReynolds, double maxReynolds, int maxConfigurations) {
+		if (!(machStep > 0) || !(maxMach >= 2 * machStep)) {
+			throw new IllegalArgumentException("Illegal Mach range: step=" + machStep + " max=" + maxMach);
+		}
+		if (!(aoaStep > 0) || aoaStep > Math.PI / 2) {
+			throw new IllegalArgumentException("Illegal angle of attack step: " + aoaStep);
+		}
+		if (!(thetaStep > 0) || thetaStep > Math.PI / 2) {
+			throw new IllegalArgumentException("Illegal lateral airflow direction step: " + thetaStep);
+		}
+		if (!(reynoldsStep > 0) || !(minReynolds > 0) || !(maxReynolds > minReynolds)) {
+			throw new IllegalArgumentException("Illegal Reynolds number range: step=" + reynoldsStep +
+					" min=" + minReynolds + " max=" + maxReynolds);
+		}
+		if (maxConfigurations <= 0) {
+			throw new IllegalArgumentException("maxConfigurations must be positive, was " + maxConfigurations);
+		}
+		this.machStep = machStep;
+		this.maxMach = maxMach;
+		this.aoaStep = aoaStep;
+		this.thetaStep = thetaStep;
+		this.reynoldsStep = reynoldsStep;
+		this.minReynolds = minReynolds;
+		this.maxReynolds = maxReynolds;
+		this.maxConfigurations = maxConfigurations;
+	}
+
+	public double getMachStep() {
+		return machStep;
+	}
+
+	public double getMaxMach() {
+		return maxMach;
+	}
+
+	public double getAOAStep() {
+		return aoaStep;
+	}
+
+	public double getThetaStep() {
+		return thetaStep;
+	}
+
+	public double getReynoldsStep() {
+		return reynoldsStep;
+	}
+
+	public double getMinReynolds() {
+		return minReynolds;
+	}
+
+	public double getMaxReynolds() {
+		return maxReynolds;
+	}
+
+	public int getMaxConfigurations() {
+		return maxConfigurations;
+	}
+
+	@Override
+	public String toString() {
+		return "CoefficientTablePolicy[machStep=" + machStep + ", maxMach=" + maxMach +
+				", aoaStep=" + Math.toDegrees(aoaStep) + "deg, thetaStep=" + Math.toDegrees(thetaStep) +
+				"deg, reynoldsStep=" + reynoldsStep + ", reynolds=" + minReynolds + "-" + maxReynolds +
+				", maxConfigurations=" + maxConfigurations + "]";
+	}
+}
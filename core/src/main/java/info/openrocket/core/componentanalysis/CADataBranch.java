@@ -2,7 +2,7 @@ package info.openrocket.core.componentanalysis;
 
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.DataBranch;
-import info.openrocket.core.util.ArrayList;
+import info.openrocket.core.util.DoubleColumn;
 import info.openrocket.core.util.ModID;
 
 import java.util.HashMap;
@@ -14,7 +14,7 @@ import java.util.Map;
  */
 public class CADataBranch extends DataBranch<CADataType> {
 	// Map to store values for each CADataType-RocketComponent pair
-	private final Map<CADataType, Map<RocketComponent, ArrayList<Double>>> componentValues = new HashMap<>();
+	private final Map<CADataType, Map<RocketComponent, DoubleColumn>> componentValues = new HashMap<>();
 	// Maps to store min and max values for each CADataType-RocketComponent pair
 	private final Map<CADataType, Map<RocketComponent, Double>> componentMinValues = new HashMap<>();
 	private final Map<CADataType, Map<RocketComponent, Double>> componentMaxValues = new HashMap<>();
@@ -40,13 +40,13 @@ public class CADataBranch extends DataBranch<CADataType> {
 	public void addPoint() {
 		mutable.check();
 
-		for (Map.Entry<CADataType, ArrayList<Double>> entry : values.entrySet()) {
-			entry.getValue().add(Double.NaN);
+		for (DoubleColumn column : values.values()) {
+			column.add(Double.NaN);
 		}
 
-		for (Map<RocketComponent, ArrayList<Double>> componentMap : componentValues.values()) {
-			for (ArrayList<Double> list : componentMap.values()) {
-				list.add(Double.NaN);
+		for (Map<RocketComponent, DoubleColumn> componentMap : componentValues.values()) {
+			for (DoubleColumn column : componentMap.values()) {
+				column.add(Double.NaN);
 			}
 		}
 
@@ -65,19 +65,9 @@ public class CADataBranch extends DataBranch<CADataType> {
 			addType(type);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
-		ArrayList<Double> list = typeMap.computeIfAbsent(component, k -> {
-			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				newList.add(Double.NaN);
-			}
-			return newList;
-		});
-
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
-		}
+		Map<RocketComponent, DoubleColumn> typeMap = componentValues.get(type);
+		DoubleColumn column = typeMap.computeIfAbsent(component, k -> new DoubleColumn(getLength(), Double.NaN));
+		column.setLast(value);
 
 		// Update min and max values
 		updateMinMaxValues(type, component, value);
@@ -114,13 +104,13 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.get(type);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
+		Map<RocketComponent, DoubleColumn> typeMap = componentValues.get(type);
 		if (typeMap == null) return null;
 
-		ArrayList<Double> list = typeMap.get(component);
-		if (list == null) return null;
+		DoubleColumn column = typeMap.get(component);
+		if (column == null) return null;
 
-		return list.clone();
+		return column.toList();
 	}
 
 	public Double getByIndex(CADataType type, RocketComponent component, int index) {
@@ -132,13 +122,13 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.getByIndex(type, index);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
+		Map<RocketComponent, DoubleColumn> typeMap = componentValues.get(type);
 		if (typeMap == null) return null;
 
-		ArrayList<Double> list = typeMap.get(component);
-		if (list == null) return null;
+		DoubleColumn column = typeMap.get(component);
+		if (column == null) return null;
 
-		return list.get(index);
+		return column.get(index);
 	}
 
 	public double getLast(CADataType type, RocketComponent component) {
@@ -146,13 +136,13 @@ public class CADataBranch extends DataBranch<CADataType> {
 			return super.getLast(type);
 		}
 
-		Map<RocketComponent, ArrayList<Double>> typeMap = componentValues.get(type);
+		Map<RocketComponent, DoubleColumn> typeMap = componentValues.get(type);
 		if (typeMap == null) return Double.NaN;
 
-		ArrayList<Double> list = typeMap.get(component);
-		if (list == null || list.isEmpty()) return Double.NaN;
+		DoubleColumn column = typeMap.get(component);
+		if (column == null) return Double.NaN;
 
-		return list.get(list.size() - 1);
+		return column.getLast();
 	}
 
 	public double getMinimum(CADataType type, RocketComponent component) {
@@ -3,7 +3,9 @@ package info.openrocket.core.database;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +17,10 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 
 	private static final Logger logger = LoggerFactory.getLogger(ComponentPresetDatabase.class);
 
+	// Results of find(), keyed by manufacturer and part number.  Files loaded together
+	// typically refer to the same presets, and each lookup would otherwise scan all presets.
+	private final Map<String, List<ComponentPreset>> findCache = new ConcurrentHashMap<>();
+
 	public ComponentPresetDatabase() {
 		super();
 	}
@@ -27,6 +33,7 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	@Override
 	public void insert(ComponentPreset preset) {
 		list.add(preset);
+		findCache.clear();
 	}
 
 	@Override
@@ -104,15 +111,38 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 		return listForTypes(types.toArray(new ComponentPreset.Type[0]));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The results are cached until a preset is inserted, added or removed.  This method
+	 * may be called concurrently from several threads loading documents, but not while
+	 * the database is being modified.
+	 */
 	@Override
 	public List<ComponentPreset> find(String manufacturer, String partNo) {
-		List<ComponentPreset> presets = new ArrayList<>();
-		for (ComponentPreset preset : list) {
-			if (preset.getManufacturer().matches(manufacturer) && preset.getPartNo().equals(partNo)) {
-				presets.add(preset);
+		String key = manufacturer + '\0' + partNo;
+		List<ComponentPreset> presets = findCache.computeIfAbsent(key, k -> {
+			List<ComponentPreset> found = new ArrayList<>();
+			for (ComponentPreset preset : list) {
+				if (preset.getManufacturer().matches(manufacturer) && preset.getPartNo().equals(partNo)) {
+					found.add(preset);
+				}
 			}
-		}
-		return presets;
+			return found;
+		});
+		return new ArrayList<>(presets);
+	}
+
+	@Override
+	protected void fireAddEvent(ComponentPreset element) {
+		findCache.clear();
+		super.fireAddEvent(element);
+	}
+
+	@Override
+	protected void fireRemoveEvent(ComponentPreset element) {
+		findCache.clear();
+		super.fireRemoveEvent(element);
 	}
 
 	@Override
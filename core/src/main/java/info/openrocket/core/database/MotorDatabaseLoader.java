@@ -6,18 +6,27 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import info.openrocket.core.l10n.Translator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
+import info.openrocket.core.file.motor.BinaryMotorDatabase;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
+import info.openrocket.core.file.motor.MotorFileCache;
 import info.openrocket.core.gui.util.SimpleFileFilter;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.startup.Application;
@@ -41,6 +50,8 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	private static final String THRUSTCURVE_DIRECTORY = "datafiles/thrustcurves/";
 	private static final long STARTUP_DELAY = 0;
+	private static final String CACHE_FILE = "ThrustCurveCache.dat";
+	private static final int MIN_LOADING_THREADS = 4;
 	
 	private final ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
 	private int motorCount = 0;
@@ -62,21 +73,63 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the user defined motors
-	 * the directories are defined in the preferences
+	 * the directories are defined in the preferences.
+	 * <p>
+	 * The files are parsed in parallel, and the motors of files that have not changed
+	 * since they were last parsed are taken from the motor file cache.  The motors are
+	 * added in the order of the files, independent of the order the parsing completes in.
 	 */
 	private void loadUserDefinedMotors() {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		SimpleFileFilter fileFilter = new SimpleFileFilter("", loader.getSupportedExtensions());
 		log.info("Starting reading user-defined motors");
+		List<File> files = new ArrayList<>();
 		for (File file : (Application.getPreferences()).getUserThrustCurveFiles()) {
 			if (file.isFile()) {
-				loadFile(loader, file);
+				files.add(file);
 			} else if (file.isDirectory()) {
-				loadDirectory(loader, fileFilter, file);
+				listDirectory(fileFilter, file, files);
 			} else {
 				log.warn("User-defined motor file " + file + " is neither file nor directory");
 			}
 		}
+
+		MotorFileCache cache = new MotorFileCache(new File(SystemInfo.getUserApplicationDirectory(), CACHE_FILE));
+		cache.load();
+
+		if (!files.isEmpty()) {
+			int threads = Math.min(files.size(), Math.max(MIN_LOADING_THREADS, Runtime.getRuntime().availableProcessors()));
+			ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+				Thread t = new Thread(r, "MotorLoader");
+				t.setDaemon(true);
+				return t;
+			});
+			try {
+				List<Future<List<ThrustCurveMotor>>> results = new ArrayList<>(files.size());
+				for (File file : files) {
+					results.add(executor.submit(() -> loadFile(loader, cache, file)));
+				}
+				for (int i = 0; i < results.size(); i++) {
+					try {
+						addMotors(results.get(i).get());
+					} catch (ExecutionException e) {
+						log.warn("Exception while reading " + files.get(i) + ": " + e.getCause(), e.getCause());
+					}
+				}
+			} catch (InterruptedException e) {
+				log.warn("Interrupted while reading user-defined motors");
+				Thread.currentThread().interrupt();
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		cache.retain(files);
+		try {
+			cache.save();
+		} catch (IOException e) {
+			log.warn("Unable to write motor cache " + cache.getCacheFile() + ": " + e);
+		}
 		log.info("Ending reading user-defined motors, motorCount=" + motorCount);
 	}
 
@@ -87,7 +140,8 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, BinaryMotorDatabase.EXTENSION));
 		while (iterator.hasNext()) {
 			Pair<File, InputStream> f = iterator.next();
 			loadSerialized(f);
@@ -97,53 +151,76 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	
 	
 	/**
-	 * loads a serailized motor data from an stream
+	 * loads a binary motor database from a file or stream.  A database in the file system
+	 * is memory-mapped, one inside a JAR file is read from the stream.
 	 * 
-	 * @param f	the pair of a File (for logging) and the input stream
+	 * @param f	the pair of a File and the input stream
 	 */
-	@SuppressWarnings("unchecked")
 	private void loadSerialized(Pair<File, InputStream> f) {
 		log.debug("Reading motors from file " + f.getU().getPath());
-		try (ObjectInputStream ois = new ObjectInputStream(f.getV())) {
-			List<ThrustCurveMotor> motors = (List<ThrustCurveMotor>) ois.readObject();
-			addMotors(motors);
+		try (InputStream is = f.getV()) {
+			BinaryMotorDatabase db;
+			if (f.getU().isFile()) {
+				db = BinaryMotorDatabase.open(f.getU());
+			} else {
+				db = BinaryMotorDatabase.read(is);
+			}
+			addMotors(db.getMotors());
 		} catch (Exception ex) {
 			throw new BugException(ex);
 		}
 	}
 	
 	/**
-	 * loads a single motor file into the database using a simple file handler object
+	 * loads a single motor file, either from the cache or by parsing the file
 	 * 
 	 * @param loader	the motor loading handler object
+	 * @param cache		the cache of previously parsed files
 	 * @param file		the File to the file itself
+	 * @return			the motors of the file
 	 */
-	private void loadFile(GeneralMotorLoader loader, File file) {
+	private List<ThrustCurveMotor> loadFile(GeneralMotorLoader loader, MotorFileCache cache, File file) {
+		List<ThrustCurveMotor> motors = cache.get(file);
+		if (motors != null) {
+			log.debug("Using cached motors of file " + file);
+			return motors;
+		}
 		try {
 			log.debug("Loading motors from file " + file);
-			loadFile(
+			motors = loadFile(
 					loader,
 					new Pair<>(
 							file,
 							new BufferedInputStream(new FileInputStream(file))));
+			if (motors != null) {
+				cache.put(file, motors);
+				return motors;
+			}
 		} catch (Exception e) {
 			log.warn("Exception while reading " + file + ": " + e, e);
 		}
+		return Collections.emptyList();
 	}
 	
 	/**
-	 * loads a single motor file into the database using inputStream instead of file object
+	 * loads a single motor file using inputStream instead of file object
 	 * 
 	 * @param loader	an object to handle the loading
 	 * @param f			the pair of File name and its input stream
+	 * @return			the motors of the file, or <code>null</code> if the file could not be loaded
 	 */
-	private void loadFile(GeneralMotorLoader loader, Pair<File, InputStream> f) {
+	private List<ThrustCurveMotor> loadFile(GeneralMotorLoader loader, Pair<File, InputStream> f) {
+		List<ThrustCurveMotor> motors = null;
 		try {
 			try {
-				List<ThrustCurveMotor.Builder> motors = loader.load(f.getV(), f.getU().getName());
-				addMotorsFromBuilders(motors);
+				List<ThrustCurveMotor.Builder> builders = loader.load(f.getV(), f.getU().getName());
+				motors = new ArrayList<>(builders.size());
+				for (ThrustCurveMotor.Builder m : builders) {
+					motors.add(m.build());
+				}
 			}
 			catch (IllegalArgumentException | IOException e) {
+				motors = null;
 				Translator trans = Application.getTranslator();
 				String fullPath = f.getU().getPath();
 				String message = "<html><body><p style='width: 400px;'><i>" + e.getMessage() +
@@ -168,25 +245,32 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 			} catch (IOException e1) {
 			}
 		}
+		return motors;
 	}
 	
 	/**
-	 * loads an entire directory of motor files
+	 * lists the motor files of an entire directory recursively
 	 * 
-	 * @param loader 		a motor loading handler object
 	 * @param fileFilter	the supported extensions of files
-	 * @param file			the directory file object
+	 * @param directory		the directory file object
+	 * @param files			the list the files are added to
 	 */
-	private void loadDirectory(GeneralMotorLoader loader, SimpleFileFilter fileFilter, File file) {
-		FileIterator iterator;
-		try {
-			iterator = new DirectoryIterator(file, fileFilter, true);
-		} catch (Exception e) {
-			log.warn("Unable to read directory " + file + ": " + e, e);
+	private void listDirectory(SimpleFileFilter fileFilter, File directory, List<File> files) {
+		File[] list = directory.listFiles();
+		if (list == null) {
+			log.warn("Unable to read directory " + directory);
 			return;
 		}
-		while (iterator.hasNext()) {
-			loadFile(loader, iterator.next());
+		Arrays.sort(list);
+		for (File file : list) {
+			if (file.getName().startsWith(".")) {
+				continue;
+			}
+			if (file.isDirectory()) {
+				listDirectory(fileFilter, file, files);
+			} else if (fileFilter.accept(file)) {
+				files.add(file);
+			}
 		}
 	}
 
@@ -204,18 +288,6 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 		}
 	}
 	
-	/**
-	 * builds the motors while building them
-	 * 
-	 * @param motorBuilders List of motor builders to be used for adding motor into the database
-	 */
-	private synchronized void addMotorsFromBuilders(List<ThrustCurveMotor.Builder> motorBuilders) {
-		for (ThrustCurveMotor.Builder m : motorBuilders) {
-			motorCount++;
-			database.addMotor(m.build());
-		}
-	}
-	
 	/**
 	 * Returns the loaded database.  If the database has not fully loaded,
 	 * this blocks until it is.
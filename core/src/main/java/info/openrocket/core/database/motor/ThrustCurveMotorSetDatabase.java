@@ -1,80 +1,200 @@
 package info.openrocket.core.database.motor;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.motor.Manufacturer;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
 
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
  * to the database.
- * 
+ * <p>
+ * The motors are indexed by digest, by manufacturer and type, and by diameter,
+ * length and total impulse, so that finding motors does not require scanning the
+ * whole database.  The indexes are updated as motors are added.
+ *
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	private static final Logger log = LoggerFactory.getLogger(ThrustCurveMotorSetDatabase.class);
 
+	/** Tolerance of the diameter and length criteria of findMotors, in meters */
+	private static final double DIMENSION_TOLERANCE = 0.005;
+
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<>();
 
+	/** Order of the sets in the database */
+	private final Map<ThrustCurveMotorSet, Integer> setOrdinals = new IdentityHashMap<>();
+	/** The set containing each motor */
+	private final Map<ThrustCurveMotor, ThrustCurveMotorSet> motorToSet = new IdentityHashMap<>();
+	/** Sets by manufacturer and upper-case designation, used to find the set of an added motor */
+	private final Map<SetKey, List<ThrustCurveMotorSet>> setIndex = new HashMap<>();
+
+	private final Map<String, List<ThrustCurveMotor>> digestIndex = new HashMap<>();
+	private final Map<Manufacturer, List<ThrustCurveMotorSet>> manufacturerIndex = new LinkedHashMap<>();
+	private final Map<Motor.Type, List<ThrustCurveMotorSet>> typeIndex = new EnumMap<>(Motor.Type.class);
+
+	private final RangeIndex diameterIndex = new RangeIndex(ThrustCurveMotor::getDiameter);
+	private final RangeIndex lengthIndex = new RangeIndex(ThrustCurveMotor::getLength);
+	private final RangeIndex impulseIndex = new RangeIndex(ThrustCurveMotor::getTotalImpulseEstimate);
+
+	/** Orders motors as they are listed by iterating the sets */
+	private final Comparator<ThrustCurveMotor> databaseOrder = (m1, m2) -> {
+		ThrustCurveMotorSet s1 = motorToSet.get(m1);
+		ThrustCurveMotorSet s2 = motorToSet.get(m2);
+		if (s1 != s2) {
+			return Integer.compare(setOrdinals.get(s1), setOrdinals.get(s2));
+		}
+		List<ThrustCurveMotor> motors = s1.getMotors();
+		return Integer.compare(indexOf(motors, m1), indexOf(motors, m2));
+	};
+
 	@Override
 	public List<ThrustCurveMotor> findMotors(String digest, Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
-		ArrayList<ThrustCurveMotor> fullMatches = new ArrayList<>();
-		ArrayList<ThrustCurveMotor> digestMatches = new ArrayList<>();
-		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<>();
+		final String upperDesignation = (designation != null) ? designation.toUpperCase() : null;
 
-		// Apply filters to see if we can find any motors that match the given criteria.
-		// We'll return
-		// the most restrictive nonempty list we find, or empty list if no matches at
-		// all
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean matchDescription = true;
-				boolean matchDigest = true;
-
-				// unlike the description, digest must be present in search criteria to get a
-				// match
-				if (digest == null || !digest.equals(m.getDigest()))
-					matchDigest = false;
-
-				// match description
-				if (type != null && type != set.getType())
-					matchDescription = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					matchDescription = false;
-				else if (designation != null &&
-						!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
-						!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
-					matchDescription = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
-					matchDescription = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
-					matchDescription = false;
-
-				if (matchDigest)
-					digestMatches.add(m);
-
-				if (matchDescription)
-					descriptionMatches.add(m);
+		// Digest matches, in database order
+		List<ThrustCurveMotor> digestMatches = new ArrayList<>(findMotorsByDigest(digest));
 
-				if (matchDigest && matchDescription)
-					fullMatches.add(m);
+		// Apply filters to see if we can find any motors that match the given criteria.
+		// We'll return the most restrictive nonempty list we find, or empty list if no
+		// matches at all
+		ArrayList<ThrustCurveMotor> fullMatches = new ArrayList<>();
+		for (ThrustCurveMotor m : digestMatches) {
+			if (matchesDescription(m, type, manufacturer, upperDesignation, diameter, length)) {
+				fullMatches.add(m);
 			}
 		}
-
 		if (!fullMatches.isEmpty())
 			return fullMatches;
 
 		if (!digestMatches.isEmpty())
 			return digestMatches;
 
+		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<>();
+		for (ThrustCurveMotorSet set : getCandidateSets(type, manufacturer, diameter, length)) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				if (matchesDescription(m, type, manufacturer, upperDesignation, diameter, length)) {
+					descriptionMatches.add(m);
+				}
+			}
+		}
 		return descriptionMatches;
+	}
+
+	/**
+	 * Return the sets that may contain motors matching the description criteria, in
+	 * database order.  The most selective index available for the criteria is used.
+	 */
+	private List<ThrustCurveMotorSet> getCandidateSets(Motor.Type type, String manufacturer,
+			double diameter, double length) {
+		Collection<ThrustCurveMotorSet> sets;
+		if (!Double.isNaN(diameter)) {
+			sets = setsOf(diameterIndex.findCandidates(diameter, DIMENSION_TOLERANCE));
+		} else if (!Double.isNaN(length)) {
+			sets = setsOf(lengthIndex.findCandidates(length, DIMENSION_TOLERANCE));
+		} else if (manufacturer != null) {
+			sets = new ArrayList<>();
+			for (Map.Entry<Manufacturer, List<ThrustCurveMotorSet>> e : manufacturerIndex.entrySet()) {
+				if (e.getKey().matches(manufacturer)) {
+					sets.addAll(e.getValue());
+				}
+			}
+		} else if (type != null) {
+			return getMotorSets(type);
+		} else {
+			return motorSets;
+		}
+
+		List<ThrustCurveMotorSet> sorted = new ArrayList<>(sets);
+		sorted.sort(Comparator.comparing(setOrdinals::get));
+		return sorted;
+	}
+
+	private Collection<ThrustCurveMotorSet> setsOf(List<ThrustCurveMotor> motors) {
+		Map<ThrustCurveMotorSet, Boolean> sets = new IdentityHashMap<>();
+		for (ThrustCurveMotor m : motors) {
+			sets.put(motorToSet.get(m), Boolean.TRUE);
+		}
+		return sets.keySet();
+	}
 
+	private boolean matchesDescription(ThrustCurveMotor m, Motor.Type type, String manufacturer,
+			String upperDesignation, double diameter, double length) {
+		if (type != null && type != motorToSet.get(m).getType())
+			return false;
+		if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+			return false;
+		if (upperDesignation != null &&
+				!m.getDesignation().toUpperCase().contains(upperDesignation) &&
+				!upperDesignation.contains(m.getCommonName().toUpperCase()))
+			return false;
+		if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > DIMENSION_TOLERANCE))
+			return false;
+		if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > DIMENSION_TOLERANCE))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Return all motors with the specified digest, in the order of the database.
+	 *
+	 * @param digest	the motor digest, or null.
+	 * @return			the motors with the digest, or an empty list.
+	 */
+	public List<ThrustCurveMotor> findMotorsByDigest(String digest) {
+		if (digest == null) {
+			return Collections.emptyList();
+		}
+		List<ThrustCurveMotor> motors = digestIndex.get(digest);
+		if (motors == null) {
+			return Collections.emptyList();
+		}
+		List<ThrustCurveMotor> sorted = new ArrayList<>(motors);
+		sorted.sort(databaseOrder);
+		return sorted;
+	}
+
+	/**
+	 * Return all motors whose diameter is within the specified range (inclusive),
+	 * ordered by diameter.
+	 */
+	public List<ThrustCurveMotor> findMotorsByDiameter(double min, double max) {
+		return diameterIndex.find(min, max);
+	}
+
+	/**
+	 * Return all motors whose length is within the specified range (inclusive),
+	 * ordered by length.
+	 */
+	public List<ThrustCurveMotor> findMotorsByLength(double min, double max) {
+		return lengthIndex.find(min, max);
+	}
+
+	/**
+	 * Return all motors whose estimated total impulse is within the specified range
+	 * (inclusive), ordered by total impulse.
+	 */
+	public List<ThrustCurveMotor> findMotorsByTotalImpulse(double min, double max) {
+		return impulseIndex.find(min, max);
 	}
 
 	/**
@@ -84,28 +204,226 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		return Collections.unmodifiableList(motorSets);
 	}
 
+	/**
+	 * Return the ThrustCurveMotorSets of a manufacturer, in the order of the database.
+	 */
+	public List<ThrustCurveMotorSet> getMotorSets(Manufacturer manufacturer) {
+		List<ThrustCurveMotorSet> sets = manufacturerIndex.get(manufacturer);
+		return (sets != null) ? Collections.unmodifiableList(sets) : Collections.emptyList();
+	}
+
+	/**
+	 * Return the ThrustCurveMotorSets of a motor type, in the order of the database.
+	 */
+	public List<ThrustCurveMotorSet> getMotorSets(Motor.Type type) {
+		List<ThrustCurveMotorSet> sets = typeIndex.get(type);
+		return (sets != null) ? Collections.unmodifiableList(sets) : Collections.emptyList();
+	}
+
+	/**
+	 * Return the number of motors in the database.
+	 */
+	public int getMotorCount() {
+		return motorToSet.size();
+	}
+
 	/**
 	 * Add a motor to the database. If a matching ThrustCurveMototSet is found,
 	 * the motor is added to that set, otherwise a new set is created and added to
 	 * the
 	 * database.
-	 * 
+	 *
 	 * @param motor the motor to add
 	 */
 	public void addMotor(ThrustCurveMotor motor) {
-		// Iterate from last to first, as this is most likely to hit early when loading
-		// files
-		for (int i = motorSets.size() - 1; i >= 0; i--) {
-			ThrustCurveMotorSet set = motorSets.get(i);
-			if (set.matches(motor)) {
-				set.addMotor(motor);
-				return;
+		SetKey key = new SetKey(motor.getManufacturer(), motor.getDesignation());
+		List<ThrustCurveMotorSet> candidates = setIndex.computeIfAbsent(key, k -> new ArrayList<>(1));
+
+		// Use the last matching set, as when the sets were scanned from last to first
+		ThrustCurveMotorSet set = null;
+		for (int i = candidates.size() - 1; i >= 0; i--) {
+			if (candidates.get(i).matches(motor)) {
+				set = candidates.get(i);
+				break;
+			}
+		}
+
+		if (set == null) {
+			set = new ThrustCurveMotorSet();
+			set.addMotor(motor);
+			setOrdinals.put(set, motorSets.size());
+			motorSets.add(set);
+			candidates.add(set);
+			manufacturerIndex.computeIfAbsent(set.getManufacturer(), m -> new ArrayList<>()).add(set);
+			typeIndex.computeIfAbsent(set.getType(), t -> new ArrayList<>()).add(set);
+			indexMotor(motor, set);
+			return;
+		}
+
+		// The set may replace an existing motor or ignore the new one, and may change its type
+		List<ThrustCurveMotor> before = set.getMotors();
+		Motor.Type typeBefore = set.getType();
+		set.addMotor(motor);
+		List<ThrustCurveMotor> after = set.getMotors();
+
+		for (ThrustCurveMotor m : before) {
+			if (indexOf(after, m) < 0) {
+				unindexMotor(m);
 			}
 		}
+		if (indexOf(after, motor) >= 0) {
+			indexMotor(motor, set);
+		} else {
+			log.debug("Motor " + motor + " already present in " + set);
+		}
+
+		if (set.getType() != typeBefore) {
+			moveType(set, typeBefore);
+		}
+	}
 
-		ThrustCurveMotorSet newSet = new ThrustCurveMotorSet();
-		newSet.addMotor(motor);
-		motorSets.add(newSet);
+	private void moveType(ThrustCurveMotorSet set, Motor.Type typeBefore) {
+		List<ThrustCurveMotorSet> old = typeIndex.get(typeBefore);
+		for (int i = 0; i < old.size(); i++) {
+			if (old.get(i) == set) {
+				old.remove(i);
+				break;
+			}
+		}
+		List<ThrustCurveMotorSet> sets = typeIndex.computeIfAbsent(set.getType(), t -> new ArrayList<>());
+		int ordinal = setOrdinals.get(set);
+		int pos = sets.size();
+		while (pos > 0 && setOrdinals.get(sets.get(pos - 1)) > ordinal) {
+			pos--;
+		}
+		sets.add(pos, set);
 	}
 
+	private void indexMotor(ThrustCurveMotor motor, ThrustCurveMotorSet set) {
+		motorToSet.put(motor, set);
+		digestIndex.computeIfAbsent(motor.getDigest(), d -> new ArrayList<>(1)).add(motor);
+		diameterIndex.add(motor);
+		lengthIndex.add(motor);
+		impulseIndex.add(motor);
+	}
+
+	private void unindexMotor(ThrustCurveMotor motor) {
+		motorToSet.remove(motor);
+		List<ThrustCurveMotor> digestMotors = digestIndex.get(motor.getDigest());
+		if (digestMotors != null) {
+			removeIdentical(digestMotors, motor);
+			if (digestMotors.isEmpty()) {
+				digestIndex.remove(motor.getDigest());
+			}
+		}
+		diameterIndex.remove(motor);
+		lengthIndex.remove(motor);
+		impulseIndex.remove(motor);
+	}
+
+	private static int indexOf(List<ThrustCurveMotor> motors, ThrustCurveMotor motor) {
+		for (int i = 0; i < motors.size(); i++) {
+			if (motors.get(i) == motor) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static void removeIdentical(List<ThrustCurveMotor> motors, ThrustCurveMotor motor) {
+		int index = indexOf(motors, motor);
+		if (index >= 0) {
+			motors.remove(index);
+		}
+	}
+
+
+	/**
+	 * Key of the sets a motor may belong to.  Sets only contain motors of the same
+	 * manufacturer and designation (ignoring case).
+	 */
+	private static class SetKey {
+		private final Manufacturer manufacturer;
+		private final String designation;
+
+		SetKey(Manufacturer manufacturer, String designation) {
+			this.manufacturer = manufacturer;
+			this.designation = designation.toUpperCase(Locale.ROOT);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SetKey)) {
+				return false;
+			}
+			SetKey other = (SetKey) obj;
+			return manufacturer == other.manufacturer && designation.equals(other.designation);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(manufacturer) * 31 + designation.hashCode();
+		}
+	}
+
+
+	/**
+	 * A sorted index of motors by a numeric attribute, supporting range queries.
+	 * Motors whose attribute is NaN are kept separately.
+	 */
+	private static class RangeIndex {
+		private final NavigableMap<Double, List<ThrustCurveMotor>> map = new TreeMap<>();
+		private final List<ThrustCurveMotor> undefined = new ArrayList<>();
+		private final ToDoubleFunction<ThrustCurveMotor> attribute;
+
+		RangeIndex(ToDoubleFunction<ThrustCurveMotor> attribute) {
+			this.attribute = attribute;
+		}
+
+		void add(ThrustCurveMotor motor) {
+			double value = attribute.applyAsDouble(motor);
+			if (Double.isNaN(value)) {
+				undefined.add(motor);
+				return;
+			}
+			map.computeIfAbsent(value, v -> new ArrayList<>(1)).add(motor);
+		}
+
+		void remove(ThrustCurveMotor motor) {
+			double value = attribute.applyAsDouble(motor);
+			if (Double.isNaN(value)) {
+				removeIdentical(undefined, motor);
+				return;
+			}
+			List<ThrustCurveMotor> motors = map.get(value);
+			if (motors != null) {
+				removeIdentical(motors, motor);
+				if (motors.isEmpty()) {
+					map.remove(value);
+				}
+			}
+		}
+
+		List<ThrustCurveMotor> find(double min, double max) {
+			List<ThrustCurveMotor> result = new ArrayList<>();
+			if (!(min <= max)) {
+				return result;
+			}
+			for (List<ThrustCurveMotor> motors : map.subMap(min, true, max, true).values()) {
+				result.addAll(motors);
+			}
+			return result;
+		}
+
+		/**
+		 * Return the motors that may be within the tolerance of the value.  The range is
+		 * widened to be safe against rounding, and motors with an undefined value are
+		 * included, since a NaN never exceeds a tolerance.
+		 */
+		List<ThrustCurveMotor> findCandidates(double value, double tolerance) {
+			List<ThrustCurveMotor> result = find(value - 2 * tolerance, value + 2 * tolerance);
+			result.addAll(undefined);
+			return result;
+		}
+	}
 }
@@ -7,7 +7,6 @@ import java.util.Collections;
 import java.util.EventObject;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +35,7 @@ import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.InsideColorComponent;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.RocketSnapshot;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.extension.SimulationExtension;
@@ -63,13 +63,32 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	private final List<String> file_extensions = Arrays.asList("ork", "ork.gz", "rkt", "rkt.gz");	// Possible extensions of an OpenRocket document
 	/**
 	 * The minimum number of undo levels that are stored.
+	 * 
+	 * @deprecated	the undo history is limited by {@link #UNDO_MEMORY_BUDGET} instead, keeping
+	 * 				at least {@link #MIN_UNDO_LEVELS} levels.  This constant is no longer used.
 	 */
+	@Deprecated
 	public static final int UNDO_LEVELS = 50;
 	/**
 	 * The margin of the undo levels.  After the number of undo levels exceeds 
 	 * UNDO_LEVELS by this amount the undo is purged to that length.
+	 * 
+	 * @deprecated	the undo history is limited by {@link #UNDO_MEMORY_BUDGET} instead.  This
+	 * 				constant is no longer used.
 	 */
+	@Deprecated
 	public static final int UNDO_MARGIN = 10;
+	/**
+	 * The minimum number of undo levels that are stored, regardless of the memory used.
+	 */
+	public static final int MIN_UNDO_LEVELS = 10;
+	/**
+	 * The estimated amount of memory the undo history may use, in bytes.  When the
+	 * history exceeds this, the oldest undo levels are purged, keeping at least
+	 * MIN_UNDO_LEVELS levels.  The memory used is estimated from rough per-component
+	 * sizes, see {@link RocketSnapshot#getEstimatedSize()}.
+	 */
+	public static final long UNDO_MEMORY_BUDGET = 32L * 1024 * 1024;
 	
 	public static final String SIMULATION_NAME_PREFIX = "Simulation ";
 	
@@ -90,10 +109,11 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	
 	/** 
 	 * The undo history of the rocket.   Whenever a new undo position is created while the
-	 * rocket is in "dirty" state, the rocket is copied here.
+	 * rocket is in "dirty" state, a snapshot of the rocket is stored here.  Consecutive
+	 * snapshots share the copies of unchanged components.
 	 */
-	private final LinkedList<Rocket> undoHistory = new LinkedList<>();
-	private final LinkedList<String> undoDescription = new LinkedList<>();
+	private final List<RocketSnapshot> undoHistory = new ArrayList<>();
+	private final List<String> undoDescription = new ArrayList<>();
 	
 	/**
 	 * The position in the undoHistory we are currently at.  If modifications have been
@@ -534,21 +554,43 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	 * 
 	 */
 	private void maintainMaximumUndoSize() {
-		if (undoHistory.size() > UNDO_LEVELS + UNDO_MARGIN && undoPosition > UNDO_MARGIN) {
-			for (int i = 0; i < UNDO_MARGIN; i++) {
-				undoHistory.removeFirst();
-				undoDescription.removeFirst();
-				undoPosition--;
-			}
+		long size = getUndoHistorySize();
+		while (size > UNDO_MEMORY_BUDGET && undoHistory.size() > MIN_UNDO_LEVELS && undoPosition > 0) {
+			// The copies not shared with the next snapshot are released
+			RocketSnapshot removed = undoHistory.remove(0);
+			undoDescription.remove(0);
+			undoPosition--;
+			RocketSnapshot first = undoHistory.get(0);
+			size += first.getEstimatedSize() - first.getEstimatedAddedSize() - removed.getEstimatedSize();
 		}
 	}
 
+	/**
+	 * Return an estimate of the memory used by the undo history in bytes.
+	 */
+	private long getUndoHistorySize() {
+		long size = undoHistory.get(0).getEstimatedSize();
+		for (int i = 1; i < undoHistory.size(); i++) {
+			size += undoHistory.get(i).getEstimatedAddedSize();
+		}
+		return size;
+	}
+
+	/**
+	 * Create a snapshot of the current rocket state, sharing the unchanged component copies
+	 * with the latest snapshot of the undo history.
+	 */
+	private RocketSnapshot createSnapshot() {
+		RocketSnapshot previous = undoHistory.isEmpty() ? null : undoHistory.get(undoHistory.size() - 1);
+		return RocketSnapshot.create(rocket, previous);
+	}
+
 	/**
 	 * @param description
 	 */
 	private void addStateToUndoHistory(String description) {
 		// Add the current state to the undo history
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(createSnapshot());
 		undoDescription.add(null);
 		nextDescription = description;
 		undoPosition++;
@@ -637,7 +679,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		undoHistory.clear();
 		undoDescription.clear();
 		
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(createSnapshot());
 		undoDescription.add(null);
 		undoPosition = 0;
 		
@@ -680,8 +722,8 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 	 */
 	private void removeRedoInfo() {
 		while (undoPosition < undoHistory.size() - 1) {
-			undoHistory.removeLast();
-			undoDescription.removeLast();
+			undoHistory.remove(undoHistory.size() - 1);
+			undoDescription.remove(undoDescription.size() - 1);
 		}
 	}
 	
@@ -758,12 +800,12 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 				logUndoError("undo position inconsistency");
 			}
 			// Modifications have been made, save the state and restore previous state
-			undoHistory.add(rocket.copyWithOriginalID());
+			undoHistory.add(createSnapshot());
 			undoDescription.add(null);
 		}
 		
 		rocket.checkComponentStructure();
-		rocket.loadFrom(undoHistory.get(undoPosition));
+		rocket.loadFrom(undoHistory.get(undoPosition).toRocket());
 		rocket.checkComponentStructure();
 	}
 	
@@ -785,7 +827,7 @@ public class OpenRocketDocument implements ComponentChangeListener, StateChangeL
 		
 		undoPosition++;
 		
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		rocket.loadFrom(undoHistory.get(undoPosition).toRocket());
 	}
 	
 	
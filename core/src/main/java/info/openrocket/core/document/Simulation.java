@@ -640,9 +640,23 @@ public class Simulation implements ChangeSource, Cloneable {
 	 * @return	a new deep copy of the simulation and rocket with the same conditions and properties.
 	 */
 	public Simulation duplicateSimulation(Rocket newRocket) {
+		return duplicateSimulation(this.document, newRocket);
+	}
+
+	/**
+	 * Create a duplicate of this simulation with the specified rocket, attached to the
+	 * specified document.  Passing <code>null</code> as the document creates a detached
+	 * simulation, which does not fire change events to the original document when it is
+	 * simulated (e.g. when it is run in a background batch).
+	 *
+	 * @param newDocument	the document of the new simulation, or <code>null</code>.
+	 * @param newRocket		the rocket for the new simulation.
+	 * @return	a new deep copy of the simulation with the same conditions and properties.
+	 */
+	public Simulation duplicateSimulation(OpenRocketDocument newDocument, Rocket newRocket) {
 		mutex.lock("duplicateSimulation");
 		try {
-			final Simulation newSim = new Simulation(this.document, newRocket);
+			final Simulation newSim = new Simulation(newDocument, newRocket);
 			newSim.name = this.name;
 			newSim.configId = this.configId;
 			newSim.options.copyConditionsFrom(this.options);
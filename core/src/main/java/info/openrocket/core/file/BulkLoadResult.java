@@ -0,0 +1,84 @@
+package info.openrocket.core.file;
+
+import java.io.File;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.logging.WarningSet;
+
+/**
+ * The result of loading a single file with a {@link BulkRocketLoader}.
+ */
+public class BulkLoadResult {
+
+	private final int index;
+	private final File file;
+	private final OpenRocketDocument document;
+	private final WarningSet warnings;
+	private final RocketLoadException exception;
+	private final long loadTimeMillis;
+
+	BulkLoadResult(int index, File file, OpenRocketDocument document, WarningSet warnings,
+			RocketLoadException exception, long loadTimeMillis) {
+		this.index = index;
+		this.file = file;
+		this.document = document;
+		this.warnings = warnings;
+		this.exception = exception;
+		this.loadTimeMillis = loadTimeMillis;
+	}
+
+	/**
+	 * @return	the index of the file in the list of files loaded.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return	the file that was loaded.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return	the loaded document, or <code>null</code> if the file could not be loaded.
+	 */
+	public OpenRocketDocument getDocument() {
+		return document;
+	}
+
+	/**
+	 * @return	the warnings produced while loading the file.
+	 */
+	public WarningSet getWarnings() {
+		return warnings;
+	}
+
+	/**
+	 * @return	the exception that caused loading to fail, or <code>null</code> if the file was loaded.
+	 */
+	public RocketLoadException getException() {
+		return exception;
+	}
+
+	/**
+	 * @return	the wall-clock time loading the file took, in milliseconds.
+	 */
+	public long getLoadTimeMillis() {
+		return loadTimeMillis;
+	}
+
+	/**
+	 * @return	whether the file was loaded successfully.
+	 */
+	public boolean isSuccessful() {
+		return exception == null;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkLoadResult[index=" + index + ", file=" + file + ", successful=" + isSuccessful() +
+				", warnings=" + warnings.size() + ", loadTime=" + loadTimeMillis + "ms]";
+	}
+}
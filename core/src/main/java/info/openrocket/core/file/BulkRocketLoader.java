@@ -0,0 +1,139 @@
+package info.openrocket.core.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Loads many rocket design files concurrently.
+ * <p>
+ * Each file is loaded by its own {@link GeneralRocketLoader}, so any file type supported
+ * by it (OpenRocket, RockSim and RASAero files, compressed or not) can be loaded.  The
+ * files are loaded on a {@link ForkJoinPool} with a bounded number of threads.  All
+ * OpenRocket files share a {@link CachingMotorFinder}, so each distinct motor is looked up
+ * in the motor database only once.  RASAero files name their motors differently and match
+ * them against their own copy of the motor list instead.  Component presets are resolved
+ * through the shared preset database.
+ * <p>
+ * A file that fails to load does not stop the others; its exception is available from
+ * the corresponding result, together with the warnings and the time taken to load each file.
+ * <p>
+ * The motor and component preset databases should be fully loaded and must not be
+ * modified while files are being loaded.
+ */
+public class BulkRocketLoader {
+	private static final Logger log = LoggerFactory.getLogger(BulkRocketLoader.class);
+
+	private final ForkJoinPool pool;
+	private final boolean ownPool;
+	private final CachingMotorFinder motorFinder = new CachingMotorFinder();
+
+	/**
+	 * Construct a loader that uses as many threads as there are processors available.
+	 */
+	public BulkRocketLoader() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct a loader that uses the specified number of worker threads.
+	 *
+	 * @param threadCount	the maximum number of files to load concurrently.
+	 */
+	public BulkRocketLoader(int threadCount) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		this.pool = new ForkJoinPool(threadCount);
+		this.ownPool = true;
+	}
+
+	/**
+	 * Construct a loader that uses the specified pool for loading the files.  The pool is
+	 * not shut down by {@link #shutdown()}.
+	 *
+	 * @param pool	the pool to load the files in.
+	 */
+	public BulkRocketLoader(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownPool = false;
+	}
+
+	/**
+	 * Load the specified files and wait for all of them to finish.
+	 *
+	 * @param files		the files to load.
+	 * @return			the results of loading the files, in the order of the files.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.  Files
+	 * 								that have not yet started loading are not loaded in this case.
+	 */
+	public List<BulkLoadResult> load(List<File> files) throws InterruptedException {
+		List<ForkJoinTask<BulkLoadResult>> tasks = new ArrayList<>(files.size());
+		for (int i = 0; i < files.size(); i++) {
+			final int index = i;
+			final File file = files.get(i);
+			tasks.add(pool.submit(() -> loadFile(index, file)));
+		}
+
+		List<BulkLoadResult> results = new ArrayList<>(tasks.size());
+		try {
+			for (ForkJoinTask<BulkLoadResult> task : tasks) {
+				results.add(task.get());
+			}
+		} catch (InterruptedException e) {
+			for (ForkJoinTask<BulkLoadResult> task : tasks) {
+				task.cancel(false);
+			}
+			throw e;
+		} catch (ExecutionException e) {
+			throw new BugException("Loading task threw an exception", e.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * @return	the motor finder shared by all files loaded by this loader.
+	 */
+	public CachingMotorFinder getMotorFinder() {
+		return motorFinder;
+	}
+
+	/**
+	 * Shut down the thread pool, if it was created by this loader.  The loader cannot be
+	 * used after calling this method.
+	 */
+	public void shutdown() {
+		if (ownPool) {
+			pool.shutdown();
+		}
+	}
+
+
+	private BulkLoadResult loadFile(int index, File file) {
+		GeneralRocketLoader loader = new GeneralRocketLoader(file, motorFinder);
+		OpenRocketDocument document = null;
+		RocketLoadException exception = null;
+
+		long t0 = System.currentTimeMillis();
+		try {
+			document = loader.load();
+		} catch (RocketLoadException e) {
+			log.debug("Loading " + file + " failed", e);
+			exception = e;
+		}
+		long t1 = System.currentTimeMillis();
+
+		WarningSet warnings = loader.getWarnings().clone();
+		return new BulkLoadResult(index, file, document, warnings, exception, t1 - t0);
+	}
+}
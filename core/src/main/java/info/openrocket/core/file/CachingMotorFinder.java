@@ -0,0 +1,70 @@
+package info.openrocket.core.file;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.motor.Motor;
+
+/**
+ * A MotorFinder that caches the motors found by another motor finder, so that
+ * documents loaded together resolve each distinct motor only once.  The warnings
+ * produced when a motor was first looked up are added again to the warning set of
+ * each later lookup of the same motor.
+ * <p>
+ * This class is thread-safe if the underlying motor finder is.  The cached results
+ * do not reflect later changes to the motor database, so an instance should only be
+ * used for a limited time, e.g. for loading a set of documents.
+ */
+public class CachingMotorFinder implements MotorFinder {
+
+	private final MotorFinder finder;
+	private final Map<Key, Result> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Construct a caching motor finder that searches the motor database.
+	 */
+	public CachingMotorFinder() {
+		this(new DatabaseMotorFinder());
+	}
+
+	/**
+	 * @param finder	the motor finder whose results to cache.
+	 */
+	public CachingMotorFinder(MotorFinder finder) {
+		this.finder = finder;
+	}
+
+	@Override
+	public Motor findMotor(Motor.Type type, String manufacturer, String designation, double diameter,
+			double length, String digest, WarningSet warnings) {
+		Key key = new Key(type, manufacturer, designation, diameter, length, digest);
+		Result result = cache.get(key);
+		if (result == null) {
+			WarningSet found = new WarningSet();
+			Motor motor = finder.findMotor(type, manufacturer, designation, diameter, length, digest, found);
+			found.immute();
+			result = new Result(motor, found);
+			Result previous = cache.putIfAbsent(key, result);
+			if (previous != null) {
+				result = previous;
+			}
+		}
+		warnings.addAll(result.warnings);
+		return result.motor;
+	}
+
+	/**
+	 * @return	the number of distinct motors looked up so far.
+	 */
+	public int getCacheSize() {
+		return cache.size();
+	}
+
+	private record Key(Motor.Type type, String manufacturer, String designation, Double diameter,
+			Double length, String digest) {
+	}
+
+	private record Result(Motor motor, WarningSet warnings) {
+	}
+}
@@ -8,6 +8,7 @@ public class DocumentLoadingContext {
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private boolean deferFlightData = false;
 
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +42,17 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 
+
+	/**
+	 * Return whether the data points of stored simulations are read only when the flight
+	 * data of a simulation is first accessed.
+	 */
+	public boolean isDeferFlightData() {
+		return deferFlightData;
+	}
+
+	public void setDeferFlightData(boolean deferFlightData) {
+		this.deferFlightData = deferFlightData;
+	}
+
 }
@@ -54,12 +54,24 @@ public class GeneralRocketLoader {
 
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
+	private boolean deferFlightData = false;
 	private final OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
 
 	public GeneralRocketLoader(File file) {
+		this(file, new DatabaseMotorFinder());
+	}
+
+	/**
+	 * Construct a loader for a file that resolves the motors of the document using the
+	 * specified motor finder.
+	 *
+	 * @param file			the file to load.
+	 * @param motorFinder	the motor finder to use.
+	 */
+	public GeneralRocketLoader(File file, MotorFinder motorFinder) {
 		this.baseFile = file;
 		this.jarURL = null;
-		this.motorFinder = new DatabaseMotorFinder();
+		this.motorFinder = motorFinder;
 	}
 
 	public GeneralRocketLoader(URL jarURL) {
@@ -68,6 +80,19 @@ public class GeneralRocketLoader {
 		this.motorFinder = new DatabaseMotorFinder();
 	}
 
+	/**
+	 * Set whether the data points of simulations stored in OpenRocket files are read only
+	 * when the flight data of a simulation is first accessed.  This makes loading documents
+	 * with much stored simulation data faster and the data uses less memory until it is
+	 * accessed.  The summary values of such simulations are read from the file.  The
+	 * default is to read all data points while loading.
+	 *
+	 * @param deferFlightData	whether to defer reading the data points.
+	 */
+	public void setDeferFlightData(boolean deferFlightData) {
+		this.deferFlightData = deferFlightData;
+	}
+
 	/**
 	 * Loads a rocket from the File object used in the constructor
 	 */
@@ -252,6 +277,7 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setDeferFlightData(deferFlightData);
 		loader.load(context, source, fileName);
 		warnings.addAll(loader.getWarnings());
 
@@ -0,0 +1,394 @@
+package info.openrocket.core.file.motor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * A compact binary database of thrust curve motors.
+ * <p>
+ * The file consists of a header, a table of the distinct strings, a fixed-size record
+ * per motor referring to the string table, the packed double arrays of the delays,
+ * time points, thrust points and CG coordinates of all motors, and a prebuilt index of
+ * the motors sorted by digest.  All values are big-endian.  The format is versioned,
+ * so a file written by an incompatible version is rejected instead of being misread.
+ * <p>
+ * A database is read from a memory-mapped file or from a buffer, and only the header
+ * and the string table are decoded when it is opened.  {@link ThrustCurveMotor} objects
+ * are materialized from the buffer when they are first accessed, and the digest index
+ * allows finding motors without materializing the others.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class BinaryMotorDatabase {
+
+	/** The file name extension of motor database files */
+	public static final String EXTENSION = "motordb";
+
+	private static final int MAGIC = 0x4f52_4d44; // "ORMD"
+	private static final int VERSION = 1;
+
+	/** Size of a motor record in bytes */
+	private static final int RECORD_SIZE = 9 * 4 + 1 + 3 * 8 + 3 * 4;
+
+	private final ByteBuffer buffer;
+	private final String[] strings;
+	private final int motorCount;
+	private final int recordOffset;
+	private final int dataOffset;
+	private final int indexOffset;
+
+	private final ThrustCurveMotor[] motors;
+	private final List<ThrustCurveMotor> motorList = new MotorList();
+
+	/**
+	 * Open a database from a buffer.  The buffer must not be modified afterwards.
+	 *
+	 * @param buffer		the buffer containing the database, from its position to its limit.
+	 * @throws IOException	if the buffer does not contain a valid database of a supported version.
+	 */
+	public BinaryMotorDatabase(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer.slice();
+		try {
+			ByteBuffer b = this.buffer.duplicate();
+			if (b.getInt() != MAGIC) {
+				throw new IOException("Not a motor database file");
+			}
+			int version = b.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported motor database version " + version + ", expected " + VERSION);
+			}
+			motorCount = b.getInt();
+			recordOffset = b.getInt();
+			dataOffset = b.getInt();
+			indexOffset = b.getInt();
+			if (motorCount < 0 || recordOffset + (long) motorCount * RECORD_SIZE > dataOffset ||
+					dataOffset > indexOffset || indexOffset + 4L * motorCount > this.buffer.limit()) {
+				throw new IOException("Corrupt motor database header");
+			}
+
+			strings = new String[b.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[b.getInt()];
+				b.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+			throw new IOException("Corrupt motor database", e);
+		}
+		motors = new ThrustCurveMotor[motorCount];
+	}
+
+	/**
+	 * Open a database by memory-mapping a file.
+	 */
+	public static BinaryMotorDatabase open(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return new BinaryMotorDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Read a database from a stream, for example a resource within a JAR file.  The
+	 * stream is not closed.
+	 */
+	public static BinaryMotorDatabase read(InputStream in) throws IOException {
+		return new BinaryMotorDatabase(ByteBuffer.wrap(in.readAllBytes()));
+	}
+
+	/**
+	 * @return	the number of motors in the database.
+	 */
+	public int size() {
+		return motorCount;
+	}
+
+	/**
+	 * Return the digest of a motor without materializing the motor.
+	 */
+	public String getDigest(int index) {
+		checkIndex(index);
+		return string(recordOffset + index * RECORD_SIZE + 5 * 4);
+	}
+
+	/**
+	 * Return the string whose index is stored at a buffer position, or null for index -1.
+	 */
+	private String string(int position) {
+		int n = buffer.getInt(position);
+		return (n >= 0) ? strings[n] : null;
+	}
+
+	/**
+	 * Return a motor of the database, materializing it on first access.
+	 *
+	 * @throws IllegalArgumentException	if the motor data is invalid.
+	 */
+	public synchronized ThrustCurveMotor getMotor(int index) {
+		checkIndex(index);
+		ThrustCurveMotor motor = motors[index];
+		if (motor == null) {
+			motor = materialize(index);
+			motors[index] = motor;
+		}
+		return motor;
+	}
+
+	/**
+	 * Return a read-only list view of the motors, which materializes the motors as
+	 * they are accessed.
+	 */
+	public List<ThrustCurveMotor> getMotors() {
+		return motorList;
+	}
+
+	/**
+	 * Return the motors with the specified digest, using the prebuilt digest index.
+	 */
+	public List<ThrustCurveMotor> findMotorsByDigest(String digest) {
+		if (digest == null) {
+			return new ArrayList<>();
+		}
+		// Binary search for the first index entry with the digest
+		int low = 0;
+		int high = motorCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (digestOf(getDigest(indexEntry(mid))).compareTo(digest) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		List<ThrustCurveMotor> result = new ArrayList<>(1);
+		for (int i = low; i < motorCount; i++) {
+			int index = indexEntry(i);
+			String d = getDigest(index);
+			if (!digest.equals(digestOf(d))) {
+				break;
+			}
+			if (d != null) {
+				result.add(getMotor(index));
+			}
+		}
+		return result;
+	}
+
+	private int indexEntry(int i) {
+		return buffer.getInt(indexOffset + 4 * i);
+	}
+
+	private ThrustCurveMotor materialize(int index) {
+		int p = recordOffset + index * RECORD_SIZE;
+		ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer(string(p)))
+				.setCode(string(p + 4))
+				.setCommonName(string(p + 8))
+				.setDesignation(string(p + 12))
+				.setDescription(string(p + 16))
+				.setDigest(string(p + 20))
+				.setCaseInfo(string(p + 24))
+				.setPropellantInfo(string(p + 28))
+				.setMotorType(Motor.Type.valueOf(string(p + 32)));
+		p += 9 * 4;
+		builder.setAvailability(buffer.get(p) != 0);
+		p += 1;
+		builder.setDiameter(buffer.getDouble(p))
+				.setLength(buffer.getDouble(p + 8))
+				.setInitialMass(buffer.getDouble(p + 16));
+		p += 3 * 8;
+
+		int delayCount = buffer.getInt(p);
+		int pointCount = buffer.getInt(p + 4);
+		int data = dataOffset + 8 * buffer.getInt(p + 8);
+
+		ByteBuffer b = buffer.duplicate();
+		b.position(data);
+		builder.setStandardDelays(readDoubles(b, delayCount));
+		builder.setTimePoints(readDoubles(b, pointCount));
+		builder.setThrustPoints(readDoubles(b, pointCount));
+		double[] x = readDoubles(b, pointCount);
+		double[] y = readDoubles(b, pointCount);
+		double[] z = readDoubles(b, pointCount);
+		double[] w = readDoubles(b, pointCount);
+		Coordinate[] cg = new Coordinate[pointCount];
+		for (int i = 0; i < pointCount; i++) {
+			cg[i] = new Coordinate(x[i], y[i], z[i], w[i]);
+		}
+		builder.setCGPoints(cg);
+
+		return builder.build();
+	}
+
+	private static double[] readDoubles(ByteBuffer b, int count) {
+		double[] values = new double[count];
+		b.asDoubleBuffer().get(values);
+		b.position(b.position() + 8 * count);
+		return values;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= motorCount) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + motorCount);
+		}
+	}
+
+
+	/**
+	 * Write motors in the database format.  The stream is not closed.
+	 *
+	 * @param motors	the motors to write.
+	 * @param out		the stream to write to.
+	 */
+	public static void write(Collection<ThrustCurveMotor> motors, OutputStream out) throws IOException {
+		List<ThrustCurveMotor> list = new ArrayList<>(motors);
+		Map<String, Integer> stringIndex = new HashMap<>();
+		List<String> stringList = new ArrayList<>();
+
+		ByteArrayOutputStream records = new ByteArrayOutputStream(list.size() * RECORD_SIZE);
+		DataOutputStream rec = new DataOutputStream(records);
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		DataOutputStream dat = new DataOutputStream(data);
+		int dataPosition = 0;
+
+		for (ThrustCurveMotor m : list) {
+			String[] values = { m.getManufacturer().getDisplayName(), m.getCode(), m.getCommonName(),
+					m.getDesignation(), m.getDescription(), m.getDigest(), m.getCaseInfo(), m.getPropellantInfo(),
+					m.getMotorType().name() };
+			for (String s : values) {
+				if (s == null) {
+					rec.writeInt(-1);
+					continue;
+				}
+				Integer n = stringIndex.get(s);
+				if (n == null) {
+					n = stringList.size();
+					stringList.add(s);
+					stringIndex.put(s, n);
+				}
+				rec.writeInt(n);
+			}
+			rec.writeByte(m.isAvailable() ? 1 : 0);
+			rec.writeDouble(m.getDiameter());
+			rec.writeDouble(m.getLength());
+			rec.writeDouble(m.getInitialMass());
+
+			double[] delays = m.getStandardDelays();
+			double[] time = m.getTimePoints();
+			double[] thrust = m.getThrustPoints();
+			Coordinate[] cg = m.getCGPoints();
+			rec.writeInt(delays.length);
+			rec.writeInt(time.length);
+			rec.writeInt(dataPosition);
+
+			for (double d : delays) {
+				dat.writeDouble(d);
+			}
+			for (double d : time) {
+				dat.writeDouble(d);
+			}
+			for (double d : thrust) {
+				dat.writeDouble(d);
+			}
+			for (Coordinate c : cg) {
+				dat.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				dat.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				dat.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				dat.writeDouble(c.weight);
+			}
+			dataPosition += delays.length + 6 * time.length;
+		}
+		rec.flush();
+		dat.flush();
+
+		ByteArrayOutputStream stringTable = new ByteArrayOutputStream();
+		DataOutputStream str = new DataOutputStream(stringTable);
+		str.writeInt(stringList.size());
+		for (String s : stringList) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			str.writeInt(bytes.length);
+			str.write(bytes);
+		}
+		str.flush();
+
+		// Digest index, stable for equal digests
+		Integer[] order = new Integer[list.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i1, i2) -> digestOf(list.get(i1).getDigest()).compareTo(digestOf(list.get(i2).getDigest())));
+
+		final int headerSize = 6 * 4;
+		int recordOffset = headerSize + stringTable.size();
+		int dataOffset = recordOffset + records.size();
+		int indexOffset = dataOffset + data.size();
+
+		DataOutputStream dout = new DataOutputStream(out);
+		dout.writeInt(MAGIC);
+		dout.writeInt(VERSION);
+		dout.writeInt(list.size());
+		dout.writeInt(recordOffset);
+		dout.writeInt(dataOffset);
+		dout.writeInt(indexOffset);
+		stringTable.writeTo(dout);
+		records.writeTo(dout);
+		data.writeTo(dout);
+		for (int index : order) {
+			dout.writeInt(index);
+		}
+		dout.flush();
+	}
+
+	private static String digestOf(String digest) {
+		return (digest != null) ? digest : "";
+	}
+
+
+	/**
+	 * Read-only list of the motors, materializing them on access.
+	 */
+	private class MotorList extends AbstractList<ThrustCurveMotor> implements RandomAccess {
+		@Override
+		public ThrustCurveMotor get(int index) {
+			return getMotor(index);
+		}
+
+		@Override
+		public int size() {
+			return motorCount;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryMotorDatabase[motors=" + motorCount + ", strings=" + strings.length + "]";
+	}
+}
@@ -0,0 +1,327 @@
+package info.openrocket.core.file.motor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.motor.ThrustCurveMotor;
+
+/**
+ * A persistent cache of the motors parsed from user-supplied thrust curve files.
+ * <p>
+ * Each cached file is identified by its absolute path, size and modification time.
+ * For ZIP files the names and CRCs of the entries, read from the central directory,
+ * are additionally checked, so an archive that is replaced without changing its size
+ * or time stamp is still reparsed.  A file whose identity has changed is a cache miss.
+ * <p>
+ * The cache is stored as a header listing the files followed by a
+ * {@link BinaryMotorDatabase} containing the motors of all files, so cached motors are
+ * only materialized when they are requested.  A cache file that cannot be read is
+ * ignored and rebuilt.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class MotorFileCache {
+	private static final Logger log = LoggerFactory.getLogger(MotorFileCache.class);
+
+	private static final int MAGIC = 0x4f524d43;
+	private static final int VERSION = 1;
+
+	private final File cacheFile;
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+	private boolean modified = false;
+
+	/**
+	 * Sole constructor.  The cache is initially empty, use {@link #load()} to read the
+	 * cache file.
+	 *
+	 * @param cacheFile	the file the cache is stored in.
+	 */
+	public MotorFileCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+
+	public File getCacheFile() {
+		return cacheFile;
+	}
+
+	/**
+	 * Read the cache file, replacing the current contents of the cache.  A missing or
+	 * invalid cache file results in an empty cache.
+	 */
+	public synchronized void load() {
+		entries.clear();
+		modified = false;
+		if (!cacheFile.isFile()) {
+			return;
+		}
+
+		try {
+			byte[] data = Files.readAllBytes(cacheFile.toPath());
+			ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+			DataInputStream in = new DataInputStream(bytes);
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.info("Ignoring motor cache " + cacheFile + " of an unsupported version");
+				return;
+			}
+			int count = in.readInt();
+			List<Entry> list = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				FileKey key = new FileKey(in.readUTF(), in.readLong(), in.readLong(), in.readLong());
+				list.add(new Entry(key, in.readInt(), in.readInt(), null));
+			}
+
+			int offset = data.length - bytes.available();
+			BinaryMotorDatabase db = new BinaryMotorDatabase(ByteBuffer.wrap(data, offset, data.length - offset));
+			for (Entry e : list) {
+				if (e.first < 0 || e.count < 0 || e.first + e.count > db.size()) {
+					throw new IOException("Invalid motor range for " + e.key.path);
+				}
+				entries.put(e.key.path, new Entry(e.key, e.first, e.count, db));
+			}
+			log.info("Read motor cache " + cacheFile + " with " + entries.size() + " files");
+		} catch (IOException e) {
+			log.warn("Unable to read motor cache " + cacheFile + ", ignoring: " + e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Return the cached motors of a file, or <code>null</code> if the file is not
+	 * cached or has changed since it was cached.
+	 *
+	 * @param file	the motor file.
+	 * @return		the motors of the file, or <code>null</code>.
+	 */
+	public List<ThrustCurveMotor> get(File file) {
+		Entry e;
+		synchronized (this) {
+			e = entries.get(file.getAbsolutePath());
+		}
+		if (e == null) {
+			return null;
+		}
+		try {
+			if (!e.key.equals(FileKey.of(file))) {
+				return null;
+			}
+		} catch (IOException ex) {
+			return null;
+		}
+		return e.getMotors();
+	}
+
+	/**
+	 * Store the motors parsed from a file in the cache.
+	 *
+	 * @param file		the motor file.
+	 * @param motors	the motors parsed from the file.
+	 */
+	public void put(File file, List<ThrustCurveMotor> motors) {
+		FileKey key;
+		try {
+			key = FileKey.of(file);
+		} catch (IOException e) {
+			log.debug("Not caching motors of " + file + ": " + e);
+			return;
+		}
+		Entry entry = new Entry(key, motors);
+		synchronized (this) {
+			entries.put(key.path, entry);
+			modified = true;
+		}
+	}
+
+	/**
+	 * Remove the files that are not in the given collection from the cache.
+	 *
+	 * @param files	the files to retain.
+	 */
+	public synchronized void retain(Collection<File> files) {
+		Set<String> paths = new HashSet<>();
+		for (File f : files) {
+			paths.add(f.getAbsolutePath());
+		}
+		if (entries.keySet().retainAll(paths)) {
+			modified = true;
+		}
+	}
+
+	/**
+	 * @return	the number of files in the cache.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Write the cache file if the cache has been modified since it was read.  The file
+	 * is written to a temporary file first and then moved in place, so an interrupted
+	 * write does not corrupt an existing cache.
+	 *
+	 * @throws IOException	if the cache file cannot be written.
+	 */
+	public synchronized void save() throws IOException {
+		if (!modified) {
+			return;
+		}
+
+		List<Entry> list = new ArrayList<>(entries.values());
+		List<ThrustCurveMotor> motors = new ArrayList<>();
+		Map<Entry, Integer> first = new HashMap<>();
+		for (Entry e : list) {
+			first.put(e, motors.size());
+			motors.addAll(e.getMotors());
+		}
+
+		File dir = cacheFile.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+		File tmp = new File(cacheFile.getPath() + ".tmp");
+		try (OutputStream os = new BufferedOutputStream(new FileOutputStream(tmp))) {
+			DataOutputStream out = new DataOutputStream(os);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(list.size());
+			for (Entry e : list) {
+				out.writeUTF(e.key.path);
+				out.writeLong(e.key.size);
+				out.writeLong(e.key.lastModified);
+				out.writeLong(e.key.checksum);
+				out.writeInt(first.get(e));
+				out.writeInt(e.count);
+			}
+			out.flush();
+			BinaryMotorDatabase.write(motors, os);
+		}
+		Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		modified = false;
+		log.info("Wrote motor cache " + cacheFile + " with " + list.size() + " files and " + motors.size() + " motors");
+	}
+
+
+	/**
+	 * The identity of a motor file.
+	 */
+	private static final class FileKey {
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final long checksum;
+
+		FileKey(String path, long size, long lastModified, long checksum) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.checksum = checksum;
+		}
+
+		static FileKey of(File file) throws IOException {
+			if (!file.isFile()) {
+				throw new IOException("Not a file: " + file);
+			}
+			long checksum = 0;
+			if (file.getName().toLowerCase(Locale.ROOT).endsWith(".zip")) {
+				checksum = zipChecksum(file);
+			}
+			return new FileKey(file.getAbsolutePath(), file.length(), file.lastModified(), checksum);
+		}
+
+		/**
+		 * Combine the names and CRCs of the entries of a ZIP file.  Only the central
+		 * directory of the file is read.
+		 */
+		private static long zipChecksum(File file) throws IOException {
+			CRC32 crc = new CRC32();
+			try (ZipFile zip = new ZipFile(file)) {
+				Enumeration<? extends ZipEntry> e = zip.entries();
+				while (e.hasMoreElements()) {
+					ZipEntry entry = e.nextElement();
+					crc.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+					long c = entry.getCrc();
+					for (int i = 0; i < 8; i++) {
+						crc.update((int) (c >>> (8 * i)));
+					}
+				}
+			}
+			return crc.getValue();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof FileKey))
+				return false;
+			FileKey o = (FileKey) obj;
+			return path.equals(o.path) && size == o.size && lastModified == o.lastModified &&
+					checksum == o.checksum;
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode() ^ Long.hashCode(size) ^ Long.hashCode(lastModified) ^ Long.hashCode(checksum);
+		}
+	}
+
+	/**
+	 * The cached motors of a file, either held directly or as a range of a database.
+	 */
+	private static final class Entry {
+		private final FileKey key;
+		private final int first;
+		private final int count;
+		private final BinaryMotorDatabase database;
+		private final List<ThrustCurveMotor> motors;
+
+		Entry(FileKey key, int first, int count, BinaryMotorDatabase database) {
+			this.key = key;
+			this.first = first;
+			this.count = count;
+			this.database = database;
+			this.motors = null;
+		}
+
+		Entry(FileKey key, List<ThrustCurveMotor> motors) {
+			this.key = key;
+			this.first = 0;
+			this.count = motors.size();
+			this.database = null;
+			this.motors = Collections.unmodifiableList(new ArrayList<>(motors));
+		}
+
+		List<ThrustCurveMotor> getMotors() {
+			if (motors != null) {
+				return motors;
+			}
+			return database.getMotors().subList(first, first + count);
+		}
+	}
+}
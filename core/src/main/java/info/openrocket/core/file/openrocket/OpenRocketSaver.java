@@ -2,14 +2,19 @@ package info.openrocket.core.file.openrocket;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import info.openrocket.core.file.openrocket.savers.PhotoStudioSaver;
 import info.openrocket.core.logging.ErrorSet;
@@ -32,6 +37,7 @@ import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.FlightStepperType;
 import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.simulation.extension.SimulationExtension;
@@ -41,6 +47,15 @@ import info.openrocket.core.util.Config;
 import info.openrocket.core.util.Reflection;
 import info.openrocket.core.util.TextUtil;
 
+/**
+ * Saver for the OpenRocket .ork XML format.
+ * <p>
+ * The document is streamed to the output as it is written.  Flight data points and other
+ * repetitive elements are formatted into a reused line buffer instead of building
+ * intermediate strings.  When the simulation data is stored, the simulations are
+ * serialized concurrently into separate buffers, which are written to the output in
+ * document order, so the output is identical to that of a sequential save.
+ */
 public class OpenRocketSaver extends RocketSaver {
 	private static final Logger log = LoggerFactory.getLogger(OpenRocketSaver.class);
 	
@@ -66,9 +81,43 @@ public class OpenRocketSaver extends RocketSaver {
 	private static final int BYTES_PER_DATAPOINT_COMPRESSED = 100;
 	
 	
+	// Maximum number of serialized simulations buffered ahead per thread
+	private static final int SIMULATIONS_AHEAD_PER_THREAD = 2;
+	
+	private static final ClassValue<Reflection.Method> GET_ELEMENTS_METHODS = new ClassValue<>() {
+		@Override
+		protected Reflection.Method computeValue(Class<?> type) {
+			return findGetElementsMethod(type);
+		}
+	};
+	
+	
+	private final boolean parallelSimulations;
+	
 	private int indent;
 	private Writer dest;
 	
+	// Reused buffers for building and writing single lines
+	private final StringBuilder line = new StringBuilder(256);
+	private char[] lineChars = new char[256];
+	
+	/**
+	 * Construct a saver that serializes the simulations concurrently.
+	 */
+	public OpenRocketSaver() {
+		this(true);
+	}
+	
+	/**
+	 * Construct a saver.
+	 * 
+	 * @param parallelSimulations	whether to serialize the simulations concurrently using the
+	 * 								common fork-join pool.
+	 */
+	public OpenRocketSaver(boolean parallelSimulations) {
+		this.parallelSimulations = parallelSimulations;
+	}
+	
 	@Override
 	public void save(OutputStream output, OpenRocketDocument document, StorageOptions options, WarningSet warnings, ErrorSet errors) throws IOException {
 		
@@ -102,12 +151,18 @@ public class OpenRocketSaver extends RocketSaver {
 		// Save all simulations
 		writeln("<simulations>");
 		indent++;
-		boolean first = true;
-		for (Simulation s : document.getSimulations()) {
-			if (!first)
-				writeln("");
-			first = false;
-			saveSimulation(s, options.getSaveSimulationData());
+		List<Simulation> simulations = document.getSimulations();
+		if (parallelSimulations && options.getSaveSimulationData() && simulations.size() > 1 &&
+				ForkJoinPool.getCommonPoolParallelism() > 1) {
+			saveSimulationsInParallel(simulations, options.getSaveSimulationData());
+		} else {
+			boolean first = true;
+			for (Simulation s : simulations) {
+				if (!first)
+					writeln("");
+				first = false;
+				saveSimulation(s, s.getStatus(), options.getSaveSimulationData());
+			}
 		}
 		indent--;
 		writeln("</simulations>");
@@ -233,9 +288,10 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	
 	/**
-	 * Finds a getElements method somewhere in the *saver class hierarchy corresponding to the given component.
+	 * Finds a getElements method somewhere in the *saver class hierarchy corresponding to the given component class.
+	 * The methods are looked up once per component class, use {@link #GET_ELEMENTS_METHODS} to retrieve them.
 	 */
-	private static Reflection.Method findGetElementsMethod(RocketComponent component) {
+	private static Reflection.Method findGetElementsMethod(Class<?> componentClass) {
 		String currentclassname;
 		Class<?> currentclass;
 		String saverclassname;
@@ -243,7 +299,7 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		Reflection.Method mtr = null; // method-to-return
 		
-		currentclass = component.getClass();
+		currentclass = componentClass;
 		while ((currentclass != null) && (currentclass != Object.class)) {
 			currentclassname = currentclass.getSimpleName();
 			saverclassname = METHOD_PACKAGE + "." + currentclassname + METHOD_SUFFIX;
@@ -264,14 +320,14 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		// if( null == mtr ){
 		throw new BugException("Unable to find saving class for component " +
-				METHOD_PACKAGE + "." + component.getClass().getSimpleName() + " ... " + METHOD_SUFFIX);
+				METHOD_PACKAGE + "." + componentClass.getSimpleName() + " ... " + METHOD_SUFFIX);
 	}
 	
 	@SuppressWarnings("unchecked")
 	private void saveComponent(RocketComponent component) throws IOException {
 		log.debug("Saving component " + component.getComponentName());
 		
-		Reflection.Method m = findGetElementsMethod(component);
+		Reflection.Method m = GET_ELEMENTS_METHODS.get(component.getClass());
 		
 		// Get the strings to save
 		List<String> list = (List<String>) m.invokeStatic(component);
@@ -315,11 +371,91 @@ public class OpenRocketSaver extends RocketSaver {
 	}
 	
 	
-	private void saveSimulation(Simulation simulation, boolean saveSimulationData) throws IOException {
+	/**
+	 * Serialize the simulations into separate buffers concurrently and write the buffers
+	 * in order.  Only a limited number of serialized simulations are buffered ahead of
+	 * the one being written.
+	 */
+	private void saveSimulationsInParallel(List<Simulation> simulations, boolean saveSimulationData)
+			throws IOException {
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		final int ahead = pool.getParallelism() * SIMULATIONS_AHEAD_PER_THREAD;
+		final int simulationIndent = indent;
+		final int count = simulations.size();
+		
+		// The status is updated by the simulation itself and must be read on this thread
+		final List<Simulation.Status> statuses = new ArrayList<>(count);
+		for (Simulation s : simulations) {
+			statuses.add(s.getStatus());
+		}
+		
+		final List<ForkJoinTask<StringWriter>> tasks = new ArrayList<>(count);
+		try {
+			for (int i = 0; i < count; i++) {
+				for (int j = tasks.size(); j < Math.min(count, i + ahead); j++) {
+					final Simulation simulation = simulations.get(j);
+					final Simulation.Status status = statuses.get(j);
+					tasks.add(pool.submit(() ->
+							serializeSimulation(simulation, status, saveSimulationData, simulationIndent)));
+				}
+				
+				StringWriter buffer;
+				try {
+					buffer = tasks.get(i).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while saving simulations");
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw new BugException("Unable to save simulation", cause);
+				}
+				tasks.set(i, null);
+				
+				if (i > 0)
+					writeln("");
+				write(buffer.getBuffer());
+			}
+		} finally {
+			for (ForkJoinTask<StringWriter> task : tasks) {
+				if (task != null)
+					task.cancel(false);
+			}
+		}
+	}
+	
+	/**
+	 * Serialize a simulation into a new buffer using a separate saver.
+	 */
+	private static StringWriter serializeSimulation(Simulation simulation, Simulation.Status status,
+			boolean saveSimulationData, int indent) throws IOException {
+		OpenRocketSaver saver = new OpenRocketSaver(false);
+		StringWriter buffer = new StringWriter();
+		saver.dest = buffer;
+		saver.indent = indent;
+		saver.saveSimulation(simulation, status, saveSimulationData);
+		return buffer;
+	}
+	
+	/**
+	 * Save a simulation.
+	 * 
+	 * @param simulation			the simulation to save.
+	 * @param status				the current status of the simulation.
+	 * @param saveSimulationData	whether to save the simulated data.
+	 */
+	private void saveSimulation(Simulation simulation, Simulation.Status status, boolean saveSimulationData)
+			throws IOException {
 		SimulationOptions cond = simulation.getOptions();
 
 		Simulation.Status simStatus;
-		simStatus = saveSimulationData ? simulation.getStatus() : Simulation.Status.NOT_SIMULATED;
+		simStatus = saveSimulationData ? status : Simulation.Status.NOT_SIMULATED;
 
 		writeln("<simulation status=\"" + enumToXMLName(simStatus) + "\">");
 		indent++;
@@ -382,6 +518,17 @@ public class OpenRocketSaver extends RocketSaver {
 		}
 		
 		writeElement("timestep", cond.getTimeStep());
+		if (cond.getFlightStepperType() != FlightStepperType.RK4) {
+			writeElement("flightstepper", cond.getFlightStepperType().toStringValue());
+			writeElement("absolutetolerance", cond.getAbsoluteTolerance());
+			writeElement("relativetolerance", cond.getRelativeTolerance());
+		}
+		if (cond.isAerodynamicTable()) {
+			writeElement("aerodynamictable", true);
+		}
+		if (cond.isPrecomputedWind()) {
+			writeElement("precomputedwind", true);
+		}
 		
 		indent--;
 		writeln("</conditions>");
@@ -404,29 +551,20 @@ public class OpenRocketSaver extends RocketSaver {
 		
 		FlightData data = simulation.getSimulatedData();
 		if (data != null) {
-			String str = "<flightdata";
-			if (!Double.isNaN(data.getMaxAltitude()))
-				str += " maxaltitude=\"" + TextUtil.doubleToString(data.getMaxAltitude()) + "\"";
-			if (!Double.isNaN(data.getMaxVelocity()))
-				str += " maxvelocity=\"" + TextUtil.doubleToString(data.getMaxVelocity()) + "\"";
-			if (!Double.isNaN(data.getMaxAcceleration()))
-				str += " maxacceleration=\"" + TextUtil.doubleToString(data.getMaxAcceleration()) + "\"";
-			if (!Double.isNaN(data.getMaxMachNumber()))
-				str += " maxmach=\"" + TextUtil.doubleToString(data.getMaxMachNumber()) + "\"";
-			if (!Double.isNaN(data.getTimeToApogee()))
-				str += " timetoapogee=\"" + TextUtil.doubleToString(data.getTimeToApogee()) + "\"";
-			if (!Double.isNaN(data.getFlightTime()))
-				str += " flighttime=\"" + TextUtil.doubleToString(data.getFlightTime()) + "\"";
-			if (!Double.isNaN(data.getGroundHitVelocity()))
-				str += " groundhitvelocity=\"" + TextUtil.doubleToString(data.getGroundHitVelocity()) + "\"";
-			if (!Double.isNaN(data.getLaunchRodVelocity()))
-				str += " launchrodvelocity=\"" + TextUtil.doubleToString(data.getLaunchRodVelocity()) + "\"";
-			if (!Double.isNaN(data.getDeploymentVelocity()))
-				str += " deploymentvelocity=\"" + TextUtil.doubleToString(data.getDeploymentVelocity()) + "\"";
-			if (!Double.isNaN(data.getOptimumDelay()))
-				str += " optimumdelay=\"" + TextUtil.doubleToString(data.getOptimumDelay()) + "\"";
-			str += ">";
-			writeln(str);
+			line.setLength(0);
+			line.append("<flightdata");
+			appendAttribute("maxaltitude", data.getMaxAltitude());
+			appendAttribute("maxvelocity", data.getMaxVelocity());
+			appendAttribute("maxacceleration", data.getMaxAcceleration());
+			appendAttribute("maxmach", data.getMaxMachNumber());
+			appendAttribute("timetoapogee", data.getTimeToApogee());
+			appendAttribute("flighttime", data.getFlightTime());
+			appendAttribute("groundhitvelocity", data.getGroundHitVelocity());
+			appendAttribute("launchrodvelocity", data.getLaunchRodVelocity());
+			appendAttribute("deploymentvelocity", data.getDeploymentVelocity());
+			appendAttribute("optimumdelay", data.getOptimumDelay());
+			line.append('>');
+			writeLine();
 			indent++;
 			
 			for (Warning w : data.getWarningSet()) {
@@ -451,7 +589,7 @@ public class OpenRocketSaver extends RocketSaver {
 			}
 			
 			// Check whether to store data
-			if ((simulation.getStatus() == Simulation.Status.EXTERNAL) || // Always store external data
+			if ((status == Simulation.Status.EXTERNAL) || // Always store external data
 				saveSimulationData) {
 				for (int i = 0; i < data.getBranchCount(); i++) {
 					FlightDataBranch branch = data.getBranch(i);
@@ -577,15 +715,16 @@ public class OpenRocketSaver extends RocketSaver {
 			return;
 		
 		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<>(types.length);
-		for (FlightDataType type : types) {
-			data.add(branch.get(type));
+		double[][] data = new double[types.length][];
+		for (int i = 0; i < types.length; i++) {
+			data[i] = branch.getDoubleArray(types[i]);
 		}
 		
 		// Build the <databranch> tag
-		StringBuilder sb = new StringBuilder();
+		StringBuilder sb = line;
+		sb.setLength(0);
 		sb.append("<databranch name=\"");
-		sb.append(TextUtil.escapeXML(branch.getName()));
+		TextUtil.appendEscapedXML(sb, branch.getName());
 		sb.append("\" ");
 		
 		// Kevins version where typekeys are used
@@ -614,37 +753,43 @@ public class OpenRocketSaver extends RocketSaver {
 		for (int i = 0; i < types.length; i++) {
 			if (i > 0)
 				sb.append(",");
-			sb.append(TextUtil.escapeXML(types[i].getName()));
+			TextUtil.appendEscapedXML(sb, types[i].getName());
 		}
 		sb.append("\">");
-		writeln(sb.toString());
+		writeLine();
 		indent++;
 		
 		// Write events
 		for (FlightEvent event : branch.getEvents()) {
-			String eventStr = "<event time=\"" + TextUtil.doubleToString(event.getTime())
-					+ "\" type=\"" + enumToXMLName(event.getType()) + "\"";
+			sb.setLength(0);
+			sb.append("<event time=\"");
+			TextUtil.appendDouble(sb, event.getTime());
+			sb.append("\" type=\"").append(enumToXMLName(event.getType())).append('"');
 			
 			if (event.getSource() != null) {
-				eventStr += " source=\"" + TextUtil.escapeXML(event.getSource().getID()) + "\"";
+				sb.append(" source=\"");
+				TextUtil.appendEscapedXML(sb, event.getSource().getID());
+				sb.append('"');
 			}
 
 			if (event.getType() == FlightEvent.Type.SIM_WARN) {
-				eventStr += " id=\"" + TextUtil.escapeXML(((Warning) event.getData()).getID()) + "\"";
+				sb.append(" id=\"");
+				TextUtil.appendEscapedXML(sb, ((Warning) event.getData()).getID());
+				sb.append('"');
 			}
 			
 			if (event.getType() == FlightEvent.Type.SIM_ABORT) {
-				eventStr += " cause=\"" + enumToXMLName(((SimulationAbort)(event.getData())).getCause()) + "\"";
+				sb.append(" cause=\"").append(enumToXMLName(((SimulationAbort)(event.getData())).getCause())).append('"');
 			}
 
-			eventStr += "/>";
-			writeln(eventStr);
+			sb.append("/>");
+			writeLine();
 		}
 		
 		// Write the data
 		int length = branch.getLength();
 		for (int i = 0; i < length; i++) {
-			writeDataPointString(data, i, sb);
+			writeDataPoint(data, i);
 		}
 		
 		indent--;
@@ -678,34 +823,81 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	
 	
-	private void writeDataPointString(List<List<Double>> data, int index, StringBuilder sb)
-			throws IOException {
-		sb.setLength(0);
-		sb.append("<datapoint>");
-		for (int j = 0; j < data.size(); j++) {
+	private void writeDataPoint(double[][] data, int index) throws IOException {
+		line.setLength(0);
+		line.append("<datapoint>");
+		for (int j = 0; j < data.length; j++) {
 			if (j > 0)
-				sb.append(",");
-			sb.append(TextUtil.doubleToString(data.get(j).get(index)));
+				line.append(',');
+			TextUtil.appendDouble(line, data[j][index]);
 		}
-		sb.append("</datapoint>");
-		writeln(sb.toString());
+		line.append("</datapoint>");
+		writeLine();
 	}
 	
-	
+	/**
+	 * Append an attribute with a double value to the line buffer, unless the value is NaN.
+	 */
+	private void appendAttribute(String name, double value) {
+		if (Double.isNaN(value))
+			return;
+		line.append(' ').append(name).append("=\"");
+		TextUtil.appendDouble(line, value);
+		line.append('"');
+	}
 	
 	private void writeElement(String element, Object content) throws IOException {
-		if (content == null)
-			content = "";
-		writeln("<" + element + ">" + TextUtil.escapeXML(content) + "</" + element + ">");
+		line.setLength(0);
+		line.append('<').append(element).append('>');
+		TextUtil.appendEscapedXML(line, content);
+		line.append("</").append(element).append('>');
+		writeLine();
 	}
 	
 	private void writeln(String str) throws IOException {
-		if (str.length() == 0) {
-			dest.write("\n");
-			return;
+		if (str.length() > 0) {
+			writeIndent();
+			dest.write(str);
+		}
+		dest.write('\n');
+	}
+	
+	/**
+	 * Write the contents of the line buffer as a line.
+	 */
+	private void writeLine() throws IOException {
+		writeIndent();
+		write(line);
+		dest.write('\n');
+	}
+	
+	private void writeIndent() throws IOException {
+		for (int i = 0; i < indent; i++) {
+			dest.write(INDENT);
+		}
+	}
+	
+	/**
+	 * Write a character sequence without converting it into a string.
+	 */
+	private void write(CharSequence str) throws IOException {
+		final int length = str.length();
+		if (lineChars.length < Math.min(length, 8192)) {
+			lineChars = new char[Math.min(Integer.highestOneBit(length) * 2, 8192)];
+		}
+		for (int start = 0; start < length; start += lineChars.length) {
+			final int end = Math.min(length, start + lineChars.length);
+			if (str instanceof StringBuilder) {
+				((StringBuilder) str).getChars(start, end, lineChars, 0);
+			} else if (str instanceof StringBuffer) {
+				((StringBuffer) str).getChars(start, end, lineChars, 0);
+			} else {
+				for (int i = start; i < end; i++) {
+					lineChars[i - start] = str.charAt(i);
+				}
+			}
+			dest.write(lineChars, 0, end - start);
 		}
-		String s = INDENT.repeat(Math.max(0, indent)) + str + "\n";
-		dest.write(s);
 	}
 	
 	
@@ -0,0 +1,113 @@
+package info.openrocket.core.file.openrocket.importt;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.InflaterInputStream;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.util.BugException;
+
+/**
+ * A flight data branch whose data points are read only when the branch is needed.
+ * <p>
+ * The text content of the data points is stored compressed, one point per line, which
+ * takes much less memory than the parsed values.  The points are validated when they are
+ * stored, so that the same points are kept as when reading them immediately.  Each call to
+ * {@link #get()} parses the points into a new, mutable branch.
+ */
+class DeferredFlightDataBranch implements Supplier<FlightDataBranch> {
+	private final String name;
+	private final FlightDataType[] types;
+	private final double optimumAltitude;
+	private final double timeToOptimumAltitude;
+	private final List<FlightEvent> events;
+	private final byte[] points;
+	private final int pointCount;
+
+	/**
+	 * @param template		a branch containing the types, events and optimum values of the branch.
+	 * @param points		the deflated data points, separated by newlines.
+	 * @param pointCount	the number of data points.
+	 */
+	DeferredFlightDataBranch(FlightDataBranch template, byte[] points, int pointCount) {
+		this.name = template.getName();
+		this.types = template.getTypes();
+		this.optimumAltitude = template.getOptimumAltitude();
+		this.timeToOptimumAltitude = template.getTimeToOptimumAltitude();
+		this.events = template.getEvents();
+		this.points = points;
+		this.pointCount = pointCount;
+	}
+
+	/**
+	 * Return whether the branch contains time values.
+	 */
+	boolean hasTimeData() {
+		for (FlightDataType type : types) {
+			if (type == FlightDataType.TYPE_TIME) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public FlightDataBranch get() {
+		FlightDataBranch branch = new FlightDataBranch(name, types);
+		branch.setOptimumAltitude(optimumAltitude);
+		branch.setTimeToOptimumAltitude(timeToOptimumAltitude);
+		for (FlightEvent event : events) {
+			branch.addEvent(event);
+		}
+
+		String content;
+		try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(points))) {
+			content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new BugException("Unable to read deferred flight data", e);
+		}
+
+		int start = 0;
+		while (start < content.length()) {
+			int end = content.indexOf('\n', start);
+			if (end < 0) {
+				end = content.length();
+			}
+			addPoint(branch, content.substring(start, end));
+			start = end + 1;
+		}
+		if (branch.getLength() != pointCount) {
+			throw new BugException("Read " + branch.getLength() + " deferred data points instead of "
+					+ pointCount + " in branch " + name);
+		}
+
+		return branch;
+	}
+
+	/**
+	 * Parse a data point that was validated when it was stored, and add it to the branch.
+	 */
+	private void addPoint(FlightDataBranch branch, String point) {
+		String[] split = point.split(",");
+		if (split.length != types.length) {
+			throw new BugException("Deferred data point has " + split.length + " values instead of "
+					+ types.length + " in branch " + name);
+		}
+
+		double[] values = new double[split.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = DocumentConfig.stringToDouble(split[i]);
+		}
+
+		branch.addPoint();
+		for (int i = 0; i < types.length; i++) {
+			branch.setValue(types[i], values[i]);
+		}
+	}
+}
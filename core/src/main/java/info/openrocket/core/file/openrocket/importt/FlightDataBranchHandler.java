@@ -1,7 +1,14 @@
 package info.openrocket.core.file.openrocket.importt;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import info.openrocket.core.logging.Message;
 import info.openrocket.core.logging.SimulationAbort;
@@ -21,6 +28,7 @@ import info.openrocket.core.simulation.FlightEvent.Type;
 import info.openrocket.core.simulation.customexpression.CustomExpression;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.core.util.BugException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,12 +39,26 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
 	
+	// The compressed data points if reading them is deferred, otherwise null
+	private final Deflater deflater;
+	private final ByteArrayOutputStream deferredBytes;
+	private final Writer deferredPoints;
+	private int deferredCount = 0;
+	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
 	private static final Translator trans = Application.getTranslator();
 
+	/**
+	 * @param name			the name of the branch.
+	 * @param typeList		the comma-separated names of the data types.
+	 * @param simHandler	the handler of the simulation containing the branch.
+	 * @param context		the loading context.
+	 * @param defer			whether to store the data points for reading them later, see
+	 * 						{@link #getDeferredBranch()}.
+	 */
 	public FlightDataBranchHandler(String name, String typeList, SingleSimulationHandler simHandler,
-			DocumentLoadingContext context) {
+			DocumentLoadingContext context, boolean defer) {
 		this.simHandler = simHandler;
 		this.context = context;
 		String[] split = typeList.split(",");
@@ -50,6 +72,17 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// TODO: LOW: May throw an IllegalArgumentException
 		branch = new FlightDataBranch(name, types);
+		
+		if (defer) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+			deferredBytes = new ByteArrayOutputStream();
+			deferredPoints = new OutputStreamWriter(new DeflaterOutputStream(deferredBytes, deflater),
+					StandardCharsets.UTF_8);
+		} else {
+			deflater = null;
+			deferredBytes = null;
+			deferredPoints = null;
+		}
 	}
 	
 	/**
@@ -112,6 +145,39 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		return branch;
 	}
 	
+	/**
+	 * Return the number of data points in the branch.
+	 */
+	public int getLength() {
+		return (deferredPoints != null) ? deferredCount : branch.getLength();
+	}
+	
+	/**
+	 * Release the compressor of the deferred data points, if the handler was created to
+	 * defer reading them.  Call this instead of {@link #getDeferredBranch()} for a branch
+	 * that is not used.
+	 */
+	public void discardDeferredBranch() {
+		if (deflater != null) {
+			deflater.end();
+		}
+	}
+	
+	/**
+	 * Return a supplier that reads the stored data points of the branch, if the handler
+	 * was created to defer reading them.
+	 */
+	public DeferredFlightDataBranch getDeferredBranch() {
+		try {
+			deferredPoints.close();
+		} catch (IOException e) {
+			throw new BugException("Unable to compress flight data", e);
+		} finally {
+			deflater.end();
+		}
+		return new DeferredFlightDataBranch(branch, deferredBytes.toByteArray(), deferredCount);
+	}
+	
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
@@ -184,12 +250,34 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// element == "datapoint"
 		
+		double[] values = parsePoint(content, warnings);
+		if (values == null) {
+			return;
+		}
+		
+		if (deferredPoints != null) {
+			deferPoint(content);
+			return;
+		}
 		
+		// Add point to branch
+		branch.addPoint();
+		for (int i = 0; i < types.length; i++) {
+			branch.setValue(types[i], values[i]);
+		}
+	}
+	
+	/**
+	 * Parse the values of a data point.
+	 * 
+	 * @return	the values, or <code>null</code> if the point is not valid.
+	 */
+	private double[] parsePoint(String content, WarningSet warnings) {
 		// Check line format
 		String[] split = content.split(",");
 		if (split.length != types.length) {
 			warnings.add("Data point did not contain correct amount of values, ignoring point.");
-			return;
+			return null;
 		}
 		
 		// Parse the doubles
@@ -199,14 +287,22 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 				values[i] = DocumentConfig.stringToDouble(split[i]);
 			} catch (NumberFormatException e) {
 				warnings.add("Data point format error, ignoring point.");
-				return;
+				return null;
 			}
 		}
-		
-		// Add point to branch
-		branch.addPoint();
-		for (int i = 0; i < types.length; i++) {
-			branch.setValue(types[i], values[i]);
+		return values;
+	}
+	
+	/**
+	 * Store the text of a valid data point for reading it later.
+	 */
+	private void deferPoint(String content) {
+		try {
+			deferredPoints.write(content.replace('\n', ' '));
+			deferredPoints.write('\n');
+		} catch (IOException e) {
+			throw new BugException("Unable to compress flight data", e);
 		}
+		deferredCount++;
 	}
 }
@@ -20,14 +20,24 @@ class FlightDataHandler extends AbstractElementHandler {
 	private FlightDataBranchHandler dataHandler;
 	private final WarningSet warningSet = new WarningSet();
 	private final List<FlightDataBranch> branches = new ArrayList<>();
+	private final List<DeferredFlightDataBranch> deferredBranches = new ArrayList<>();
+	private final boolean deferBranches;
 	
 	private final SingleSimulationHandler simHandler;
 	private FlightData data;
 	
 	
-	public FlightDataHandler(SingleSimulationHandler simHandler, DocumentLoadingContext context) {
+	/**
+	 * @param simHandler		the handler of the simulation containing the flight data.
+	 * @param context			the loading context.
+	 * @param deferBranches		whether to defer reading the data points of the branches.  The
+	 * 							summary values are then read from the attributes of the element.
+	 */
+	public FlightDataHandler(SingleSimulationHandler simHandler, DocumentLoadingContext context,
+			boolean deferBranches) {
 		this.context = context;
 		this.simHandler = simHandler;
+		this.deferBranches = deferBranches;
 	}
 	
 	public FlightData getFlightData() {
@@ -48,7 +58,7 @@ class FlightDataHandler extends AbstractElementHandler {
 			}
 			dataHandler = new FlightDataBranchHandler(attributes.get("name"),
 					attributes.get("types"),
-					simHandler, context);
+					simHandler, context, deferBranches);
 			
 			if (attributes.get("optimumAltitude") != null) {
 				double optimumAltitude = Double.NaN;
@@ -79,9 +89,14 @@ class FlightDataHandler extends AbstractElementHandler {
 			String content, WarningSet warnings) {
 		
 		if (element.equals("databranch")) {
-			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
-				branches.add(branch);
+			if (dataHandler.getLength() > 0) {
+				if (deferBranches) {
+					deferredBranches.add(dataHandler.getDeferredBranch());
+				} else {
+					branches.add(dataHandler.getBranch());
+				}
+			} else {
+				dataHandler.discardDeferredBranch();
 			}
 			//		} else if (element.equals("warning")) {
 			//			String priorityStr = attributes.get("priority");
@@ -95,68 +110,90 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 
+		// Data without time values is read now, so that it is handled as before
+		for (DeferredFlightDataBranch branch : deferredBranches) {
+			if (!branch.hasTimeData()) {
+				for (DeferredFlightDataBranch b : deferredBranches) {
+					branches.add(b.get());
+				}
+				deferredBranches.clear();
+				break;
+			}
+		}
+
 		if (branches.size() > 0) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
-			double maxAltitude = Double.NaN;
-			double maxVelocity = Double.NaN;
-			double maxAcceleration = Double.NaN;
-			double maxMach = Double.NaN;
-			double timeToApogee = Double.NaN;
-			double flightTime = Double.NaN;
-			double groundHitVelocity = Double.NaN;
-			double launchRodVelocity = Double.NaN;
-			double deploymentVelocity = Double.NaN;
-			double optimumDelay = Double.NaN;
-
-			try {
-				maxAltitude = DocumentConfig.stringToDouble(attributes.get("maxaltitude"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				maxVelocity = DocumentConfig.stringToDouble(attributes.get("maxvelocity"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				maxAcceleration = DocumentConfig.stringToDouble(attributes.get("maxacceleration"));
-			} catch (NumberFormatException ignore) {
+			data = createSummaryData(attributes);
+			for (DeferredFlightDataBranch branch : deferredBranches) {
+				data.addDeferredBranch(branch);
 			}
-			try {
-				maxMach = DocumentConfig.stringToDouble(attributes.get("maxmach"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				timeToApogee = DocumentConfig.stringToDouble(attributes.get("timetoapogee"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				flightTime = DocumentConfig.stringToDouble(attributes.get("flighttime"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				groundHitVelocity = DocumentConfig.stringToDouble(attributes.get("groundhitvelocity"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				launchRodVelocity = DocumentConfig.stringToDouble(attributes.get("launchrodvelocity"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				deploymentVelocity = DocumentConfig.stringToDouble(attributes.get("deploymentvelocity"));
-			} catch (NumberFormatException ignore) {
-			}
-			try {
-				optimumDelay = DocumentConfig.stringToDouble(attributes.get("optimumdelay"));
-			} catch (NumberFormatException ignore) {
-			}
-
-			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
-					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity, optimumDelay);
 		}
 		
 		data.getWarningSet().addAll(warningSet);
 		data.immute();
 	}
+	
+	
+	/**
+	 * Create flight data without branches from the summary values in the attributes.
+	 */
+	private static FlightData createSummaryData(HashMap<String, String> attributes) {
+		double maxAltitude = Double.NaN;
+		double maxVelocity = Double.NaN;
+		double maxAcceleration = Double.NaN;
+		double maxMach = Double.NaN;
+		double timeToApogee = Double.NaN;
+		double flightTime = Double.NaN;
+		double groundHitVelocity = Double.NaN;
+		double launchRodVelocity = Double.NaN;
+		double deploymentVelocity = Double.NaN;
+		double optimumDelay = Double.NaN;
+
+		try {
+			maxAltitude = DocumentConfig.stringToDouble(attributes.get("maxaltitude"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			maxVelocity = DocumentConfig.stringToDouble(attributes.get("maxvelocity"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			maxAcceleration = DocumentConfig.stringToDouble(attributes.get("maxacceleration"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			maxMach = DocumentConfig.stringToDouble(attributes.get("maxmach"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			timeToApogee = DocumentConfig.stringToDouble(attributes.get("timetoapogee"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			flightTime = DocumentConfig.stringToDouble(attributes.get("flighttime"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			groundHitVelocity = DocumentConfig.stringToDouble(attributes.get("groundhitvelocity"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			launchRodVelocity = DocumentConfig.stringToDouble(attributes.get("launchrodvelocity"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			deploymentVelocity = DocumentConfig.stringToDouble(attributes.get("deploymentvelocity"));
+		} catch (NumberFormatException ignore) {
+		}
+		try {
+			optimumDelay = DocumentConfig.stringToDouble(attributes.get("optimumdelay"));
+		} catch (NumberFormatException ignore) {
+		}
+
+		return new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
+				timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity, optimumDelay);
+	}
 
 
 	public WarningSet getWarningSet() {
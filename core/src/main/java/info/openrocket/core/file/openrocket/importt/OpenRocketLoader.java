@@ -17,6 +17,7 @@ import info.openrocket.core.file.AbstractRocketLoader;
 import info.openrocket.core.file.DocumentLoadingContext;
 import info.openrocket.core.file.RocketLoadException;
 import info.openrocket.core.file.simplesax.SimpleSAX;
+import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.extension.SimulationExtension;
@@ -66,16 +67,20 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 			if (s.getStatus() == Simulation.Status.EXTERNAL ||
 					s.getStatus() == Simulation.Status.NOT_SIMULATED)
 				continue;
-			if (s.getSimulatedData() == null)
+			FlightData data = s.getSimulatedData();
+			if (data == null)
 				continue;
-			if (s.getSimulatedData().getBranchCount() == 0)
-				continue;
-			FlightDataBranch branch = s.getSimulatedData().getBranch(0);
-			if (branch == null)
-				continue;
-			List<Double> list = branch.get(FlightDataType.TYPE_TIME);
-			if (list == null)
+			if (data.getBranchCount() == 0)
 				continue;
+			// Deferred branches always contain time data and are not read here
+			if (!data.hasDeferredBranches()) {
+				FlightDataBranch branch = data.getBranch(0);
+				if (branch == null)
+					continue;
+				List<Double> list = branch.get(FlightDataType.TYPE_TIME);
+				if (list == null)
+					continue;
+			}
 
 			doc.getDefaultStorageOptions().setSaveSimulationData(true);
 		}
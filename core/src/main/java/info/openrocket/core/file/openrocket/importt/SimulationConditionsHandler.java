@@ -10,6 +10,7 @@ import info.openrocket.core.file.simplesax.PlainTextHandler;
 import info.openrocket.core.models.wind.WindModelType;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightStepperType;
 import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.util.GeodeticComputationStrategy;
 
@@ -144,6 +145,29 @@ class SimulationConditionsHandler extends AbstractElementHandler {
 					options.setTimeStep(d);
 				}
 			}
+			case "flightstepper" -> {
+				try {
+					options.setFlightStepperType(FlightStepperType.fromString(content));
+				} catch (IllegalArgumentException e) {
+					warnings.add("Unknown flight stepper '" + content + "', ignoring.");
+				}
+			}
+			case "absolutetolerance" -> {
+				if (Double.isNaN(d) || d <= 0) {
+					warnings.add("Illegal absolute tolerance defined, ignoring.");
+				} else {
+					options.setAbsoluteTolerance(d);
+				}
+			}
+			case "relativetolerance" -> {
+				if (Double.isNaN(d) || d < 0) {
+					warnings.add("Illegal relative tolerance defined, ignoring.");
+				} else {
+					options.setRelativeTolerance(d);
+				}
+			}
+			case "aerodynamictable" -> options.setAerodynamicTable(Boolean.parseBoolean(content));
+			case "precomputedwind" -> options.setPrecomputedWind(Boolean.parseBoolean(content));
 		}
 	}
 }
\ No newline at end of file
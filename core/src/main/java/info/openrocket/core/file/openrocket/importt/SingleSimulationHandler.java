@@ -61,7 +61,9 @@ class SingleSimulationHandler extends AbstractElementHandler {
 			configHandler = new ConfigHandler();
 			return configHandler;
 		} else if (element.equals("flightdata")) {
-			dataHandler = new FlightDataHandler(this, context);
+			// Deferring the data points requires the summary values to be stored
+			boolean defer = context.isDeferFlightData() && attributes.get("maxaltitude") != null;
+			dataHandler = new FlightDataHandler(this, context, defer);
 			return dataHandler;
 		} else {
 			warnings.add("Unknown element '" + element + "', ignoring.");
@@ -10,13 +10,17 @@ import info.openrocket.core.startup.Application;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class RASAeroMotorsLoader {
-    private static List<ThrustCurveMotor> allMotors = null;
 
     /**
      * Returns a RASAero motor from the motor string of its RASAero file.
+     * <p>
+     * This searches a new copy of the OpenRocket motors database on every call.  When
+     * importing several motors, load the motors once with {@link #loadAllMotors()} and use
+     * {@link #getMotorFromRASAero(String, List, WarningSet)} instead.
      * 
      * @param motorString The motor string of the RASAero file, e.g. "1/4A2 (AP)".
      * @param warnings    The warning set to add import warnings to.
@@ -26,8 +30,21 @@ public abstract class RASAeroMotorsLoader {
         if (motorString == null) {
             return null;
         }
-        if (allMotors == null) {
-            loadAllMotors(warnings);
+        return getMotorFromRASAero(motorString, loadAllMotors(), warnings);
+    }
+
+    /**
+     * Returns a RASAero motor from the motor string of its RASAero file.
+     * 
+     * @param motorString The motor string of the RASAero file, e.g. "1/4A2 (AP)".
+     * @param motors      The motors to search, as returned by {@link #loadAllMotors()}.
+     * @param warnings    The warning set to add import warnings to.
+     * @return The motor, or null if not found.
+     */
+    public static ThrustCurveMotor getMotorFromRASAero(String motorString, List<ThrustCurveMotor> motors,
+            WarningSet warnings) {
+        if (motorString == null) {
+            return null;
         }
         /*
          * RASAero file motor strings are formatted as "<motorName>  (<manufacturer>)"
@@ -38,7 +55,7 @@ public abstract class RASAeroMotorsLoader {
         }
         String motorName = AbstractMotorLoader.removeDelay(split[0]);
         String manufacturer = split[1].replaceAll("^\\(|\\)$", ""); // Remove beginning and ending parenthesis
-        for (ThrustCurveMotor motor : allMotors) {
+        for (ThrustCurveMotor motor : motors) {
             if (motorName.equals(motor.getDesignation()) && motor.getManufacturer().matches(manufacturer)) {
                 return motor;
             }
@@ -48,17 +65,6 @@ public abstract class RASAeroMotorsLoader {
         return null;
     }
 
-    /**
-     * Call this method when you don't need the RASAero motors anymore to free
-     * memory.
-     */
-    public static void clearAllMotors() {
-        if (allMotors != null) {
-            allMotors.clear();
-            allMotors = null;
-        }
-    }
-
     // Not currently used for importing, because it causes some compatibility issues
     // when e.g. wanting to open the RASAero motor
     // in the motor selection table (because it is not present there).
@@ -94,15 +100,20 @@ public abstract class RASAeroMotorsLoader {
     }
 
     /**
-     * Loads the OpenRocket motors database.
+     * Loads the motors of the OpenRocket motors database.  Each call returns a new,
+     * unmodifiable list, so the list can be used by one import without being affected
+     * by other imports running at the same time.
+     * 
+     * @return the motors of the OpenRocket motors database
      */
-    private static void loadAllMotors(WarningSet warnings) {
-        allMotors = new ArrayList<>();
+    public static List<ThrustCurveMotor> loadAllMotors() {
+        List<ThrustCurveMotor> allMotors = new ArrayList<>();
         List<ThrustCurveMotorSet> database = Application.getThrustCurveMotorSetDatabase().getMotorSets();
         for (ThrustCurveMotorSet set : database) {
             allMotors.addAll(set.getMotors());
         }
         // allMotors.addAll(loadAllRASAeroMotors(warnings));
+        return Collections.unmodifiableList(allMotors);
     }
 
 }
@@ -23,6 +23,7 @@ import info.openrocket.core.util.Coordinate;
 import org.xml.sax.SAXException;
 
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Handles RASAero simulation elements.
@@ -33,6 +34,7 @@ public class SimulationHandler extends AbstractElementHandler {
     private final Rocket rocket;
     private final SimulationOptions launchSiteSettings;
     private final int simulationNr;
+    private final List<ThrustCurveMotor> motors;
 
     // Motor information
     private ThrustCurveMotor sustainerEngine;
@@ -52,11 +54,12 @@ public class SimulationHandler extends AbstractElementHandler {
     private Boolean includeBooster2;
 
     public SimulationHandler(DocumentLoadingContext context, Rocket rocket, SimulationOptions launchSiteSettings,
-            int simulationNr) {
+            int simulationNr, List<ThrustCurveMotor> motors) {
         this.context = context;
         this.rocket = rocket;
         this.launchSiteSettings = launchSiteSettings;
         this.simulationNr = simulationNr;
+        this.motors = motors;
     }
 
     @Override
@@ -86,7 +89,7 @@ public class SimulationHandler extends AbstractElementHandler {
     public void closeElement(String element, HashMap<String, String> attributes, String content, WarningSet warnings)
             throws SAXException {
         if (RASAeroCommonConstants.SUSTAINER_ENGINE.equals(element)) {
-            sustainerEngine = RASAeroMotorsLoader.getMotorFromRASAero(content, warnings);
+            sustainerEngine = RASAeroMotorsLoader.getMotorFromRASAero(content, motors, warnings);
         } else if (RASAeroCommonConstants.SUSTAINER_IGNITION_DELAY.equals(element)) {
             sustainerIgnitionDelay = Double.parseDouble(content);
         } else if (RASAeroCommonConstants.SUSTAINER_LAUNCH_WT.equals(element)) {
@@ -94,7 +97,7 @@ public class SimulationHandler extends AbstractElementHandler {
         } else if (RASAeroCommonConstants.SUSTAINER_CG.equals(element)) {
             sustainerCG = Double.parseDouble(content) / RASAeroCommonConstants.OPENROCKET_TO_RASAERO_LENGTH;
         } else if (RASAeroCommonConstants.BOOSTER1_ENGINE.equals(element)) {
-            booster1Engine = RASAeroMotorsLoader.getMotorFromRASAero(content, warnings);
+            booster1Engine = RASAeroMotorsLoader.getMotorFromRASAero(content, motors, warnings);
         } else if (RASAeroCommonConstants.BOOSTER1_IGNITION_DELAY.equals(element)) {
             booster1IgnitionDelay = Double.parseDouble(content);
         } else if (RASAeroCommonConstants.BOOSTER1_SEPARATION_DELAY.equals(element)) {
@@ -106,7 +109,7 @@ public class SimulationHandler extends AbstractElementHandler {
         } else if (RASAeroCommonConstants.INCLUDE_BOOSTER1.equals(element)) {
             includeBooster1 = Boolean.parseBoolean(content);
         } else if (RASAeroCommonConstants.BOOSTER2_ENGINE.equals(element)) {
-            booster2Engine = RASAeroMotorsLoader.getMotorFromRASAero(content, warnings);
+            booster2Engine = RASAeroMotorsLoader.getMotorFromRASAero(content, motors, warnings);
         } else if (RASAeroCommonConstants.BOOSTER2_SEPARATION_DELAY.equals(element)) {
             booster2SeparationDelay = Double.parseDouble(content);
         } else if (RASAeroCommonConstants.BOOSTER2_LAUNCH_WT.equals(element)) {
@@ -6,11 +6,13 @@ import info.openrocket.core.file.rasaero.RASAeroMotorsLoader;
 import info.openrocket.core.file.simplesax.AbstractElementHandler;
 import info.openrocket.core.file.simplesax.ElementHandler;
 import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.SimulationOptions;
 import org.xml.sax.SAXException;
 
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * A SAX handler for simulation importing from a RASAero file.
@@ -23,6 +25,8 @@ public class SimulationListHandler extends AbstractElementHandler {
     private final Rocket rocket;
     private final SimulationOptions launchSiteSettings;
     private int nrOfSimulations = 0;
+    /** The motors to search for the simulation motors, loaded for this file only */
+    private List<ThrustCurveMotor> motors = null;
 
     public SimulationListHandler(DocumentLoadingContext context, Rocket rocket, SimulationOptions launchSiteSettings) {
         this.context = context;
@@ -35,14 +39,11 @@ public class SimulationListHandler extends AbstractElementHandler {
             throws SAXException {
         if (RASAeroCommonConstants.SIMULATION.equals(element)) {
             nrOfSimulations++;
-            return new SimulationHandler(context, rocket, launchSiteSettings, nrOfSimulations);
+            if (motors == null) {
+                motors = RASAeroMotorsLoader.loadAllMotors();
+            }
+            return new SimulationHandler(context, rocket, launchSiteSettings, nrOfSimulations, motors);
         }
         return null;
     }
-
-    @Override
-    public void endHandler(String element, HashMap<String, String> attributes, String content, WarningSet warnings)
-            throws SAXException {
-        RASAeroMotorsLoader.clearAllMotors();
-    }
 }
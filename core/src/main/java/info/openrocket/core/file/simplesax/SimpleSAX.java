@@ -32,7 +32,8 @@ import javax.xml.parsers.SAXParserFactory;
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class SimpleSAX {
-	static final XMLReaderCache cache = new XMLReaderCache(10);
+	// Enough readers for documents being loaded concurrently on every processor
+	static final XMLReaderCache cache = new XMLReaderCache(Math.max(10, 2 * Runtime.getRuntime().availableProcessors()));
 
 	/**
 	 * Read a simple XML file.
@@ -26,8 +26,6 @@ import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.ComponentAssembly;
 import info.openrocket.core.rocketcomponent.FinSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
-import info.openrocket.core.rocketcomponent.InstanceMap;
 import info.openrocket.core.rocketcomponent.LaunchLug;
 import info.openrocket.core.rocketcomponent.MassObject;
 import info.openrocket.core.rocketcomponent.MotorMount;
@@ -142,11 +140,6 @@ public class OBJExporterFactory {
                 continue;
             }
 
-            // Get the instance transforms
-            InstanceMap map = configuration.getActiveInstances();
-            ArrayList<InstanceContext> contexts = map.get(component);
-            contexts.get(0).transform.getXrotation();
-
             // If separate export, create a new OBJ for each component
             if (exportAsSeparateFiles) {
                 obj = new DefaultObj();
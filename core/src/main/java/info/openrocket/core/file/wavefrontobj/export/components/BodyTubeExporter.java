@@ -8,7 +8,7 @@ import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.util.Coordinate;
 
 public class BodyTubeExporter extends RocketComponentExporter<BodyTube> {
@@ -31,19 +31,21 @@ public class BodyTubeExporter extends RocketComponentExporter<BodyTube> {
         }
 
         // Generate the mesh
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(component)) {
-            generateMesh(outerRadius, innerRadius, length, isFilled, context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(component);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(outerRadius, innerRadius, length, isFilled, instances, row);
         }
     }
 
-    private void generateMesh(float outerRadius, float innerRadius, float length, boolean isFilled, InstanceContext context) {
+    private void generateMesh(float outerRadius, float innerRadius, float length, boolean isFilled, InstanceTable instances, int row) {
         // Generate the mesh
         int startIdx = obj.getNumVertices();
         TubeExporter.addTubeMesh(obj, transformer, null, outerRadius, isFilled ? 0 : innerRadius, length, LOD);
         int endIdx = Math.max(obj.getNumVertices() - 1, startIdx);    // Clamp in case no vertices were added
 
         // Translate the mesh to the position in the rocket
-        Coordinate location = context.getLocation();
+        Coordinate location = instances.getLocation(row);
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, location);
     }
 }
@@ -10,7 +10,7 @@ import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FinSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.util.Coordinate;
 
 import java.util.ArrayList;
@@ -42,13 +42,15 @@ public class FinSetExporter extends RocketComponentExporter<FinSet> {
         }
 
         // Generate the fin meshes
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(component)) {
-            generateMesh(floatPoints, floatTabPoints, thickness, hasTabs, context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(component);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(floatPoints, floatTabPoints, thickness, hasTabs, instances, row);
         }
     }
 
     private void generateMesh(FloatPoints floatPoints, FloatPoints floatTabPoints, float thickness,
-                              boolean hasTabs, InstanceContext context) {
+                              boolean hasTabs, InstanceTable instances, int row) {
         // Generate the mesh
         final int startIdx = obj.getNumVertices();
         final int normalsStartIdx = obj.getNumNormals();
@@ -79,16 +81,16 @@ public class FinSetExporter extends RocketComponentExporter<FinSet> {
                 orig.getX(), orig.getY(), orig.getZ());
 
         // Then do the component rotation (axial rotation)
-        final double rotX = context.transform.getXrotation();
-        final double rotY = context.transform.getYrotation();
-        final double rotZ = context.transform.getZrotation();
+        final double rotX = instances.getTransform(row).getXrotation();
+        final double rotY = instances.getTransform(row).getYrotation();
+        final double rotZ = instances.getTransform(row).getZrotation();
         rot = transformer.convertRot(rotX, rotY, rotZ);
         ObjUtils.rotateVertices(obj, startIdx, endIdx, normalsStartIdx, normalsEndIdx,
                 rot.getX(), rot.getY(), rot.getZ(),
                 orig.getX(), orig.getY(), orig.getZ());
 
         // Translate the mesh to the position in the rocket
-        final Coordinate location = context.getLocation();
+        final Coordinate location = instances.getLocation(row);
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, location);
     }
 
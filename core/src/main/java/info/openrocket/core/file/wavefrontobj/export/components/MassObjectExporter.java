@@ -7,7 +7,7 @@ import info.openrocket.core.file.wavefrontobj.DefaultObjFace;
 import info.openrocket.core.file.wavefrontobj.ObjUtils;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.MassObject;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.RocketComponentUtils;
@@ -26,12 +26,14 @@ public class MassObjectExporter extends RocketComponentExporter<MassObject> {
         final int numStacks = LOD.getValue() / 2;
 
         // Generate the mesh
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(component)) {
-            generateMesh(numSides, numStacks, context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(component);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(numSides, numStacks, instances, row);
         }
     }
 
-    private void generateMesh(int numSides, int numStacks, InstanceContext context) {
+    private void generateMesh(int numSides, int numStacks, InstanceTable instances, int row) {
         // Other meshes may have been added to the obj, so we need to keep track of the starting indices
         int startIdx = obj.getNumVertices();
         int texCoordsStartIdx = obj.getNumTexCoords();
@@ -172,7 +174,7 @@ public class MassObjectExporter extends RocketComponentExporter<MassObject> {
 
         // Translate the mesh to the position in the rocket
         //      We will create an offset location that has the same effect as the axial rotation of the mass object
-        final Coordinate location = context.getLocation();
+        final Coordinate location = instances.getLocation(row);
         Coordinate offsetLocation = getOffsetLocation(location);
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, offsetLocation);
     }
@@ -10,7 +10,7 @@ import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.Coordinate;
@@ -61,12 +61,14 @@ public class MotorExporter {
 
         obj.setActiveGroupNames(groupName + "_" + motor.getMotorName());
 
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(mount)) {
-            generateMesh(motor, context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(mount);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(motor, instances, row);
         }
     }
 
-    private void generateMesh(Motor motor, InstanceContext context) {
+    private void generateMesh(Motor motor, InstanceTable instances, int row) {
         final double length = motor.getLength();
         final double radius = motor.getDiameter() / 2;
         final float coneLength = (float) (0.05 * length);           // Length of the indent cone at the aft end of the motor
@@ -152,7 +154,7 @@ public class MotorExporter {
 
 
         // Translate the mesh to the position in the rocket
-        Coordinate location = context.getLocation();
+        Coordinate location = instances.getLocation(row);
         final double xOffs = mount.getLength() + ((MotorMount) mount).getMotorOverhang() - length;
         location = location.add(xOffs, 0, 0);      // Motor starts at the aft end of the mount
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, location);
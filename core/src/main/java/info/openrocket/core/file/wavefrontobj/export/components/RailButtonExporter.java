@@ -10,7 +10,7 @@ import info.openrocket.core.file.wavefrontobj.export.shapes.CylinderExporter;
 import info.openrocket.core.file.wavefrontobj.export.shapes.DiskExporter;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.RailButton;
 import info.openrocket.core.util.Coordinate;
 
@@ -43,13 +43,15 @@ public class RailButtonExporter extends RocketComponentExporter<RailButton> {
         final float screwHeight = (float) component.getScrewHeight();
 
         // Generate the mesh
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(component)) {
-            generateMesh(outerRadius, innerRadius, baseHeight, innerHeight, flangeHeight, screwHeight, context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(component);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(outerRadius, innerRadius, baseHeight, innerHeight, flangeHeight, screwHeight, instances, row);
         }
     }
 
     private void generateMesh(float outerRadius, float innerRadius, float baseHeight, float innerHeight, float flangeHeight,
-                              float screwHeight, InstanceContext context) {
+                              float screwHeight, InstanceTable instances, int row) {
         final int startIdx = obj.getNumVertices();
         final int normalStartIdx = obj.getNumNormals();
         final int nrOfSides = LOD.getNrOfSides(outerRadius);
@@ -113,16 +115,16 @@ public class RailButtonExporter extends RocketComponentExporter<RailButton> {
                 orig.getX(), orig.getY(), orig.getZ());
 
         // Then do the component rotation (axial rotation)
-        final double rotX = context.transform.getXrotation() + component.getAngleOffset();
-        final double rotY = context.transform.getYrotation();
-        final double rotZ = context.transform.getZrotation();
+        final double rotX = instances.getTransform(row).getXrotation() + component.getAngleOffset();
+        final double rotY = instances.getTransform(row).getYrotation();
+        final double rotZ = instances.getTransform(row).getZrotation();
         rot = transformer.convertRot(rotX, rotY, rotZ);
         ObjUtils.rotateVertices(obj, startIdx, endIdx, normalStartIdx, normalEndIdx,
                 rot.getX(), rot.getY(), rot.getZ(),
                 orig.getX(), orig.getY(), orig.getZ());
 
         // Translate the mesh to the position in the rocket
-        final Coordinate location = context.getLocation();
+        final Coordinate location = instances.getLocation(row);
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, location);
     }
 
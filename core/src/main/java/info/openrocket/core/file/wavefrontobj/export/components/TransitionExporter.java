@@ -13,7 +13,7 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.Transition;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.Coordinate;
@@ -41,12 +41,14 @@ public class TransitionExporter extends RocketComponentExporter<Transition> {
         }
 
         // Generate the mesh
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(component)) {
-            generateMesh(context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(component);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(instances, row);
         }
     }
 
-    private void generateMesh(InstanceContext context) {
+    private void generateMesh(InstanceTable instances, int row) {
         int startIdx = obj.getNumVertices();
 
         final boolean hasForeShoulder = Double.compare(component.getForeShoulderLength(), 0) > 0
@@ -126,7 +128,7 @@ public class TransitionExporter extends RocketComponentExporter<Transition> {
         int endIdx = Math.max(obj.getNumVertices() - 1, startIdx);    // Clamp in case no vertices were added
 
         // Translate the mesh to the position in the rocket
-        final Coordinate location = context.getLocation();
+        final Coordinate location = instances.getLocation(row);
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, location);
     }
 
@@ -8,7 +8,7 @@ import info.openrocket.core.file.wavefrontobj.export.shapes.TubeExporter;
 import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.TubeFinSet;
 import info.openrocket.core.util.Coordinate;
 
@@ -31,12 +31,14 @@ public class TubeFinSetExporter extends RocketComponentExporter<TubeFinSet> {
         }
 
         // Generate the fin meshes
-        for (InstanceContext context : config.getActiveInstances().getInstanceContexts(component)) {
-            generateMesh(outerRadius, innerRadius, length, context);
+        final InstanceTable instances = config.getInstanceTable();
+        final int index = instances.indexOf(component);
+        for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+            generateMesh(outerRadius, innerRadius, length, instances, row);
         }
     }
 
-    private void generateMesh(float outerRadius, float innerRadius, float length, InstanceContext context) {
+    private void generateMesh(float outerRadius, float innerRadius, float length, InstanceTable instances, int row) {
         // Create the fin meshes
         final int startIdx = obj.getNumVertices();
 
@@ -47,8 +49,8 @@ public class TubeFinSetExporter extends RocketComponentExporter<TubeFinSet> {
 
         // Translate the mesh to the position in the rocket
         //      We will create an offset location that has the same effect as the axial rotation of the launch lug
-        final double rotX = context.transform.getXrotation();
-        final Coordinate location = context.getLocation();
+        final double rotX = instances.getTransform(row).getXrotation();
+        final Coordinate location = instances.getLocation(row);
         Coordinate offsetLocation = getOffsetLocation(outerRadius, location, rotX);
         ObjUtils.translateVerticesFromComponentLocation(obj, transformer, startIdx, endIdx, offsetLocation);
     }
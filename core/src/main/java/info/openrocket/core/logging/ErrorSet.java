@@ -23,11 +23,7 @@ public class ErrorSet extends MessageSet<Error> {
     @Override
     public ErrorSet clone() {
         try {
-            ErrorSet newSet = (ErrorSet) super.clone();
-            newSet.messages = this.messages.clone();
-            newSet.mutable = this.mutable.clone();
-            return newSet;
-
+            return (ErrorSet) super.clone();
         } catch (CloneNotSupportedException e) {
             throw new BugException("CloneNotSupportedException occurred, report bug!", e);
         }
@@ -1,8 +1,11 @@
 package info.openrocket.core.logging;
 
 import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -18,6 +21,13 @@ import info.openrocket.core.util.Mutable;
  * same type.  If one is found, then the message left in the set is determined
  * by the method {@link Message#replaceBy(Message)}.
  * <p>
+ * The messages are indexed by a hash table, so adding a message that is already
+ * in the set takes constant time.  For each message the set also counts how many
+ * times it has been added, and the simulation times of its first and last
+ * occurrence when it is added using {@link #record(Message, double)}.  These
+ * statistics do not change the modification ID of the set, which only changes
+ * when a message is added or replaced.
+ * <p>
  * A MessageSet can be made immutable by calling {@link #immute()}.
  *
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
@@ -26,6 +36,9 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
     /** the actual array of messages */
     protected ArrayList<E> messages = new ArrayList<>();
 
+    /** the occurrences of each message, keyed by the message in the array */
+    private HashMap<E, Occurrences> occurrences = new HashMap<>();
+
     protected Mutable mutable = new Mutable();
     private ModID modID = ModID.ZERO;
 
@@ -34,26 +47,159 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
      * exists in the set, the message that is left in the set is defined by the
      * method {@link Message#replaceBy(Message)}.
      *
+     * @return	<code>true</code> if a message of the same type already existed in the set.
      * @throws IllegalStateException	if this message set has been made immutable.
      */
     @Override
     public boolean add(E m) {
         mutable.check();
 
-        modID = new ModID();
-        int index = messages.indexOf(m);
-
-        if (index < 0) {
-            messages.add(m);
+        Occurrences o = find(m);
+        if (o == null) {
+            insert(m, 1, Double.NaN, Double.NaN);
             return false;
         }
 
-        E old = messages.get(index);
+        o.count++;
+        replace(o, m);
+        return true;
+    }
+
+    /**
+     * Record an occurrence of a <code>Message</code> at the specified simulation time.
+     * If a message of the same type already exists in the set, only its occurrence count
+     * and last occurrence time are updated, and the message itself is kept.
+     *
+     * @param m		the message.
+     * @param time	the simulation time of the occurrence.
+     * @return		<code>true</code> if the message was added to the set, <code>false</code> if
+     * 				a message of the same type already existed in the set.
+     * @throws IllegalStateException	if this message set has been made immutable.
+     */
+    public boolean record(E m, double time) {
+        mutable.check();
+
+        Occurrences o = find(m);
+        if (o == null) {
+            insert(m, 1, time, time);
+            return true;
+        }
+
+        o.count++;
+        o.addTime(time, time);
+        return false;
+    }
+
+    /**
+     * Add all messages of a collection to this set.  If the collection is a
+     * <code>MessageSet</code>, the occurrence statistics of its messages are merged
+     * into those of this set.
+     *
+     * @throws IllegalStateException	if this message set has been made immutable.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (!(c instanceof MessageSet)) {
+            return super.addAll(c);
+        }
+        mutable.check();
+
+        MessageSet<? extends E> other = (MessageSet<? extends E>) c;
+        boolean changed = false;
+        for (E m : other.messages) {
+            Occurrences source = other.occurrences.get(m);
+            Occurrences o = find(m);
+            if (o == null) {
+                insert(m, source.count, source.firstTime, source.lastTime);
+                changed = true;
+            } else {
+                o.count += source.count;
+                o.addTime(source.firstTime, source.lastTime);
+                replace(o, m);
+            }
+        }
+        return changed;
+    }
+
+    private Occurrences find(E m) {
+        Occurrences o = occurrences.get(m);
+        // Messages may choose not to equal any other message
+        if (o != null && !m.equals(messages.get(o.index))) {
+            return null;
+        }
+        return o;
+    }
+
+    private void insert(E m, int count, double firstTime, double lastTime) {
+        modID = new ModID();
+        Occurrences o = new Occurrences(messages.size());
+        o.count = count;
+        o.firstTime = firstTime;
+        o.lastTime = lastTime;
+        messages.add(m);
+        occurrences.put(m, o);
+    }
+
+    private void replace(Occurrences o, E m) {
+        E old = messages.get(o.index);
         if (old.replaceBy(m)) {
-            messages.set(index, m);
+            modID = new ModID();
+            messages.set(o.index, m);
+            occurrences.remove(old);
+            occurrences.put(m, o);
         }
+    }
 
-        return true;
+    private void reindex() {
+        HashMap<E, Occurrences> old = occurrences;
+        occurrences = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            E m = messages.get(i);
+            Occurrences o = old.get(m);
+            o.index = i;
+            occurrences.put(m, o);
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return occurrences.containsKey(o);
+    }
+
+    /**
+     * Return the number of times a message of the same type as the specified
+     * message has been added to this set.
+     *
+     * @param m	the message.
+     * @return	the number of occurrences, or 0 if no such message is in the set.
+     */
+    public int getOccurrenceCount(Message m) {
+        Occurrences o = occurrences.get(m);
+        return (o == null) ? 0 : o.count;
+    }
+
+    /**
+     * Return the simulation time of the first recorded occurrence of a message of the
+     * same type as the specified message.
+     *
+     * @param m	the message.
+     * @return	the time of the first occurrence, or NaN if it is not known.
+     */
+    public double getFirstOccurrenceTime(Message m) {
+        Occurrences o = occurrences.get(m);
+        return (o == null) ? Double.NaN : o.firstTime;
+    }
+
+    /**
+     * Return the simulation time of the last recorded occurrence of a message of the
+     * same type as the specified message.
+     *
+     * @param m	the message.
+     * @return	the time of the last occurrence, or NaN if it is not known.
+     */
+    public double getLastOccurrenceTime(Message m) {
+        Occurrences o = occurrences.get(m);
+        return (o == null) ? Double.NaN : o.lastTime;
     }
 
     /**
@@ -110,6 +256,8 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
 			public void remove() {
 				mutable.check();
 				iterator.remove();
+				modID = new ModID();
+				reindex();
 			}
 		};
     }
@@ -179,4 +327,50 @@ public abstract class MessageSet<E extends Message> extends AbstractSet<E> imple
     public ModID getModID() {
         return modID;
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected MessageSet<E> clone() throws CloneNotSupportedException {
+        MessageSet<E> newSet = (MessageSet<E>) super.clone();
+        newSet.messages = this.messages.clone();
+        newSet.mutable = this.mutable.clone();
+        newSet.occurrences = new HashMap<>();
+        for (Map.Entry<E, Occurrences> entry : this.occurrences.entrySet()) {
+            newSet.occurrences.put(entry.getKey(), entry.getValue().clone());
+        }
+        return newSet;
+    }
+
+
+    /**
+     * The position of a message in the array and the statistics of its occurrences.
+     */
+    private static final class Occurrences implements Cloneable {
+        int index;
+        int count = 0;
+        double firstTime = Double.NaN;
+        double lastTime = Double.NaN;
+
+        Occurrences(int index) {
+            this.index = index;
+        }
+
+        void addTime(double first, double last) {
+            if (!Double.isNaN(first) && !(firstTime <= first)) {
+                firstTime = first;
+            }
+            if (!Double.isNaN(last) && !(lastTime >= last)) {
+                lastTime = last;
+            }
+        }
+
+        @Override
+        protected Occurrences clone() {
+            try {
+                return (Occurrences) super.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new BugException("CloneNotSupportedException occurred, report bug!", e);
+            }
+        }
+    }
 }
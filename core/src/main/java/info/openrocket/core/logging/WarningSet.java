@@ -68,11 +68,7 @@ public class WarningSet extends MessageSet<Warning> {
     @Override
     public WarningSet clone() {
         try {
-            WarningSet newSet = (WarningSet) super.clone();
-            newSet.messages = this.messages.clone();
-            newSet.mutable = this.mutable.clone();
-            return newSet;
-
+            return (WarningSet) super.clone();
         } catch (CloneNotSupportedException e) {
             throw new BugException("CloneNotSupportedException occurred, report bug!", e);
         }
@@ -8,6 +8,7 @@ import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.rocketcomponent.ComponentAssembly;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.MotorClusterState;
@@ -299,7 +300,11 @@ public class MassCalculation {
 
 		if (this.type.includesMotorCasing || this.type.includesPropellant) {
 			MassCalculation motorCalc = this.copy(this.root, this.transform);
-			motorCalc.calculateMotors();
+			if (root == config.getRocket()) {
+				motorCalc.calculateMotorInstances();
+			} else {
+				motorCalc.calculateMotors();
+			}
 			this.merge(motorCalc);
 		}
 
@@ -412,6 +417,32 @@ public class MassCalculation {
 		return this;
 	}
 
+	/**
+	 * Calculate the motor data of the whole configuration from the motor mounts in its
+	 * instance table, without walking the component tree.  The result equals that of
+	 * {@link #calculateMotors()} for the rocket.
+	 */
+	MassCalculation calculateMotorInstances() {
+		final InstanceTable instances = config.getInstanceTable();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent component = instances.getComponent(index);
+			if (!component.isMotorMount()) {
+				continue;
+			}
+
+			// The mount data includes all instances of the mount within one parent instance
+			final int instanceCount = component.getInstanceCount();
+			for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row += instanceCount) {
+				MassCalculation motor = this.copy(component, instances.getParentTransform(row));
+				motor.calculateMountData();
+				if (MIN_MASS < motor.getMass()) {
+					this.merge(motor);
+				}
+			}
+		}
+		return this;
+	}
+
 	MassCalculation calculateMotors() {
 		final RocketComponent component = this.root;
 		final Transformation parentTransform = this.transform;
@@ -1,31 +1,53 @@
 package info.openrocket.core.masscalc;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import info.openrocket.core.motor.Motor;
+import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.MotorClusterState;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Monitorable;
 import info.openrocket.core.util.Transformation;
+
+/**
+ * Calculates the mass properties of a rocket configuration.
+ * <p>
+ * The static methods calculate the mass data from scratch by walking the component tree.
+ * An instance of this class additionally caches the structure mass data through
+ * {@link #getStructure(FlightConfiguration)}:  the structure of each top-level stage subtree
+ * is memoized by the active stages within it, and the combined structure by the active
+ * stages of the whole configuration.  The cache is valid as long as the mass and tree
+ * modification IDs of the rocket are unchanged, so it is invalidated by mass and tree
+ * changes of the rocket, but not by e.g. purely aerodynamic or appearance changes.
+ * During a simulation only the motor mass needs to be recomputed on each time step.
+ */
 public class MassCalculator implements Monitorable {
 
 	public static final double MIN_MASS = MathUtil.EPSILON;
 
 	/*
-	 * Cached data. All CG data is in absolute coordinates. All moments of inertia
-	 * are relative to their respective CG.
+	 * Cached data, valid for cachedRocket at the mass and tree modification IDs below.
+	 * All CG data is in absolute coordinates. All moments of inertia are relative to
+	 * their respective CG.
 	 */
-	// private HashMap< Integer, MassData> stageMassCache = new HashMap<Integer,
-	// MassData >();
-	// private MassData rocketSpentMassCache;
-	// private MassData motorMassCache;
-
-	private final ModID modID = ModID.ZERO;
+	private Rocket cachedRocket = null;
+	private ModID cachedMassModID = ModID.INVALID;
+	private ModID cachedTreeModID = ModID.INVALID;
+	// The stage numbers contained in each top-level subtree
+	private final Map<RocketComponent, int[]> stageNumberCache = new HashMap<>();
+	// The structure of each top-level subtree, by the active stages of the subtree
+	private final Map<RocketComponent, Map<BitSet, RigidBody>> stageMassCache = new HashMap<>();
+	// The structure of the whole rocket, by the active stages of the rocket
+	private final Map<BitSet, RigidBody> structureMassCache = new HashMap<>();
 
 	////////////////// Constructors ///////////////////
 	public MassCalculator() {
@@ -99,6 +121,123 @@ public class MassCalculator implements Monitorable {
 		return calculate(MassCalculation.Type.MOTOR, status);
 	}
 
+	////////////////// Cached calculations ///////////////////
+
+	/**
+	 * Returns the mass data of the rocket's structure, using the cached data when
+	 * the mass and structure of the rocket are unchanged.  The result is equal to
+	 * {@link #calculateStructure(FlightConfiguration)}.
+	 * - includes structure
+	 * - excludes motors
+	 * - excludes propellant
+	 *
+	 * @param config the rocket configuration to calculate for
+	 * @return the MassData struct of the rocket structure
+	 */
+	public synchronized RigidBody getStructure(final FlightConfiguration config) {
+		final Rocket rocket = config.getRocket();
+		validateCache(rocket);
+
+		final BitSet activeStages = new BitSet();
+		for (AxialStage stage : rocket.getStageList()) {
+			if (config.isStageActive(stage.getStageNumber())) {
+				activeStages.set(stage.getStageNumber());
+			}
+		}
+
+		RigidBody structure = structureMassCache.get(activeStages);
+		if (structure == null) {
+			structure = combineStages(config, rocket, activeStages);
+			structureMassCache.put(activeStages, structure);
+		}
+		return structure;
+	}
+
+	/**
+	 * Discard all cached mass data.
+	 */
+	public synchronized void voidMassCache() {
+		cachedRocket = null;
+		cachedMassModID = ModID.INVALID;
+		cachedTreeModID = ModID.INVALID;
+		stageNumberCache.clear();
+		stageMassCache.clear();
+		structureMassCache.clear();
+	}
+
+	private void validateCache(final Rocket rocket) {
+		if (rocket != cachedRocket || rocket.getMassModID() != cachedMassModID ||
+				rocket.getTreeModID() != cachedTreeModID) {
+			voidMassCache();
+			cachedRocket = rocket;
+			cachedMassModID = rocket.getMassModID();
+			cachedTreeModID = rocket.getTreeModID();
+		}
+	}
+
+	/**
+	 * Combine the structure of the top-level subtrees of the rocket, calculating the
+	 * subtrees which are not yet cached for their active stages.
+	 */
+	private RigidBody combineStages(final FlightConfiguration config, final Rocket rocket, final BitSet activeStages) {
+		// Overrides on the rocket itself apply to the combination of all stages
+		if (rocket.isMassOverridden() || rocket.isCGOverridden()) {
+			return calculateStructure(config);
+		}
+
+		RigidBody total = null;
+		for (RocketComponent child : rocket.getChildren()) {
+			final BitSet subtreeActive = new BitSet();
+			for (int stageNumber : getStageNumbers(child)) {
+				if (activeStages.get(stageNumber)) {
+					subtreeActive.set(stageNumber);
+				}
+			}
+			if (subtreeActive.isEmpty()) {
+				continue;
+			}
+
+			Map<BitSet, RigidBody> subtreeCache = stageMassCache.computeIfAbsent(child, k -> new HashMap<>());
+			RigidBody subtree = subtreeCache.get(subtreeActive);
+			if (subtree == null) {
+				MassCalculation calculation = new MassCalculation(MassCalculation.Type.STRUCTURE, config,
+						Motor.PSEUDO_TIME_EMPTY, null, child, Transformation.IDENTITY, null);
+				calculation.calculateAssembly();
+				subtree = calculation.calculateMomentOfInertia();
+				subtreeCache.put(subtreeActive, subtree);
+			}
+
+			if (subtree.getMass() < MIN_MASS) {
+				continue;
+			}
+			total = (total == null) ? subtree : total.add(subtree);
+		}
+
+		if (total == null) {
+			// Massless structure, calculate directly to get the same degenerate result
+			return calculateStructure(config);
+		}
+		return total;
+	}
+
+	private int[] getStageNumbers(final RocketComponent subtreeRoot) {
+		int[] numbers = stageNumberCache.get(subtreeRoot);
+		if (numbers == null) {
+			List<AxialStage> subStages = subtreeRoot.getSubStages();
+			boolean isStage = subtreeRoot instanceof AxialStage;
+			numbers = new int[subStages.size() + (isStage ? 1 : 0)];
+			int i = 0;
+			if (isStage) {
+				numbers[i++] = ((AxialStage) subtreeRoot).getStageNumber();
+			}
+			for (AxialStage stage : subStages) {
+				numbers[i++] = stage.getStageNumber();
+			}
+			stageNumberCache.put(subtreeRoot, numbers);
+		}
+		return numbers;
+	}
+
 	////////////////// Mass property Wrappers ///////////////////
 	// all mass calculation calls should probably call through one of these two
 	////////////////// wrappers.
@@ -178,7 +317,8 @@ public class MassCalculator implements Monitorable {
 	////////////////// Mass property calculations ///////////////////
 	@Override
 	public ModID getModID() {
-		return modID;
+		// Only cached data is stored, return constant mod ID
+		return ModID.ZERO;
 	}
 
 }
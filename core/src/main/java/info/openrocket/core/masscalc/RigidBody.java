@@ -32,12 +32,17 @@ public class RigidBody {
 	public RigidBody add(RigidBody that) {
 		final Coordinate newCM = this.cm.average(that.cm);
 
-		RigidBody movedThis = this.rebase(newCM);
-		RigidBody movedThat = that.rebase(newCM);
-
-		final double newIxx = movedThis.Ixx + movedThat.Ixx;
-		final double newIyy = movedThis.Iyy + movedThat.Iyy;
-		final double newIzz = movedThis.Izz + movedThat.Izz;
+		// Same as rebasing both bodies to the new CM, without creating the moved bodies
+		final double thisX2 = pow2(this.cm.x - newCM.x);
+		final double thisY2 = pow2(this.cm.y - newCM.y);
+		final double thisZ2 = pow2(this.cm.z - newCM.z);
+		final double thatX2 = pow2(that.cm.x - newCM.x);
+		final double thatY2 = pow2(that.cm.y - newCM.y);
+		final double thatZ2 = pow2(that.cm.z - newCM.z);
+
+		final double newIxx = (this.Ixx + this.cm.weight * (thisY2 + thisZ2)) + (that.Ixx + that.cm.weight * (thatY2 + thatZ2));
+		final double newIyy = (this.Iyy + this.cm.weight * (thisX2 + thisZ2)) + (that.Iyy + that.cm.weight * (thatX2 + thatZ2));
+		final double newIzz = (this.Izz + this.cm.weight * (thisX2 + thisY2)) + (that.Izz + that.cm.weight * (thatX2 + thatY2));
 
 		return new RigidBody(newCM, newIxx, newIyy, newIzz);
 	}
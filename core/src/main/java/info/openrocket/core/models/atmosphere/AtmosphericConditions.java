@@ -25,6 +25,7 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 	/** Air temperature, in Kelvins. */
 	private double temperature;
 
+	/** The modification ID, created when first requested after a change. */
 	private ModID modID;
 
 	/**
@@ -41,9 +42,7 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 	 * @param pressure    the pressure in Pascals.
 	 */
 	public AtmosphericConditions(double temperature, double pressure) {
-		this.setTemperature(temperature);
-		this.setPressure(pressure);
-		this.modID = new ModID();
+		this.setConditions(temperature, pressure);
 	}
 
 	public double getPressure() {
@@ -52,7 +51,7 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 
 	public void setPressure(double pressure) {
 		this.pressure = pressure;
-		this.modID = new ModID();
+		this.modID = null;
 	}
 
 	public double getTemperature() {
@@ -61,7 +60,19 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 
 	public void setTemperature(double temperature) {
 		this.temperature = temperature;
-		this.modID = new ModID();
+		this.modID = null;
+	}
+
+	/**
+	 * Set both the temperature and the pressure.
+	 * 
+	 * @param temperature the temperature in Kelvins.
+	 * @param pressure    the pressure in Pascals.
+	 */
+	public void setConditions(double temperature, double pressure) {
+		this.temperature = temperature;
+		this.pressure = pressure;
+		this.modID = null;
 	}
 
 	/**
@@ -111,6 +122,8 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 	@Override
 	public AtmosphericConditions clone() {
 		try {
+			// The copy shares the modification ID of this object
+			getModID();
 			return (AtmosphericConditions) super.clone();
 		} catch (CloneNotSupportedException e) {
 			throw new BugException("CloneNotSupportedException encountered!");
@@ -134,6 +147,9 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 
 	@Override
 	public ModID getModID() {
+		if (modID == null) {
+			modID = new ModID();
+		}
 		return modID;
 	}
 
@@ -6,4 +6,19 @@ public interface AtmosphericModel extends Monitorable {
 
 	public AtmosphericConditions getConditions(double altitude);
 
+	/**
+	 * Compute the atmospheric conditions at the given altitude into an existing
+	 * object instead of allocating a new one.  The default implementation copies the
+	 * result of {@link #getConditions(double)}.
+	 * 
+	 * @param altitude	the altitude, in meters.
+	 * @param result	the object to store the conditions into.
+	 * @return			<code>result</code>.
+	 */
+	public default AtmosphericConditions getConditions(double altitude, AtmosphericConditions result) {
+		AtmosphericConditions c = getConditions(altitude);
+		result.setConditions(c.getTemperature(), c.getPressure());
+		return result;
+	}
+
 }
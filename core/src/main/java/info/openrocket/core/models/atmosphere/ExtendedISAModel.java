@@ -64,6 +64,24 @@ public class ExtendedISAModel extends InterpolatingAtmosphericModel {
 	 *                                  of the ISA model (over 11km).
 	 */
 	public ExtendedISAModel(double altitude, double temperature, double pressure) {
+		this(altitude, temperature, pressure, Interpolation.LINEAR);
+	}
+
+	/**
+	 * Construct an extended model with the given temperature and pressure at the
+	 * specified altitude, using the given method to interpolate between the
+	 * precomputed layers.
+	 * 
+	 * @param altitude      the altitude of the measurements.
+	 * @param temperature   the temperature.
+	 * @param pressure      the pressure.
+	 * @param interpolation the interpolation method.
+	 * @throws IllegalArgumentException if the altitude exceeds the second layer
+	 *                                  boundary
+	 *                                  of the ISA model (over 11km).
+	 */
+	public ExtendedISAModel(double altitude, double temperature, double pressure, Interpolation interpolation) {
+		super(DEFAULT_DELTA, interpolation);
 		if (altitude >= layer[1]) {
 			throw new IllegalArgumentException("Too high first altitude: " + altitude);
 		}
@@ -81,7 +99,7 @@ public class ExtendedISAModel extends InterpolatingAtmosphericModel {
 	protected AtmosphericConditions getExactConditions(double altitude) {
 		altitude = MathUtil.clamp(altitude, layer[0], layer[layer.length - 1]);
 		int n;
-		for (n = 0; n < layer.length - 1; n++) {
+		for (n = 0; n < layer.length - 2; n++) {
 			if (layer[n + 1] > altitude)
 				break;
 		}
@@ -3,62 +3,135 @@ package info.openrocket.core.models.atmosphere;
 /**
  * An abstract atmospheric model that pre-computes the conditions on a number of
  * layers
- * and later linearly interpolates the values from between these layers.
+ * and later interpolates the values from between these layers.
+ * <p>
+ * The layers are computed once into an immutable table when first needed, after which
+ * the model can be queried concurrently from any number of threads.  The values are
+ * interpolated either linearly or with a cubic (Catmull-Rom) spline through the
+ * neighbouring layers.  Altitudes below zero or above the highest layer return the
+ * conditions of the lowest or highest layer.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public abstract class InterpolatingAtmosphericModel implements AtmosphericModel {
+	/** Default layer thickness of interpolated altitude. */
+	public static final double DEFAULT_DELTA = 50;
+
+	/**
+	 * The interpolation method used between the layers.
+	 */
+	public enum Interpolation {
+		LINEAR,
+		CUBIC
+	}
+
 	/** Layer thickness of interpolated altitude. */
-	private static final double DELTA = 500;
+	private final double delta;
+	private final Interpolation interpolation;
+
+	private volatile Layers layers = null;
+
+	/**
+	 * Construct a model with the default layer thickness and linear interpolation.
+	 */
+	protected InterpolatingAtmosphericModel() {
+		this(DEFAULT_DELTA, Interpolation.LINEAR);
+	}
 
-	private AtmosphericConditions[] levels = null;
+	/**
+	 * Construct a model with the given layer thickness and interpolation method.
+	 * 
+	 * @param delta			the layer thickness, in meters.
+	 * @param interpolation	the interpolation method.
+	 */
+	protected InterpolatingAtmosphericModel(double delta, Interpolation interpolation) {
+		if (!(delta > 0)) {
+			throw new IllegalArgumentException("Illegal layer thickness: " + delta);
+		}
+		if (interpolation == null) {
+			throw new IllegalArgumentException("interpolation is null");
+		}
+		this.delta = delta;
+		this.interpolation = interpolation;
+	}
+
+	public Interpolation getInterpolation() {
+		return interpolation;
+	}
 
 	@Override
 	public AtmosphericConditions getConditions(double altitude) {
-		if (levels == null)
-			computeLayers();
-
-		if (altitude <= 0) {
-			// TODO: LOW: levels[0] returned null in some cases, see GitHub issue #952 for
-			// more information
-			if (levels[0] == null) {
-				computeLayers();
-			}
-			return levels[0];
+		return getConditions(altitude, new AtmosphericConditions());
+	}
+
+	@Override
+	public AtmosphericConditions getConditions(double altitude, AtmosphericConditions result) {
+		Layers l = getLayers();
+		int last = l.temperature.length - 1;
+
+		if (!(altitude > 0)) {
+			result.setConditions(l.temperature[0], l.pressure[0]);
+			return result;
 		}
-		if (altitude >= DELTA * (levels.length - 1)) {
-			// TODO: LOW: levels[levels.length - 1] returned null in some cases, see GitHub
-			// issue #952 for more information
-			if (levels[levels.length - 1] == null) {
-				computeLayers();
-			}
-			return levels[levels.length - 1];
+		if (altitude >= delta * last) {
+			result.setConditions(l.temperature[last], l.pressure[last]);
+			return result;
 		}
 
-		int n = (int) (altitude / DELTA);
-		double d = (altitude - n * DELTA) / DELTA;
-		AtmosphericConditions c = new AtmosphericConditions();
-		// TODO: LOW: levels[n] returned null in some cases, see GitHub issue #2180 for
-		// more information
-		if (levels[n] == null) {
-			computeLayers();
+		int n = (int) (altitude / delta);
+		double d = (altitude - n * delta) / delta;
+		if (interpolation == Interpolation.CUBIC) {
+			result.setConditions(cubic(l.temperature, n, d), cubic(l.pressure, n, d));
+		} else {
+			result.setConditions(l.temperature[n] * (1 - d) + l.temperature[n + 1] * d,
+					l.pressure[n] * (1 - d) + l.pressure[n + 1] * d);
 		}
-		c.setTemperature(levels[n].getTemperature() * (1 - d) + levels[n + 1].getTemperature() * d);
-		c.setPressure(levels[n].getPressure() * (1 - d) + levels[n + 1].getPressure() * d);
+		return result;
+	}
 
-		return c;
+	/**
+	 * Catmull-Rom interpolation between values[n] and values[n+1].  The table is
+	 * extrapolated linearly beyond its ends.
+	 */
+	private static double cubic(double[] values, int n, double d) {
+		double p1 = values[n];
+		double p2 = values[n + 1];
+		double p0 = (n > 0) ? values[n - 1] : 2 * p1 - p2;
+		double p3 = (n + 2 < values.length) ? values[n + 2] : 2 * p2 - p1;
+		return p1 + 0.5 * d * (p2 - p0 + d * (2 * p0 - 5 * p1 + 4 * p2 - p3 + d * (3 * (p1 - p2) + p3 - p0)));
 	}
 
-	private void computeLayers() {
-		double max = getMaxAltitude();
-		int n = (int) (max / DELTA) + 1;
-		levels = new AtmosphericConditions[n];
-		for (int i = 0; i < n; i++) {
-			levels[i] = getExactConditions(i * DELTA);
+	private Layers getLayers() {
+		Layers l = layers;
+		if (l == null) {
+			// Concurrent callers may both compute the layers, but each sees a complete table
+			l = new Layers(this);
+			layers = l;
 		}
+		return l;
 	}
 
 	protected abstract double getMaxAltitude();
 
 	protected abstract AtmosphericConditions getExactConditions(double altitude);
+
+
+	/**
+	 * The precomputed temperature and pressure of each layer.
+	 */
+	private static final class Layers {
+		private final double[] temperature;
+		private final double[] pressure;
+
+		Layers(InterpolatingAtmosphericModel model) {
+			int n = (int) Math.ceil(model.getMaxAltitude() / model.delta) + 1;
+			temperature = new double[n];
+			pressure = new double[n];
+			for (int i = 0; i < n; i++) {
+				AtmosphericConditions c = model.getExactConditions(i * model.delta);
+				temperature[i] = c.getTemperature();
+				pressure[i] = c.getPressure();
+			}
+		}
+	}
 }
@@ -18,6 +18,9 @@ public class MultiLevelPinkNoiseWindModel implements WindModel {
 
 	private final List<StateChangeListener> listeners = new ArrayList<>();
 
+	private ModID modID = new ModID();
+	private WindGrid windGrid = null;
+
 	public MultiLevelPinkNoiseWindModel() {
 		this.levels = new ArrayList<>();
 	}
@@ -105,7 +108,25 @@ public class MultiLevelPinkNoiseWindModel implements WindModel {
 
 	@Override
 	public ModID getModID() {
-		return ModID.ZERO; // You might want to create a specific ModID for this model
+		return modID;
+	}
+
+	/**
+	 * Return a precomputed grid of the wind of this model.  The grid reproduces the
+	 * wind of this model with faster lookups, and is shared by this model and its
+	 * copies until the model is changed.
+	 *
+	 * @return	a wind grid of the current wind levels.
+	 */
+	public synchronized WindGrid getWindGrid() {
+		if (windGrid == null || windGrid.getModID() != modID || !windGrid.isGridOf(this)) {
+			if (windGrid != null && windGrid.getModID() == modID) {
+				// The levels were modified without a change event reaching this model
+				modID = new ModID();
+			}
+			windGrid = new WindGrid(this, modID);
+		}
+		return windGrid;
 	}
 
 	public void loadFrom(MultiLevelPinkNoiseWindModel source) {
@@ -113,6 +134,9 @@ public class MultiLevelPinkNoiseWindModel implements WindModel {
 		for (LevelWindModel level : source.levels) {
 			this.levels.add(level.clone());
 		}
+		// The levels are identical, including the random seeds
+		this.modID = source.modID;
+		this.windGrid = source.windGrid;
 	}
 
 	@Override
@@ -261,6 +285,7 @@ public class MultiLevelPinkNoiseWindModel implements WindModel {
 	}
 
 	public void fireChangeEvent() {
+		modID = new ModID();
 		EventObject event = new EventObject(this);
 		// Copy the list before iterating to prevent concurrent modification exceptions.
 		EventListener[] list = listeners.toArray(new EventListener[0]);
@@ -158,7 +158,7 @@ public class PinkNoiseWindModel implements WindModel {
 		}
 
 		if (randomSource == null) {
-			randomSource = new PinkNoise(ALPHA, POLES, new Random(seed));
+			randomSource = createRandomSource();
 			time1 = 0;
 			value1 = randomSource.nextValue();
 			value2 = randomSource.nextValue();
@@ -182,6 +182,21 @@ public class PinkNoiseWindModel implements WindModel {
 
 	}
 
+	/**
+	 * Create a new pink noise source for this model.  All sources of models with the
+	 * same seed produce the same sequence of values, one per {@link #DELTA_T}.
+	 */
+	PinkNoise createRandomSource() {
+		return new PinkNoise(ALPHA, POLES, new Random(seed));
+	}
+
+	/**
+	 * Return the wind speed corresponding to a value of the pink noise source.
+	 */
+	double getSpeed(double noiseValue) {
+		return average + noiseValue * standardDeviation / STDDEV;
+	}
+
 	private void reset() {
 		randomSource = null;
 	}
@@ -0,0 +1,191 @@
+package info.openrocket.core.models.wind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.ModID;
+import info.openrocket.core.util.PinkNoise;
+import info.openrocket.core.util.StateChangeListener;
+
+/**
+ * A precomputed realization of a {@link MultiLevelPinkNoiseWindModel}.
+ * <p>
+ * The wind speed of each level is sampled every {@link PinkNoiseWindModel#DELTA_T}
+ * seconds from the same pseudo-random sequence as the level model itself, so the grid
+ * reproduces the wind of the model it was created from.  The velocity is interpolated
+ * linearly in time and between the levels in altitude using primitive arrays only.
+ * <p>
+ * The samples are generated when first needed and extended as later times are queried.
+ * Apart from that the grid is immutable, and it can be shared by any number of
+ * concurrently running simulations; {@link #clone()} returns the grid itself.  The
+ * modification ID of the grid is that of the model it was created from.
+ */
+public final class WindGrid implements WindModel {
+
+	private static final int INITIAL_SAMPLES = 1024;
+
+	private final ModID modID;
+	private final double[] altitudes;
+	private final double[] sin;
+	private final double[] cos;
+
+	/** Copies of the sampled levels, sorted by altitude */
+	private final List<MultiLevelPinkNoiseWindModel.LevelWindModel> levels;
+
+	// Only accessed while holding the lock of this grid
+	private final PinkNoiseWindModel[] models;
+	private final PinkNoise[] sources;
+
+	/** The wind speed samples of each level, replaced when extended */
+	private volatile double[][] speeds;
+
+	/**
+	 * Create a grid of the current wind levels of a model.  Later changes to the model
+	 * do not affect the grid.
+	 *
+	 * @param model	the wind model to sample.
+	 * @param modID	the modification ID of the model.
+	 */
+	WindGrid(MultiLevelPinkNoiseWindModel model, ModID modID) {
+		this.modID = modID;
+
+		this.levels = sortedCopy(model);
+		int n = levels.size();
+		altitudes = new double[n];
+		sin = new double[n];
+		cos = new double[n];
+		models = new PinkNoiseWindModel[n];
+		sources = new PinkNoise[n];
+		double[][] s = new double[n][0];
+		for (int i = 0; i < n; i++) {
+			MultiLevelPinkNoiseWindModel.LevelWindModel level = levels.get(i);
+			altitudes[i] = level.altitude;
+			sin[i] = Math.sin(level.model.getDirection());
+			cos[i] = Math.cos(level.model.getDirection());
+			models[i] = level.model;
+			sources[i] = models[i].createRandomSource();
+		}
+		speeds = s;
+	}
+
+	private static List<MultiLevelPinkNoiseWindModel.LevelWindModel> sortedCopy(MultiLevelPinkNoiseWindModel model) {
+		List<MultiLevelPinkNoiseWindModel.LevelWindModel> copy = new ArrayList<>();
+		for (MultiLevelPinkNoiseWindModel.LevelWindModel level : model.getLevels()) {
+			copy.add(level.clone());
+		}
+		copy.sort((l1, l2) -> Double.compare(l1.altitude, l2.altitude));
+		return copy;
+	}
+
+	/**
+	 * Return whether this grid was created from wind levels equal to the current
+	 * levels of the given model, including their random seeds.
+	 */
+	boolean isGridOf(MultiLevelPinkNoiseWindModel model) {
+		return levels.equals(sortedCopy(model));
+	}
+
+	/**
+	 * @return	the number of time samples currently generated for each level.
+	 */
+	public int getSampleCount() {
+		double[][] s = speeds;
+		return (s.length == 0) ? 0 : s[0].length;
+	}
+
+	@Override
+	public Coordinate getWindVelocity(double time, double altitude) {
+		if (time < 0) {
+			throw new IllegalArgumentException("Requesting wind speed at t=" + time);
+		}
+		final int n = altitudes.length;
+		if (n == 0) {
+			return Coordinate.ZERO;
+		}
+
+		double position = time / PinkNoiseWindModel.DELTA_T;
+		int k = (int) position;
+		double a = position - k;
+
+		double[][] s = speeds;
+		if (s[0].length < k + 2) {
+			s = extend(k + 2);
+		}
+
+		// Find the levels to interpolate between, taking the outer level outside the range
+		int lower, upper;
+		double fraction = 0;
+		int index = Arrays.binarySearch(altitudes, altitude);
+		if (index >= 0) {
+			lower = upper = index;
+		} else {
+			int insertionPoint = -index - 1;
+			if (insertionPoint == 0) {
+				lower = upper = 0;
+			} else if (insertionPoint == n) {
+				lower = upper = n - 1;
+			} else {
+				lower = insertionPoint - 1;
+				upper = insertionPoint;
+				fraction = (altitude - altitudes[lower]) / (altitudes[upper] - altitudes[lower]);
+			}
+		}
+
+		double speed = s[lower][k] * (1 - a) + s[lower][k + 1] * a;
+		double vx = speed * sin[lower];
+		double vy = speed * cos[lower];
+		if (upper != lower) {
+			speed = s[upper][k] * (1 - a) + s[upper][k + 1] * a;
+			vx += (speed * sin[upper] - vx) * fraction;
+			vy += (speed * cos[upper] - vy) * fraction;
+		}
+		return new Coordinate(vx, vy, 0);
+	}
+
+	/**
+	 * Generate samples so that each level has at least <code>count</code> of them.
+	 */
+	private synchronized double[][] extend(int count) {
+		double[][] s = speeds;
+		int current = s[0].length;
+		if (current >= count) {
+			return s;
+		}
+
+		int length = Math.max(count, Math.max(INITIAL_SAMPLES, current * 2));
+		double[][] extended = new double[s.length][];
+		for (int i = 0; i < s.length; i++) {
+			extended[i] = Arrays.copyOf(s[i], length);
+			for (int k = current; k < length; k++) {
+				extended[i][k] = models[i].getSpeed(sources[i].nextValue());
+			}
+		}
+		speeds = extended;
+		return extended;
+	}
+
+	@Override
+	public ModID getModID() {
+		return modID;
+	}
+
+	/**
+	 * Return this grid, which is immutable and can be shared.
+	 */
+	@Override
+	public WindGrid clone() {
+		return this;
+	}
+
+	@Override
+	public void addChangeListener(StateChangeListener listener) {
+		// The grid never changes
+	}
+
+	@Override
+	public void removeChangeListener(StateChangeListener listener) {
+		// The grid never changes
+	}
+}
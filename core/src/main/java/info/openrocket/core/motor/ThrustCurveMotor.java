@@ -1,5 +1,7 @@
 package info.openrocket.core.motor;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -61,6 +63,15 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 
+	// Tables derived from the thrust curve by computeTables(), indexed like the time points
+	private transient double[] cumulativeImpulse;
+	private transient double[] mass;
+	private transient double[] cgx;
+
+	// The time segment of the previous query.  This is only a hint for the next query,
+	// so unsynchronized access from several threads is harmless.
+	private transient int cursor = 0;
+
 	public static class Builder {
 
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -258,6 +269,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 			}
 
 			motor.computeStatistics();
+			motor.computeTables();
 
 			return motor;
 		}
@@ -304,15 +316,35 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return ((double) lowerIndex) + fraction;
 	}
 
+	/**
+	 * Return the index of the last time point at or before the given time, or zero if
+	 * the time is before the first time point.  The segment of the previous query and
+	 * the one following it are checked first, since successive queries are usually
+	 * close in time, otherwise the segment is found by a binary search.
+	 */
 	private int getIndex(final double motorTime) {
-		int lowerBoundIndex = 0;
-		int upperBoundIndex = 0;
-		while ((upperBoundIndex < time.length) && (motorTime >= time[upperBoundIndex])) {
-			lowerBoundIndex = upperBoundIndex;
-			++upperBoundIndex;
+		final int last = time.length - 1;
+		int index = cursor;
+		if (time[index] <= motorTime) {
+			if (index == last || motorTime < time[index + 1]) {
+				return index;
+			}
+			if (index + 1 == last || motorTime < time[index + 2]) {
+				cursor = index + 1;
+				return index + 1;
+			}
 		}
 
-		return lowerBoundIndex;
+		if (!(motorTime >= time[0])) {
+			// Before the start of the curve or NaN
+			return 0;
+		}
+		index = Arrays.binarySearch(time, motorTime);
+		if (index < 0) {
+			index = -index - 2;
+		}
+		cursor = index;
+		return index;
 	}
 
 	private double getIndexFraction(final double motorTime, final int index) {
@@ -346,10 +378,10 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getAverageThrust(final double startTime, final double endTime) {
 
-		int timeIndex = 0;
-
-		while (timeIndex < time.length - 1 && startTime > time[timeIndex + 1]) {
-			timeIndex++;
+		// The time slice containing the start time, preferring the earlier slice at a time point
+		int timeIndex = getIndex(startTime);
+		if (timeIndex > 0 && time[timeIndex] == startTime) {
+			timeIndex--;
 		}
 
 		if (timeIndex == time.length - 1) {
@@ -373,23 +405,38 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 				thrust[timeIndex + 1]);
 		impulse = (time[timeIndex + 1] - startTime) * (startThrust + thrust[timeIndex + 1]) / 2.0;
 
-		// Now add the whole steps;
-		timeIndex++;
-		while (timeIndex < time.length - 1 && endTime >= time[timeIndex + 1]) {
-			impulse += (time[timeIndex + 1] - time[timeIndex]) * (thrust[timeIndex] + thrust[timeIndex + 1]) / 2.0;
-			timeIndex++;
-		}
+		// Now add the whole steps from the cumulative impulse
+		int endIndex = getIndex(endTime);
+		impulse += cumulativeImpulse[endIndex] - cumulativeImpulse[timeIndex + 1];
 
 		// Now add the bit after the last time index
-		if (timeIndex < time.length - 1) {
-			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex],
-					thrust[timeIndex + 1]);
-			impulse += (endTime - time[timeIndex]) * (thrust[timeIndex] + endThrust) / 2.0;
+		if (endIndex < time.length - 1) {
+			double endThrust = MathUtil.map(endTime, time[endIndex], time[endIndex + 1], thrust[endIndex],
+					thrust[endIndex + 1]);
+			impulse += (endTime - time[endIndex]) * (thrust[endIndex] + endThrust) / 2.0;
 		}
 
 		return impulse / (endTime - startTime);
 	}
 
+	/**
+	 * Return the total impulse of the thrust curve from ignition until the given time.
+	 * 
+	 * @param motorTime	time after motor ignition, in seconds.
+	 * @return			the impulse produced by then, in Ns.
+	 */
+	public double getImpulse(final double motorTime) {
+		if (!(motorTime > 0)) {
+			return 0.0;
+		}
+		final int index = getIndex(motorTime);
+		if (index == time.length - 1) {
+			return cumulativeImpulse[index];
+		}
+		double thrustAtTime = MathUtil.map(motorTime, time[index], time[index + 1], thrust[index], thrust[index + 1]);
+		return cumulativeImpulse[index] + (motorTime - time[index]) * (thrust[index] + thrustAtTime) / 2.0;
+	}
+
 	@Override
 	public double getThrust(final double motorTime) {
 		double pseudoIndex = getPseudoIndex(motorTime);
@@ -401,7 +448,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getCMx(final double motorTime) {
 		double pseudoIndex = getPseudoIndex(motorTime);
-		return this.interpolateCenterOfMassAtIndex(pseudoIndex).x;
+		return interpolateTableAtIndex(cgx, pseudoIndex);
 	}
 
 	public String getCaseInfo() {
@@ -607,7 +654,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getTotalMass(final double motorTime) {
 		final double pseudoIndex = getPseudoIndex(motorTime);
-		return interpolateCenterOfMassAtIndex(pseudoIndex).weight;
+		return interpolateTableAtIndex(mass, pseudoIndex);
 	}
 
 	public double getPropellantMass() {
@@ -617,7 +664,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getPropellantMass(final Double motorTime) {
 		final double pseudoIndex = getPseudoIndex(motorTime);
-		final double totalMass = interpolateCenterOfMassAtIndex(pseudoIndex).weight;
+		final double totalMass = interpolateTableAtIndex(mass, pseudoIndex);
 		return totalMass - this.getBurnoutMass();
 	}
 
@@ -643,6 +690,26 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return lowerValue.add(upperValue);
 	}
 
+	/**
+	 * Interpolate one of the mass or CG tables in the same way as
+	 * {@link #interpolateCenterOfMassAtIndex(double)}, without creating coordinates.
+	 */
+	private static double interpolateTableAtIndex(final double[] values, final double pseudoIndex) {
+		final double SNAP_TOLERANCE = 0.0001;
+
+		final double upperFrac = pseudoIndex % 1;
+		final double lowerFrac = 1 - upperFrac;
+		final int lowerIndex = (int) pseudoIndex;
+
+		// if the pseudo index is close to an integer:
+		if (SNAP_TOLERANCE > (1 - lowerFrac)) {
+			return values[lowerIndex];
+		}
+
+		// return simple linear interpolation
+		return values[lowerIndex] * lowerFrac + values[lowerIndex + 1] * upperFrac;
+	}
+
 	public int getDataSize() {
 		return this.time.length;
 	}
@@ -773,6 +840,29 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	}
 
+	/**
+	 * Compute the cumulative impulse, mass and CG tables used for the time queries.
+	 */
+	private void computeTables() {
+		cumulativeImpulse = new double[time.length];
+		mass = new double[time.length];
+		cgx = new double[time.length];
+		for (int i = 0; i < time.length; i++) {
+			if (i > 0) {
+				cumulativeImpulse[i] = cumulativeImpulse[i - 1] +
+						(time[i] - time[i - 1]) * (thrust[i - 1] + thrust[i]) / 2;
+			}
+			mass[i] = cg[i].weight;
+			cgx[i] = cg[i].x;
+		}
+		cursor = 0;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		computeTables();
+	}
+
 	////////// Static methods
 
 	/**
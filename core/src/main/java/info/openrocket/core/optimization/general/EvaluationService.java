@@ -0,0 +1,299 @@
+package info.openrocket.core.optimization.general;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import info.openrocket.core.util.BugException;
+import info.openrocket.core.util.CancellationToken;
+
+/**
+ * A ParallelFunctionCache that evaluates function values on a bounded pool of
+ * worker threads and supports cooperative cancellation of running evaluations.
+ * <p>
+ * At most <code>threadCount</code> points are evaluated concurrently and at most
+ * <code>queueCapacity</code> further points are queued.  When the queue is full, the
+ * point is evaluated in the thread calling {@link #compute(Point)}, which throttles
+ * optimizers that schedule points faster than they can be evaluated.
+ * <p>
+ * Every evaluation runs with its own {@link CancellationToken} bound to the worker
+ * thread.  Aborting a point removes it from the queue if it has not started, and
+ * otherwise cancels its token, so a running simulation stops at its next step instead
+ * of occupying the worker thread until the flight has been simulated to the end.
+ * <p>
+ * Like {@link ParallelExecutorCache}, the public methods are NOT thread-safe and should
+ * be called from only one thread at a time.
+ */
+public class EvaluationService implements ParallelFunctionCache {
+
+	private final Map<Point, Double> functionCache = new HashMap<>();
+	private final Map<Point, Evaluation> evaluationMap = new HashMap<>();
+
+	private final ThreadPoolExecutor executor;
+
+	private Function function;
+
+	/**
+	 * Construct a service that uses the same number of worker threads as there are
+	 * processors available.
+	 */
+	public EvaluationService() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct a service that uses the specified number of worker threads and queues
+	 * at most four points per thread.
+	 *
+	 * @param threadCount	the number of worker threads.
+	 */
+	public EvaluationService(int threadCount) {
+		this(threadCount, 4 * threadCount);
+	}
+
+	/**
+	 * Construct a service that uses the specified number of worker threads and queue
+	 * capacity.  The threads that are created are daemon threads, and they are
+	 * stopped when idle.
+	 *
+	 * @param threadCount	the number of worker threads.
+	 * @param queueCapacity	the maximum number of points waiting for a worker thread.
+	 */
+	public EvaluationService(int threadCount, int queueCapacity) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("queueCapacity must be positive, was " + queueCapacity);
+		}
+		executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				r -> {
+					Thread t = new Thread(r, "EvaluationService");
+					t.setDaemon(true);
+					return t;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public void compute(Collection<Point> points) {
+		for (Point p : points) {
+			compute(p);
+		}
+	}
+
+	@Override
+	public void compute(Point point) {
+		if (isOutsideRange(point)) {
+			return;
+		}
+		if (functionCache.containsKey(point) || evaluationMap.containsKey(point)) {
+			// Function has been or is being evaluated at the point
+			return;
+		}
+
+		Evaluation evaluation = new Evaluation(function, point);
+		evaluationMap.put(point, evaluation);
+		executor.execute(evaluation.task);
+	}
+
+	@Override
+	public void waitFor(Collection<Point> points) throws InterruptedException, OptimizationException {
+		for (Point p : points) {
+			waitFor(p);
+		}
+	}
+
+	@Override
+	public void waitFor(Point point) throws InterruptedException, OptimizationException {
+		if (isOutsideRange(point) || functionCache.containsKey(point)) {
+			return;
+		}
+
+		Evaluation evaluation = evaluationMap.get(point);
+		if (evaluation == null) {
+			throw new IllegalStateException("waitFor called for " + point + " but it is not being computed");
+		}
+
+		try {
+			double value = evaluation.task.get();
+			evaluationMap.remove(point);
+			functionCache.put(point, value);
+		} catch (CancellationException e) {
+			throw new BugException("waitFor called for aborted point " + point, e);
+		} catch (ExecutionException e) {
+			evaluationMap.remove(point);
+			Throwable cause = e.getCause();
+			if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			}
+			if (cause instanceof OptimizationException) {
+				throw (OptimizationException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			throw new BugException("Function threw unknown exception while processing", e);
+		}
+	}
+
+	@Override
+	public List<Point> abort(Collection<Point> points) {
+		List<Point> computed = new ArrayList<>(Math.min(points.size(), 10));
+		for (Point p : points) {
+			if (abort(p)) {
+				computed.add(p);
+			}
+		}
+		return computed;
+	}
+
+	@Override
+	public boolean abort(Point point) {
+		if (isOutsideRange(point)) {
+			return false;
+		}
+		if (functionCache.containsKey(point)) {
+			return true;
+		}
+
+		Evaluation evaluation = evaluationMap.remove(point);
+		if (evaluation == null) {
+			throw new IllegalStateException("abort called for " + point + " but it is not being computed");
+		}
+		return abort(point, evaluation);
+	}
+
+	@Override
+	public void abortAll() {
+		for (Map.Entry<Point, Evaluation> entry : evaluationMap.entrySet()) {
+			abort(entry.getKey(), entry.getValue());
+		}
+		evaluationMap.clear();
+	}
+
+	/**
+	 * Store the value of a finished evaluation, or cancel an unfinished one.
+	 *
+	 * @return	whether the value was available.
+	 */
+	private boolean abort(Point point, Evaluation evaluation) {
+		if (evaluation.task.isDone()) {
+			try {
+				functionCache.put(point, evaluation.task.get());
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		}
+
+		// Drop the point from the queue, or stop the running simulation at its next step
+		evaluation.token.cancel();
+		evaluation.task.cancel(true);
+		executor.remove(evaluation.task);
+		return false;
+	}
+
+	@Override
+	public double getValue(Point point) {
+		if (isOutsideRange(point)) {
+			return Double.MAX_VALUE;
+		}
+
+		Double d = functionCache.get(point);
+		if (d == null) {
+			throw new IllegalStateException(point + " is not in function cache.  " +
+					"functionCache=" + functionCache + "  evaluationMap=" + evaluationMap.keySet());
+		}
+		return d;
+	}
+
+	@Override
+	public Function getFunction() {
+		return function;
+	}
+
+	@Override
+	public void setFunction(Function function) {
+		this.function = function;
+		clearCache();
+	}
+
+	@Override
+	public void clearCache() {
+		abortAll();
+		functionCache.clear();
+	}
+
+	/**
+	 * @return	the number of points waiting for a worker thread.
+	 */
+	public int getQueuedCount() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * @return	the number of points currently being evaluated by the worker threads.
+	 */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * Abort all evaluations and shut down the worker threads.  The service cannot be
+	 * used after calling this method.
+	 */
+	public void shutdown() {
+		abortAll();
+		executor.shutdown();
+	}
+
+	/**
+	 * Check whether a point is outside of the valid optimization range.
+	 */
+	private boolean isOutsideRange(Point p) {
+		int n = p.dim();
+		for (int i = 0; i < n; i++) {
+			double d = p.get(i);
+			// Include NaN in disallowed range
+			if (!(d >= 0.0 && d <= 1.0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A scheduled evaluation of the function at a point, with the token cancelling it.
+	 */
+	private static class Evaluation {
+		private final CancellationToken token = new CancellationToken();
+		private final FutureTask<Double> task;
+
+		public Evaluation(final Function function, final Point point) {
+			task = new FutureTask<>(new Callable<Double>() {
+				@Override
+				public Double call() throws InterruptedException, OptimizationException {
+					CancellationToken previous = CancellationToken.bind(token);
+					try {
+						return function.evaluate(point);
+					} finally {
+						CancellationToken.bind(previous);
+					}
+				}
+			});
+		}
+	}
+}
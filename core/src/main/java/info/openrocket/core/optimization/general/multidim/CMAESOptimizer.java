@@ -0,0 +1,298 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * An implementation of the covariance matrix adaptation evolution strategy (CMA-ES)
+ * by Hansen and Ostermeier.
+ * <p>
+ * Each generation samples points from a multivariate normal distribution and moves the
+ * mean of the distribution towards the weighted mean of the best half of the points.
+ * The covariance matrix and the overall step size are adapted from the successful
+ * steps, so the distribution learns the scaling and the correlations of the
+ * parameters.  Sampled points are clamped into the unit hypercube, and the clamped
+ * points are used when updating the distribution.
+ * <p>
+ * The step size reported to the controller is the standard deviation of the
+ * distribution along its longest axis.
+ */
+public class CMAESOptimizer extends PopulationOptimizer {
+
+	/** The default initial standard deviation of the distribution */
+	public static final double DEFAULT_INITIAL_SIGMA = 0.25;
+
+	private final int requestedPopulationSize;
+	private final double initialSigma;
+
+	// Strategy parameters
+	private int dim;
+	private int lambda;
+	private int mu;
+	private double[] weights;
+	private double mueff;
+	private double cc;
+	private double cs;
+	private double c1;
+	private double cmu;
+	private double damps;
+	private double chiN;
+
+	// Distribution state
+	private double[] mean;
+	private double sigma;
+	private double[][] c;
+	private double[][] b;
+	private double[] d;
+	private double[] pc;
+	private double[] ps;
+	private int generation;
+
+	public CMAESOptimizer() {
+		this(null);
+	}
+
+	public CMAESOptimizer(ParallelFunctionCache functionCache) {
+		this(functionCache, 0, DEFAULT_INITIAL_SIGMA, System.nanoTime());
+	}
+
+	/**
+	 * @param functionCache		the function cache, or <code>null</code> to set it later.
+	 * @param populationSize	the number of points per generation, at least 2, or zero for a
+	 * 							default depending on the dimension and the number of processors.
+	 * @param initialSigma		the initial standard deviation of the distribution, in the range (0, 1].
+	 * @param seed				the seed of the random number generator.
+	 */
+	public CMAESOptimizer(ParallelFunctionCache functionCache, int populationSize, double initialSigma, long seed) {
+		super(functionCache, seed);
+		if (populationSize != 0 && populationSize < 2) {
+			throw new IllegalArgumentException("populationSize must be at least 2, was " + populationSize);
+		}
+		if (!(initialSigma > 0 && initialSigma <= 1)) {
+			throw new IllegalArgumentException("Illegal initial sigma: " + initialSigma);
+		}
+		this.requestedPopulationSize = populationSize;
+		this.initialSigma = initialSigma;
+	}
+
+	@Override
+	protected void initialize(Point initial, double initialValue) {
+		dim = initial.dim();
+		lambda = (requestedPopulationSize > 0) ? requestedPopulationSize :
+				getDefaultPopulationSize(4 + (int) (3 * Math.log(dim)));
+		mu = lambda / 2;
+
+		weights = new double[mu];
+		double sum = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+			sum += weights[i];
+		}
+		double sum2 = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] /= sum;
+			sum2 += weights[i] * weights[i];
+		}
+		mueff = 1 / sum2;
+
+		cc = (4 + mueff / dim) / (dim + 4 + 2 * mueff / dim);
+		cs = (mueff + 2) / (dim + mueff + 5);
+		c1 = 2 / ((dim + 1.3) * (dim + 1.3) + mueff);
+		cmu = Math.min(1 - c1, 2 * (mueff - 2 + 1 / mueff) / ((dim + 2) * (dim + 2) + mueff));
+		damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (dim + 1)) - 1) + cs;
+		chiN = Math.sqrt(dim) * (1 - 1.0 / (4 * dim) + 1.0 / (21.0 * dim * dim));
+
+		mean = initial.asArray();
+		sigma = initialSigma;
+		c = identity(dim);
+		b = identity(dim);
+		d = new double[dim];
+		Arrays.fill(d, 1.0);
+		pc = new double[dim];
+		ps = new double[dim];
+		generation = 0;
+	}
+
+	@Override
+	protected List<Point> createGeneration() {
+		List<Point> points = new ArrayList<>(lambda);
+		double[] z = new double[dim];
+		for (int k = 0; k < lambda; k++) {
+			for (int i = 0; i < dim; i++) {
+				z[i] = random.nextGaussian() * d[i];
+			}
+			double[] x = new double[dim];
+			for (int i = 0; i < dim; i++) {
+				double y = 0;
+				for (int j = 0; j < dim; j++) {
+					y += b[i][j] * z[j];
+				}
+				x[i] = clamp(mean[i] + sigma * y);
+			}
+			points.add(new Point(x));
+		}
+		return points;
+	}
+
+	@Override
+	protected double updateGeneration(List<Point> points, double[] values) {
+		generation++;
+
+		// Sort the points by value
+		Integer[] order = new Integer[points.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i1, i2) -> Double.compare(values[i1], values[i2]));
+
+		// Steps of the selected points, in units of sigma
+		double[][] y = new double[mu][dim];
+		double[] oldMean = mean.clone();
+		double[] step = new double[dim];
+		for (int k = 0; k < mu; k++) {
+			double[] x = points.get(order[k]).asArray();
+			for (int i = 0; i < dim; i++) {
+				y[k][i] = (x[i] - oldMean[i]) / sigma;
+				step[i] += weights[k] * y[k][i];
+			}
+		}
+		for (int i = 0; i < dim; i++) {
+			mean[i] = oldMean[i] + sigma * step[i];
+		}
+
+		// Evolution path of the step size, using C^(-1/2) = B D^(-1) B^T
+		double[] bty = new double[dim];
+		for (int i = 0; i < dim; i++) {
+			for (int j = 0; j < dim; j++) {
+				bty[i] += b[j][i] * step[j];
+			}
+			bty[i] /= d[i];
+		}
+		double psNorm2 = 0;
+		for (int i = 0; i < dim; i++) {
+			double invsqrtCStep = 0;
+			for (int j = 0; j < dim; j++) {
+				invsqrtCStep += b[i][j] * bty[j];
+			}
+			ps[i] = (1 - cs) * ps[i] + Math.sqrt(cs * (2 - cs) * mueff) * invsqrtCStep;
+			psNorm2 += ps[i] * ps[i];
+		}
+		double psNorm = Math.sqrt(psNorm2);
+		boolean hsig = psNorm / Math.sqrt(1 - Math.pow(1 - cs, 2 * generation)) / chiN < 1.4 + 2.0 / (dim + 1);
+
+		// Evolution path of the covariance matrix
+		for (int i = 0; i < dim; i++) {
+			pc[i] = (1 - cc) * pc[i] + (hsig ? Math.sqrt(cc * (2 - cc) * mueff) * step[i] : 0);
+		}
+
+		// Rank-one and rank-mu update of the covariance matrix
+		double oldWeight = 1 - c1 - cmu + (hsig ? 0 : c1 * cc * (2 - cc));
+		for (int i = 0; i < dim; i++) {
+			for (int j = 0; j <= i; j++) {
+				double rankMu = 0;
+				for (int k = 0; k < mu; k++) {
+					rankMu += weights[k] * y[k][i] * y[k][j];
+				}
+				double v = oldWeight * c[i][j] + c1 * pc[i] * pc[j] + cmu * rankMu;
+				c[i][j] = v;
+				c[j][i] = v;
+			}
+		}
+
+		// Step size adaptation, limited to the size of the search space
+		sigma *= Math.exp((cs / damps) * (psNorm / chiN - 1));
+		sigma = Math.min(sigma, 1.0);
+
+		decompose();
+
+		double maxD = 0;
+		for (int i = 0; i < dim; i++) {
+			maxD = Math.max(maxD, d[i]);
+		}
+		return sigma * maxD;
+	}
+
+	/**
+	 * Compute B and D from the covariance matrix C = B diag(D^2) B^T using the
+	 * Jacobi eigenvalue algorithm, which is adequate for the small dimensions of
+	 * rocket optimization.
+	 */
+	private void decompose() {
+		double[][] a = new double[dim][];
+		for (int i = 0; i < dim; i++) {
+			a[i] = c[i].clone();
+		}
+		double[][] v = identity(dim);
+
+		for (int sweep = 0; sweep < 50; sweep++) {
+			double off = 0;
+			for (int p = 0; p < dim; p++) {
+				for (int q = p + 1; q < dim; q++) {
+					off += a[p][q] * a[p][q];
+				}
+			}
+			if (off < 1e-30) {
+				break;
+			}
+
+			for (int p = 0; p < dim; p++) {
+				for (int q = p + 1; q < dim; q++) {
+					if (a[p][q] == 0) {
+						continue;
+					}
+					double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+					double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					if (theta == 0) {
+						t = 1;
+					}
+					double cos = 1 / Math.sqrt(t * t + 1);
+					double sin = t * cos;
+
+					for (int k = 0; k < dim; k++) {
+						double akp = a[k][p];
+						double akq = a[k][q];
+						a[k][p] = cos * akp - sin * akq;
+						a[k][q] = sin * akp + cos * akq;
+					}
+					for (int k = 0; k < dim; k++) {
+						double apk = a[p][k];
+						double aqk = a[q][k];
+						a[p][k] = cos * apk - sin * aqk;
+						a[q][k] = sin * apk + cos * aqk;
+					}
+					for (int k = 0; k < dim; k++) {
+						double vkp = v[k][p];
+						double vkq = v[k][q];
+						v[k][p] = cos * vkp - sin * vkq;
+						v[k][q] = sin * vkp + cos * vkq;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < dim; i++) {
+			// Guard against eigenvalues lost to rounding errors
+			d[i] = Math.sqrt(Math.max(a[i][i], 1e-20));
+		}
+		b = v;
+	}
+
+	private static double[][] identity(int n) {
+		double[][] m = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			m[i][i] = 1;
+		}
+		return m;
+	}
+
+	/**
+	 * @return	the current standard deviation of the distribution, or NaN if the optimization has not been started.
+	 */
+	public double getSigma() {
+		return (mean != null) ? sigma : Double.NaN;
+	}
+}
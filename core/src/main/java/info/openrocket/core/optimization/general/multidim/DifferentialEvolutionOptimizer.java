@@ -0,0 +1,181 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * An implementation of the differential evolution algorithm by Storn and Price,
+ * using the DE/rand/1/bin strategy.
+ * <p>
+ * The population is initialized with the initial point and points sampled uniformly
+ * from the unit hypercube.  On each generation a trial point is created for every
+ * member of the population by adding the scaled difference of two random members to a
+ * third one and crossing the result over with the member.  The trial points of a
+ * generation are evaluated concurrently, and each one replaces its member if it is at
+ * least as good.  Coordinates of a trial point outside the unit hypercube are moved
+ * halfway between the member and the violated bound.
+ * <p>
+ * The step size reported to the controller is the largest standard deviation of the
+ * population along a coordinate axis.
+ */
+public class DifferentialEvolutionOptimizer extends PopulationOptimizer {
+
+	/** The default differential weight */
+	public static final double DEFAULT_DIFFERENTIAL_WEIGHT = 0.8;
+
+	/** The default crossover probability */
+	public static final double DEFAULT_CROSSOVER_PROBABILITY = 0.9;
+
+	private final int requestedPopulationSize;
+	private final double differentialWeight;
+	private final double crossoverProbability;
+
+	private final List<Point> population = new ArrayList<>();
+	private double[] values;
+	private boolean populationEvaluated;
+
+	public DifferentialEvolutionOptimizer() {
+		this(null);
+	}
+
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache) {
+		this(functionCache, 0, DEFAULT_DIFFERENTIAL_WEIGHT, DEFAULT_CROSSOVER_PROBABILITY, System.nanoTime());
+	}
+
+	/**
+	 * @param functionCache			the function cache, or <code>null</code> to set it later.
+	 * @param populationSize		the size of the population, at least 4, or zero for a
+	 * 								default depending on the dimension and the number of processors.
+	 * @param differentialWeight	the weight of the difference vector, in the range (0, 2].
+	 * @param crossoverProbability	the probability of taking a coordinate from the mutated point, in the range [0, 1].
+	 * @param seed					the seed of the random number generator.
+	 */
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache, int populationSize,
+			double differentialWeight, double crossoverProbability, long seed) {
+		super(functionCache, seed);
+		if (populationSize != 0 && populationSize < 4) {
+			throw new IllegalArgumentException("populationSize must be at least 4, was " + populationSize);
+		}
+		if (!(differentialWeight > 0 && differentialWeight <= 2)) {
+			throw new IllegalArgumentException("Illegal differential weight: " + differentialWeight);
+		}
+		if (!(crossoverProbability >= 0 && crossoverProbability <= 1)) {
+			throw new IllegalArgumentException("Illegal crossover probability: " + crossoverProbability);
+		}
+		this.requestedPopulationSize = populationSize;
+		this.differentialWeight = differentialWeight;
+		this.crossoverProbability = crossoverProbability;
+	}
+
+	@Override
+	protected void initialize(Point initial, double initialValue) {
+		int dim = initial.dim();
+		int size = (requestedPopulationSize > 0) ? requestedPopulationSize : getDefaultPopulationSize(Math.max(4, 5 * dim));
+
+		population.clear();
+		population.add(initial);
+		while (population.size() < size) {
+			double[] x = new double[dim];
+			for (int i = 0; i < dim; i++) {
+				x[i] = random.nextDouble();
+			}
+			population.add(new Point(x));
+		}
+		values = new double[size];
+		values[0] = initialValue;
+		populationEvaluated = false;
+	}
+
+	@Override
+	protected List<Point> createGeneration() {
+		if (!populationEvaluated) {
+			// The first generation evaluates the random members of the initial population
+			return new ArrayList<>(population.subList(1, population.size()));
+		}
+
+		int size = population.size();
+		List<Point> trials = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			int a, b, c;
+			do {
+				a = random.nextInt(size);
+			} while (a == i);
+			do {
+				b = random.nextInt(size);
+			} while (b == i || b == a);
+			do {
+				c = random.nextInt(size);
+			} while (c == i || c == a || c == b);
+
+			Point target = population.get(i);
+			Point pa = population.get(a);
+			Point pb = population.get(b);
+			Point pc = population.get(c);
+
+			int dim = target.dim();
+			int forced = random.nextInt(dim);
+			double[] x = new double[dim];
+			for (int j = 0; j < dim; j++) {
+				if (j == forced || random.nextDouble() < crossoverProbability) {
+					double v = pa.get(j) + differentialWeight * (pb.get(j) - pc.get(j));
+					if (v < 0) {
+						v = target.get(j) / 2;
+					} else if (v > 1) {
+						v = (target.get(j) + 1) / 2;
+					}
+					x[j] = v;
+				} else {
+					x[j] = target.get(j);
+				}
+			}
+			trials.add(new Point(x));
+		}
+		return trials;
+	}
+
+	@Override
+	protected double updateGeneration(List<Point> generation, double[] generationValues) {
+		if (!populationEvaluated) {
+			System.arraycopy(generationValues, 0, values, 1, generationValues.length);
+			populationEvaluated = true;
+		} else {
+			for (int i = 0; i < generation.size(); i++) {
+				if (generationValues[i] <= values[i]) {
+					population.set(i, generation.get(i));
+					values[i] = generationValues[i];
+				}
+			}
+		}
+		return getSpread();
+	}
+
+	/**
+	 * Return the largest standard deviation of the population along a coordinate axis.
+	 */
+	private double getSpread() {
+		int dim = population.get(0).dim();
+		double max = 0;
+		for (int j = 0; j < dim; j++) {
+			double sum = 0;
+			double sum2 = 0;
+			for (Point p : population) {
+				sum += p.get(j);
+				sum2 += p.get(j) * p.get(j);
+			}
+			double mean = sum / population.size();
+			double variance = Math.max(0, sum2 / population.size() - mean * mean);
+			max = Math.max(max, Math.sqrt(variance));
+		}
+		return max;
+	}
+
+	/**
+	 * @return	the current population, or an empty list if the optimization has not been started.
+	 */
+	public List<Point> getPopulation() {
+		return new ArrayList<>(population);
+	}
+}
@@ -0,0 +1,198 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * Base class of population-based global optimization algorithms.
+ * <p>
+ * Each generation of candidate points is queued to the {@link ParallelFunctionCache}
+ * at once, so all of its points are evaluated concurrently.  The candidate points are
+ * kept within the unit hypercube, which is the range of valid points of the function
+ * cache.  For rocket optimization this corresponds to the minimum and maximum values
+ * of the simulation modifiers.
+ * <p>
+ * The controller is called after every generation with the best point found so far
+ * and the step size reported by the algorithm.  The optimization can be aborted by
+ * interrupting the current thread.
+ */
+public abstract class PopulationOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(PopulationOptimizer.class);
+
+	/** The random number generator used for sampling the candidate points */
+	protected final Random random;
+
+	private ParallelFunctionCache functionExecutor;
+
+	private Point optimumPoint = null;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int improvementCount = 0;
+
+	/**
+	 * @param functionCache		the function cache, or <code>null</code> to set it later.
+	 * @param seed				the seed of the random number generator.
+	 */
+	protected PopulationOptimizer(ParallelFunctionCache functionCache, long seed) {
+		this.functionExecutor = functionCache;
+		this.random = new Random(seed);
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		log.info("Starting " + getClass().getSimpleName() + " at " + initial);
+		optimumPoint = null;
+
+		try {
+
+			functionExecutor.compute(initial);
+			functionExecutor.waitFor(initial);
+			optimumPoint = initial;
+			initialize(initial, functionExecutor.getValue(initial));
+
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+
+				List<Point> generation = createGeneration();
+				log.debug("Evaluating generation " + generationCount + " of " + generation.size() + " points");
+
+				functionExecutor.compute(generation);
+				functionExecutor.waitFor(generation);
+				double[] values = new double[generation.size()];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = functionExecutor.getValue(generation.get(i));
+				}
+				generationCount++;
+				evaluationCount += values.length;
+
+				Point oldPoint = optimumPoint;
+				double oldValue = functionExecutor.getValue(oldPoint);
+				double newValue = oldValue;
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] < newValue) {
+						optimumPoint = generation.get(i);
+						newValue = values[i];
+					}
+				}
+				if (newValue < oldValue) {
+					improvementCount++;
+				}
+
+				double step = updateGeneration(generation, values);
+				log.debug("Generation " + generationCount + " best value " + newValue + " step " + step);
+
+				continueOptimization = control.stepTaken(oldPoint, oldValue, optimumPoint, newValue, step);
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		}
+
+		if (optimumPoint != null) {
+			log.info("Finishing optimization at point " + optimumPoint + " value = " +
+					functionExecutor.getValue(optimumPoint));
+		}
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	/**
+	 * Initialize the algorithm state before the first generation.
+	 *
+	 * @param initial		the initial point.
+	 * @param initialValue	the function value at the initial point.
+	 */
+	protected abstract void initialize(Point initial, double initialValue);
+
+	/**
+	 * Create the candidate points of the next generation.  All points must be within
+	 * the unit hypercube.
+	 *
+	 * @return	the points to evaluate.
+	 */
+	protected abstract List<Point> createGeneration();
+
+	/**
+	 * Update the algorithm state with the function values of a generation.
+	 *
+	 * @param generation	the points returned by the last call to {@link #createGeneration()}.
+	 * @param values		the function values at the points.
+	 * @return				the current step size of the search, used to detect convergence.
+	 */
+	protected abstract double updateGeneration(List<Point> generation, double[] values);
+
+	/**
+	 * Return the number of points of a generation for the given dimension, used when
+	 * no population size was specified.  The population is at least as large as the
+	 * number of available processors, since a generation is evaluated concurrently.
+	 *
+	 * @param minimum	the minimum population size of the algorithm.
+	 * @return			the population size.
+	 */
+	protected static int getDefaultPopulationSize(int minimum) {
+		return Math.max(minimum, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Clamp a coordinate into the unit interval.
+	 */
+	protected static double clamp(double value) {
+		return MathUtil.clamp(value, 0.0, 1.0);
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (optimumPoint == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return optimumPoint;
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return getClass().getSimpleName() + "[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", improvementCount=" + improvementCount + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		improvementCount = 0;
+	}
+}
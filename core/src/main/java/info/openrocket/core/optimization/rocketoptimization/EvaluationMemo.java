@@ -0,0 +1,172 @@
+package info.openrocket.core.optimization.rocketoptimization;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A memo of computed optimization parameter values, optionally persisted in a file.
+ * <p>
+ * The values are keyed on a key identifying the evaluated function (the base design,
+ * the modifiers and the parameter, see {@link RocketOptimizationFunction#setEvaluationMemo})
+ * and the SI values of the modifiers.  The parameter values are stored instead of the
+ * goal values, so a memo can be reused by an optimization with a different goal or
+ * domain.
+ * <p>
+ * A file-backed memo reads the existing values of the file when it is constructed and
+ * appends each new value to the file, so an optimization can be warm-started from the
+ * values computed by earlier runs, even after a crash.  If writing the file fails, the
+ * memo continues to work in memory only.
+ * <p>
+ * This class is thread-safe.
+ */
+public class EvaluationMemo implements Closeable {
+	private static final Logger log = LoggerFactory.getLogger(EvaluationMemo.class);
+
+	private static final char SEPARATOR = '\t';
+
+	private final Map<String, Double> values = new ConcurrentHashMap<>();
+	private final File file;
+	private Writer writer = null;
+
+	/**
+	 * Construct a memo kept in memory only.
+	 */
+	public EvaluationMemo() {
+		this.file = null;
+	}
+
+	/**
+	 * Construct a memo backed by a file.  The file is created if it does not exist.
+	 *
+	 * @param file			the file storing the values.
+	 * @throws IOException	if the file exists but cannot be read, or cannot be opened for writing.
+	 */
+	public EvaluationMemo(File file) throws IOException {
+		this.file = file;
+		if (file.exists()) {
+			load(file);
+		}
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Return the memo key of a point of a function.
+	 *
+	 * @param functionKey		the key identifying the function.
+	 * @param modifierValues	the SI values of the modifiers at the point.
+	 * @return					the key of the point.
+	 */
+	public static String getKey(String functionKey, double[] modifierValues) {
+		StringBuilder sb = new StringBuilder(functionKey);
+		for (int i = 0; i < modifierValues.length; i++) {
+			sb.append(i == 0 ? ':' : ',');
+			// Hexadecimal values are exact
+			sb.append(Double.toHexString(modifierValues[i]));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param key	the key of the point.
+	 * @return		the memoized value, or <code>null</code> if the point has not been computed.
+	 */
+	public Double get(String key) {
+		return values.get(key);
+	}
+
+	/**
+	 * Store a value, appending it to the file of a file-backed memo.
+	 *
+	 * @param key		the key of the point.
+	 * @param value		the computed value.
+	 */
+	public void put(String key, double value) {
+		if (values.put(key, value) == null) {
+			append(key, value);
+		}
+	}
+
+	/**
+	 * @return	the number of memoized values.
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * @return	the file backing this memo, or <code>null</code> for an in-memory memo.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Remove all values from the memo.  The file of a file-backed memo is not changed.
+	 */
+	public void clear() {
+		values.clear();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	private synchronized void append(String key, double value) {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.write(key + SEPARATOR + Double.toHexString(value) + "\n");
+			writer.flush();
+		} catch (IOException e) {
+			log.warn("Unable to write to evaluation memo " + file + ", continuing in memory only", e);
+			try {
+				writer.close();
+			} catch (IOException ignore) {
+				// Already failing
+			}
+			writer = null;
+		}
+	}
+
+	private void load(File source) throws IOException {
+		int lineNumber = 0;
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				int n = line.lastIndexOf(SEPARATOR);
+				if (n <= 0) {
+					// Possibly a line truncated by a crash
+					log.warn("Ignoring malformed line " + lineNumber + " in evaluation memo " + source);
+					continue;
+				}
+				try {
+					values.put(line.substring(0, n), Double.parseDouble(line.substring(n + 1)));
+				} catch (NumberFormatException e) {
+					log.warn("Ignoring malformed value on line " + lineNumber + " in evaluation memo " + source);
+				}
+			}
+		}
+		log.info("Loaded " + values.size() + " values from evaluation memo " + source);
+	}
+}
@@ -1,5 +1,10 @@
 package info.openrocket.core.optimization.rocketoptimization;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -7,12 +12,21 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.optimization.general.Function;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
+import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Pair;
 
 /**
@@ -38,6 +52,9 @@ public class RocketOptimizationFunction implements Function {
 
 	private final List<RocketOptimizationListener> listeners = new ArrayList<>();
 
+	private volatile EvaluationMemo memo = null;
+	private volatile String memoKey = null;
+
 	/**
 	 * Sole constructor.
 	 * <p>
@@ -81,8 +98,15 @@ public class RocketOptimizationFunction implements Function {
 
 		final Simulation simulation = newSimulationInstance(baseSimulation);
 
-		for (int i = 0; i < modifiers.length; i++) {
-			modifiers[i].modify(simulation, p[i]);
+		// Apply all modifications as a single change to the rocket
+		final Rocket rocket = simulation.getRocket();
+		rocket.beginBatch();
+		try {
+			for (int i = 0; i < modifiers.length; i++) {
+				modifiers[i].modify(simulation, p[i]);
+			}
+		} finally {
+			rocket.commitBatch();
 		}
 
 		// Check whether the point is within the simulation domain
@@ -104,7 +128,7 @@ public class RocketOptimizationFunction implements Function {
 		}
 
 		// Compute the optimization value
-		parameterValue = parameter.computeValue(simulation);
+		parameterValue = computeParameterValue(simulation);
 		goalValue = goal.getMinimizationParameter(parameterValue);
 
 		if (Double.isNaN(goalValue)) {
@@ -121,6 +145,88 @@ public class RocketOptimizationFunction implements Function {
 		return goalValue;
 	}
 
+	/**
+	 * Set the memo storing the computed parameter values.  Points whose parameter value
+	 * is found in the memo are not simulated again; only the domain and the goal are
+	 * evaluated for them.
+	 * <p>
+	 * The values are keyed on the SI values of the modifiers and on a digest of the base
+	 * simulation and rocket as they would be saved in a design file, the modifiers and the
+	 * parameter.  The digest is computed when the memo is set, so the base simulation must
+	 * not be changed afterwards.  Modification IDs are not used, since they are only unique
+	 * within one program execution and could not identify the design in a persisted memo.
+	 *
+	 * @param memo	the memo, or <code>null</code> to compute every point.
+	 */
+	public void setEvaluationMemo(EvaluationMemo memo) {
+		this.memoKey = (memo != null) ? computeMemoKey() : null;
+		this.memo = memo;
+	}
+
+	public EvaluationMemo getEvaluationMemo() {
+		return memo;
+	}
+
+	private double computeParameterValue(Simulation simulation) throws OptimizationException, InterruptedException {
+		final EvaluationMemo m = memo;
+		if (m == null) {
+			return parameter.computeValue(simulation);
+		}
+
+		double[] values = new double[modifiers.length];
+		for (int i = 0; i < modifiers.length; i++) {
+			values[i] = modifiers[i].getCurrentSIValue(simulation);
+		}
+		String key = EvaluationMemo.getKey(memoKey, values);
+		Double memoized = m.get(key);
+		if (memoized != null) {
+			log.debug("Using memoized parameter value " + memoized);
+			return memoized;
+		}
+
+		double value = parameter.computeValue(simulation);
+		m.put(key, value);
+		return value;
+	}
+
+	/**
+	 * Compute the key identifying this function in an evaluation memo.
+	 */
+	private String computeMemoKey() {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+			// The design as it would be saved, without the name of the simulation
+			Rocket rocket = baseSimulation.getRocket().copyWithOriginalID();
+			OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+			Simulation simulation = baseSimulation.duplicateSimulation(document, rocket);
+			simulation.setName("");
+			document.addSimulation(simulation);
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			new OpenRocketSaver().save(output, document, new StorageOptions(), new WarningSet(), new ErrorSet());
+			digest.update(output.toByteArray());
+
+			StringBuilder sb = new StringBuilder();
+			for (SimulationModifier modifier : modifiers) {
+				sb.append(modifier.getClass().getName()).append('/').append(modifier.getName());
+				if (modifier.getRelatedObject() instanceof RocketComponent) {
+					sb.append('/').append(((RocketComponent) modifier.getRelatedObject()).getID());
+				}
+				sb.append('|');
+			}
+			sb.append(parameter.getClass().getName()).append('/').append(parameter.getName());
+			digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest()) {
+				key.append(String.format("%02x", b & 0xFF));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException | IOException e) {
+			throw new BugException("Unable to compute evaluation memo key", e);
+		}
+	}
+
 	/**
 	 * Returns a new deep copy of the simulation and rocket.
 	 * <p>
@@ -129,7 +235,10 @@ public class RocketOptimizationFunction implements Function {
 	 * @return a new deep copy of the simulation and rocket
 	 */
 	Simulation newSimulationInstance(Simulation simulation) {
-		return simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+		// Points may be evaluated concurrently, so copy the base simulation one at a time
+		synchronized (simulation) {
+			return simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+		}
 	}
 
 	/**
@@ -27,20 +27,57 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 	
 	@Override
 	public double computeValue(Simulation simulation) throws OptimizationException, InterruptedException {
+		FlightData simulatedData = simulateFlight(simulation);
+		if (simulatedData == null) {
+			return Double.NaN;
+		}
+		double value = getResultValue(simulatedData);
+		log.debug("Parameter '" + getName() + " was " + value);
+		return value;
+	}
+	
+	/**
+	 * Compute the value of this parameter from a flight simulated by
+	 * {@link #simulateFlight(Simulation, SimulationListener...)} of this parameter or of
+	 * another parameter for which {@link #isSameFlight(SimulationBasedParameter)} is true.
+	 * 
+	 * @param simulatedData		the simulated data.
+	 * @return					the parameter value, or NaN if the data is <code>null</code>.
+	 */
+	public double computeValue(FlightData simulatedData) {
+		if (simulatedData == null) {
+			return Double.NaN;
+		}
+		return getResultValue(simulatedData);
+	}
+	
+	/**
+	 * Simulate the flight needed for computing this parameter.  The flight is stopped
+	 * by the simulation listeners of this parameter.
+	 * 
+	 * @param simulation			the simulation to run.
+	 * @param additionalListeners	additional simulation listeners to use.
+	 * @return						the simulated data, or <code>null</code> if the simulation
+	 * 								failed because of a calculation error.
+	 * @throws OptimizationException	if the simulation fails for another reason.
+	 * @throws InterruptedException		if the simulation was cancelled.
+	 */
+	public FlightData simulateFlight(Simulation simulation, SimulationListener... additionalListeners)
+			throws OptimizationException, InterruptedException {
 		try {
 			log.debug("Running simulation for " + getName());
 			
 			SimulationListener[] listeners = getSimulationListeners();
-			listeners = Arrays.copyOf(listeners, listeners.length + 1);
+			int count = listeners.length;
+			listeners = Arrays.copyOf(listeners, count + additionalListeners.length + 1);
+			System.arraycopy(additionalListeners, 0, listeners, count, additionalListeners.length);
 			listeners[listeners.length - 1] = new InterruptListener();
 			simulation.simulate(listeners);
 			
-			double value = getResultValue(simulation.getSimulatedData());
-			log.debug("Parameter '" + getName() + " was " + value);
-			return value;
+			return simulation.getSimulatedData();
 		} catch (SimulationCalculationException e) {
 			// Calculation errors result in illegal value
-			return Double.NaN;
+			return null;
 		} catch (SimulationCancelledException e) {
 			// Simulation cancellation stops the optimization
 			throw (InterruptedException) new InterruptedException("Optimization was interrupted").initCause(e);
@@ -50,6 +87,27 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 		}
 	}
 	
+	/**
+	 * Return whether this parameter can be computed from the same simulated flight as
+	 * another parameter, i.e. whether both parameters stop the simulation in the same way.
+	 * 
+	 * @param other		the other parameter.
+	 * @return			whether the flight simulated for one parameter can be used for both.
+	 */
+	public boolean isSameFlight(SimulationBasedParameter other) {
+		SimulationListener[] these = this.getSimulationListeners();
+		SimulationListener[] those = other.getSimulationListeners();
+		if (these.length != those.length) {
+			return false;
+		}
+		for (int i = 0; i < these.length; i++) {
+			if (these[i].getClass() != those[i].getClass()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	
 	/**
 	 * Return the optimization parameter from the simulation flight data.
@@ -0,0 +1,394 @@
+package info.openrocket.core.optimization.sweep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
+import info.openrocket.core.optimization.rocketoptimization.SimulationModifier;
+import info.openrocket.core.optimization.rocketoptimization.parameters.SimulationBasedParameter;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BugException;
+
+/**
+ * A sweep of the design space of a simulation.
+ * <p>
+ * The sweep varies any number of {@link SimulationModifier}s over the points chosen by
+ * a {@link SweepSampling}, such as a full grid or a Latin hypercube, and computes a set
+ * of {@link OptimizableParameter}s at every point.  Each point uses its own copy of the
+ * simulation and rocket, so the points are evaluated concurrently on a work-stealing
+ * {@link ForkJoinPool} and the source simulation is never modified.
+ * <p>
+ * Simulation based parameters that stop the flight in the same way (for example the
+ * maximum altitude and the maximum velocity, which both end at apogee) are computed from
+ * a single simulated flight per point.
+ * <p>
+ * The results are not retained by the sweep, they are passed to the
+ * {@link DesignSweepListener}s as soon as each point has been evaluated.  A
+ * {@link DesignSweepTableWriter} can be used to stream them into a table.
+ * A running sweep can be cancelled from any thread using {@link #cancel()}.
+ */
+public class DesignSweep {
+	private static final Logger log = LoggerFactory.getLogger(DesignSweep.class);
+
+	private final Simulation simulation;
+	private final ForkJoinPool pool;
+	private final boolean ownPool;
+
+	private final List<SimulationModifier> modifiers = new ArrayList<>();
+	private final List<OptimizableParameter> parameters = new ArrayList<>();
+	private final List<DesignSweepListener> listeners = new ArrayList<>();
+
+	private SweepSampling sampling = new GridSampling(5);
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Construct a sweep that uses as many threads as there are processors available.
+	 *
+	 * @param simulation	the simulation to sweep.  It is not modified by the sweep.
+	 */
+	public DesignSweep(Simulation simulation) {
+		this(simulation, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct a sweep that uses the specified number of worker threads.
+	 *
+	 * @param simulation	the simulation to sweep.  It is not modified by the sweep.
+	 * @param threadCount	the maximum number of points to evaluate concurrently.
+	 */
+	public DesignSweep(Simulation simulation, int threadCount) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		this.simulation = simulation;
+		this.pool = new ForkJoinPool(threadCount);
+		this.ownPool = true;
+	}
+
+	/**
+	 * Construct a sweep that uses the specified pool for evaluating the points.
+	 * The pool is not shut down by {@link #shutdown()}.
+	 *
+	 * @param simulation	the simulation to sweep.  It is not modified by the sweep.
+	 * @param pool			the pool to evaluate the points in.
+	 */
+	public DesignSweep(Simulation simulation, ForkJoinPool pool) {
+		this.simulation = simulation;
+		this.pool = pool;
+		this.ownPool = false;
+	}
+
+
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	/**
+	 * Add a modifier spanning one dimension of the sweep.  The modifier is varied
+	 * between its minimum and maximum values.
+	 */
+	public void addModifier(SimulationModifier modifier) {
+		modifiers.add(modifier);
+	}
+
+	public void removeModifier(SimulationModifier modifier) {
+		modifiers.remove(modifier);
+	}
+
+	/**
+	 * @return	an unmodifiable view of the modifiers, in dimension order.
+	 */
+	public List<SimulationModifier> getModifiers() {
+		return Collections.unmodifiableList(modifiers);
+	}
+
+	/**
+	 * Add a parameter to compute at each point of the sweep.
+	 */
+	public void addParameter(OptimizableParameter parameter) {
+		parameters.add(parameter);
+	}
+
+	public void removeParameter(OptimizableParameter parameter) {
+		parameters.remove(parameter);
+	}
+
+	/**
+	 * @return	an unmodifiable view of the parameters, in the order they were added.
+	 */
+	public List<OptimizableParameter> getParameters() {
+		return Collections.unmodifiableList(parameters);
+	}
+
+	public SweepSampling getSampling() {
+		return sampling;
+	}
+
+	/**
+	 * Set the sampling choosing the points of the sweep.  The default is a grid with
+	 * five values in each dimension.
+	 */
+	public void setSampling(SweepSampling sampling) {
+		if (sampling == null) {
+			throw new IllegalArgumentException("sampling must not be null");
+		}
+		this.sampling = sampling;
+	}
+
+	public void addDesignSweepListener(DesignSweepListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeDesignSweepListener(DesignSweepListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return	the points of the sweep with the current modifiers and sampling.
+	 */
+	public List<Point> getPoints() {
+		return sampling.getPoints(modifiers.size());
+	}
+
+
+	/**
+	 * Evaluate all points of the sweep and wait for them to finish.  A failing point
+	 * does not stop the others; its exception is available from the corresponding result.
+	 *
+	 * @return	the number of points evaluated successfully.
+	 * @throws OptimizationException	if initializing a modifier fails.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.  The
+	 * 								sweep is cancelled in this case.
+	 */
+	public int run() throws OptimizationException, InterruptedException {
+		if (modifiers.isEmpty()) {
+			throw new IllegalStateException("No simulation modifiers specified");
+		}
+		if (parameters.isEmpty()) {
+			throw new IllegalStateException("No parameters specified");
+		}
+
+		cancelled = false;
+		final SimulationModifier[] modifierArray = modifiers.toArray(new SimulationModifier[0]);
+		final OptimizableParameter[] parameterArray = parameters.toArray(new OptimizableParameter[0]);
+		final DesignSweepListener[] listenerArray = listeners.toArray(new DesignSweepListener[0]);
+		final int[] flightGroups = getFlightGroups(parameterArray);
+		final List<Point> points = getPoints();
+		log.info("Starting design sweep of " + points.size() + " points with " + sampling);
+
+		/*
+		 * The rockets are not safe for concurrent access, so one template copy is made per
+		 * worker thread in the calling thread.  A point borrows a template only while
+		 * copying it.  The modifiers are initialized on the templates, not on the source.
+		 */
+		int templateCount = pool.getParallelism();
+		final BlockingQueue<Simulation> templates = new ArrayBlockingQueue<>(templateCount);
+		for (int i = 0; i < templateCount; i++) {
+			Simulation template = simulation.duplicateSimulation(null, simulation.getRocket().copyWithOriginalID());
+			for (SimulationModifier modifier : modifierArray) {
+				modifier.initialize(template);
+			}
+			templates.add(template);
+		}
+
+		List<ForkJoinTask<DesignSweepResult>> tasks = new ArrayList<>(points.size());
+		for (int i = 0; i < points.size(); i++) {
+			final int index = i;
+			final Point point = points.get(i);
+			tasks.add(pool.submit(() -> runPoint(index, point, templates, modifierArray, parameterArray,
+					flightGroups, listenerArray)));
+		}
+
+		int successful = 0;
+		try {
+			for (ForkJoinTask<DesignSweepResult> task : tasks) {
+				if (task.get().isSuccessful()) {
+					successful++;
+				}
+			}
+		} catch (InterruptedException e) {
+			cancel();
+			throw e;
+		} catch (ExecutionException e) {
+			throw new BugException("Design sweep task threw an exception", e.getCause());
+		}
+		return successful;
+	}
+
+	/**
+	 * Cancel the sweep currently being run.  Running simulations are stopped at the next
+	 * step, and remaining points are not evaluated.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return	whether the sweep has been cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Shut down the thread pool, if it was created by this sweep.  The sweep cannot
+	 * be run after calling this method.
+	 */
+	public void shutdown() {
+		if (ownPool) {
+			pool.shutdown();
+		}
+	}
+
+
+	/**
+	 * Return for each parameter the index of the first parameter whose simulated flight
+	 * it can use, or -1 if the parameter is not simulation based.
+	 */
+	private static int[] getFlightGroups(OptimizableParameter[] parameterArray) {
+		int[] groups = new int[parameterArray.length];
+		for (int i = 0; i < parameterArray.length; i++) {
+			groups[i] = -1;
+			if (!(parameterArray[i] instanceof SimulationBasedParameter)) {
+				continue;
+			}
+			SimulationBasedParameter p = (SimulationBasedParameter) parameterArray[i];
+			for (int j = 0; j <= i; j++) {
+				if (parameterArray[j] instanceof SimulationBasedParameter &&
+						p.isSameFlight((SimulationBasedParameter) parameterArray[j])) {
+					groups[i] = j;
+					break;
+				}
+			}
+		}
+		return groups;
+	}
+
+	private DesignSweepResult runPoint(int index, Point point, BlockingQueue<Simulation> templates,
+			SimulationModifier[] modifierArray, OptimizableParameter[] parameterArray, int[] flightGroups,
+			DesignSweepListener[] listenerArray) {
+		DesignSweepResult result;
+		if (cancelled) {
+			result = failedResult(index, point, modifierArray.length, parameterArray.length,
+					new SimulationCancelledException("The design sweep was cancelled."));
+		} else {
+			result = evaluatePoint(index, point, templates, modifierArray, parameterArray, flightGroups);
+		}
+
+		for (DesignSweepListener l : listenerArray) {
+			l.pointEvaluated(result);
+		}
+		return result;
+	}
+
+	private DesignSweepResult evaluatePoint(int index, Point point, BlockingQueue<Simulation> templates,
+			SimulationModifier[] modifierArray, OptimizableParameter[] parameterArray, int[] flightGroups) {
+		double[] modifierValues = new double[modifierArray.length];
+		double[] parameterValues = new double[parameterArray.length];
+		Arrays.fill(modifierValues, Double.NaN);
+		Arrays.fill(parameterValues, Double.NaN);
+
+		try {
+			Simulation copy;
+			Simulation template = templates.take();
+			try {
+				copy = template.duplicateSimulation(null, template.getRocket().copyWithOriginalID());
+			} finally {
+				templates.add(template);
+			}
+
+			// Apply all modifications as a single change to the rocket
+			final Rocket rocket = copy.getRocket();
+			rocket.beginBatch();
+			try {
+				for (int i = 0; i < modifierArray.length; i++) {
+					modifierArray[i].modify(copy, point.get(i));
+				}
+			} finally {
+				rocket.commitBatch();
+			}
+			for (int i = 0; i < modifierArray.length; i++) {
+				modifierValues[i] = modifierArray[i].getCurrentSIValue(copy);
+			}
+
+			// Parameters not needing a flight first, so they see the unsimulated copy
+			for (int i = 0; i < parameterArray.length; i++) {
+				if (flightGroups[i] < 0) {
+					parameterValues[i] = parameterArray[i].computeValue(copy);
+				}
+			}
+
+			FlightData[] flights = new FlightData[parameterArray.length];
+			boolean[] simulated = new boolean[parameterArray.length];
+			for (int i = 0; i < parameterArray.length; i++) {
+				int group = flightGroups[i];
+				if (group < 0) {
+					continue;
+				}
+				if (!simulated[group]) {
+					flights[group] = ((SimulationBasedParameter) parameterArray[group])
+							.simulateFlight(copy, new CancelListener());
+					simulated[group] = true;
+				}
+				parameterValues[i] = ((SimulationBasedParameter) parameterArray[i]).computeValue(flights[group]);
+			}
+
+			return new DesignSweepResult(index, point, modifierValues, parameterValues, null);
+		} catch (InterruptedException e) {
+			if (!cancelled) {
+				Thread.currentThread().interrupt();
+			}
+			return new DesignSweepResult(index, point, modifierValues, parameterValues,
+					new SimulationCancelledException("The design sweep was cancelled."));
+		} catch (Throwable e) {
+			log.debug("Design sweep point " + index + " ended with exception", e);
+			return new DesignSweepResult(index, point, modifierValues, parameterValues, e);
+		}
+	}
+
+	private static DesignSweepResult failedResult(int index, Point point, int modifierCount, int parameterCount,
+			Throwable throwable) {
+		double[] modifierValues = new double[modifierCount];
+		double[] parameterValues = new double[parameterCount];
+		Arrays.fill(modifierValues, Double.NaN);
+		Arrays.fill(parameterValues, Double.NaN);
+		return new DesignSweepResult(index, point, modifierValues, parameterValues, throwable);
+	}
+
+
+	/**
+	 * A simulation listener that stops the flight if the sweep has been cancelled.
+	 */
+	private class CancelListener extends AbstractSimulationListener {
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+			if (cancelled) {
+				throw new SimulationCancelledException("The design sweep was cancelled.");
+			}
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package info.openrocket.core.optimization.sweep;
+
+/**
+ * A listener notified of every evaluated point of a {@link DesignSweep}.
+ * <p>
+ * The method is called from the worker threads of the sweep, so implementations
+ * must be thread-safe and should return quickly.
+ */
+public interface DesignSweepListener {
+
+	/**
+	 * Called when a point has been evaluated, either successfully, with an error or
+	 * because the sweep was cancelled.  The points are not necessarily reported in
+	 * index order.
+	 *
+	 * @param result	the result of the point.
+	 */
+	public void pointEvaluated(DesignSweepResult result);
+
+}
@@ -0,0 +1,98 @@
+package info.openrocket.core.optimization.sweep;
+
+import java.util.Arrays;
+
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+
+/**
+ * The result of evaluating a single point of a {@link DesignSweep}.
+ */
+public class DesignSweepResult {
+
+	private final int index;
+	private final Point point;
+	private final double[] modifierValues;
+	private final double[] parameterValues;
+	private final Throwable throwable;
+
+	DesignSweepResult(int index, Point point, double[] modifierValues, double[] parameterValues,
+			Throwable throwable) {
+		this.index = index;
+		this.point = point;
+		this.modifierValues = modifierValues;
+		this.parameterValues = parameterValues;
+		this.throwable = throwable;
+	}
+
+	/**
+	 * @return	the index of the point in the sweep.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return	the scaled values of the modifiers, each in the range [0...1].
+	 */
+	public Point getPoint() {
+		return point;
+	}
+
+	/**
+	 * @return	the number of modifiers of the sweep.
+	 */
+	public int getModifierCount() {
+		return modifierValues.length;
+	}
+
+	/**
+	 * @param n		the index of the modifier.
+	 * @return		the value of the modifier in SI units, or NaN if the point failed before it was set.
+	 */
+	public double getModifierValue(int n) {
+		return modifierValues[n];
+	}
+
+	/**
+	 * @return	the number of parameters of the sweep.
+	 */
+	public int getParameterCount() {
+		return parameterValues.length;
+	}
+
+	/**
+	 * @param n		the index of the parameter.
+	 * @return		the value of the parameter in SI units, or NaN if it could not be computed.
+	 */
+	public double getParameterValue(int n) {
+		return parameterValues[n];
+	}
+
+	/**
+	 * @return	the exception that caused the evaluation to fail, or <code>null</code> if it finished normally.
+	 */
+	public Throwable getThrowable() {
+		return throwable;
+	}
+
+	/**
+	 * @return	whether the evaluation finished without an exception.
+	 */
+	public boolean isSuccessful() {
+		return throwable == null;
+	}
+
+	/**
+	 * @return	whether the evaluation was cancelled before it finished.
+	 */
+	public boolean isCancelled() {
+		return throwable instanceof SimulationCancelledException;
+	}
+
+	@Override
+	public String toString() {
+		return "DesignSweepResult[index=" + index + ", modifiers=" + Arrays.toString(modifierValues) +
+				", parameters=" + Arrays.toString(parameterValues) + ", successful=" + isSuccessful() + "]";
+	}
+}
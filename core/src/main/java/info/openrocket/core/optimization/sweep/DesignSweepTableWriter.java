@@ -0,0 +1,133 @@
+package info.openrocket.core.optimization.sweep;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
+import info.openrocket.core.optimization.rocketoptimization.SimulationModifier;
+import info.openrocket.core.unit.Unit;
+
+/**
+ * A {@link DesignSweepListener} that writes the results of a sweep as a delimited
+ * text table, one row per point.
+ * <p>
+ * The first row contains the column names:  the point index, the modifiers and the
+ * parameters, each with its SI unit.  The values are written in SI units, and points
+ * which failed have NaN values.  The rows are written in point index order as soon as
+ * all preceding points have been evaluated, and the writer is flushed after each batch
+ * of rows, so the table can be followed while the sweep is running.
+ * <p>
+ * Write errors are reported by {@link #close()}.
+ */
+public class DesignSweepTableWriter implements DesignSweepListener, Closeable {
+
+	private final Writer writer;
+	private final String fieldSeparator;
+	private final Unit[] modifierUnits;
+	private final Unit[] parameterUnits;
+
+	// Results received before all preceding points, by point index
+	private final Map<Integer, DesignSweepResult> pending = new HashMap<>();
+	private int nextIndex = 0;
+	private IOException error = null;
+
+	/**
+	 * Construct a table writer for a sweep and write the header row.  The modifiers and
+	 * parameters of the sweep must not be changed after this.
+	 *
+	 * @param writer			the writer to write the table to.
+	 * @param sweep				the sweep whose results are written.
+	 * @param fieldSeparator	the field separator string.
+	 * @throws IOException		if writing the header fails.
+	 */
+	public DesignSweepTableWriter(Writer writer, DesignSweep sweep, String fieldSeparator) throws IOException {
+		this.writer = writer;
+		this.fieldSeparator = fieldSeparator;
+
+		List<SimulationModifier> modifiers = sweep.getModifiers();
+		List<OptimizableParameter> parameters = sweep.getParameters();
+		modifierUnits = new Unit[modifiers.size()];
+		parameterUnits = new Unit[parameters.size()];
+
+		StringBuilder header = new StringBuilder("Index");
+		for (int i = 0; i < modifierUnits.length; i++) {
+			modifierUnits[i] = modifiers.get(i).getUnitGroup().getSIUnit();
+			header.append(fieldSeparator).append(columnName(modifiers.get(i).getName(), modifierUnits[i]));
+		}
+		for (int i = 0; i < parameterUnits.length; i++) {
+			parameterUnits[i] = parameters.get(i).getUnitGroup().getSIUnit();
+			header.append(fieldSeparator).append(columnName(parameters.get(i).getName(), parameterUnits[i]));
+		}
+		writer.write(header.toString());
+		writer.write(System.lineSeparator());
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void pointEvaluated(DesignSweepResult result) {
+		pending.put(result.getIndex(), result);
+		if (error != null || !pending.containsKey(nextIndex)) {
+			return;
+		}
+
+		try {
+			DesignSweepResult next;
+			while ((next = pending.remove(nextIndex)) != null) {
+				writeRow(next);
+				nextIndex++;
+			}
+			writer.flush();
+		} catch (IOException e) {
+			error = e;
+		}
+	}
+
+	/**
+	 * @return	the number of data rows written so far.
+	 */
+	public synchronized int getRowCount() {
+		return nextIndex;
+	}
+
+	/**
+	 * Flush and close the underlying writer.
+	 *
+	 * @throws IOException	if writing any of the rows failed.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			if (error != null) {
+				throw error;
+			}
+			writer.flush();
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void writeRow(DesignSweepResult result) throws IOException {
+		StringBuilder row = new StringBuilder();
+		row.append(result.getIndex());
+		for (int i = 0; i < modifierUnits.length; i++) {
+			row.append(fieldSeparator).append(modifierUnits[i].toUnit(result.getModifierValue(i)));
+		}
+		for (int i = 0; i < parameterUnits.length; i++) {
+			row.append(fieldSeparator).append(parameterUnits[i].toUnit(result.getParameterValue(i)));
+		}
+		writer.write(row.toString());
+		writer.write(System.lineSeparator());
+	}
+
+	private String columnName(String name, Unit unit) {
+		String column = unit.getUnit().isEmpty() ? name : name + " (" + unit.getUnit() + ")";
+		if (column.contains(fieldSeparator) || column.contains("\"")) {
+			column = "\"" + column.replace("\"", "\"\"") + "\"";
+		}
+		return column;
+	}
+}
@@ -0,0 +1,88 @@
+package info.openrocket.core.optimization.sweep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * A full factorial grid.  Each dimension is divided into a number of evenly spaced
+ * values including both ends of the range, and every combination of the values is
+ * evaluated.  The points are ordered with the last dimension varying fastest.
+ * <p>
+ * A dimension with a single value is evaluated at the middle of its range.
+ */
+public class GridSampling implements SweepSampling {
+
+	private final int[] steps;
+
+	/**
+	 * Construct a grid.  If a single step count is given it is used for all dimensions,
+	 * otherwise a step count must be given for each dimension.
+	 *
+	 * @param steps		the number of values of each dimension.
+	 */
+	public GridSampling(int... steps) {
+		if (steps.length == 0) {
+			throw new IllegalArgumentException("No step counts specified");
+		}
+		for (int s : steps) {
+			if (s <= 0) {
+				throw new IllegalArgumentException("Step count must be positive, was " + s);
+			}
+		}
+		this.steps = steps.clone();
+	}
+
+	@Override
+	public List<Point> getPoints(int dimensions) {
+		int[] counts = getSteps(dimensions);
+
+		long total = 1;
+		for (int c : counts) {
+			total *= c;
+			if (total > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Too many grid points for steps " + Arrays.toString(counts));
+			}
+		}
+
+		List<Point> points = new ArrayList<>((int) total);
+		int[] index = new int[dimensions];
+		double[] values = new double[dimensions];
+		for (int n = 0; n < total; n++) {
+			for (int i = 0; i < dimensions; i++) {
+				values[i] = (counts[i] == 1) ? 0.5 : (double) index[i] / (counts[i] - 1);
+			}
+			points.add(new Point(values));
+
+			// Advance the index, last dimension fastest
+			for (int i = dimensions - 1; i >= 0; i--) {
+				index[i]++;
+				if (index[i] < counts[i]) {
+					break;
+				}
+				index[i] = 0;
+			}
+		}
+		return points;
+	}
+
+	private int[] getSteps(int dimensions) {
+		if (steps.length == 1) {
+			int[] counts = new int[dimensions];
+			Arrays.fill(counts, steps[0]);
+			return counts;
+		}
+		if (steps.length != dimensions) {
+			throw new IllegalArgumentException("Grid has " + steps.length + " step counts but the sweep has " +
+					dimensions + " dimensions");
+		}
+		return steps;
+	}
+
+	@Override
+	public String toString() {
+		return "GridSampling" + Arrays.toString(steps);
+	}
+}
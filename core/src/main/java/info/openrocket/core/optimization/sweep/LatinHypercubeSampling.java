@@ -0,0 +1,78 @@
+package info.openrocket.core.optimization.sweep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * Latin hypercube sampling.  The range of each dimension is divided into as many
+ * equal strata as there are samples, and each stratum of each dimension is sampled
+ * exactly once at a random position within it.  The strata are combined in a random
+ * order, so the samples cover every dimension evenly with far fewer points than a grid.
+ * <p>
+ * The samples depend only on the seed, so the same sampling gives the same points
+ * every time.
+ */
+public class LatinHypercubeSampling implements SweepSampling {
+
+	private final int sampleCount;
+	private final long seed;
+
+	/**
+	 * Construct a Latin hypercube sampling.
+	 *
+	 * @param sampleCount	the number of samples.
+	 * @param seed			the random seed.
+	 */
+	public LatinHypercubeSampling(int sampleCount, long seed) {
+		if (sampleCount <= 0) {
+			throw new IllegalArgumentException("sampleCount must be positive, was " + sampleCount);
+		}
+		this.sampleCount = sampleCount;
+		this.seed = seed;
+	}
+
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public List<Point> getPoints(int dimensions) {
+		Random random = new Random(seed);
+
+		double[][] values = new double[sampleCount][dimensions];
+		int[] strata = new int[sampleCount];
+		for (int i = 0; i < dimensions; i++) {
+			// Fisher-Yates shuffle of the strata
+			for (int n = 0; n < sampleCount; n++) {
+				strata[n] = n;
+			}
+			for (int n = sampleCount - 1; n > 0; n--) {
+				int m = random.nextInt(n + 1);
+				int tmp = strata[n];
+				strata[n] = strata[m];
+				strata[m] = tmp;
+			}
+			for (int n = 0; n < sampleCount; n++) {
+				values[n][i] = (strata[n] + random.nextDouble()) / sampleCount;
+			}
+		}
+
+		List<Point> points = new ArrayList<>(sampleCount);
+		for (double[] v : values) {
+			points.add(new Point(v));
+		}
+		return points;
+	}
+
+	@Override
+	public String toString() {
+		return "LatinHypercubeSampling[samples=" + sampleCount + ", seed=" + seed + "]";
+	}
+}
@@ -0,0 +1,24 @@
+package info.openrocket.core.optimization.sweep;
+
+import java.util.List;
+
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * A strategy for choosing the points evaluated by a {@link DesignSweep}.
+ * <p>
+ * The points are given as scaled values in the range [0...1] for each dimension, the
+ * same way as {@link info.openrocket.core.optimization.rocketoptimization.SimulationModifier}s
+ * are driven by the optimizers.
+ */
+public interface SweepSampling {
+
+	/**
+	 * Return the points to evaluate.
+	 *
+	 * @param dimensions	the number of dimensions, i.e. the number of simulation modifiers.
+	 * @return				the points in evaluation order, each with <code>dimensions</code> values in [0...1].
+	 */
+	public List<Point> getPoints(int dimensions);
+
+}
@@ -91,8 +91,8 @@ public class AxialStage extends ComponentAssembly implements FlightConfigurableC
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		AxialStage copy = (AxialStage) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean deep) {
+		AxialStage copy = (AxialStage) super.copyWithOriginalID(deep);
 		copy.separations = new FlightConfigurableParameterSet<>(separations);
 		return copy;
 	}
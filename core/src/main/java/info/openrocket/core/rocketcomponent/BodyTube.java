@@ -512,8 +512,8 @@ public class BodyTube extends SymmetricComponent implements BoxBounded, MotorMou
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		BodyTube copy = (BodyTube) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean deep) {
+		BodyTube copy = (BodyTube) super.copyWithOriginalID(deep);
 
 		copy.motors = new MotorConfigurationSet(this.motors, copy);
 		return copy;
@@ -73,6 +73,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	final private InstanceMap activeInstances = new InstanceMap();
 	final private InstanceMap extraRenderInstances = new InstanceMap(); // Extra instances to be rendered, besides the
 																		// active instances
+	private volatile InstanceTable instanceTable = InstanceTable.EMPTY;
 
 	private ModID boundsModID = ModID.INVALID;
 	private BoundingBox cachedBoundsAerodynamic = new BoundingBox(); // Bounding box of all aerodynamic components
@@ -292,6 +293,18 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 				stages.get(stageNumber) != null && stages.get(stageNumber).active;
 	}
 
+	/**
+	 * Return the activeness flags of the stages, by stage number.  Unlike
+	 * {@link #isStageActive(int)}, this also returns the flags of stages without children.
+	 */
+	Map<Integer, Boolean> getStageActiveness() {
+		Map<Integer, Boolean> activeness = new HashMap<>();
+		for (StageFlags flags : stages.values()) {
+			activeness.put(flags.stageNumber, flags.active);
+		}
+		return activeness;
+	}
+
 	/**
 	 * Preload the stage activeness of a certain stage.
 	 * This method is to be used during the import and readout of an OpenRocket
@@ -413,6 +426,18 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		return activeInstances;
 	}
 
+	/**
+	 * Returns the active instances of this configuration as a flattened, immutable table.
+	 * The table contains the same instances as {@link #getActiveInstances()} and is
+	 * rebuilt whenever they are updated, so it can be held on to while its
+	 * {@link InstanceTable#getModID() ModID} is unchanged.
+	 *
+	 * @return the table of active instances.
+	 */
+	public InstanceTable getInstanceTable() {
+		return instanceTable;
+	}
+
 	/**
 	 * Returns the InstanceMap of instances that need to be rendered, but are not
 	 * present in {@link #getActiveInstances()}.
@@ -436,11 +461,13 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	private void updateActiveInstances() {
 		activeInstances.clear();
 		extraRenderInstances.clear();
-		getActiveContextListAt(this.rocket, activeInstances, Transformation.IDENTITY);
+		InstanceTable.Builder table = new InstanceTable.Builder();
+		getActiveContextListAt(this.rocket, activeInstances, table, Transformation.IDENTITY);
+		instanceTable = table.build();
 	}
 
 	private InstanceMap getActiveContextListAt(final RocketComponent component, final InstanceMap results,
-			final Transformation parentTransform) {
+			final InstanceTable.Builder table, final Transformation parentTransform) {
 
 		final int instanceCount = component.getInstanceCount();
 		final Coordinate[] allOffsets = component.getInstanceOffsets();
@@ -460,6 +487,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 			// constructs entry in-place if this component is active
 			if (this.isComponentActive(component)) {
 				results.emplace(component, currentInstanceNumber, currentTransform);
+				table.add(component, currentInstanceNumber, currentTransform, parentTransform);
 			} else if (component instanceof ParallelStage && stages.get(component.getStageNumber()).active) {
 				// Boosters with no children are marked as inactive, but still need to be
 				// rendered.
@@ -468,7 +496,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 			}
 
 			for (RocketComponent child : component.getChildren()) {
-				getActiveContextListAt(child, results, currentTransform);
+				getActiveContextListAt(child, results, table, currentTransform);
 			}
 		}
 
@@ -430,8 +430,8 @@ public class FreeformFinSet extends FinSet {
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		RocketComponent c = super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean deep) {
+		RocketComponent c = super.copyWithOriginalID(deep);
 		
 		((FreeformFinSet) c).points = new ArrayList<>(this.points);
 		
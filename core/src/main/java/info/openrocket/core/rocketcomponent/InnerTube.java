@@ -420,8 +420,8 @@ public class InnerTube extends ThicknessRingComponent
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		InnerTube copy = (InnerTube) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean deep) {
+		InnerTube copy = (InnerTube) super.copyWithOriginalID(deep);
 		if( copy == this ){
 			new IllegalArgumentException(" copyWithOriginalID should return a different instance! ");
 		}
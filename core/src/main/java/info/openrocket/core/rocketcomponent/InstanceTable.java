@@ -0,0 +1,330 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.ModID;
+import info.openrocket.core.util.Transformation;
+
+/**
+ * An immutable, flattened table of the active component instances of a flight configuration.
+ * <p>
+ * The table contains the same instances as {@link FlightConfiguration#getActiveInstances()},
+ * stored in parallel arrays indexed by the instance (row) number.  The rows of each component
+ * are stored consecutively, and the components are ordered by their first instance in the
+ * component tree, i.e. parents before their children.  A table is built once each time the
+ * active instances of the configuration are updated, and can be shared freely.
+ * <p>
+ * Typical usage:
+ * <pre>
+ * InstanceTable table = configuration.getInstanceTable();
+ * for (int c = 0; c &lt; table.getComponentCount(); c++) {
+ *     RocketComponent component = table.getComponent(c);
+ *     for (int row = table.getFirstInstance(c); row &lt; table.getEndInstance(c); row++) {
+ *         Transformation transform = table.getTransform(row);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class InstanceTable {
+
+	/** An empty table */
+	public static final InstanceTable EMPTY = new Builder().build();
+
+	private final ModID modID = new ModID();
+
+	// Per component
+	private final RocketComponent[] components;
+	private final int[] firstInstance;
+	private final Map<RocketComponent, Integer> componentIndices;
+
+	// Per instance
+	private final int[] componentIndex;
+	private final int[] instanceNumber;
+	private final double[] position;
+	private final double[] rotation;
+	private final Transformation[] transforms;
+	private final Transformation[] parentTransforms;
+
+	private InstanceTable(Builder builder) {
+		final int componentCount = builder.components.size();
+		final int size = builder.rows.size();
+
+		components = builder.components.toArray(new RocketComponent[0]);
+		componentIndices = new HashMap<>(builder.componentIndices);
+		firstInstance = new int[componentCount + 1];
+		componentIndex = new int[size];
+		instanceNumber = new int[size];
+		position = new double[3 * size];
+		rotation = new double[9 * size];
+		transforms = new Transformation[size];
+		parentTransforms = new Transformation[size];
+
+		// Group the rows by component, keeping the tree order of the instances of each component
+		int[] counts = new int[componentCount];
+		for (Builder.Row r : builder.rows) {
+			counts[r.component]++;
+		}
+		for (int c = 0; c < componentCount; c++) {
+			firstInstance[c + 1] = firstInstance[c] + counts[c];
+		}
+		int[] next = Arrays.copyOf(firstInstance, componentCount);
+		for (Builder.Row r : builder.rows) {
+			final int row = next[r.component]++;
+			componentIndex[row] = r.component;
+			instanceNumber[row] = r.instanceNumber;
+			transforms[row] = r.transform;
+			parentTransforms[row] = r.parentTransform;
+
+			Coordinate location = r.transform.getTranslationVector();
+			position[3 * row] = location.x;
+			position[3 * row + 1] = location.y;
+			position[3 * row + 2] = location.z;
+			r.transform.getRotation(rotation, 9 * row);
+		}
+	}
+
+	/**
+	 * Return the modification ID of this table.  Each table built has a distinct ID,
+	 * so an unchanged ID means that the instances are unchanged.
+	 */
+	public ModID getModID() {
+		return modID;
+	}
+
+	/**
+	 * @return	the total number of instances (rows) in the table.
+	 */
+	public int size() {
+		return componentIndex.length;
+	}
+
+	/**
+	 * @return	the number of distinct components in the table.
+	 */
+	public int getComponentCount() {
+		return components.length;
+	}
+
+	/**
+	 * @param index	the component index, 0 &lt;= index &lt; {@link #getComponentCount()}.
+	 * @return		the component.
+	 */
+	public RocketComponent getComponent(int index) {
+		return components[index];
+	}
+
+	/**
+	 * Return the index of a component in this table.
+	 *
+	 * @param component	the component.
+	 * @return			the component index, or -1 if the component has no active instances.
+	 */
+	public int indexOf(RocketComponent component) {
+		Integer index = componentIndices.get(component);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * @return	whether the component has active instances in this table.
+	 */
+	public boolean contains(RocketComponent component) {
+		return componentIndices.containsKey(component);
+	}
+
+	/**
+	 * @param index	the component index.
+	 * @return		the first row of the instances of the component.
+	 */
+	public int getFirstInstance(int index) {
+		return firstInstance[index];
+	}
+
+	/**
+	 * @param index	the component index.
+	 * @return		the row after the last instance of the component.
+	 */
+	public int getEndInstance(int index) {
+		return firstInstance[index + 1];
+	}
+
+	/**
+	 * @param index	the component index.
+	 * @return		the number of active instances of the component.
+	 */
+	public int getInstanceCount(int index) {
+		return firstInstance[index + 1] - firstInstance[index];
+	}
+
+	/**
+	 * Return the number of active instances of a component.
+	 *
+	 * @param component	the component.
+	 * @return			the number of instances, or 0 if the component is not active.
+	 */
+	public int getInstanceCount(RocketComponent component) {
+		int index = indexOf(component);
+		return (index < 0) ? 0 : getInstanceCount(index);
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the component index of the instance.
+	 */
+	public int getComponentIndex(int row) {
+		return componentIndex[row];
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the component of the instance.
+	 */
+	public RocketComponent getInstanceComponent(int row) {
+		return components[componentIndex[row]];
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the instance number of the instance within its component.
+	 */
+	public int getInstanceNumber(int row) {
+		return instanceNumber[row];
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the absolute x coordinate of the instance origin.
+	 */
+	public double getX(int row) {
+		return position[3 * row];
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the absolute y coordinate of the instance origin.
+	 */
+	public double getY(int row) {
+		return position[3 * row + 1];
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the absolute z coordinate of the instance origin.
+	 */
+	public double getZ(int row) {
+		return position[3 * row + 2];
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the absolute location of the instance origin.
+	 */
+	public Coordinate getLocation(int row) {
+		return new Coordinate(position[3 * row], position[3 * row + 1], position[3 * row + 2]);
+	}
+
+	/**
+	 * Return an element of the rotation matrix of an instance.
+	 *
+	 * @param row	the instance row.
+	 * @param i		the matrix row, 0-2.
+	 * @param j		the matrix column, 0-2.
+	 * @return		the rotation matrix element.
+	 */
+	public double getRotation(int row, int i, int j) {
+		return rotation[9 * row + 3 * i + j];
+	}
+
+	/**
+	 * Transform a coordinate from the frame of an instance to absolute coordinates.
+	 * The result equals <code>getTransform(row).transform(c)</code>.
+	 *
+	 * @param row	the instance row.
+	 * @param c		the coordinate relative to the instance.
+	 * @return		the absolute coordinate.
+	 */
+	public Coordinate transform(int row, Coordinate c) {
+		final int r = 9 * row;
+		final int p = 3 * row;
+		final double x = rotation[r] * c.x + rotation[r + 1] * c.y + rotation[r + 2] * c.z + position[p];
+		final double y = rotation[r + 3] * c.x + rotation[r + 4] * c.y + rotation[r + 5] * c.z + position[p + 1];
+		final double z = rotation[r + 6] * c.x + rotation[r + 7] * c.y + rotation[r + 8] * c.z + position[p + 2];
+		return new Coordinate(x, y, z, c.weight);
+	}
+
+	/**
+	 * @param row	the instance row.
+	 * @return		the transformation from the instance to absolute coordinates.
+	 */
+	public Transformation getTransform(int row) {
+		return transforms[row];
+	}
+
+	/**
+	 * Return the transformation of the parent frame of an instance, i.e. of the parent
+	 * instance that contains it.  The component position and instance offset are not
+	 * included.
+	 *
+	 * @param row	the instance row.
+	 * @return		the transformation from the parent instance to absolute coordinates.
+	 */
+	public Transformation getParentTransform(int row) {
+		return parentTransforms[row];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("InstanceTable[");
+		for (int c = 0; c < components.length; c++) {
+			sb.append(String.format("%n  %s:", components[c].getName()));
+			for (int row = firstInstance[c]; row < firstInstance[c + 1]; row++) {
+				sb.append(String.format(" #%d(%.4f, %.4f, %.4f)", instanceNumber[row], getX(row), getY(row), getZ(row)));
+			}
+		}
+		return sb.append("]").toString();
+	}
+
+
+	/**
+	 * Collects the instances of a table in tree order.
+	 */
+	static final class Builder {
+		private final List<RocketComponent> components = new ArrayList<>();
+		private final Map<RocketComponent, Integer> componentIndices = new HashMap<>();
+		private final List<Row> rows = new ArrayList<>();
+
+		void add(RocketComponent component, int instanceNumber, Transformation transform,
+				Transformation parentTransform) {
+			Integer index = componentIndices.get(component);
+			if (index == null) {
+				index = components.size();
+				components.add(component);
+				componentIndices.put(component, index);
+			}
+			rows.add(new Row(index, instanceNumber, transform, parentTransform));
+		}
+
+		InstanceTable build() {
+			return new InstanceTable(this);
+		}
+
+		private static final class Row {
+			final int component;
+			final int instanceNumber;
+			final Transformation transform;
+			final Transformation parentTransform;
+
+			Row(int component, int instanceNumber, Transformation transform, Transformation parentTransform) {
+				this.component = component;
+				this.instanceNumber = instanceNumber;
+				this.transform = transform;
+				this.parentTransform = parentTransform;
+			}
+		}
+	}
+}
@@ -92,8 +92,8 @@ public class ParallelStage extends AxialStage implements FlightConfigurableCompo
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		ParallelStage copy = (ParallelStage) (super.copyWithOriginalID());
+	protected RocketComponent copyWithOriginalID(boolean deep) {
+		ParallelStage copy = (ParallelStage) (super.copyWithOriginalID(deep));
 		return copy;
 	}
 
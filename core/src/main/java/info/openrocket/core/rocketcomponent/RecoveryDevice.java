@@ -166,8 +166,8 @@ public abstract class RecoveryDevice extends MassObject implements FlightConfigu
 	}
 
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		RecoveryDevice copy = (RecoveryDevice) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean deep) {
+		RecoveryDevice copy = (RecoveryDevice) super.copyWithOriginalID(deep);
 		copy.deploymentConfigurations = new FlightConfigurableParameterSet<>(deploymentConfigurations);
 		return copy;
 	}
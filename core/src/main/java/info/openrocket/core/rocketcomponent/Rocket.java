@@ -4,7 +4,6 @@ import java.util.Collection;
 import java.util.EventListener;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,10 +45,12 @@ public class Rocket extends ComponentAssembly {
 	private Set<EventListener> listenerList = new HashSet<>();
 	
 	/**
-	 * When freezeList != null, events are not dispatched but stored in the list.
-	 * When the structure is thawed, a single combined event will be fired.
+	 * When batchDepth > 0, events are not dispatched but merged into batchType and
+	 * batchSource.  When the outermost batch is committed, a single combined event is fired.
 	 */
-	private List<ComponentChangeEvent> freezeList = null;
+	private int batchDepth = 0;
+	private int batchType = 0;
+	private RocketComponent batchSource = null;
 	
 	
 	private ModID modID;
@@ -399,16 +400,28 @@ public class Rocket extends ComponentAssembly {
 	 */
 	@Override
 	public Rocket copyWithOriginalID() {
-		final Rocket copyRocket = (Rocket) super.copyWithOriginalID();
+		return copyWithOriginalID(true);
+	}
+	
+	/**
+	 * Copy the rocket, either with its component tree or without any components.  A copy
+	 * without components has no stages, so the stage activeness of its flight configurations
+	 * must be stored separately.
+	 */
+	@Override
+	protected Rocket copyWithOriginalID(boolean deep) {
+		final Rocket copyRocket = (Rocket) super.copyWithOriginalID(deep);
 
 		// Rocket copy is cloned, so non-trivial members must be cloned as well:
 		copyRocket.stageMap = new ConcurrentHashMap<>();
-		for (Map.Entry<Integer,AxialStage> entry : this.stageMap.entrySet()){
-			final AxialStage stage = (AxialStage)copyRocket.findComponent(entry.getValue().getID());
-			if (stage == null) {
-				throw new IllegalStateException("Stage not found in copy");
+		if (deep) {
+			for (Map.Entry<Integer,AxialStage> entry : this.stageMap.entrySet()){
+				final AxialStage stage = (AxialStage)copyRocket.findComponent(entry.getValue().getID());
+				if (stage == null) {
+					throw new IllegalStateException("Stage not found in copy");
+				}
+				copyRocket.stageMap.put(entry.getKey(), stage);
 			}
-			copyRocket.stageMap.put(entry.getKey(), stage);
 		}
 
 		// these flight configurations need to reference the _new_ Rocket copy
@@ -424,10 +437,22 @@ public class Rocket extends ComponentAssembly {
 
 		copyRocket.selectedConfiguration = copyRocket.configSet.get( this.getSelectedConfiguration().getId());
 		copyRocket.listenerList = new HashSet<>();
+		copyRocket.batchDepth = 0;
+		copyRocket.batchType = 0;
+		copyRocket.batchSource = null;
 		
 		return copyRocket;
 	}
 	
+	/**
+	 * Make a copy of the rocket without its component tree.  The flight configurations of
+	 * the copy have no stages, so the stage activeness must be stored separately.
+	 */
+	@Override
+	Rocket copyStateWithOriginalID() {
+		return copyWithOriginalID(false);
+	}
+	
 	public int getFlightConfigurationCount() {
 		checkState();
 		return this.configSet.size();
@@ -586,10 +611,11 @@ public class Rocket extends ComponentAssembly {
 				}
 			}
 
-			// Check whether frozen
-			if (freezeList != null) {
-				log.debug("Rocket is in frozen state, adding event " + cce + " info freeze list");
-				freezeList.add(cce);
+			// Check whether batching
+			if (batchDepth > 0) {
+				log.trace("Rocket is in a batch, merging event " + cce);
+				batchType = mergeEventTypes(batchType, cce.getType());
+				batchSource = cce.getSource();
 				return;
 			}
 
@@ -703,10 +729,97 @@ public class Rocket extends ComponentAssembly {
 		}
 	}
 	
+	/**
+	 * Starts a batch of changes to the rocket structure.  Until the batch is committed,
+	 * change events are not dispatched to the components, flight configurations or
+	 * listeners.  Instead they are merged, and a single event is fired when the batch
+	 * is committed.  The modification IDs are still updated for every change, so cached
+	 * values remain valid during the batch.
+	 * <p>
+	 * Batches may be nested; the combined event is fired when the outermost batch is
+	 * committed.  <code>commitBatch()</code> must always be called afterwards, use a
+	 * try/finally to ensure it is called:
+	 * <pre>
+	 *     Rocket r = c.getRocket();
+	 *     r.beginBatch();
+	 *     try {
+	 *         // do stuff
+	 *     } finally {
+	 *         r.commitBatch();
+	 *     }
+	 * </pre>
+	 *
+	 * @see #commitBatch()
+	 */
+	public void beginBatch() {
+		checkState();
+		if (batchDepth == 0) {
+			log.debug("Starting batch of rocket changes");
+		}
+		batchDepth++;
+	}
+	
+	/**
+	 * Commits a batch of changes started with {@link #beginBatch()}.  When the outermost
+	 * batch is committed, a single event is fired whose type is the union of the types
+	 * of the events fired during the batch, and whose source is the last component to
+	 * have been an event source.  No event is fired if no changes were made.
+	 *
+	 * @see #beginBatch()
+	 */
+	public void commitBatch() {
+		checkState();
+		if (batchDepth == 0) {
+			Application.getExceptionHandler().handleErrorCondition("Attempting to commit a batch of rocket changes when no batch is open");
+			return;
+		}
+		batchDepth--;
+		if (batchDepth > 0) {
+			return;
+		}
+		
+		final int type = batchType;
+		final RocketComponent source = batchSource;
+		batchType = 0;
+		batchSource = null;
+		if (source == null) {
+			log.debug("Committing batch of rocket changes with no changes made");
+			return;
+		}
+		
+		log.debug("Committing batch of rocket changes, type=" + type);
+		fireComponentChangeEvent(new ComponentChangeEvent(source, type));
+	}
+	
+	/**
+	 * Returns whether a batch of changes is open, i.e. whether change events are
+	 * currently being merged instead of dispatched.
+	 */
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+	
+	/**
+	 * Combine the types of two change events.  The non-functional flag is only kept
+	 * if neither of the changes is functional, so that the combined event of a
+	 * functional and a non-functional change is a functional change.
+	 */
+	static int mergeEventTypes(int type1, int type2) {
+		if (type1 == 0) {
+			return type2;
+		}
+		final int nonFunctional = ComponentChangeEvent.NONFUNCTIONAL_CHANGE;
+		if ((type1 & nonFunctional) != 0 && (type2 & nonFunctional) != 0) {
+			return type1 | type2;
+		}
+		return (type1 | type2) & ~nonFunctional;
+	}
+	
 	/**
 	 * Freezes the rocket structure from firing any events.  This may be performed to
 	 * combine several actions on the structure into a single large action.
-	 * <code>thaw()</code> must always be called afterwards.
+	 * <code>thaw()</code> must always be called afterwards.  This is equivalent to
+	 * {@link #beginBatch()}.
 	 *
 	 * NOTE:  Always use a try/finally to ensure <code>thaw()</code> is called:
 	 * <pre>
@@ -722,47 +835,17 @@ public class Rocket extends ComponentAssembly {
 	 * @see #thaw()
 	 */
 	public void freeze() {
-		checkState();
-		if (freezeList == null) {
-			freezeList = new LinkedList<>();
-			log.debug("Freezing Rocket");
-		} else {
-			Application.getExceptionHandler()
-					.handleErrorCondition("Attempting to freeze Rocket when it is already frozen, " +
-							"freezeList=" + freezeList);
-		}
+		beginBatch();
 	}
 	
 	/**
 	 * Thaws a frozen rocket structure and fires a combination of the events fired during
-	 * the freeze.  The event type is a combination of those fired and the source is the
-	 * last component to have been an event source.
+	 * the freeze.  This is equivalent to {@link #commitBatch()}.
 	 *
 	 * @see #freeze()
 	 */
 	public void thaw() {
-		checkState();
-		if (freezeList == null) {
-			Application.getExceptionHandler().handleErrorCondition("Attempting to thaw Rocket when it is not frozen");
-			return;
-		}
-		if (freezeList.size() == 0) {
-			log.warn("Thawing rocket with no changes made");
-			freezeList = null;
-			return;
-		}
-		
-		log.debug("Thawing rocket, freezeList=" + freezeList);
-		
-		int type = 0;
-		Object c = null;
-		for (ComponentChangeEvent e : freezeList) {
-			type = type | e.getType();
-			c = e.getSource();
-		}
-		freezeList = null;
-		
-		fireComponentChangeEvent(new ComponentChangeEvent((RocketComponent) c, type));
+		commitBatch();
 	}
 	
 	
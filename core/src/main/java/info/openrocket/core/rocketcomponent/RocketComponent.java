@@ -155,6 +155,12 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 */
 	private boolean isVisible = true;
 
+	/**
+	 * Modification ID of the state of this component, excluding its children.  A new ID is
+	 * assigned whenever this component fires a change event.  Used by {@link RocketSnapshot}
+	 * to share unchanged component copies between snapshots.
+	 */
+	private ModID stateModID = new ModID();
 	
 	/**
 	 * Used to invalidate the component after calling {@link #copyFrom(RocketComponent)}.
@@ -413,16 +419,31 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 * undo/redo mechanism.  This method should not be used for other purposes,
 	 * such as copy/paste.  This method does not fire any events.
 	 * <p>
-	 * This method must be overridden by any component that refers to mutable objects,
-	 * or if some fields should not be copied.  This should be performed by
-	 * <code>RocketComponent c = super.copyWithOriginalID();</code> and then cloning/modifying
-	 * the appropriate fields.
+	 * This method calls {@link #copyWithOriginalID(boolean)}, which should be overridden
+	 * instead of this method.
 	 * <p>
 	 * This is not performed as serializing/deserializing for performance reasons.
 	 *
 	 * @return A deep copy of the structure.
 	 */
 	protected RocketComponent copyWithOriginalID() {
+		return copyWithOriginalID(true);
+	}
+	
+	/**
+	 * Make a copy of this component while maintaining the component ID's, either with
+	 * deep copies of all its children or without any children.  This method does not
+	 * fire any events, and does not modify this component.
+	 * <p>
+	 * This method must be overridden by any component that refers to mutable objects,
+	 * or if some fields should not be copied.  This should be performed by
+	 * <code>RocketComponent c = super.copyWithOriginalID(deep);</code> and then cloning/modifying
+	 * the appropriate fields.
+	 *
+	 * @param deep	whether to copy the children of this component.
+	 * @return		a copy of this component, with copies of its children if <code>deep</code> is true.
+	 */
+	protected RocketComponent copyWithOriginalID(boolean deep) {
 		mutex.lock("copyWithOriginalID");
 		try {
 			checkState();
@@ -441,12 +462,14 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 			clone.parent = null;
 			clone.children = new ArrayList<>();
 			
-			// Add copied children to the structure without firing events.
-			for (RocketComponent child : this.children) {
-				RocketComponent childCopy = child.copyWithOriginalID();
-				// Don't use addChild(...) method since it fires events
-				clone.children.add(childCopy);
-				childCopy.parent = clone;
+			if (deep) {
+				// Add copied children to the structure without firing events.
+				for (RocketComponent child : this.children) {
+					RocketComponent childCopy = child.copyWithOriginalID(true);
+					// Don't use addChild(...) method since it fires events
+					clone.children.add(childCopy);
+					childCopy.parent = clone;
+				}
 			}
 			
 			this.checkComponentStructure();
@@ -458,6 +481,33 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		}
 	}
 
+	/**
+	 * Make a copy of this component without its children while maintaining the component ID.
+	 * Any mutable fields are copied as in {@link #copyWithOriginalID()}.  The copy has no
+	 * parent.  This method does not fire any events.
+	 *
+	 * @return	a copy of this component with no children.
+	 */
+	RocketComponent copyStateWithOriginalID() {
+		return copyWithOriginalID(false);
+	}
+	
+	/**
+	 * Return the modification ID of the state of this component, excluding its children.
+	 */
+	ModID getStateModID() {
+		return stateModID;
+	}
+	
+	/**
+	 * Append a child to this component without firing events or updating the child.
+	 * This is used when assembling a component tree from copies.
+	 */
+	final void appendChildWithoutEvents(RocketComponent child) {
+		children.add(child);
+		child.parent = this;
+	}
+	
 	@Override
 	public RocketComponent clone() throws CloneNotSupportedException {
 		RocketComponent clone = (RocketComponent) super.clone();
@@ -2608,6 +2658,7 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 */
 	protected void fireComponentChangeEvent(ComponentChangeEvent e) {
 		checkState();
+		stateModID = new ModID();
 		if (parent == null || bypassComponentChangeEvent) {
 			/* Ignore if root invalid. */
 			return;
@@ -2943,6 +2994,7 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		this.id = src.id;
 		this.displayOrder_side = src.displayOrder_side;
 		this.displayOrder_back = src.displayOrder_back;
+		this.stateModID = new ModID();
 		this.configListeners = new LinkedList<>();
 		this.bypassComponentChangeEvent = false;
 		if (this instanceof InsideColorComponent && src instanceof InsideColorComponent) {
@@ -0,0 +1,281 @@
+package info.openrocket.core.rocketcomponent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.util.ModID;
+
+/**
+ * An immutable snapshot of the state of a rocket, used by the undo/redo mechanism.
+ * <p>
+ * The snapshot stores a childless copy of each component together with the structure
+ * of the component tree.  When a snapshot is created based on a previous snapshot, the
+ * copies of the components whose state has not changed since the previous snapshot are
+ * shared, as are entire unchanged subtrees.  A single change therefore only copies the
+ * changed components and the path from them to the root.  The flight configuration
+ * specific parameters of a component may be changed without the component firing an
+ * event, so they are additionally compared with those of the previous copy.
+ * <p>
+ * A snapshot is restored by creating a new rocket from it with {@link #toRocket()}, which
+ * can be loaded into the rocket using {@link Rocket#loadFrom(Rocket)}.
+ */
+public final class RocketSnapshot {
+
+	/*
+	 * Rough estimates of the retained size of the copies, in bytes.  These are not exact
+	 * and are only used for limiting the memory used by the undo history.  On a 64-bit
+	 * JVM with compressed references a childless component copy was measured to retain
+	 * about 300-900 bytes, and allocate up to 2.8 kB for components with motor mounts, so
+	 * the component estimate errs on the large side.  The rocket copy retained 3-5 kB for
+	 * rockets with up to five flight configurations.  A node holds a few references and an
+	 * array, and a free-form fin point is a Coordinate and a list entry.
+	 */
+	private static final long NODE_SIZE = 32;
+	private static final long COMPONENT_SIZE = 1500;
+	private static final long ROCKET_SIZE = 8 * 1024;
+	private static final long FREEFORM_POINT_SIZE = 48;
+
+	private final Rocket rocket;
+	private final Map<FlightConfigurationId, Map<Integer, Boolean>> stageActiveness;
+	private final Node[] children;
+	private final long size;
+	private final long addedSize;
+
+	private RocketSnapshot(Rocket rocket, Map<FlightConfigurationId, Map<Integer, Boolean>> stageActiveness,
+			Node[] children, long size, long addedSize) {
+		this.rocket = rocket;
+		this.stageActiveness = stageActiveness;
+		this.children = children;
+		this.size = size;
+		this.addedSize = addedSize;
+	}
+
+	/**
+	 * Create a snapshot of the current state of a rocket.
+	 *
+	 * @param rocket	the rocket.
+	 * @param previous	a previous snapshot of the same rocket whose unchanged component copies
+	 * 					are shared, or <code>null</code>.
+	 * @return			the snapshot.
+	 */
+	public static RocketSnapshot create(Rocket rocket, RocketSnapshot previous) {
+		Map<UUID, Node> previousNodes = new HashMap<>();
+		if (previous != null) {
+			for (Node child : previous.children) {
+				child.collect(previousNodes);
+			}
+		}
+
+		Builder builder = new Builder(previousNodes);
+		Node[] children = builder.snapshotChildren(rocket);
+
+		Map<FlightConfigurationId, Map<Integer, Boolean>> stageActiveness = new HashMap<>();
+		for (FlightConfiguration config : rocket.getFlightConfigurations()) {
+			stageActiveness.put(config.getId(), config.getStageActiveness());
+		}
+		Rocket state = rocket.copyStateWithOriginalID();
+
+		long added = builder.addedSize + ROCKET_SIZE;
+		return new RocketSnapshot(state, stageActiveness, children, builder.size + ROCKET_SIZE, added);
+	}
+
+	/**
+	 * Return the modification ID of the rocket at the time the snapshot was taken.
+	 */
+	public ModID getModID() {
+		return rocket.getModID();
+	}
+
+	/**
+	 * Return an estimate of the memory used by this snapshot in bytes, including the copies
+	 * shared with other snapshots.  The estimate is based on rough fixed sizes per component
+	 * copy, not on the actual contents of the components.
+	 */
+	public long getEstimatedSize() {
+		return size;
+	}
+
+	/**
+	 * Return an estimate of the memory used by the copies of this snapshot that were not
+	 * shared from the previous snapshot, in bytes.
+	 */
+	public long getEstimatedAddedSize() {
+		return addedSize;
+	}
+
+	/**
+	 * Create a new rocket with the state of this snapshot.  The components of the rocket
+	 * have their original IDs.  This method does not fire any events.
+	 *
+	 * @return	a new rocket.
+	 */
+	public Rocket toRocket() {
+		Rocket copy = rocket.copyWithOriginalID();
+		for (Node child : children) {
+			copy.appendChildWithoutEvents(child.toComponent());
+		}
+		copy.update();
+
+		for (Map.Entry<FlightConfigurationId, Map<Integer, Boolean>> entry : stageActiveness.entrySet()) {
+			FlightConfiguration config = copy.getFlightConfiguration(entry.getKey());
+			for (Map.Entry<Integer, Boolean> stage : entry.getValue().entrySet()) {
+				if (copy.getStage(stage.getKey()) != null) {
+					config._setStageActive(stage.getKey(), stage.getValue(), false);
+				}
+			}
+		}
+		return copy;
+	}
+
+
+	/**
+	 * A component copy and the nodes of its children.
+	 */
+	private static final class Node {
+		private final RocketComponent state;
+		private final ModID stateModID;
+		private final Node[] children;
+
+		Node(RocketComponent state, ModID stateModID, Node[] children) {
+			this.state = state;
+			this.stateModID = stateModID;
+			this.children = children;
+		}
+
+		void collect(Map<UUID, Node> nodes) {
+			nodes.put(state.getID(), this);
+			for (Node child : children) {
+				child.collect(nodes);
+			}
+		}
+
+		RocketComponent toComponent() {
+			RocketComponent copy = state.copyWithOriginalID();
+			for (Node child : children) {
+				copy.appendChildWithoutEvents(child.toComponent());
+			}
+			return copy;
+		}
+	}
+
+	/**
+	 * Builds the nodes of a snapshot, reusing the nodes of the previous snapshot.
+	 */
+	private static final class Builder {
+		private final Map<UUID, Node> previousNodes;
+		private long size = 0;
+		private long addedSize = 0;
+
+		Builder(Map<UUID, Node> previousNodes) {
+			this.previousNodes = previousNodes;
+		}
+
+		Node[] snapshotChildren(RocketComponent component) {
+			Node[] nodes = new Node[component.getChildCount()];
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = snapshot(component.getChild(i));
+			}
+			return nodes;
+		}
+
+		Node snapshot(RocketComponent component) {
+			Node[] children = snapshotChildren(component);
+			long componentSize = estimateSize(component);
+			size += NODE_SIZE + componentSize;
+
+			Node previous = previousNodes.get(component.getID());
+			if (previous != null && previous.stateModID == component.getStateModID() &&
+					previous.state.getClass() == component.getClass() &&
+					sameParameters(component, previous.state)) {
+				if (sameNodes(previous.children, children)) {
+					return previous;
+				}
+				addedSize += NODE_SIZE;
+				return new Node(previous.state, previous.stateModID, children);
+			}
+
+			addedSize += NODE_SIZE + componentSize;
+			return new Node(component.copyStateWithOriginalID(), component.getStateModID(), children);
+		}
+
+		private static boolean sameNodes(Node[] a, Node[] b) {
+			if (a.length != b.length) {
+				return false;
+			}
+			for (int i = 0; i < a.length; i++) {
+				if (a[i] != b[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Check whether the flight configuration specific parameters of a component are
+		 * equal to those of a previous copy of it.
+		 */
+		private static boolean sameParameters(RocketComponent component, RocketComponent previous) {
+			if (!(component instanceof FlightConfigurableComponent)) {
+				return true;
+			}
+			boolean known = false;
+			if (component instanceof MotorMount) {
+				known = true;
+				if (!sameParameters(((MotorMount) component).getMotorConfigurationSet(),
+						((MotorMount) previous).getMotorConfigurationSet(), Builder::sameMotorConfiguration)) {
+					return false;
+				}
+			}
+			if (component instanceof RecoveryDevice) {
+				known = true;
+				if (!sameParameters(((RecoveryDevice) component).getDeploymentConfigurations(),
+						((RecoveryDevice) previous).getDeploymentConfigurations(), Objects::equals)) {
+					return false;
+				}
+			}
+			if (component instanceof AxialStage) {
+				known = true;
+				if (!sameParameters(((AxialStage) component).getSeparationConfigurations(),
+						((AxialStage) previous).getSeparationConfigurations(), Objects::equals)) {
+					return false;
+				}
+			}
+			return known;
+		}
+
+		private static <E extends FlightConfigurableParameter<E>> boolean sameParameters(
+				FlightConfigurableParameterSet<E> a, FlightConfigurableParameterSet<E> b, BiPredicate<E, E> equal) {
+			List<FlightConfigurationId> ids = a.getIds();
+			if (!ids.equals(b.getIds()) || !equal.test(a.getDefault(), b.getDefault())) {
+				return false;
+			}
+			for (FlightConfigurationId id : ids) {
+				if (!equal.test(a.get(id), b.get(id))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean sameMotorConfiguration(MotorConfiguration a, MotorConfiguration b) {
+			return a.getMotor() == b.getMotor() &&
+					a.getEjectionDelay() == b.getEjectionDelay() &&
+					a.hasIgnitionOverride() == b.hasIgnitionOverride() &&
+					a.getIgnitionEvent() == b.getIgnitionEvent() &&
+					a.getIgnitionDelay() == b.getIgnitionDelay();
+		}
+
+		private static long estimateSize(RocketComponent component) {
+			long estimate = COMPONENT_SIZE;
+			if (component instanceof FreeformFinSet) {
+				estimate += ((FreeformFinSet) component).getPointCount() * FREEFORM_POINT_SIZE;
+			}
+			return estimate;
+		}
+	}
+}
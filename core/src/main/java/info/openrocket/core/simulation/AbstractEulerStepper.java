@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.models.atmosphere.AtmosphericConditions;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.Coordinate;
@@ -20,6 +21,9 @@ public abstract class AbstractEulerStepper extends AbstractSimulationStepper {
 	private static final double RECOVERY_TIME_STEP = 0.5;
 
 	DataStore store = new DataStore();
+
+	// Scratch object the atmospheric conditions of each step are computed into
+	private final AtmosphericConditions atmosphere = new AtmosphericConditions();
 	
 	@Override
 	public SimulationStatus initialize(SimulationStatus status) {
@@ -46,7 +50,7 @@ public abstract class AbstractEulerStepper extends AbstractSimulationStepper {
 	public void step(SimulationStatus status, double maxTimeStep) throws SimulationException {
 		
 		// Get the atmospheric conditions
-		store.atmosphericConditions = modelAtmosphericConditions(status);
+		store.atmosphericConditions = modelAtmosphericConditions(status, atmosphere);
 		
 		//// Local wind speed and direction
 		store.windVelocity = modelWindVelocity(status);
@@ -1,12 +1,11 @@
 package info.openrocket.core.simulation;
 
-import java.util.Collection;
-
 import info.openrocket.core.aerodynamics.AerodynamicForces;
 import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.masscalc.MassCalculator;
 import info.openrocket.core.masscalc.RigidBody;
 import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.util.BugException;
@@ -28,6 +27,21 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 	 * @throws SimulationException	if a listener throws SimulationException
 	 */
 	protected AtmosphericConditions modelAtmosphericConditions(SimulationStatus status) throws SimulationException {
+		return modelAtmosphericConditions(status, new AtmosphericConditions());
+	}
+
+	/**
+	 * Compute the atmospheric conditions, allowing listeners to override.  The conditions
+	 * computed by the atmospheric model are stored into <code>result</code>, so no new
+	 * object is allocated unless a listener provides one.
+	 * 
+	 * @param status	the simulation status
+	 * @param result	the object to store the modeled conditions into
+	 * @return			the atmospheric conditions to use, <code>result</code> or an object provided by a listener
+	 * @throws SimulationException	if a listener throws SimulationException
+	 */
+	protected AtmosphericConditions modelAtmosphericConditions(SimulationStatus status, AtmosphericConditions result)
+			throws SimulationException {
 		AtmosphericConditions conditions;
 
 		// Call pre-listener
@@ -38,7 +52,7 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 
 		// Compute conditions
 		double altitude = status.getRocketPosition().z + status.getSimulationConditions().getLaunchSite().getAltitude();
-		conditions = status.getSimulationConditions().getAtmosphericModel().getConditions(altitude);
+		conditions = status.getSimulationConditions().getAtmosphericModel().getConditions(altitude, result);
 
 		// Call post-listener
 		conditions = SimulationListenerHelper.firePostAtmosphericModel(status, conditions);
@@ -120,7 +134,13 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 
-		structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		// The structure only changes on staging, so use the cache of the mass calculator
+		MassCalculator massCalculator = status.getSimulationConditions().getMassCalculator();
+		if (massCalculator != null) {
+			structureMass = massCalculator.getStructure(status.getConfiguration());
+		} else {
+			structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		}
 
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
@@ -177,10 +197,13 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return thrust;
 		}
 
+		// Check the active motors directly instead of collecting them into a new list on every call
 		thrust = 0;
-		Collection<MotorClusterState> activeMotorList = status.getActiveMotors();
-		for (MotorClusterState currentMotorState : activeMotorList ) {
-			thrust += currentMotorState.getThrust( status.getSimulationTime() );
+		FlightConfiguration configuration = status.getConfiguration();
+		for (MotorClusterState currentMotorState : status.getMotors()) {
+			if (configuration.isComponentActive(currentMotorState.getMount())) {
+				thrust += currentMotorState.getThrust( status.getSimulationTime() );
+			}
 		}
 
 		// Post-listeners
@@ -23,10 +23,12 @@ import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RecoveryDevice;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.StageSeparationConfiguration;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.simulation.listeners.system.OptimumCoastListener;
 import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.CancellationToken;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.Pair;
@@ -36,8 +38,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private static final Translator trans = Application.getTranslator();
 	private static final Logger log = LoggerFactory.getLogger(BasicEventSimulationEngine.class);
 	
-	// TODO: MEDIUM: Allow selecting steppers
-	private final SimulationStepper flightStepper = new RK4SimulationStepper();
+	private SimulationStepper flightStepper;
 	private final SimulationStepper landingStepper = new BasicLandingStepper();
 	private final SimulationStepper tumbleStepper = new BasicTumbleStepper();
 	private final SimulationStepper groundStepper = new GroundStepper();
@@ -56,12 +57,17 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	Deque<SimulationStatus> toSimulate = new ArrayDeque<>();
 
 	FlightData flightData;
+
+	// Cancellation token bound to the simulating thread, or null
+	private CancellationToken cancellation;
 	
 	@Override
 	public void simulate(SimulationConditions simulationConditions) throws SimulationException {
 
 		// Set up flight data
 		flightData = new FlightData();
+		cancellation = CancellationToken.current();
+		flightStepper = simulationConditions.getFlightStepperType().createStepper();
 			
 		try {
 			// Set up rocket configuration
@@ -184,11 +190,14 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 						maxStepTime = 0.0;
 					}
 
-					log.trace(
-							"Taking simulation step at t=" + currentStatus.getSimulationTime() + " altitude " + oldAlt);
+					log.trace("Taking simulation step at t={} altitude {}", currentStatus.getSimulationTime(), oldAlt);
 					currentStepper.step(currentStatus, maxStepTime);
 				}
 				SimulationListenerHelper.firePostStep(currentStatus);
+
+				if (cancellation != null && cancellation.isCancelled()) {
+					throw new SimulationCancelledException("The simulation was cancelled.");
+				}
 				
 				
 				// Check for NaN values in the simulation status
@@ -1,6 +1,6 @@
 package info.openrocket.core.simulation;
 
-import info.openrocket.core.util.ArrayList;
+import info.openrocket.core.util.DoubleColumn;
 import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.Monitorable;
 import info.openrocket.core.util.Mutable;
@@ -15,11 +15,17 @@ import java.util.Set;
 
 /**
  * A branch of data / collection of data points for a specific type of data.
+ * <p>
+ * The values of each type are stored in a primitive {@link DoubleColumn}, so adding
+ * points and setting values does not box the values.  The values can be read either
+ * as a <code>double[]</code> using {@link #getDoubleArray(DataType)} or as a read-only
+ * <code>List&lt;Double&gt;</code> using {@link #get(DataType)}.
+ *
  * @param <T> the type of data in this branch
  */
 public abstract class DataBranch<T extends DataType> implements Monitorable {
 	protected final String name;
-	protected final Map<T, ArrayList<Double>> values = new LinkedHashMap<>();
+	protected final Map<T, DoubleColumn> values = new LinkedHashMap<>();
 	protected final Map<T, Double> maxValues = new HashMap<>();
 	protected final Map<T, Double> minValues = new HashMap<>();
 
@@ -54,7 +60,7 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 			throw new IllegalArgumentException("Value type " + type + " already exists.");
 		}
 
-		values.put(type, new ArrayList<>());
+		values.put(type, new DoubleColumn());
 		minValues.put(type, Double.NaN);
 		maxValues.put(type, Double.NaN);
 	}
@@ -67,28 +73,12 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public void addPoint() {
 		mutable.check();
 
-		for (Map.Entry<T, ArrayList<Double>> entry : values.entrySet()) {
-			sanityCheckValues(entry.getKey(), Double.NaN);
-			entry.getValue().add(Double.NaN);
+		for (DoubleColumn column : values.values()) {
+			column.add(Double.NaN);
 		}
 		modID = new ModID();
 	}
 
-	private void sanityCheckValues(T type, Double value) {
-		ArrayList<Double> list = values.get(type);
-
-		if (list == null) {
-			list = new info.openrocket.core.util.ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
-			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
-		}
-	}
-
 	/**
 	 * Set the value for a specific data type at the latest point.  New variable types can be
 	 * added to the FlightDataBranch transparently.
@@ -100,21 +90,16 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	public void setValue(T type, double value) {
 		mutable.check();
 
-		ArrayList<Double> list = values.computeIfAbsent(type, k -> {
-			ArrayList<Double> newList = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				newList.add(Double.NaN);
-			}
-			minValues.put(k, Double.NaN);
-			maxValues.put(k, Double.NaN);
-			return newList;
-		});
-
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		DoubleColumn column = values.get(type);
+		if (column == null) {
+			column = new DoubleColumn(getLength(), Double.NaN);
+			values.put(type, column);
+			minValues.put(type, Double.NaN);
+			maxValues.put(type, Double.NaN);
 		}
 
+		column.setLast(value);
+
 		double min = minValues.get(type);
 		double max = maxValues.get(type);
 
@@ -124,22 +109,38 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		if (Double.isNaN(max) || (value > max)) {
 			maxValues.put(type, value);
 		}
-		modID = new ModID();
+		// The new modification ID is created when it is requested, not for every stored value
+		modID = null;
 	}
 
 
 	/**
-	 * Return an array of values for the specified variable type.
+	 * Return a list of values for the specified variable type.  The returned list is a
+	 * read-only snapshot of the current values.
 	 *
 	 * @param type	the variable type.
 	 * @return		a list of the variable values, or <code>null</code> if
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		DoubleColumn column = values.get(type);
+		if (column == null)
 			return null;
-		return list.clone();
+		return column.toList();
+	}
+
+	/**
+	 * Return an array of values for the specified variable type.
+	 *
+	 * @param type	the variable type.
+	 * @return		a new array containing the variable values, or <code>null</code> if
+	 * 				the variable type hasn't been added to this branch.
+	 */
+	public double[] getDoubleArray(T type) {
+		DoubleColumn column = values.get(type);
+		if (column == null)
+			return null;
+		return column.toArray();
 	}
 
 	/**
@@ -152,11 +153,28 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		if (index < 0 || index >= getLength()) {
 			throw new IllegalArgumentException("Index out of bounds");
 		}
-		ArrayList<Double> list = values.get(type);
-		if (list == null) {
+		DoubleColumn column = values.get(type);
+		if (column == null) {
 			return null;
 		}
-		return list.get(index);
+		return column.get(index);
+	}
+
+	/**
+	 * Return the value of the specified type at the specified index without boxing it.
+	 * @param type the variable type
+	 * @param index the data index of the value
+	 * @return the value at the specified index, or NaN if the type is unavailable
+	 */
+	public double getValue(T type, int index) {
+		if (index < 0 || index >= getLength()) {
+			throw new IllegalArgumentException("Index out of bounds");
+		}
+		DoubleColumn column = values.get(type);
+		if (column == null) {
+			return Double.NaN;
+		}
+		return column.get(index);
 	}
 
 	/**
@@ -167,10 +185,10 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(T type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		DoubleColumn column = values.get(type);
+		if (column == null)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return column.getLast();
 	}
 
 	/**
@@ -205,12 +223,42 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (ArrayList<Double> doubles : values.values()) {
-			return doubles.size();
+		for (DoubleColumn column : values.values()) {
+			return column.size();
 		}
 		return 0;
 	}
 
+	/**
+	 * Copy all values of the specified type from another branch, replacing any values
+	 * of that type in this branch.  The minimum and maximum are recomputed from the
+	 * copied values.
+	 *
+	 * @param source	the branch to copy from.
+	 * @param type		the variable type to copy.
+	 */
+	protected void copyValues(DataBranch<T> source, T type) {
+		DoubleColumn column = source.values.get(type);
+		if (column == null) {
+			return;
+		}
+		column = column.clone();
+		double min = Double.NaN;
+		double max = Double.NaN;
+		for (int i = 0; i < column.size(); i++) {
+			double value = column.get(i);
+			if (Double.isNaN(min) || value < min) {
+				min = value;
+			}
+			if (Double.isNaN(max) || value > max) {
+				max = value;
+			}
+		}
+		values.put(type, column);
+		minValues.put(type, min);
+		maxValues.put(type, max);
+	}
+
 	/**
 	 * Return the variable types included in this branch.  The types are sorted in their
 	 * natural order.
@@ -224,6 +272,14 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 		return array;
 	}
 
+	/**
+	 * Return the number of variable types included in this branch.  Types are never removed,
+	 * so an unchanged count means that the types are unchanged.
+	 */
+	public int getTypeCount() {
+		return values.size();
+	}
+
 	/**
 	 * Return the branch name.
 	 */
@@ -247,6 +303,9 @@ public abstract class DataBranch<T extends DataType> implements Monitorable {
 	}
 
 	public ModID getModID() {
+		if (modID == null) {
+			modID = new ModID();
+		}
 		return modID;
 	}
 }
@@ -0,0 +1,267 @@
+package info.openrocket.core.simulation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.simulation.exception.SimulationCalculationException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.WorldCoordinate;
+
+/**
+ * An adaptive flight stepper using the Dormand-Prince RK5(4) method.
+ * <p>
+ * Each step evaluates seven stages and compares the fifth-order solution with the
+ * embedded fourth-order solution.  If the estimated error exceeds the absolute and
+ * relative tolerances of the simulation conditions the step is rejected and retried
+ * with a shorter time step, otherwise the step is accepted and the next time step is
+ * chosen from the error estimate.  Smooth phases such as long coasts therefore take
+ * long steps, while the boost and other rapidly changing phases take short ones.
+ * <p>
+ * The time step is bounded between 1/20 and {@link #MAX_TIME_STEP_FACTOR} times the
+ * time step of the simulation conditions.  The flight on the launch rod is simulated
+ * with the fixed-step RK4 method of the superclass, since the rod phase is short and
+ * its heuristic step limits are needed to detect the rod clearance accurately.
+ */
+public class DormandPrinceSimulationStepper extends RK4SimulationStepper {
+
+	private static final Logger log = LoggerFactory.getLogger(DormandPrinceSimulationStepper.class);
+	private static final Translator trans = Application.getTranslator();
+
+	/** Default absolute error tolerance per step */
+	public static final double DEFAULT_ABSOLUTE_TOLERANCE = 1e-3;
+
+	/** Default relative error tolerance per step */
+	public static final double DEFAULT_RELATIVE_TOLERANCE = 1e-6;
+
+	/** Maximum time step as a multiple of the time step of the simulation conditions */
+	public static final double MAX_TIME_STEP_FACTOR = 20;
+
+	private static final double SAFETY = 0.9;
+	private static final double MIN_SCALE = 0.2;
+	private static final double MAX_SCALE = 5;
+
+	/*
+	 * Butcher tableau of the Dormand-Prince method.  B5 are the weights of the fifth-order
+	 * solution (which equal the coefficients of the last stage), and E the differences
+	 * between the fifth- and fourth-order weights.
+	 */
+	private static final double[] C = { 0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1, 1 };
+	private static final double[][] A = {
+			{},
+			{ 1.0 / 5 },
+			{ 3.0 / 40, 9.0 / 40 },
+			{ 44.0 / 45, -56.0 / 15, 32.0 / 9 },
+			{ 19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729 },
+			{ 9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656 },
+			{ 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84 }
+	};
+	private static final double[] B5 = { 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84, 0 };
+	private static final double[] E = {
+			35.0 / 384 - 5179.0 / 57600,
+			0,
+			500.0 / 1113 - 7571.0 / 16695,
+			125.0 / 192 - 393.0 / 640,
+			-2187.0 / 6784 + 92097.0 / 339200,
+			11.0 / 84 - 187.0 / 2100,
+			-1.0 / 40
+	};
+
+	private final RK4Parameters[] k = new RK4Parameters[7];
+	private final RK4Parameters sum = new RK4Parameters();
+	private final RK4Parameters error = new RK4Parameters();
+
+	/** The time step proposed for the next step, or NaN if not yet known */
+	private double nextTimeStep = Double.NaN;
+
+	private int rejectedSteps = 0;
+
+	public DormandPrinceSimulationStepper() {
+		for (int i = 0; i < k.length; i++) {
+			k[i] = new RK4Parameters();
+		}
+	}
+
+	@Override
+	public SimulationStatus initialize(SimulationStatus original) {
+		nextTimeStep = Double.NaN;
+		return super.initialize(original);
+	}
+
+	/**
+	 * @return	the number of steps rejected because of too large an error since this stepper was created.
+	 */
+	public int getRejectedSteps() {
+		return rejectedSteps;
+	}
+
+
+	@Override
+	public void step(SimulationStatus status, double maxTimeStep) throws SimulationException {
+
+		if (!status.isLaunchRodCleared()) {
+			super.step(status, maxTimeStep);
+			nextTimeStep = store.timeStep;
+			return;
+		}
+
+		SimulationConditions conditions = status.getSimulationConditions();
+		double minTimeStep = conditions.getTimeStep() / 20;
+		double maxStep = MathUtil.max(conditions.getTimeStep(), MIN_TIME_STEP) * MAX_TIME_STEP_FACTOR;
+		double atol = conditions.getAbsoluteTolerance();
+		double rtol = conditions.getRelativeTolerance();
+
+		/*
+		 * Get the current atmospheric conditions
+		 */
+		calculateFlightConditions(status, store);
+		store.atmosphericConditions = store.flightConditions.getAtmosphericConditions();
+
+		// First stage at the current state, stored in the current data point
+		computeParameters(status, store, k[0]);
+		store.storeData(status);
+
+		double h = Double.isNaN(nextTimeStep) ? conditions.getTimeStep() : nextTimeStep;
+
+		SimulationStatus stageStatus;
+		double errorNorm;
+		while (true) {
+			h = MathUtil.clamp(h, minTimeStep, maxStep);
+			h = limitToEvents(status, MathUtil.min(h, maxTimeStep));
+			checkNaN(h);
+
+			// Stages 2-7; the last stage is evaluated at the fifth-order solution
+			stageStatus = null;
+			for (int i = 1; i < 7; i++) {
+				weightedSum(A[i], i, sum);
+				stageStatus = advance(status, sum, h, C[i] * h);
+				computeParameters(stageStatus, store, k[i]);
+			}
+
+			weightedSum(E, 7, error);
+			errorNorm = errorNorm(status, stageStatus, h, atol, rtol);
+
+			if (errorNorm <= 1 || h <= minTimeStep * 1.000001) {
+				break;
+			}
+
+			rejectedSteps++;
+			double scale = MathUtil.max(MIN_SCALE, SAFETY * Math.pow(errorNorm, -0.2));
+			log.trace("Rejected time step " + h + " with error " + errorNorm);
+			h *= scale;
+		}
+
+		// Propose the next time step from the error estimate
+		double scale = (errorNorm == 0) ? MAX_SCALE :
+				MathUtil.clamp(SAFETY * Math.pow(errorNorm, -0.2), MIN_SCALE, MAX_SCALE);
+		nextTimeStep = h * scale;
+		store.timeStep = h;
+		log.trace("Accepted time step " + h + " with error " + errorNorm + ", next " + nextTimeStep);
+
+		// Take the fifth-order solution
+		weightedSum(B5, 7, sum);
+		status.setRocketVelocity(status.getRocketVelocity().add(sum.ax * h, sum.ay * h, sum.az * h));
+		status.setRocketPosition(status.getRocketPosition().add(sum.vx * h, sum.vy * h, sum.vz * h));
+		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(sum.rax * h, sum.ray * h, sum.raz * h));
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeftRotation(sum.rvx * h, sum.rvy * h, sum.rvz * h).normalizeIfNecessary());
+
+		WorldCoordinate w = conditions.getLaunchSite();
+		w = conditions.getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
+		status.setRocketWorldPosition(w);
+
+		status.setSimulationTime(status.getSimulationTime() + h);
+
+		// Store data.  The data store contains the values of the last stage, which was
+		// evaluated at the new state.
+		status.getFlightDataBranch().addPoint();
+		status.storeData();
+		store.storeData(status);
+
+		// Verify that values don't run out of range
+		if (status.getRocketVelocity().length2() > 1.0e18 ||
+				status.getRocketPosition().length2() > 1.0e18 ||
+				status.getRocketRotationVelocity().length2() > 1.0e18) {
+			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"), status.getFlightDataBranch());
+		}
+	}
+
+
+	/**
+	 * Compute the weighted sum of the first <code>count</code> stage derivatives into <code>out</code>.
+	 */
+	private void weightedSum(double[] weights, int count, RK4Parameters out) {
+		out.ax = out.ay = out.az = 0;
+		out.vx = out.vy = out.vz = 0;
+		out.rax = out.ray = out.raz = 0;
+		out.rvx = out.rvy = out.rvz = 0;
+		for (int j = 0; j < count; j++) {
+			double b = weights[j];
+			if (b == 0) {
+				continue;
+			}
+			RK4Parameters kj = k[j];
+			out.ax += b * kj.ax;
+			out.ay += b * kj.ay;
+			out.az += b * kj.az;
+			out.vx += b * kj.vx;
+			out.vy += b * kj.vy;
+			out.vz += b * kj.vz;
+			out.rax += b * kj.rax;
+			out.ray += b * kj.ray;
+			out.raz += b * kj.raz;
+			out.rvx += b * kj.rvx;
+			out.rvy += b * kj.rvy;
+			out.rvz += b * kj.rvz;
+		}
+	}
+
+	/**
+	 * Return a copy of the status advanced by <code>h</code> times the derivatives <code>d</code>,
+	 * at the time <code>dt</code> after the current time.
+	 */
+	private static SimulationStatus advance(SimulationStatus status, RK4Parameters d, double h, double dt) {
+		SimulationStatus status2 = status.clone();
+		status2.setSimulationTime(status.getSimulationTime() + dt);
+		status2.setRocketPosition(status.getRocketPosition().add(d.vx * h, d.vy * h, d.vz * h));
+		status2.setRocketVelocity(status.getRocketVelocity().add(d.ax * h, d.ay * h, d.az * h));
+		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeftRotation(d.rvx * h, d.rvy * h, d.rvz * h));
+		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(d.rax * h, d.ray * h, d.raz * h));
+		return status2;
+	}
+
+	/**
+	 * Return the maximum of the estimated errors scaled by the tolerances.  A value
+	 * of at most one means the step is accurate enough.
+	 */
+	private double errorNorm(SimulationStatus status, SimulationStatus newStatus, double h,
+			double atol, double rtol) {
+		Coordinate p0 = status.getRocketPosition(), p1 = newStatus.getRocketPosition();
+		Coordinate v0 = status.getRocketVelocity(), v1 = newStatus.getRocketVelocity();
+		Coordinate r0 = status.getRocketRotationVelocity(), r1 = newStatus.getRocketRotationVelocity();
+
+		double norm = 0;
+		norm = Math.max(norm, scaledError(error.vx * h, p0.x, p1.x, atol, rtol));
+		norm = Math.max(norm, scaledError(error.vy * h, p0.y, p1.y, atol, rtol));
+		norm = Math.max(norm, scaledError(error.vz * h, p0.z, p1.z, atol, rtol));
+		norm = Math.max(norm, scaledError(error.ax * h, v0.x, v1.x, atol, rtol));
+		norm = Math.max(norm, scaledError(error.ay * h, v0.y, v1.y, atol, rtol));
+		norm = Math.max(norm, scaledError(error.az * h, v0.z, v1.z, atol, rtol));
+		norm = Math.max(norm, scaledError(error.rax * h, r0.x, r1.x, atol, rtol));
+		norm = Math.max(norm, scaledError(error.ray * h, r0.y, r1.y, atol, rtol));
+		norm = Math.max(norm, scaledError(error.raz * h, r0.z, r1.z, atol, rtol));
+		// The orientation change is a rotation vector, which has no meaningful magnitude to scale with
+		norm = Math.max(norm, scaledError(error.rvx * h, 0, 0, atol, rtol));
+		norm = Math.max(norm, scaledError(error.rvy * h, 0, 0, atol, rtol));
+		norm = Math.max(norm, scaledError(error.rvz * h, 0, 0, atol, rtol));
+		return norm;
+	}
+
+	private static double scaledError(double error, double y0, double y1, double atol, double rtol) {
+		return Math.abs(error) / (atol + rtol * Math.max(Math.abs(y0), Math.abs(y1)));
+	}
+}
@@ -2,6 +2,7 @@ package info.openrocket.core.simulation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +22,10 @@ import info.openrocket.core.util.Mutable;
  * <li>A WarningSet including warnings that occurred during simulation
  * </ul>
  * <p>
+ * The branches may also be added as deferred branches, which are read only when the
+ * branches are first accessed.  This allows loading a document without reading all of
+ * its stored flight data.
+ * <p>
  * A FlightData object can be made immutable by calling {@link #immute()}.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
@@ -41,6 +46,8 @@ public class FlightData {
 	private final Mutable mutable = new Mutable();
 	
 	private final ArrayList<FlightDataBranch> branches = new ArrayList<>();
+	// Suppliers of the deferred branches not yet read, null when all branches are available
+	private volatile List<Supplier<FlightDataBranch>> deferredBranches = null;
 	
 	private final WarningSet warnings = new WarningSet();
 	
@@ -125,26 +132,90 @@ public class FlightData {
 	
 	public void addBranch(FlightDataBranch branch) {
 		mutable.check();
+		loadDeferredBranches();
 		
 		branches.add(branch);
 	}
 	
+	/**
+	 * Add a branch that is read only when the branches of this object are first accessed.
+	 * The supplier is called at most once for this object, but it may be called again for
+	 * a clone of this object, so it must return a new, mutable branch on each call.  The
+	 * branch is made immutable when it is read if this object is immutable.
+	 * <p>
+	 * The summary values are not calculated from deferred branches, so they should be set
+	 * using the summary constructor.
+	 * 
+	 * @param supplier	the supplier that reads the branch.
+	 */
+	public synchronized void addDeferredBranch(Supplier<FlightDataBranch> supplier) {
+		mutable.check();
+		
+		List<Supplier<FlightDataBranch>> deferred = deferredBranches;
+		if (deferred == null) {
+			deferred = new ArrayList<>();
+		}
+		deferred.add(supplier);
+		deferredBranches = deferred;
+	}
+	
+	/**
+	 * Return whether some of the branches have not been read yet.  The branches are read
+	 * when any of them is accessed using {@link #getBranch(int)} or {@link #getBranches()}.
+	 */
+	public boolean hasDeferredBranches() {
+		return deferredBranches != null;
+	}
+	
 	public int getBranchCount() {
+		if (deferredBranches != null) {
+			synchronized (this) {
+				List<Supplier<FlightDataBranch>> deferred = deferredBranches;
+				return branches.size() + (deferred != null ? deferred.size() : 0);
+			}
+		}
 		return branches.size();
 	}
 	
 	public FlightDataBranch getBranch(int stageNr) {
+		loadDeferredBranches();
 		return branches.get(stageNr);
 	}
 
 	public int getStageNr(FlightDataBranch branch) {
+		loadDeferredBranches();
 		return branches.indexOf(branch);
 	}
 
 	public List<FlightDataBranch> getBranches() {
+		loadDeferredBranches();
 		return branches;
 	}
 	
+	/**
+	 * Read the deferred branches, if there are any.
+	 */
+	private void loadDeferredBranches() {
+		if (deferredBranches == null) {
+			return;
+		}
+		synchronized (this) {
+			List<Supplier<FlightDataBranch>> deferred = deferredBranches;
+			if (deferred == null) {
+				return;
+			}
+			log.debug("Reading " + deferred.size() + " deferred flight data branches");
+			for (Supplier<FlightDataBranch> supplier : deferred) {
+				FlightDataBranch branch = supplier.get();
+				if (!mutable.isMutable()) {
+					branch.immute();
+				}
+				branches.add(branch);
+			}
+			deferredBranches = null;
+		}
+	}
+	
 	
 
 	public double getMaxAltitude() {
@@ -197,6 +268,7 @@ public class FlightData {
 	 * and ground hit velocity.
 	 */
 	public void calculateInterestingValues() {
+		loadDeferredBranches();
 		if (branches.isEmpty())
 			return;
 		
@@ -284,8 +356,13 @@ public class FlightData {
 	public FlightData clone() {
 		FlightData clone = new FlightData();
 		clone.warnings.addAll(warnings);
-		for (FlightDataBranch b : branches) {
-			clone.branches.add(b.clone());
+		synchronized (this) {
+			for (FlightDataBranch b : branches) {
+				clone.branches.add(b.clone());
+			}
+			if (deferredBranches != null) {
+				clone.deferredBranches = new ArrayList<>(deferredBranches);
+			}
 		}
 		clone.maxAltitude = maxAltitude;
 		clone.maxVelocity = maxVelocity;
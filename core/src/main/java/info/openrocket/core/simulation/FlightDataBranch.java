@@ -7,6 +7,7 @@ import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.ArrayList;
+import info.openrocket.core.util.DoubleColumn;
 import info.openrocket.core.util.ModID;
 
 /**
@@ -77,7 +78,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		this.values.clear();
 
 		// Need to have at least one type to set up values
-		values.put(FlightDataType.TYPE_TIME, new ArrayList<>());
+		values.put(FlightDataType.TYPE_TIME, new DoubleColumn());
 		minValues.put(FlightDataType.TYPE_TIME, Double.NaN);
 		maxValues.put(FlightDataType.TYPE_TIME, Double.NaN);
 
@@ -86,10 +87,9 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		}
 
 		// Copy flight data
-		for (int i = 0; i < srcBranch.getLength(); i++) {
-			this.addPoint();
+		if (srcBranch.getLength() > 0) {
 			for (FlightDataType type : srcBranch.getTypes()) {
-				this.setValue(type, srcBranch.getByIndex(type, i));
+				copyValues(srcBranch, type);
 			}
 		}
 
@@ -246,7 +246,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		if (Double.isNaN(time)) {
 			return -1;
 		}
-		List<Double> times = get(FlightDataType.TYPE_TIME);
+		DoubleColumn times = values.get(FlightDataType.TYPE_TIME);
 		if (times == null) {
 			return -1;
 		}
@@ -261,7 +261,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 	public FlightDataBranch clone() {
 		FlightDataType[] types = getTypes();
 		FlightDataBranch clone = new FlightDataBranch(name, types);
-		for (Map.Entry<FlightDataType, ArrayList<Double>> entry : values.entrySet()) {
+		for (Map.Entry<FlightDataType, DoubleColumn> entry : values.entrySet()) {
 			clone.values.put(entry.getKey(), entry.getValue().clone());
 		}
 		clone.minValues.putAll(minValues);
@@ -269,7 +269,7 @@ public class FlightDataBranch extends DataBranch<FlightDataType> {
 		clone.events.addAll(events);
 		clone.timeToOptimumAltitude = timeToOptimumAltitude;
 		clone.optimumAltitude = optimumAltitude;
-		clone.modID = modID;
+		clone.modID = getModID();
 		return clone;
 	}
 	
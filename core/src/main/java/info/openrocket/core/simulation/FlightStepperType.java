@@ -0,0 +1,43 @@
+package info.openrocket.core.simulation;
+
+/**
+ * The integration method used for the powered and coasting flight phases of a simulation.
+ */
+public enum FlightStepperType {
+	/** Classic fourth-order Runge-Kutta with heuristic time step limits. */
+	RK4("RK4"),
+	/** Adaptive Dormand-Prince RK5(4) with embedded error control. */
+	DORMAND_PRINCE("DormandPrince");
+
+	private final String stringValue;
+
+	FlightStepperType(String stringValue) {
+		this.stringValue = stringValue;
+	}
+
+	public String toStringValue() {
+		return stringValue;
+	}
+
+	/**
+	 * Create a new flight stepper of this type.
+	 */
+	public SimulationStepper createStepper() {
+		switch (this) {
+			case DORMAND_PRINCE:
+				return new DormandPrinceSimulationStepper();
+			case RK4:
+			default:
+				return new RK4SimulationStepper();
+		}
+	}
+
+	public static FlightStepperType fromString(String stringValue) {
+		for (FlightStepperType type : FlightStepperType.values()) {
+			if (type.stringValue.equalsIgnoreCase(stringValue)) {
+				return type;
+			}
+		}
+		throw new IllegalArgumentException("No enum constant " + FlightStepperType.class.getCanonicalName() + " for string value: " + stringValue);
+	}
+}
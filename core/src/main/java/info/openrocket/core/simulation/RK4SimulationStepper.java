@@ -18,7 +18,6 @@ import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
-import info.openrocket.core.util.Quaternion;
 import info.openrocket.core.util.Rotation2D;
 import info.openrocket.core.util.WorldCoordinate;
 
@@ -59,6 +58,25 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	
 	private Random random;
 	DataStore store = new DataStore();
+
+	/*
+	 * Scratch storage reused for every step.  The step still allocates the immutable values
+	 * stored in the simulation status and the flight conditions and acceleration data that
+	 * are passed to listeners.
+	 */
+	private final double[] dt = new double[8];
+	private final RK4Parameters k1 = new RK4Parameters();
+	private final RK4Parameters k2 = new RK4Parameters();
+	private final RK4Parameters k3 = new RK4Parameters();
+	private final RK4Parameters k4 = new RK4Parameters();
+	private final RK4Parameters delta = new RK4Parameters();
+
+	/*
+	 * Intermediate status of the k2, k3 and k4 sub-steps.  It is used only during a step,
+	 * so the same copy is reset and reused for every sub-step of the status it was cloned from.
+	 */
+	private SimulationStatus subStepStatus;
+	private SimulationStatus subStepSource;
 	
 	@Override
 	public SimulationStatus initialize(SimulationStatus original) {
@@ -90,7 +108,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		////////  Perform RK4 integration:  ////////
 		
 		SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
 
 		/*
 		 * Get the current atmospheric conditions
@@ -104,7 +121,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		computeParameters(status, store, k1);
 		store.storeData(status);
 		
 		/*
@@ -123,7 +140,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * 
 		 * The step is still at least 1/20th of the user-selected time step.
 		 */
-		double[] dt = new double[8];
 		Arrays.fill(dt, Double.MAX_VALUE);
 
 		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
@@ -137,7 +153,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 									  Math.abs(store.accelerationData.getRotationalAccelerationRC().y)));
 		if (!status.isLaunchRodCleared()) {
 			dt[0] /= 5.0;
-			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.v.length() / 10;
+			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.velocityLength() / 10;
 		}
 		dt[7] = 1.5 * store.timeStep;
 		
@@ -150,85 +166,39 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 			}
 		}
 
-		log.trace("Selected time step " + store.timeStep + " (limiting factor " + limitingValue + ")");
-
-		// If we have a scheduled event coming up before the end of our timestep, truncate step
-		// else if the time from the end of our timestep to the next scheduled event time is less than
-		// minTimeStep, stretch it
-		double minTimeStep = status.getSimulationConditions().getTimeStep() / 20;
-		FlightEvent nextEvent = status.getEventQueue().peek();
-		if (nextEvent != null) {
-			double nextEventTime = nextEvent.getTime();
-			if (status.getSimulationTime() + store.timeStep > nextEventTime) {
-				store.timeStep = nextEventTime - status.getSimulationTime();
-				log.trace("scheduled event at " + nextEventTime + " truncates timestep to " + store.timeStep);
-			} else if ((status.getSimulationTime() + store.timeStep < nextEventTime) &&
-					   (status.getSimulationTime() + store.timeStep + minTimeStep > nextEventTime)) {
-				store.timeStep = nextEventTime - status.getSimulationTime();
-				log.trace("Scheduled event at " + nextEventTime + " stretches timestep to " + store.timeStep);
-			}
-		}
-
-		// If we've wound up with a too-small timestep, increase it avoid numerical instability even at the
-		// cost of not being *quite* on an event
-		if (store.timeStep < minTimeStep) {
-			log.trace("Too small time step " + store.timeStep + " (limiting factor " + limitingValue + "), using " +
-					minTimeStep + " instead.");
-			store.timeStep = minTimeStep;
-		}
+		log.trace("Selected time step {} (limiting factor {})", store.timeStep, limitingValue);
 
+		store.timeStep = limitToEvents(status, store.timeStep);
 		checkNaN(store.timeStep);
 
 
 
 		//// Second position, k2 = f(t + h/2, y + k1*h/2)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timeStep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k1.v.multiply(store.timeStep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k1.a.multiply(store.timeStep / 2)));
-		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k1.rv.multiply(store.timeStep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k1.ra.multiply(store.timeStep / 2)));
-		
-		k2 = computeParameters(status2, store);
+		status2 = subStep(status, k1, store.timeStep / 2);
+		computeParameters(status2, store, k2);
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timeStep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k2.v.multiply(store.timeStep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k2.a.multiply(store.timeStep / 2)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k2.rv.multiply(store.timeStep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k2.ra.multiply(store.timeStep / 2)));
-		
-		k3 = computeParameters(status2, store);
+		status2 = subStep(status, k2, store.timeStep / 2);
+		computeParameters(status2, store, k3);
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timeStep);
-		status2.setRocketPosition(status.getRocketPosition().add(k3.v.multiply(store.timeStep)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k3.a.multiply(store.timeStep)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k3.rv.multiply(store.timeStep))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k3.ra.multiply(store.timeStep)));
-		
-		k4 = computeParameters(status2, store);
+		status2 = subStep(status, k3, store.timeStep);
+		computeParameters(status2, store, k4);
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
-		Coordinate deltaV, deltaP, deltaR, deltaO;
-		deltaV = k2.a.add(k3.a).multiply(2).add(k1.a).add(k4.a).multiply(store.timeStep / 6);
-		deltaP = k2.v.add(k3.v).multiply(2).add(k1.v).add(k4.v).multiply(store.timeStep / 6);
-		deltaR = k2.ra.add(k3.ra).multiply(2).add(k1.ra).add(k4.ra).multiply(store.timeStep / 6);
-		deltaO = k2.rv.add(k3.rv).multiply(2).add(k1.rv).add(k4.rv).multiply(store.timeStep / 6);
-		
+		RK4Parameters.combine(k1, k2, k3, k4, store.timeStep, delta);
 
-		status.setRocketVelocity(status.getRocketVelocity().add(deltaV));
-		status.setRocketPosition(status.getRocketPosition().add(deltaP));
-		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(deltaR));
-		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+		status.setRocketVelocity(status.getRocketVelocity().add(delta.ax, delta.ay, delta.az));
+		status.setRocketPosition(status.getRocketPosition().add(delta.vx, delta.vy, delta.vz));
+		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(delta.rax, delta.ray, delta.raz));
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeftRotation(delta.rvx, delta.rvy, delta.rvz).normalizeIfNecessary());
 		
 		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
 		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
@@ -258,10 +228,66 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 
 
-	private RK4Parameters computeParameters(SimulationStatus status, DataStore dataStore)
+	/**
+	 * Adjust a time step so that it ends on the next scheduled flight event if the event
+	 * is within or just beyond the step, and make sure the step is not too small.
+	 * 
+	 * @param status	the current simulation status.
+	 * @param timeStep	the proposed time step.
+	 * @return			the time step to take.
+	 */
+	double limitToEvents(SimulationStatus status, double timeStep) {
+		// If we have a scheduled event coming up before the end of our timestep, truncate step
+		// else if the time from the end of our timestep to the next scheduled event time is less than
+		// minTimeStep, stretch it
+		double minTimeStep = status.getSimulationConditions().getTimeStep() / 20;
+		FlightEvent nextEvent = status.getEventQueue().peek();
+		if (nextEvent != null) {
+			double nextEventTime = nextEvent.getTime();
+			if (status.getSimulationTime() + timeStep > nextEventTime) {
+				timeStep = nextEventTime - status.getSimulationTime();
+				log.trace("scheduled event at " + nextEventTime + " truncates timestep to " + timeStep);
+			} else if ((status.getSimulationTime() + timeStep < nextEventTime) &&
+					   (status.getSimulationTime() + timeStep + minTimeStep > nextEventTime)) {
+				timeStep = nextEventTime - status.getSimulationTime();
+				log.trace("Scheduled event at " + nextEventTime + " stretches timestep to " + timeStep);
+			}
+		}
+
+		// If we've wound up with a too-small timestep, increase it avoid numerical instability even at the
+		// cost of not being *quite* on an event
+		if (timeStep < minTimeStep) {
+			log.trace("Too small time step " + timeStep + ", using " + minTimeStep + " instead.");
+			timeStep = minTimeStep;
+		}
+		return timeStep;
+	}
+
+	/**
+	 * Return a copy of the status advanced by the specified time using the derivatives
+	 * <code>k</code>, for evaluating the next RK4 sub-step.  The returned object is reused
+	 * by the following sub-steps and must not be retained.
+	 */
+	private SimulationStatus subStep(SimulationStatus status, RK4Parameters k, double h) {
+		SimulationStatus status2 = subStepStatus;
+		if (subStepSource == status) {
+			status2.copyStateFrom(status);
+		} else {
+			status2 = status.clone();
+			subStepStatus = status2;
+			subStepSource = status;
+		}
+		status2.setSimulationTime(status.getSimulationTime() + h);
+		status2.setRocketPosition(status.getRocketPosition().add(k.vx * h, k.vy * h, k.vz * h));
+		status2.setRocketVelocity(status.getRocketVelocity().add(k.ax * h, k.ay * h, k.az * h));
+		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion()
+				.multiplyLeftRotation(k.rvx * h, k.rvy * h, k.rvz * h));
+		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k.rax * h, k.ray * h, k.raz * h));
+		return status2;
+	}
+
+	void computeParameters(SimulationStatus status, DataStore dataStore, RK4Parameters params)
 			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
-		
 		// Call pre-listeners
 		store.accelerationData = SimulationListenerHelper.firePreAccelerationCalculation(status);
 
@@ -273,17 +299,17 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		// Call post-listeners
 		store.accelerationData = SimulationListenerHelper.firePostAccelerationCalculation(status, store.accelerationData);
 
-		params.a = dataStore.accelerationData.getLinearAccelerationWC();
-		params.ra = dataStore.accelerationData.getRotationalAccelerationWC();
-		params.v = status.getRocketVelocity();
-		params.rv = status.getRocketRotationVelocity();
+		Coordinate a = dataStore.accelerationData.getLinearAccelerationWC();
+		Coordinate ra = dataStore.accelerationData.getRotationalAccelerationWC();
+		Coordinate v = status.getRocketVelocity();
+		Coordinate rv = status.getRocketRotationVelocity();
 		
-		checkNaN(params.a);
-		checkNaN(params.ra);
-		checkNaN(params.v);
-		checkNaN(params.rv);
+		checkNaN(a);
+		checkNaN(ra);
+		checkNaN(v);
+		checkNaN(rv);
 		
-		return params;
+		params.set(a, v, ra, rv);
 	}
 	
 	
@@ -330,23 +356,19 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		store.thrustForce = calculateThrust(status, store, false);
 		double forceZ =  store.thrustForce - store.dragForce;
 		
-		linearAcceleration = new Coordinate(-fN / store.rocketMass.getMass(),
+		// Rotate by theta and convert into rocket world coordinates
+		linearAcceleration = rotateToWorld(status, store.thetaRotation, -fN / store.rocketMass.getMass(),
 					-fSide / store.rocketMass.getMass(),
 					forceZ / store.rocketMass.getMass());
 		
-		linearAcceleration = store.thetaRotation.rotateZ(linearAcceleration);
-		
-		// Convert into rocket world coordinates
-		linearAcceleration = status.getRocketOrientationQuaternion().rotate(linearAcceleration);
-		
-		// add effect of gravity
+		// add effect of gravity and Coriolis acceleration
 		store.gravity = modelGravity(status);
-		linearAcceleration = linearAcceleration.sub(0, 0, store.gravity);
-		
-		// add effect of Coriolis acceleration
 		store.coriolisAcceleration = status.getSimulationConditions().getGeodeticComputation()
 				.getCoriolisAcceleration(status.getRocketWorldPosition(), status.getRocketVelocity());
-		linearAcceleration = linearAcceleration.add(store.coriolisAcceleration);
+		linearAcceleration = new Coordinate(linearAcceleration.x + store.coriolisAcceleration.x,
+				linearAcceleration.y + store.coriolisAcceleration.y,
+				(linearAcceleration.z - store.gravity) + store.coriolisAcceleration.z,
+				linearAcceleration.weight + store.coriolisAcceleration.weight);
 		
 		// If still on the launch rod, project acceleration onto launch rod direction and
 		// set angular acceleration to zero.
@@ -366,21 +388,28 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 			double momY = Cm * dynP * refArea * refLength;
 			double momZ = store.forces.getCroll() * dynP * refArea * refLength;
 			
-			// Compute angular acceleration in rocket coordinates
-			angularAcceleration = new Coordinate(momX / store.rocketMass.getLongitudinalInertia(),
+			// Compute angular acceleration in rocket coordinates and convert to world coordinates
+			angularAcceleration = rotateToWorld(status, store.thetaRotation,
+						momX / store.rocketMass.getLongitudinalInertia(),
 						momY / store.rocketMass.getLongitudinalInertia(),
 						momZ / store.rocketMass.getRotationalInertia());
-			
-			angularAcceleration = store.thetaRotation.rotateZ(angularAcceleration);
-			
-			// Convert to world coordinates
-			angularAcceleration = status.getRocketOrientationQuaternion().rotate(angularAcceleration);
 		}
 
 		return new AccelerationData(null, null, linearAcceleration, angularAcceleration, status.getRocketOrientationQuaternion());
 	}
 	
 	
+	/**
+	 * Return the vector (x, y, z) rotated around the z axis and then into world coordinates,
+	 * equal to <code>orientation.rotate(rotation.rotateZ(new Coordinate(x, y, z)))</code>
+	 * without the intermediate coordinates.
+	 */
+	private static Coordinate rotateToWorld(SimulationStatus status, Rotation2D rotation, double x, double y,
+			double z) {
+		return status.getRocketOrientationQuaternion().rotate(rotation.cos * x - rotation.sin * y,
+				rotation.cos * y + rotation.sin * x, z);
+	}
+	
 	/**
 	 * Calculate the aerodynamic forces into the data store.  This method also handles
 	 * whether to include aerodynamic computation warnings or not.
@@ -429,7 +458,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	 * Additionally the fields thetaRotation and lateralPitchRate are defined in
 	 * the data store, and can be used after calling this method.
 	 */
-	private void calculateFlightConditions(SimulationStatus status, DataStore store)
+	void calculateFlightConditions(SimulationStatus status, DataStore store)
 			throws SimulationException {
 		
 		// Call pre listeners, allow complete override
@@ -445,8 +474,10 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 
 		//// Atmospheric conditions
-		AtmosphericConditions atmosphere = modelAtmosphericConditions(status);
+		// The conditions are computed into the object owned by the new flight conditions
 		store.flightConditions = new FlightConditions(status.getConfiguration());
+		AtmosphericConditions atmosphere = modelAtmosphericConditions(status,
+				store.flightConditions.getAtmosphericConditions());
 		store.flightConditions.setAtmosphericConditions(atmosphere);
 		
 
@@ -506,14 +537,57 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 	}
 
-	private static class RK4Parameters {
+	/**
+	 * The derivatives of the rocket state at one RK4 sub-step.  The values are stored
+	 * as primitives so that the blocks can be reused for every step.
+	 */
+	static final class RK4Parameters {
 		/** Linear acceleration */
-		public Coordinate a;
+		double ax, ay, az;
 		/** Linear velocity */
-		public Coordinate v;
+		double vx, vy, vz;
 		/** Rotational acceleration */
-		public Coordinate ra;
+		double rax, ray, raz;
 		/** Rotational velocity */
-		public Coordinate rv;
+		double rvx, rvy, rvz;
+
+		void set(Coordinate a, Coordinate v, Coordinate ra, Coordinate rv) {
+			ax = a.x;
+			ay = a.y;
+			az = a.z;
+			vx = v.x;
+			vy = v.y;
+			vz = v.z;
+			rax = ra.x;
+			ray = ra.y;
+			raz = ra.z;
+			rvx = rv.x;
+			rvy = rv.y;
+			rvz = rv.z;
+		}
+
+		double velocityLength() {
+			return MathUtil.safeSqrt(vx * vx + vy * vy + vz * vz);
+		}
+
+		/**
+		 * Compute the RK4 state increment h*(k1 + 2*k2 + 2*k3 + k4)/6 into <code>out</code>.
+		 */
+		static void combine(RK4Parameters k1, RK4Parameters k2, RK4Parameters k3, RK4Parameters k4,
+				double h, RK4Parameters out) {
+			double f = h / 6;
+			out.ax = ((k2.ax + k3.ax) * 2 + k1.ax + k4.ax) * f;
+			out.ay = ((k2.ay + k3.ay) * 2 + k1.ay + k4.ay) * f;
+			out.az = ((k2.az + k3.az) * 2 + k1.az + k4.az) * f;
+			out.vx = ((k2.vx + k3.vx) * 2 + k1.vx + k4.vx) * f;
+			out.vy = ((k2.vy + k3.vy) * 2 + k1.vy + k4.vy) * f;
+			out.vz = ((k2.vz + k3.vz) * 2 + k1.vz + k4.vz) * f;
+			out.rax = ((k2.rax + k3.rax) * 2 + k1.rax + k4.rax) * f;
+			out.ray = ((k2.ray + k3.ray) * 2 + k1.ray + k4.ray) * f;
+			out.raz = ((k2.raz + k3.raz) * 2 + k1.raz + k4.raz) * f;
+			out.rvx = ((k2.rvx + k3.rvx) * 2 + k1.rvx + k4.rvx) * f;
+			out.rvy = ((k2.rvy + k3.rvy) * 2 + k1.rvy + k4.rvy) * f;
+			out.rvz = ((k2.rvz + k3.rvz) * 2 + k1.rvz + k4.rvz) * f;
+		}
 	}
 }
@@ -58,6 +58,9 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	private double timeStep = RK4SimulationStepper.RECOMMENDED_TIME_STEP;
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
 
+	private FlightStepperType flightStepperType = FlightStepperType.RK4;
+	private double absoluteTolerance = DormandPrinceSimulationStepper.DEFAULT_ABSOLUTE_TOLERANCE;
+	private double relativeTolerance = DormandPrinceSimulationStepper.DEFAULT_RELATIVE_TOLERANCE;
 
 	private List<SimulationListener> simulationListeners = new ArrayList<>();
 
@@ -219,6 +222,39 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		this.modID = new ModID();
 	}
 
+	public FlightStepperType getFlightStepperType() {
+		return flightStepperType;
+	}
+
+	public void setFlightStepperType(FlightStepperType flightStepperType) {
+		this.flightStepperType = flightStepperType;
+		this.modID = new ModID();
+	}
+
+	/**
+	 * @return	the absolute error tolerance per step of adaptive steppers.
+	 */
+	public double getAbsoluteTolerance() {
+		return absoluteTolerance;
+	}
+
+	public void setAbsoluteTolerance(double absoluteTolerance) {
+		this.absoluteTolerance = absoluteTolerance;
+		this.modID = new ModID();
+	}
+
+	/**
+	 * @return	the relative error tolerance per step of adaptive steppers.
+	 */
+	public double getRelativeTolerance() {
+		return relativeTolerance;
+	}
+
+	public void setRelativeTolerance(double relativeTolerance) {
+		this.relativeTolerance = relativeTolerance;
+		this.modID = new ModID();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.CoefficientTablePolicy;
 import info.openrocket.core.masscalc.MassCalculator;
 import info.openrocket.core.models.atmosphere.AtmosphericModel;
 import info.openrocket.core.models.atmosphere.ExtendedISAModel;
@@ -75,6 +76,13 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 	
 	private double timeStep = preferences.getTimeStep();
 	private double maximumAngle = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+
+	private FlightStepperType flightStepperType = FlightStepperType.RK4;
+	private double absoluteTolerance = DormandPrinceSimulationStepper.DEFAULT_ABSOLUTE_TOLERANCE;
+	private double relativeTolerance = DormandPrinceSimulationStepper.DEFAULT_RELATIVE_TOLERANCE;
+
+	private boolean aerodynamicTable = false;
+	private boolean precomputedWind = false;
 	
 	private int randomSeed = new Random().nextInt();
 
@@ -307,6 +315,90 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		fireChangeEvent();
 	}
 
+	public FlightStepperType getFlightStepperType() {
+		return flightStepperType;
+	}
+
+	public void setFlightStepperType(FlightStepperType flightStepperType) {
+		if (flightStepperType == null) {
+			throw new IllegalArgumentException("stepper type cannot be null");
+		}
+		if (this.flightStepperType == flightStepperType)
+			return;
+		this.flightStepperType = flightStepperType;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the absolute error tolerance per step used by the adaptive flight stepper.
+	 * The tolerance applies to the position (m), velocity (m/s), orientation (rad) and
+	 * rotation rate (rad/s) of the rocket.
+	 */
+	public double getAbsoluteTolerance() {
+		return absoluteTolerance;
+	}
+
+	public void setAbsoluteTolerance(double absoluteTolerance) {
+		if (!(absoluteTolerance > 0)) {
+			throw new IllegalArgumentException("Absolute tolerance must be positive, was " + absoluteTolerance);
+		}
+		if (MathUtil.equals(this.absoluteTolerance, absoluteTolerance))
+			return;
+		this.absoluteTolerance = absoluteTolerance;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return the relative error tolerance per step used by the adaptive flight stepper.
+	 */
+	public double getRelativeTolerance() {
+		return relativeTolerance;
+	}
+
+	public void setRelativeTolerance(double relativeTolerance) {
+		if (!(relativeTolerance >= 0)) {
+			throw new IllegalArgumentException("Relative tolerance must not be negative, was " + relativeTolerance);
+		}
+		if (MathUtil.equals(this.relativeTolerance, relativeTolerance))
+			return;
+		this.relativeTolerance = relativeTolerance;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return whether the aerodynamic coefficients are interpolated from precomputed tables
+	 * during the simulation instead of being calculated on every step.
+	 *
+	 * @see BarrowmanCalculator#setCoefficientTablePolicy(CoefficientTablePolicy)
+	 */
+	public boolean isAerodynamicTable() {
+		return aerodynamicTable;
+	}
+
+	public void setAerodynamicTable(boolean aerodynamicTable) {
+		if (this.aerodynamicTable == aerodynamicTable)
+			return;
+		this.aerodynamicTable = aerodynamicTable;
+		fireChangeEvent();
+	}
+
+	/**
+	 * Return whether the multi-level wind model is sampled from a precomputed wind grid
+	 * during the simulation instead of generating the turbulence of every level on each step.
+	 *
+	 * @see MultiLevelPinkNoiseWindModel#getWindGrid()
+	 */
+	public boolean isPrecomputedWind() {
+		return precomputedWind;
+	}
+
+	public void setPrecomputedWind(boolean precomputedWind) {
+		if (this.precomputedWind == precomputedWind)
+			return;
+		this.precomputedWind = precomputedWind;
+		fireChangeEvent();
+	}
+
 	public int getRandomSeed() {
 		return randomSeed;
 	}
@@ -422,6 +514,26 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 			isChanged = true;
 			this.timeStep = src.timeStep;
 		}
+		if (this.flightStepperType != src.flightStepperType) {
+			isChanged = true;
+			this.flightStepperType = src.flightStepperType;
+		}
+		if (this.absoluteTolerance != src.absoluteTolerance) {
+			isChanged = true;
+			this.absoluteTolerance = src.absoluteTolerance;
+		}
+		if (this.relativeTolerance != src.relativeTolerance) {
+			isChanged = true;
+			this.relativeTolerance = src.relativeTolerance;
+		}
+		if (this.aerodynamicTable != src.aerodynamicTable) {
+			isChanged = true;
+			this.aerodynamicTable = src.aerodynamicTable;
+		}
+		if (this.precomputedWind != src.precomputedWind) {
+			isChanged = true;
+			this.precomputedWind = src.precomputedWind;
+		}
 		if (this.geodeticComputation != src.geodeticComputation) {
 			isChanged = true;
 			this.geodeticComputation = src.geodeticComputation;
@@ -454,7 +566,12 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				MathUtil.equals(this.launchRodLength, o.launchRodLength) &&
 				MathUtil.equals(this.launchTemperature, o.launchTemperature) &&
 				MathUtil.equals(this.maximumAngle, o.maximumAngle) &&
-				MathUtil.equals(this.timeStep, o.timeStep)) &&
+				MathUtil.equals(this.timeStep, o.timeStep) &&
+				MathUtil.equals(this.absoluteTolerance, o.absoluteTolerance) &&
+				MathUtil.equals(this.relativeTolerance, o.relativeTolerance)) &&
+				this.flightStepperType == o.flightStepperType &&
+				this.aerodynamicTable == o.aerodynamicTable &&
+				this.precomputedWind == o.precomputedWind &&
 				this.windModelType == o.windModelType &&
 				this.averageWindModel.equals(o.averageWindModel) &&
 				this.multiLevelPinkNoiseWindModel.equals(o.multiLevelPinkNoiseWindModel);
@@ -506,17 +623,29 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 		conditions.setGeodeticComputation(getGeodeticComputation());
 		conditions.setRandomSeed(randomSeed);
 
-		WindModel windModel = getWindModel().clone();
+		WindModel windModel;
+		if (precomputedWind && windModelType == WindModelType.MULTI_LEVEL) {
+			windModel = multiLevelPinkNoiseWindModel.getWindGrid();
+		} else {
+			windModel = getWindModel().clone();
+		}
 		conditions.setWindModel(windModel);
 		conditions.setAtmosphericModel(getAtmosphericModel());
 		GravityModel gravityModel = new WGSGravityModel();
 		conditions.setGravityModel(gravityModel);
 
-		conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		BarrowmanCalculator aerodynamicCalculator = new BarrowmanCalculator();
+		if (aerodynamicTable) {
+			aerodynamicCalculator.setCoefficientTablePolicy(CoefficientTablePolicy.DEFAULT);
+		}
+		conditions.setAerodynamicCalculator(aerodynamicCalculator);
 		conditions.setMassCalculator(new MassCalculator());
 
 		conditions.setTimeStep(getTimeStep());
 		conditions.setMaximumAngleStep(getMaximumStepAngle());
+		conditions.setFlightStepperType(getFlightStepperType());
+		conditions.setAbsoluteTolerance(getAbsoluteTolerance());
+		conditions.setRelativeTolerance(getRelativeTolerance());
 
 		return conditions;
 	}
@@ -540,6 +669,11 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 				.concat(String.format("    launchPressure:  %f\n", launchPressure))
 				.concat(String.format("    timeStep:  %f\n", timeStep))
 				.concat(String.format("    maximumAngle:  %f\n", maximumAngle))
+				.concat("    flightStepperType:  " + flightStepperType + "\n")
+				.concat(String.format("    absoluteTolerance:  %g\n", absoluteTolerance))
+				.concat(String.format("    relativeTolerance:  %g\n", relativeTolerance))
+				.concat(String.format("    aerodynamicTable:  %b\n", aerodynamicTable))
+				.concat(String.format("    precomputedWind:  %b\n", precomputedWind))
 				.concat("]\n");
 	}
 
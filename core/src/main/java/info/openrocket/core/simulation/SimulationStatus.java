@@ -438,10 +438,10 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		if (null == warnings) {
 			setWarnings(new WarningSet());
 		}
-		if (!warnings.contains(warning)) {
+		// Repeated warnings only update the occurrence statistics of the first one
+		if (warnings.record(warning, getSimulationTime())) {
 			log.trace("Add warning: \"" + warning + "\"");
 			getFlightDataBranch().addEvent(new FlightEvent(FlightEvent.Type.SIM_WARN, getSimulationTime(), null, warning));
-			warnings.add(warning);
 		}
 	}
 
@@ -509,6 +509,45 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		}
 	}
 
+	/**
+	 * Set this object to the same state as the status it was cloned from.  This allows
+	 * reusing an intermediate copy created by {@link #clone()} for every step, instead of
+	 * cloning the status again.  The motor states, recovery devices, event queue and
+	 * extra data are shared with the original object, as in the clone.
+	 *
+	 * @param orig	the status from which this object was cloned.
+	 */
+	void copyStateFrom(SimulationStatus orig) {
+		if (orig.eventQueue != this.eventQueue) {
+			throw new BugException("Status state can only be copied from the status it was cloned from");
+		}
+		this.simulationConditions = orig.simulationConditions;
+		this.configuration = orig.configuration;
+		this.flightDataBranch = orig.flightDataBranch;
+		this.time = orig.time;
+		this.position = orig.position;
+		this.worldPosition = orig.worldPosition;
+		this.velocity = orig.velocity;
+		this.acceleration = orig.acceleration;
+		this.orientation = orig.orientation;
+		this.rotationVelocity = orig.rotationVelocity;
+		this.maxZVelocity = orig.maxZVelocity;
+		this.startWarningsTime = orig.startWarningsTime;
+		this.effectiveLaunchRodLength = orig.effectiveLaunchRodLength;
+		this.simulationStartWallTime = orig.simulationStartWallTime;
+		this.motorIgnited = orig.motorIgnited;
+		this.liftoff = orig.liftoff;
+		this.launchRodCleared = orig.launchRodCleared;
+		this.apogeeReached = orig.apogeeReached;
+		this.tumbling = orig.tumbling;
+		this.landed = orig.landed;
+		this.warnings = orig.warnings;
+		this.maxAlt = orig.maxAlt;
+		this.maxAltTime = orig.maxAltTime;
+		this.modID = orig.modID;
+		this.modIDadd = orig.modIDadd;
+	}
+
 	@Override
 	public ModID getModID() {
 		return modID;
@@ -0,0 +1,41 @@
+package info.openrocket.core.simulation.batch;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.SimulationStatus;
+
+/**
+ * A listener for the progress of a {@link BatchSimulationRunner}.
+ * <p>
+ * The methods are called from the worker threads of the batch runner, so
+ * implementations must be thread-safe and should return quickly.
+ */
+public interface BatchSimulationListener {
+
+	/**
+	 * Called when the simulation with the given batch index starts running.
+	 *
+	 * @param index			the index of the simulation in the batch.
+	 * @param simulation	the (copied) simulation that is being run.
+	 */
+	default void simulationStarted(int index, Simulation simulation) {
+	}
+
+	/**
+	 * Called after each simulation step of a running simulation.
+	 *
+	 * @param index		the index of the simulation in the batch.
+	 * @param status	the current simulation status.  This must not be retained or modified.
+	 */
+	default void simulationProgress(int index, SimulationStatus status) {
+	}
+
+	/**
+	 * Called when a simulation has finished, either successfully, with an error or
+	 * because it was cancelled.
+	 *
+	 * @param result	the result of the simulation.
+	 */
+	default void simulationFinished(BatchSimulationResult result) {
+	}
+
+}
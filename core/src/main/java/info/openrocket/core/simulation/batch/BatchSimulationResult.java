@@ -0,0 +1,90 @@
+package info.openrocket.core.simulation.batch;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+
+/**
+ * The result of a single simulation run by a {@link BatchSimulationRunner}.
+ */
+public class BatchSimulationResult {
+
+	private final int index;
+	private final Simulation source;
+	private final Simulation simulation;
+	private final FlightData flightData;
+	private final Throwable throwable;
+	private final long runTimeMillis;
+
+	BatchSimulationResult(int index, Simulation source, Simulation simulation, FlightData flightData,
+			Throwable throwable, long runTimeMillis) {
+		this.index = index;
+		this.source = source;
+		this.simulation = simulation;
+		this.flightData = flightData;
+		this.throwable = throwable;
+		this.runTimeMillis = runTimeMillis;
+	}
+
+	/**
+	 * @return	the index of the simulation in the batch, in the order the simulations were added.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return	the original simulation that was added to the batch.  This simulation is not modified by the batch.
+	 */
+	public Simulation getSourceSimulation() {
+		return source;
+	}
+
+	/**
+	 * @return	the copy of the source simulation that was actually simulated.
+	 */
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	/**
+	 * @return	the simulated flight data, or <code>null</code> if the simulation did not produce any.
+	 */
+	public FlightData getFlightData() {
+		return flightData;
+	}
+
+	/**
+	 * @return	the exception that caused the simulation to fail, or <code>null</code> if it finished normally.
+	 */
+	public Throwable getThrowable() {
+		return throwable;
+	}
+
+	/**
+	 * @return	the wall-clock time the simulation took, in milliseconds.
+	 */
+	public long getRunTimeMillis() {
+		return runTimeMillis;
+	}
+
+	/**
+	 * @return	whether the simulation finished without an exception.
+	 */
+	public boolean isSuccessful() {
+		return throwable == null;
+	}
+
+	/**
+	 * @return	whether the simulation was cancelled before it finished.
+	 */
+	public boolean isCancelled() {
+		return throwable instanceof SimulationCancelledException;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchSimulationResult[index=" + index + ", simulation=" + (source != null ? source.getName() : null) +
+				", successful=" + isSuccessful() + ", runTime=" + runTimeMillis + "ms]";
+	}
+}
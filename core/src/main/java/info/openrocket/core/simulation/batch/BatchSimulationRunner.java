@@ -0,0 +1,294 @@
+package info.openrocket.core.simulation.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.file.BulkLoadResult;
+import info.openrocket.core.file.BulkRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Runs a batch of simulations concurrently without any user interface.
+ * <p>
+ * Each simulation added to the batch is copied (including a deep copy of its rocket)
+ * before it is run, so the source simulations and documents are never modified and
+ * no document change events are fired from the worker threads.  The copies are
+ * simulated on a work-stealing {@link ForkJoinPool}, so long and short simulations
+ * are balanced over the available processors.
+ * <p>
+ * A running batch can be cancelled using {@link #cancel()}.  Simulations that are
+ * running are stopped at their next simulation step, and simulations that have not
+ * yet started are not run at all.
+ * <p>
+ * The methods adding simulations and running the batch are not thread-safe and should
+ * be called from one thread only.  {@link #cancel()} may be called from any thread.
+ */
+public class BatchSimulationRunner {
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulationRunner.class);
+
+	/** File extension of OpenRocket design files loaded by {@link #addDirectory(File)} */
+	public static final String ORK_EXTENSION = ".ork";
+
+	private final ForkJoinPool pool;
+	private final boolean ownPool;
+
+	private final List<Simulation> simulations = new ArrayList<>();
+	private final List<BatchSimulationListener> listeners = new ArrayList<>();
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Construct a batch runner that uses as many threads as there are processors available.
+	 */
+	public BatchSimulationRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct a batch runner that uses the specified number of worker threads.
+	 *
+	 * @param threadCount	the maximum number of simulations to run concurrently.
+	 */
+	public BatchSimulationRunner(int threadCount) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		this.pool = new ForkJoinPool(threadCount);
+		this.ownPool = true;
+	}
+
+	/**
+	 * Construct a batch runner that uses the specified pool for running the simulations.
+	 * The pool is not shut down by {@link #shutdown()}.
+	 *
+	 * @param pool	the pool to run the simulations in.
+	 */
+	public BatchSimulationRunner(ForkJoinPool pool) {
+		this.pool = pool;
+		this.ownPool = false;
+	}
+
+
+	/**
+	 * Add a simulation to the batch.
+	 *
+	 * @param simulation	the simulation to run.
+	 */
+	public void addSimulation(Simulation simulation) {
+		simulations.add(simulation);
+	}
+
+	/**
+	 * Add all simulations of a document to the batch.
+	 *
+	 * @param document	the document whose simulations to run.
+	 */
+	public void addDocument(OpenRocketDocument document) {
+		simulations.addAll(document.getSimulations());
+	}
+
+	/**
+	 * Load all OpenRocket design files (*.ork) in the specified directory and add all of
+	 * their simulations to the batch.  Subdirectories are not searched.  The files are
+	 * loaded concurrently using the thread pool of this runner, and their simulations are
+	 * added in the alphabetical order of the files.
+	 *
+	 * @param directory	the directory containing the design files.
+	 * @return			the documents that were loaded.
+	 * @throws RocketLoadException	if a file cannot be loaded.
+	 */
+	public List<OpenRocketDocument> addDirectory(File directory) throws RocketLoadException {
+		File[] files = directory.listFiles(
+				f -> f.isFile() && f.getName().toLowerCase().endsWith(ORK_EXTENSION));
+		if (files == null) {
+			throw new RocketLoadException("Cannot list directory " + directory);
+		}
+		Arrays.sort(files);
+
+		log.debug("Loading " + files.length + " batch simulation files from " + directory);
+		List<BulkLoadResult> results;
+		try {
+			results = new BulkRocketLoader(pool).load(Arrays.asList(files));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RocketLoadException("Interrupted while loading " + directory, e);
+		}
+
+		List<OpenRocketDocument> documents = new ArrayList<>(results.size());
+		for (BulkLoadResult result : results) {
+			if (!result.isSuccessful()) {
+				throw result.getException();
+			}
+			documents.add(result.getDocument());
+		}
+		for (OpenRocketDocument document : documents) {
+			addDocument(document);
+		}
+		return documents;
+	}
+
+	/**
+	 * @return	the number of simulations in the batch.
+	 */
+	public int getSimulationCount() {
+		return simulations.size();
+	}
+
+	/**
+	 * @return	an unmodifiable view of the simulations in the batch, in batch order.
+	 */
+	public List<Simulation> getSimulations() {
+		return Collections.unmodifiableList(simulations);
+	}
+
+	public void addBatchSimulationListener(BatchSimulationListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeBatchSimulationListener(BatchSimulationListener listener) {
+		listeners.remove(listener);
+	}
+
+
+	/**
+	 * Run all simulations of the batch and wait for them to finish.  A failing simulation
+	 * does not stop the others; its exception is available from the corresponding result.
+	 *
+	 * @return	the results of the simulations, in the order the simulations were added.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.  The
+	 * 								batch is cancelled in this case.
+	 */
+	public List<BatchSimulationResult> run() throws InterruptedException {
+		cancelled = false;
+		final BatchSimulationListener[] listenerArray = listeners.toArray(new BatchSimulationListener[0]);
+
+		// Copy the simulations in the calling thread, the rockets are not safe for concurrent access
+		List<ForkJoinTask<BatchSimulationResult>> tasks = new ArrayList<>(simulations.size());
+		for (int i = 0; i < simulations.size(); i++) {
+			final int index = i;
+			final Simulation source = simulations.get(i);
+			final Simulation copy = source.duplicateSimulation(null, source.getRocket().copyWithOriginalID());
+			tasks.add(pool.submit(() -> runSimulation(index, source, copy, listenerArray)));
+		}
+
+		List<BatchSimulationResult> results = new ArrayList<>(tasks.size());
+		try {
+			for (ForkJoinTask<BatchSimulationResult> task : tasks) {
+				results.add(task.get());
+			}
+		} catch (InterruptedException e) {
+			cancel();
+			throw e;
+		} catch (ExecutionException e) {
+			throw new BugException("Batch simulation task threw an exception", e.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * Cancel the batch currently being run.  Running simulations are stopped at the next
+	 * step, and remaining simulations are reported as cancelled.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return	whether the batch has been cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Shut down the thread pool, if it was created by this runner.  The runner cannot be
+	 * used after calling this method.
+	 */
+	public void shutdown() {
+		if (ownPool) {
+			pool.shutdown();
+		}
+	}
+
+
+	private BatchSimulationResult runSimulation(int index, Simulation source, Simulation simulation,
+			BatchSimulationListener[] listenerArray) {
+		if (cancelled) {
+			BatchSimulationResult result = new BatchSimulationResult(index, source, simulation, null,
+					new SimulationCancelledException("The batch was cancelled."), 0);
+			fireFinished(listenerArray, result);
+			return result;
+		}
+
+		for (BatchSimulationListener l : listenerArray) {
+			l.simulationStarted(index, simulation);
+		}
+
+		Throwable throwable = null;
+		long t0 = System.currentTimeMillis();
+		try {
+			simulation.simulate(new BatchControlListener(index, listenerArray));
+		} catch (Throwable e) {
+			log.debug("Batch simulation " + index + " (" + simulation.getName() + ") ended with exception", e);
+			throwable = e;
+		}
+		long t1 = System.currentTimeMillis();
+
+		BatchSimulationResult result = new BatchSimulationResult(index, source, simulation,
+				simulation.getSimulatedData(), throwable, t1 - t0);
+		fireFinished(listenerArray, result);
+		return result;
+	}
+
+	private static void fireFinished(BatchSimulationListener[] listenerArray, BatchSimulationResult result) {
+		for (BatchSimulationListener l : listenerArray) {
+			l.simulationFinished(result);
+		}
+	}
+
+
+	/**
+	 * A simulation listener that stops the simulation if the batch has been cancelled
+	 * and reports the progress to the batch listeners.
+	 */
+	private class BatchControlListener extends AbstractSimulationListener {
+		private final int index;
+		private final BatchSimulationListener[] listenerArray;
+
+		public BatchControlListener(int index, BatchSimulationListener[] listenerArray) {
+			this.index = index;
+			this.listenerArray = listenerArray;
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+			if (cancelled) {
+				throw new SimulationCancelledException("The batch was cancelled.");
+			}
+			for (BatchSimulationListener l : listenerArray) {
+				l.simulationProgress(index, status);
+			}
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package info.openrocket.core.simulation.customexpression;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.Variable;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+
+/**
+ * A custom expression parsed once for repeated evaluation during simulations.
+ * <p>
+ * Each variable referenced by the expression is resolved either to a sub-expression
+ * (an index or range expression) or to a flight data type.  The flight data types are
+ * looked up from the data branch only when the types of the branch change, and only the
+ * referenced values are read from the branch.  Expressions that operate on single values
+ * only are evaluated over doubles without allocating any variables.
+ * <p>
+ * Apart from the cached lookup of the flight data types a compiled expression is
+ * immutable, so it can be shared between simulations running concurrently.
+ */
+final class CompiledExpression {
+
+	/** A compiled expression for an expression that could not be built */
+	static final CompiledExpression INVALID = new CompiledExpression();
+
+	private final Calculable calc;
+	private final String[] names;
+	// The sub-expression of each variable, or null if the variable is flight data
+	private final CustomExpression[] subExpressions;
+
+	private volatile Binding binding = null;
+
+	private CompiledExpression() {
+		this.calc = null;
+		this.names = new String[0];
+		this.subExpressions = new CustomExpression[0];
+	}
+
+	/**
+	 * @param calc				the built expression.
+	 * @param subExpressions	the sub-expressions whose hashes are used as variables in the expression.
+	 */
+	CompiledExpression(Calculable calc, List<CustomExpression> subExpressions) {
+		this.calc = calc;
+		this.names = calc.getReferencedVariables();
+		this.subExpressions = new CustomExpression[names.length];
+		for (int i = 0; i < names.length; i++) {
+			for (CustomExpression exp : subExpressions) {
+				if (exp.hash().equals(names[i])) {
+					this.subExpressions[i] = exp;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return whether the expression was built successfully and can be evaluated.
+	 */
+	boolean isValid() {
+		return calc != null;
+	}
+
+	/**
+	 * Evaluate the expression using the last values of the flight data branch of the
+	 * simulation status.  Variables that are not available in the branch are left
+	 * undefined, as are sub-expressions that can not be evaluated.
+	 *
+	 * @param status	the simulation status.
+	 * @return			the value of the expression.
+	 * @throws java.util.EmptyStackException	if the expression is malformed.
+	 */
+	double evaluate(SimulationStatus status) {
+		final FlightDataBranch branch = status.getFlightDataBranch();
+		final FlightDataType[] types = getTypes(branch);
+		final int count = names.length;
+
+		// Evaluate the sub-expressions
+		Variable[] subValues = null;
+		boolean scalar = calc.isScalar();
+		for (int i = 0; i < count; i++) {
+			if (subExpressions[i] != null) {
+				if (subValues == null) {
+					subValues = new Variable[count];
+				}
+				Variable value = subExpressions[i].evaluate(status);
+				if (!names[i].equals(value.getName())) {
+					value = new Variable(names[i]);
+				}
+				subValues[i] = value;
+				scalar &= (value.getPrimary() == Variable.Primary.DOUBLE);
+			} else {
+				scalar &= (types[i] != null);
+			}
+		}
+
+		if (scalar) {
+			final double[] values = new double[count];
+			for (int i = 0; i < count; i++) {
+				values[i] = (types[i] != null) ? branch.getLast(types[i]) : subValues[i].getDoubleValue();
+			}
+			return calc.calculate(values);
+		}
+
+		final Variable[] values = new Variable[count];
+		for (int i = 0; i < count; i++) {
+			if (subValues != null && subValues[i] != null) {
+				values[i] = subValues[i];
+			} else if (types[i] != null) {
+				values[i] = new Variable(names[i], branch.getLast(types[i]));
+			} else {
+				values[i] = new Variable(names[i]);
+			}
+		}
+		return calc.calculate(values).getDoubleValue();
+	}
+
+	/**
+	 * Return the flight data type of each variable in the branch, or null for variables
+	 * that are sub-expressions or not available.
+	 */
+	private FlightDataType[] getTypes(FlightDataBranch branch) {
+		final int typeCount = branch.getTypeCount();
+		Binding b = binding;
+		if (b == null || b.branch.get() != branch || b.typeCount != typeCount) {
+			// If several types have the same symbol, the last one is used
+			Map<String, FlightDataType> types = new HashMap<>();
+			if (typeCount > 0) {
+				for (FlightDataType type : branch.getTypes()) {
+					types.put(type.getSymbol(), type);
+				}
+			}
+			FlightDataType[] bound = new FlightDataType[names.length];
+			for (int i = 0; i < names.length; i++) {
+				if (subExpressions[i] == null) {
+					bound[i] = types.get(names[i]);
+				}
+			}
+			b = new Binding(branch, typeCount, bound);
+			binding = b;
+		}
+		return b.types;
+	}
+
+	/**
+	 * The flight data types of the variables resolved for a specific branch.
+	 */
+	private static final class Binding {
+		private final WeakReference<FlightDataBranch> branch;
+		private final int typeCount;
+		private final FlightDataType[] types;
+
+		Binding(FlightDataBranch branch, int typeCount, FlightDataType[] types) {
+			this.branch = new WeakReference<>(branch);
+			this.typeCount = typeCount;
+			this.types = types;
+		}
+	}
+}
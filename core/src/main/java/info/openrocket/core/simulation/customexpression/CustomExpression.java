@@ -6,7 +6,6 @@ import java.util.regex.Pattern;
 
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.logging.Markers;
-import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.unit.FixedUnitGroup;
@@ -39,6 +38,7 @@ public class CustomExpression implements Cloneable {
 	protected String expression;
 	private ExpressionBuilder builder;
 	private final List<CustomExpression> subExpressions = new ArrayList<>();
+	private volatile CompiledExpression compiled;
 
 	public CustomExpression(OpenRocketDocument doc) {
 		this.doc = doc;
@@ -106,6 +106,7 @@ public class CustomExpression implements Cloneable {
 		}
 
 		builder.withCustomFunctions(Functions.getInstance().getAllFunction());
+		compiled = null;
 		log.info("Built expression " + expression);
 	}
 
@@ -412,6 +413,36 @@ public class CustomExpression implements Cloneable {
 		return calc;
 	}
 
+	/*
+	 * Compiles a specified expression for repeated evaluation. Returns an invalid
+	 * compiled expression in case of error.
+	 */
+	synchronized CompiledExpression compileExpression(ExpressionBuilder b) {
+		Calculable calc = buildExpression(b);
+		if (calc == null) {
+			return CompiledExpression.INVALID;
+		}
+		return new CompiledExpression(calc, subExpressions);
+	}
+
+	/*
+	 * Returns the compiled form of this expression. The expression is built only once
+	 * and shared by all evaluations until the expression is changed.
+	 */
+	CompiledExpression getCompiledExpression() {
+		CompiledExpression c = compiled;
+		if (c == null) {
+			synchronized (this) {
+				c = compiled;
+				if (c == null) {
+					c = compileExpression(builder);
+					compiled = c;
+				}
+			}
+		}
+		return c;
+	}
+
 	/*
 	 * Evaluate the expression using the last variable values from the simulation
 	 * status.
@@ -419,28 +450,16 @@ public class CustomExpression implements Cloneable {
 	 */
 	public Variable evaluate(SimulationStatus status) {
 
-		Calculable calc = buildExpression(builder);
-		if (calc == null) {
+		CompiledExpression calc = getCompiledExpression();
+		if (!calc.isValid()) {
 			return new Variable("Unknown");
 		}
 
-		// Evaluate any sub expressions and set associated variables in the calculable
-		for (CustomExpression expr : this.subExpressions) {
-			calc.setVariable(expr.evaluate(status));
-		}
-
-		// Set all the built-in variables. Strictly we surely won't need all of them
-		// Going through and checking them to include only the ones used *might* give a
-		// speedup
-		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		for (FlightDataType type : dataBranch.getTypes()) {
-			double value = dataBranch.getLast(type);
-			calc.setVariable(new Variable(type.getSymbol(), value));
-		}
-
+		// Sub expressions are evaluated and only the variables used are read from the
+		// flight data branch
 		double result = Double.NaN;
 		try {
-			result = calc.calculate().getDoubleValue();
+			result = calc.evaluate(status);
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER,
 					"Unable to calculate expression " + this.expression + " due to empty stack exception");
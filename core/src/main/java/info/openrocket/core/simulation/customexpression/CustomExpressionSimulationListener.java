@@ -3,6 +3,7 @@ package info.openrocket.core.simulation.customexpression;
 import java.util.List;
 
 import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
@@ -14,24 +15,37 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
+	// The data types of the expressions, resolved once per simulation
+	private FlightDataType[] types = null;
 
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		types = null;
+	}
+
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (types == null || types.length != expressions.size()) {
+			types = new FlightDataType[expressions.size()];
+			for (int i = 0; i < types.length; i++) {
+				types[i] = expressions.get(i).getType();
+			}
+		}
 		// Calculate values for custom expressions
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (int i = 0; i < types.length; i++) {
+			double value = expressions.get(i).evaluateDouble(status);
 			// log.debug("Setting value of custom expression "+expression.toString()+" =
 			// "+value);
-			dataBranch.setValue(expression.getType(), value);
+			dataBranch.setValue(types[i], value);
 		}
 	}
 
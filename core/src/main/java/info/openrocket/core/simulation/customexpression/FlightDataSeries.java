@@ -0,0 +1,116 @@
+package info.openrocket.core.simulation.customexpression;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+
+/**
+ * Linear interpolation of a flight data type as a function of time, read directly
+ * from a flight data branch.
+ * <p>
+ * The time values of the branch must be non-decreasing, as they are during a simulation.
+ * The interpolated values are the same as those of a
+ * {@link info.openrocket.core.util.LinearInterpolator} containing all the points of the
+ * branch: values outside the time range are clamped to the first and last points, and
+ * of several points with the same time the last one is used.  The points surrounding a
+ * time are found by binary search, starting from the point found by the previous call,
+ * so consecutive increasing times are looked up in constant time.
+ */
+final class FlightDataSeries {
+
+	private final FlightDataBranch branch;
+	private final FlightDataType type;
+	private final int length;
+
+	// Index of the first point after the previously looked up time
+	private int hint = 0;
+
+	/**
+	 * @param branch	the flight data branch.
+	 * @param type		the interpolated type, which must be available in the branch.
+	 */
+	FlightDataSeries(FlightDataBranch branch, FlightDataType type) {
+		this.branch = branch;
+		this.type = type;
+		this.length = branch.getLength();
+	}
+
+	/**
+	 * Return the number of points in the series.
+	 */
+	int getLength() {
+		return length;
+	}
+
+	/**
+	 * Return the time of a point.
+	 */
+	double getTime(int index) {
+		return branch.getValue(FlightDataType.TYPE_TIME, index);
+	}
+
+	/**
+	 * Return the index of the first point whose time is greater than the specified time,
+	 * or the length of the series if there is no such point.
+	 */
+	int upperBound(double t) {
+		int lo = 0;
+		if (hint > 0 && hint <= length && getTime(hint - 1) <= t) {
+			lo = hint;
+		}
+		if (lo < length && getTime(lo) > t) {
+			hint = lo;
+			return lo;
+		}
+
+		int hi = length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (getTime(mid) <= t) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		hint = lo;
+		return lo;
+	}
+
+	/**
+	 * Return the linearly interpolated value at the specified time.
+	 *
+	 * @param t		the time.
+	 * @return		the interpolated value, or NaN if the series is empty.
+	 */
+	double getValue(double t) {
+		if (length == 0) {
+			return Double.NaN;
+		}
+
+		int upper = upperBound(t);
+		if (upper == 0) {
+			// Before the first point
+			return branch.getValue(type, lastIndexOf(0));
+		}
+
+		double x1 = getTime(upper - 1);
+		double y1 = branch.getValue(type, upper - 1);
+		if (x1 == t || upper == length) {
+			return y1;
+		}
+
+		double x2 = getTime(upper);
+		double y2 = branch.getValue(type, lastIndexOf(upper));
+		return (t - x1) / (x2 - x1) * (y2 - y1) + y1;
+	}
+
+	/**
+	 * Return the index of the last point with the same time as the specified point.
+	 */
+	private int lastIndexOf(int index) {
+		double time = getTime(index);
+		while (index + 1 < length && getTime(index + 1) == time) {
+			index++;
+		}
+		return index;
+	}
+}
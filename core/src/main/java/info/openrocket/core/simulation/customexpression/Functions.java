@@ -91,6 +91,9 @@ public class Functions {
 		CustomFunction meanFn = new CustomFunction("mean") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+				if (vars.get(0) instanceof RangeVariable) {
+					return new Variable("double MEAN result, ", ((RangeVariable) vars.get(0)).mean());
+				}
 				double[] vals;
 				try {
 					vals = vars.get(0).getArrayValue();
@@ -105,6 +108,9 @@ public class Functions {
 		CustomFunction minFn = new CustomFunction("min") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+				if (vars.get(0) instanceof RangeVariable) {
+					return new Variable("double MIN result, ", ((RangeVariable) vars.get(0)).min());
+				}
 				double[] vals;
 				try {
 					vals = vars.get(0).getArrayValue();
@@ -119,6 +125,9 @@ public class Functions {
 		CustomFunction maxFn = new CustomFunction("max") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+				if (vars.get(0) instanceof RangeVariable) {
+					return new Variable("double MAX result, ", ((RangeVariable) vars.get(0)).max());
+				}
 				double[] vals;
 				try {
 					vals = vars.get(0).getArrayValue();
@@ -235,6 +244,9 @@ public class Functions {
 		CustomFunction rombintFn = new CustomFunction("trapz") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+				if (vars.get(0) instanceof RangeVariable) {
+					return new Variable("double TRAPZ result", ((RangeVariable) vars.get(0)).trapz());
+				}
 				double[] range;
 				double dt = 0;
 				try {
@@ -4,12 +4,12 @@
 
 package info.openrocket.core.simulation.customexpression;
 
-import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import de.congrace.exp4j.Calculable;
 import de.congrace.exp4j.ExpressionBuilder;
 import de.congrace.exp4j.Variable;
 import info.openrocket.core.document.OpenRocketDocument;
@@ -17,8 +17,6 @@ import info.openrocket.core.logging.Markers;
 import info.openrocket.core.simulation.FlightDataBranch;
 import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.SimulationStatus;
-import info.openrocket.core.util.ArrayUtils;
-import info.openrocket.core.util.LinearInterpolator;
 import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.StringUtils;
 
@@ -26,6 +24,10 @@ public class RangeExpression extends CustomExpression {
 	private static final Logger log = LoggerFactory.getLogger(RangeExpression.class);
 
 	private ExpressionBuilder startBuilder, endBuilder;
+	private volatile CompiledExpression startCompiled, endCompiled;
+	// The samples of each branch, so that simulations evaluating this expression at the
+	// same time keep their own samples.  Guarded by itself.
+	private final Map<FlightDataBranch, RangeSamples> samples = new WeakHashMap<>();
 
 	public RangeExpression(OpenRocketDocument doc, String startTime, String endTime, String variableType) {
 		super(doc);
@@ -56,67 +58,89 @@ public class RangeExpression extends CustomExpression {
 			startBuilder.withVariable(new Variable(n));
 			endBuilder.withVariable(new Variable(n));
 		}
+		startCompiled = null;
+		endCompiled = null;
+		synchronized (samples) {
+			samples.clear();
+		}
+	}
+
+	private CompiledExpression getStartExpression() {
+		CompiledExpression c = startCompiled;
+		if (c == null) {
+			c = compileExpression(startBuilder);
+			startCompiled = c;
+		}
+		return c;
+	}
+
+	private CompiledExpression getEndExpression() {
+		CompiledExpression c = endCompiled;
+		if (c == null) {
+			c = compileExpression(endBuilder);
+			endCompiled = c;
+		}
+		return c;
 	}
 
 	@Override
 	public Variable evaluate(SimulationStatus status) {
 
-		Calculable startCalc = buildExpression(startBuilder);
-		Calculable endCalc = buildExpression(endBuilder);
-		if (startCalc == null || endCalc == null) {
+		CompiledExpression startCalc = getStartExpression();
+		CompiledExpression endCalc = getEndExpression();
+		if (!startCalc.isValid() || !endCalc.isValid()) {
 			return new Variable("Unknown");
 		}
 
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		// Set the variables in the start and end calculators
-		for (FlightDataType type : dataBranch.getTypes()) {
-			double value = dataBranch.getLast(type);
-			startCalc.setVariable(new Variable(type.getSymbol(), value));
-			endCalc.setVariable(new Variable(type.getSymbol(), value));
-		}
-
-		// From the given datatype, get the time and function values and make an
-		// interpolator
 
 		// Note: must get in a way that flight data system will figure out units.
 		// Otherwise there will be a type conflict when we get the new data.
 		FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
-
-		List<Double> data = dataBranch.get(type);
-		List<Double> time = dataBranch.get(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data);
+		FlightDataSeries series = new FlightDataSeries(dataBranch, type);
+		if (series.getLength() == 0) {
+			return new Variable("Unknown");
+		}
 
 		// Evaluate the expression to get the start and end of the range
 		double startTime, endTime;
 		try {
-			startTime = startCalc.calculate().getDoubleValue();
+			startTime = startCalc.evaluate(status);
 			startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
 
-			endTime = endCalc.calculate().getDoubleValue();
-			endTime = MathUtil.clamp(endTime, 0, time.get(time.size() - 1));
+			endTime = endCalc.evaluate(status);
+			endTime = MathUtil.clamp(endTime, 0, series.getTime(series.getLength() - 1));
 		} catch (java.util.EmptyStackException e) {
 			log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression " + getSymbol()
 					+ " due to empty stack exception");
 			return new Variable("Unknown");
 		}
 
-		// generate an array representing the range
+		// The number of samples in the range, as generated by ArrayUtils.range
 		double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
-		double[] t = ArrayUtils.range(startTime, endTime, step);
-		double[] y = new double[t.length];
-		int i = 0;
-		for (double tval : t) {
-			y[i] = interp.getValue(tval);
-			i++;
+		int count = (int) Math.floor(((endTime - startTime) / step)) + 1;
+		if (count <= 0 || !(step > 0)) {
+			return new Variable("Unknown");
 		}
 
-		Variable result;
-		if (y.length == 0) {
-			result = new Variable("Unknown");
-		} else {
-			result = new Variable(hash(), y, startTime, step);
+		// The samples of a range with an unchanged start are reused from the previous evaluation
+		RangeSamples s;
+		synchronized (samples) {
+			s = samples.get(dataBranch);
+			if (s == null || !s.matches(dataBranch, startTime, step)) {
+				s = new RangeSamples(dataBranch, startTime, step);
+				samples.put(dataBranch, s);
+			}
 		}
+		return s.evaluate(hash(), series, count);
+	}
 
-		return result;
+	/**
+	 * Return the samples kept for the specified branch, or null if there are none.
+	 */
+	RangeSamples getSamples(FlightDataBranch branch) {
+		synchronized (samples) {
+			return samples.get(branch);
+		}
 	}
 }
@@ -0,0 +1,191 @@
+package info.openrocket.core.simulation.customexpression;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+
+/**
+ * The resampled values of a range expression over a single flight data branch,
+ * maintained incrementally as points are added to the branch.
+ * <p>
+ * A range is sampled at the times <code>start, start+step, ...</code> up to the end of
+ * the range.  As the branch is append-only, a sample no longer changes once the branch
+ * contains a point after it (apart from the last point, whose values may still be set
+ * by listeners).  Such samples are kept together with the running sum, minimum, maximum
+ * and trapezoidal integral of each prefix of the samples, so that a range with a fixed
+ * start is extended by the new samples only, and its aggregates are available in
+ * constant time.  The samples after the last final point are recomputed on each
+ * evaluation.
+ * <p>
+ * A new instance must be created when the branch, the start time or the time step
+ * changes, as the sample times then change as well.
+ */
+final class RangeSamples {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final WeakReference<FlightDataBranch> branch;
+	private final double start;
+	private final double step;
+
+	private final Samples committed = new Samples(null);
+	private double nextTime;
+	private int dataLength = 0;
+
+	RangeSamples(FlightDataBranch branch, double start, double step) {
+		this.branch = new WeakReference<>(branch);
+		this.start = start;
+		this.step = step;
+		this.nextTime = start;
+	}
+
+	/**
+	 * Return whether these samples can be used for the specified branch and sample times.
+	 */
+	boolean matches(FlightDataBranch branch, double start, double step) {
+		return this.branch.get() == branch && this.start == start && this.step == step &&
+				branch.getLength() >= dataLength;
+	}
+
+	/**
+	 * Return the specified number of samples of the data series as an array variable.
+	 *
+	 * @param name		the name of the variable.
+	 * @param series	the interpolated data of the branch.
+	 * @param count		the number of samples, at least one.
+	 * @return			the sampled range.
+	 */
+	RangeVariable evaluate(String name, FlightDataSeries series, int count) {
+		final int length = series.getLength();
+		if (length >= 2 && series.getTime(length - 2) < series.getTime(length - 1)) {
+			final double limit = series.getTime(length - 2);
+			while (committed.size() < count && nextTime <= limit) {
+				committed.add(series.getValue(nextTime), step);
+				nextTime += step;
+			}
+			dataLength = length;
+		}
+
+		Samples samples = committed;
+		if (committed.size() < count) {
+			samples = new Samples(committed);
+			double t = nextTime;
+			while (samples.size() < count) {
+				samples.add(series.getValue(t), step);
+				t += step;
+			}
+		}
+		return new RangeVariable(name, samples, count, start, step);
+	}
+
+
+	/**
+	 * A sequence of samples and the aggregates of each of its prefixes.  The aggregates
+	 * are computed in the same order and with the same treatment of NaN values as
+	 * the corresponding methods of {@link info.openrocket.core.util.ArrayUtils}, so
+	 * they give identical results.  A sequence may extend another one without copying
+	 * it, as long as the samples of the base sequence are not changed.
+	 */
+	static final class Samples {
+		private final Samples base;
+		private final int baseSize;
+
+		private double[] values = new double[INITIAL_CAPACITY];
+		private double[] sums = new double[INITIAL_CAPACITY];
+		private double[] mins = new double[INITIAL_CAPACITY];
+		private double[] maxs = new double[INITIAL_CAPACITY];
+		private double[] integrals = new double[INITIAL_CAPACITY];
+		private int size;
+		// The abscissa of the last sample used for integration, starting from zero
+		private double x = 0;
+
+		Samples(Samples base) {
+			this.base = base;
+			this.baseSize = (base == null) ? 0 : base.size;
+			this.size = baseSize;
+			if (base != null) {
+				this.x = base.x;
+			}
+		}
+
+		int size() {
+			return size;
+		}
+
+		void add(double value, double step) {
+			final int i = size - baseSize;
+			if (i == values.length) {
+				int capacity = values.length * 2;
+				values = Arrays.copyOf(values, capacity);
+				sums = Arrays.copyOf(sums, capacity);
+				mins = Arrays.copyOf(mins, capacity);
+				maxs = Arrays.copyOf(maxs, capacity);
+				integrals = Arrays.copyOf(integrals, capacity);
+			}
+
+			double sum, min, max, integral;
+			if (size == 0) {
+				sum = 0;
+				min = value;
+				max = value;
+				integral = 0;
+			} else {
+				final double previous = getValue(size - 1);
+				sum = getSum(size - 1);
+				min = Math.min(getMin(size - 1), value);
+				max = Math.max(getMax(size - 1), value);
+				integral = getIntegral(size - 1);
+
+				final double previousX = x;
+				x = x + step;
+				double temp = (x - previousX) * (value + previous);
+				if (!Double.isNaN(temp)) {
+					integral += temp;
+				}
+			}
+			if (!Double.isNaN(value)) {
+				sum += value;
+			}
+
+			values[i] = value;
+			sums[i] = sum;
+			mins[i] = min;
+			maxs[i] = max;
+			integrals[i] = integral;
+			size++;
+		}
+
+		double getValue(int index) {
+			return (index < baseSize) ? base.getValue(index) : values[index - baseSize];
+		}
+
+		/** Sum of the non-NaN samples up to and including the index */
+		double getSum(int index) {
+			return (index < baseSize) ? base.getSum(index) : sums[index - baseSize];
+		}
+
+		/** Minimum of the samples up to and including the index, NaN if any of them is NaN */
+		double getMin(int index) {
+			return (index < baseSize) ? base.getMin(index) : mins[index - baseSize];
+		}
+
+		/** Maximum of the samples up to and including the index, NaN if any of them is NaN */
+		double getMax(int index) {
+			return (index < baseSize) ? base.getMax(index) : maxs[index - baseSize];
+		}
+
+		/** Twice the trapezoidal integral of the samples up to and including the index */
+		double getIntegral(int index) {
+			return (index < baseSize) ? base.getIntegral(index) : integrals[index - baseSize];
+		}
+
+		double[] toArray(int length) {
+			double[] array = new double[length];
+			for (int i = 0; i < length; i++) {
+				array[i] = getValue(i);
+			}
+			return array;
+		}
+	}
+}
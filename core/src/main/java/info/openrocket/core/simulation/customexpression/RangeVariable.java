@@ -0,0 +1,64 @@
+package info.openrocket.core.simulation.customexpression;
+
+import de.congrace.exp4j.Variable;
+
+/**
+ * The array variable of a sampled range expression.  The array is created only when
+ * it is requested, while the aggregate functions use the running aggregates of the
+ * samples directly.
+ */
+final class RangeVariable extends Variable {
+
+	private final RangeSamples.Samples samples;
+	private final int length;
+	private double[] array = null;
+
+	RangeVariable(String name, RangeSamples.Samples samples, int length, double start, double step) {
+		super(name, new double[] { samples.getValue(0) }, start, step);
+		this.samples = samples;
+		this.length = length;
+	}
+
+	@Override
+	public double[] getArrayValue() {
+		if (array == null) {
+			array = samples.toArray(length);
+		}
+		return array;
+	}
+
+	/**
+	 * Return the mean of the samples, equal to {@link info.openrocket.core.util.ArrayUtils#mean(double[])}.
+	 */
+	double mean() {
+		return samples.getSum(length - 1) / length;
+	}
+
+	/**
+	 * Return the minimum of the samples, equal to {@link info.openrocket.core.util.ArrayUtils#min(double[])}.
+	 */
+	double min() {
+		return samples.getMin(length - 1);
+	}
+
+	/**
+	 * Return the maximum of the samples, equal to {@link info.openrocket.core.util.ArrayUtils#max(double[])}.
+	 */
+	double max() {
+		return samples.getMax(length - 1);
+	}
+
+	/**
+	 * Return the integral of the samples, equal to
+	 * {@link info.openrocket.core.util.ArrayUtils#trapz(double[], double)} with the step of the range.
+	 */
+	double trapz() {
+		final double dt = getStep();
+		if (length <= 1 || dt <= 0) {
+			return 0;
+		}
+		// The number of points integrated by ArrayUtils.trapz
+		final int points = Math.min((int) Math.floor(((length - 1) * dt) / dt) + 1, length);
+		return samples.getIntegral(points - 1) * 0.5;
+	}
+}
@@ -0,0 +1,46 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Disperses the drag coefficient of a single rocket component.  The nominal CD of the
+ * component (its override CD if the CD is overridden, otherwise its calculated CD at the
+ * default Mach number) is multiplied by the sampled scale factor and applied as a CD override.
+ */
+public class ComponentCDDispersion implements Dispersion {
+
+	private final UUID componentId;
+	private final Distribution scale;
+
+	/**
+	 * @param componentId	the ID of the component whose CD to disperse.
+	 * @param scale			the distribution of the CD multiplier.
+	 */
+	public ComponentCDDispersion(UUID componentId, Distribution scale) {
+		this.componentId = componentId;
+		this.scale = scale;
+	}
+
+	@Override
+	public void apply(Simulation simulation, Random random, List<SimulationListener> listeners) {
+		RocketComponent component = simulation.getRocket().findComponent(componentId);
+		if (component == null) {
+			throw new BugException("Component " + componentId + " not found in rocket " + simulation.getRocket());
+		}
+		double cd = component.getOverrideCD();
+		component.setOverrideCD(cd * Math.max(scale.sample(random), 0));
+		component.setCDOverridden(true);
+	}
+
+	@Override
+	public String toString() {
+		return "ComponentCDDispersion[component=" + componentId + ", scale=" + scale + "]";
+	}
+}
@@ -0,0 +1,46 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Disperses the mass of a single rocket component.  The nominal mass of the component
+ * (its override mass if the mass is overridden, otherwise its calculated mass) is
+ * multiplied by the sampled scale factor and applied as a mass override.
+ */
+public class ComponentMassDispersion implements Dispersion {
+
+	private final UUID componentId;
+	private final Distribution scale;
+
+	/**
+	 * @param componentId	the ID of the component whose mass to disperse.
+	 * @param scale			the distribution of the mass multiplier.
+	 */
+	public ComponentMassDispersion(UUID componentId, Distribution scale) {
+		this.componentId = componentId;
+		this.scale = scale;
+	}
+
+	@Override
+	public void apply(Simulation simulation, Random random, List<SimulationListener> listeners) {
+		RocketComponent component = simulation.getRocket().findComponent(componentId);
+		if (component == null) {
+			throw new BugException("Component " + componentId + " not found in rocket " + simulation.getRocket());
+		}
+		double mass = component.getOverrideMass();
+		component.setOverrideMass(mass * Math.max(scale.sample(random), 0));
+		component.setMassOverridden(true);
+	}
+
+	@Override
+	public String toString() {
+		return "ComponentMassDispersion[component=" + componentId + ", scale=" + scale + "]";
+	}
+}
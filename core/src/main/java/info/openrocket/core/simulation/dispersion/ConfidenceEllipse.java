@@ -0,0 +1,104 @@
+package info.openrocket.core.simulation.dispersion;
+
+/**
+ * A confidence ellipse of a two-dimensional normal distribution, such as the
+ * landing point dispersion of a rocket.
+ */
+public class ConfidenceEllipse {
+
+	private final double centerX;
+	private final double centerY;
+	private final double semiMajorAxis;
+	private final double semiMinorAxis;
+	private final double orientation;
+	private final double probability;
+
+	ConfidenceEllipse(double centerX, double centerY, double semiMajorAxis, double semiMinorAxis,
+			double orientation, double probability) {
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.semiMajorAxis = semiMajorAxis;
+		this.semiMinorAxis = semiMinorAxis;
+		this.orientation = orientation;
+		this.probability = probability;
+	}
+
+	/**
+	 * Compute the confidence ellipse of a two-dimensional normal distribution.
+	 *
+	 * @param meanX			the mean of the x coordinate.
+	 * @param meanY			the mean of the y coordinate.
+	 * @param varX			the variance of the x coordinate.
+	 * @param varY			the variance of the y coordinate.
+	 * @param covXY			the covariance of the x and y coordinates.
+	 * @param probability	the probability mass contained in the ellipse, in the range (0, 1).
+	 * @return				the confidence ellipse.
+	 */
+	public static ConfidenceEllipse fromCovariance(double meanX, double meanY, double varX, double varY,
+			double covXY, double probability) {
+		if (!(probability > 0 && probability < 1)) {
+			throw new IllegalArgumentException("Probability must be in the range (0, 1), was " + probability);
+		}
+
+		// Eigenvalues of the symmetric covariance matrix
+		double mid = (varX + varY) / 2;
+		double radius = Math.hypot((varX - varY) / 2, covXY);
+		double major = Math.max(mid + radius, 0);
+		double minor = Math.max(mid - radius, 0);
+		double orientation = 0.5 * Math.atan2(2 * covXY, varX - varY);
+
+		// Quantile of the chi-squared distribution with two degrees of freedom
+		double scale = Math.sqrt(-2 * Math.log(1 - probability));
+
+		return new ConfidenceEllipse(meanX, meanY, scale * Math.sqrt(major), scale * Math.sqrt(minor),
+				orientation, probability);
+	}
+
+	/**
+	 * @return	the x coordinate of the center of the ellipse.
+	 */
+	public double getCenterX() {
+		return centerX;
+	}
+
+	/**
+	 * @return	the y coordinate of the center of the ellipse.
+	 */
+	public double getCenterY() {
+		return centerY;
+	}
+
+	/**
+	 * @return	the length of the semi-major axis.
+	 */
+	public double getSemiMajorAxis() {
+		return semiMajorAxis;
+	}
+
+	/**
+	 * @return	the length of the semi-minor axis.
+	 */
+	public double getSemiMinorAxis() {
+		return semiMinorAxis;
+	}
+
+	/**
+	 * @return	the angle of the major axis from the x axis towards the y axis, in radians.
+	 */
+	public double getOrientation() {
+		return orientation;
+	}
+
+	/**
+	 * @return	the probability mass contained in the ellipse.
+	 */
+	public double getProbability() {
+		return probability;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ConfidenceEllipse[p=%.3f, center=(%.2f, %.2f), a=%.2f, b=%.2f, angle=%.1f deg]",
+				probability, centerX, centerY, semiMajorAxis, semiMinorAxis, Math.toDegrees(orientation));
+	}
+}
@@ -0,0 +1,89 @@
+package info.openrocket.core.simulation.dispersion;
+
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+
+/**
+ * The summary of a single flight of a {@link DispersionAnalysis}.  Only the summary
+ * values are kept, the flight data itself is discarded after the flight.
+ */
+public class DispersedFlightResult {
+
+	private final int index;
+	private final double apogee;
+	private final double landingX;
+	private final double landingY;
+	private final double flightTime;
+	private final Throwable throwable;
+
+	DispersedFlightResult(int index, double apogee, double landingX, double landingY, double flightTime,
+			Throwable throwable) {
+		this.index = index;
+		this.apogee = apogee;
+		this.landingX = landingX;
+		this.landingY = landingY;
+		this.flightTime = flightTime;
+		this.throwable = throwable;
+	}
+
+	/**
+	 * @return	the index of the flight in the analysis.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return	the apogee altitude (m).
+	 */
+	public double getApogee() {
+		return apogee;
+	}
+
+	/**
+	 * @return	the landing position east of the launch site (m).
+	 */
+	public double getLandingX() {
+		return landingX;
+	}
+
+	/**
+	 * @return	the landing position north of the launch site (m).
+	 */
+	public double getLandingY() {
+		return landingY;
+	}
+
+	/**
+	 * @return	the total flight time (s).
+	 */
+	public double getFlightTime() {
+		return flightTime;
+	}
+
+	/**
+	 * @return	the exception that caused the flight to fail, or <code>null</code> if it finished normally.
+	 */
+	public Throwable getThrowable() {
+		return throwable;
+	}
+
+	/**
+	 * @return	whether the flight finished without an exception.
+	 */
+	public boolean isSuccessful() {
+		return throwable == null;
+	}
+
+	/**
+	 * @return	whether the flight was cancelled before it finished.
+	 */
+	public boolean isCancelled() {
+		return throwable instanceof SimulationCancelledException;
+	}
+
+	@Override
+	public String toString() {
+		return "DispersedFlightResult[index=" + index + ", apogee=" + apogee + ", landing=(" + landingX + ", " +
+				landingY + "), flightTime=" + flightTime + ", successful=" + isSuccessful() + "]";
+	}
+}
@@ -0,0 +1,28 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.List;
+import java.util.Random;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+
+/**
+ * A random perturbation applied to each flight of a {@link DispersionAnalysis}.
+ * <p>
+ * Dispersions are applied to a private copy of the simulation and its rocket
+ * before the flight is simulated, in the order they were added to the analysis.
+ * Implementations must not keep any per-flight state, since the same dispersion
+ * object is applied concurrently to several flights.
+ */
+public interface Dispersion {
+
+	/**
+	 * Apply the perturbation to a simulation copy.
+	 *
+	 * @param simulation	the simulation copy to modify.
+	 * @param random		the random source of this flight.
+	 * @param listeners		a list to which listeners affecting the flight itself may be added.
+	 */
+	public void apply(Simulation simulation, Random random, List<SimulationListener> listeners);
+
+}
@@ -0,0 +1,317 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.util.BugException;
+
+/**
+ * A Monte Carlo dispersion analysis of a simulation.
+ * <p>
+ * The analysis simulates a number of flights of the same simulation, each with the
+ * launch conditions and rocket perturbed by the {@link Dispersion}s added to the analysis.
+ * Every flight uses its own copy of the simulation and rocket and its own random
+ * seed derived from the seed of the analysis and the flight index, so the results
+ * do not depend on the number of threads or the order in which the flights are run.
+ * The random seed of each copy is also changed, so the simulation stepper and the
+ * wind turbulence vary between flights.
+ * <p>
+ * Only a summary of each flight (apogee, landing point and flight time) is kept;
+ * the flight data is discarded as soon as the flight has finished.  The summaries are
+ * accumulated into a {@link DispersionStatistics} which can be queried while the
+ * analysis is running.
+ * <p>
+ * The flights are run on a work-stealing {@link ForkJoinPool}.  A running analysis
+ * can be cancelled from any thread using {@link #cancel()}.
+ */
+public class DispersionAnalysis {
+	private static final Logger log = LoggerFactory.getLogger(DispersionAnalysis.class);
+
+	private final Simulation simulation;
+	private final ForkJoinPool pool;
+	private final boolean ownPool;
+
+	private final List<Dispersion> dispersions = new ArrayList<>();
+	private final List<DispersionListener> listeners = new ArrayList<>();
+
+	private int flightCount = 1000;
+	private long seed = 0;
+
+	private volatile boolean cancelled = false;
+	private volatile DispersionStatistics statistics = new DispersionStatistics();
+
+	/**
+	 * Construct an analysis that uses as many threads as there are processors available.
+	 *
+	 * @param simulation	the simulation to disperse.  It is not modified by the analysis.
+	 */
+	public DispersionAnalysis(Simulation simulation) {
+		this(simulation, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct an analysis that uses the specified number of worker threads.
+	 *
+	 * @param simulation	the simulation to disperse.  It is not modified by the analysis.
+	 * @param threadCount	the maximum number of flights to simulate concurrently.
+	 */
+	public DispersionAnalysis(Simulation simulation, int threadCount) {
+		if (threadCount <= 0) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		this.simulation = simulation;
+		this.pool = new ForkJoinPool(threadCount);
+		this.ownPool = true;
+	}
+
+	/**
+	 * Construct an analysis that uses the specified pool for simulating the flights.
+	 * The pool is not shut down by {@link #shutdown()}.
+	 *
+	 * @param simulation	the simulation to disperse.  It is not modified by the analysis.
+	 * @param pool			the pool to run the flights in.
+	 */
+	public DispersionAnalysis(Simulation simulation, ForkJoinPool pool) {
+		this.simulation = simulation;
+		this.pool = pool;
+		this.ownPool = false;
+	}
+
+
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	public int getFlightCount() {
+		return flightCount;
+	}
+
+	/**
+	 * Set the number of flights to simulate.
+	 */
+	public void setFlightCount(int flightCount) {
+		if (flightCount <= 0) {
+			throw new IllegalArgumentException("flightCount must be positive, was " + flightCount);
+		}
+		this.flightCount = flightCount;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Set the seed from which the random sources of the flights are derived.
+	 * Running the same analysis twice with the same seed produces the same statistics.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Add a dispersion to apply to each flight.  Dispersions are applied in the order
+	 * they were added.
+	 */
+	public void addDispersion(Dispersion dispersion) {
+		dispersions.add(dispersion);
+	}
+
+	public void removeDispersion(Dispersion dispersion) {
+		dispersions.remove(dispersion);
+	}
+
+	/**
+	 * @return	an unmodifiable view of the dispersions applied to each flight.
+	 */
+	public List<Dispersion> getDispersions() {
+		return Collections.unmodifiableList(dispersions);
+	}
+
+	public void addDispersionListener(DispersionListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeDispersionListener(DispersionListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @return	the statistics of the current (or last) run of the analysis.
+	 */
+	public DispersionStatistics getStatistics() {
+		return statistics;
+	}
+
+
+	/**
+	 * Simulate all flights and wait for them to finish.  A failing flight does not stop
+	 * the others; it is counted in {@link DispersionStatistics#getFailedCount()}.
+	 *
+	 * @return	the statistics of the flights.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.  The
+	 * 								analysis is cancelled in this case.
+	 */
+	public DispersionStatistics run() throws InterruptedException {
+		cancelled = false;
+		final DispersionStatistics stats = new DispersionStatistics();
+		statistics = stats;
+		final Dispersion[] dispersionArray = dispersions.toArray(new Dispersion[0]);
+		final DispersionListener[] listenerArray = listeners.toArray(new DispersionListener[0]);
+
+		/*
+		 * The rockets are not safe for concurrent access, so one template copy is made per
+		 * worker thread in the calling thread.  A flight borrows a template only while
+		 * copying it, which keeps the number of rocket copies alive proportional to the
+		 * number of threads instead of the number of flights.
+		 */
+		int templateCount = pool.getParallelism();
+		final BlockingQueue<Simulation> templates = new ArrayBlockingQueue<>(templateCount);
+		for (int i = 0; i < templateCount; i++) {
+			templates.add(simulation.duplicateSimulation(null, simulation.getRocket().copyWithOriginalID()));
+		}
+
+		List<ForkJoinTask<DispersedFlightResult>> tasks = new ArrayList<>(flightCount);
+		for (int i = 0; i < flightCount; i++) {
+			final int index = i;
+			tasks.add(pool.submit(() -> runFlight(index, templates, dispersionArray, stats, listenerArray)));
+		}
+
+		try {
+			for (ForkJoinTask<DispersedFlightResult> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			cancel();
+			throw e;
+		} catch (ExecutionException e) {
+			throw new BugException("Dispersion flight task threw an exception", e.getCause());
+		}
+		return stats;
+	}
+
+	/**
+	 * Cancel the analysis currently being run.  Running flights are stopped at the next
+	 * step, and remaining flights are not simulated.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return	whether the analysis has been cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Shut down the thread pool, if it was created by this analysis.  The analysis cannot
+	 * be run after calling this method.
+	 */
+	public void shutdown() {
+		if (ownPool) {
+			pool.shutdown();
+		}
+	}
+
+
+	/**
+	 * Return the random source of a flight.  The seed is mixed with the flight index so
+	 * that the sources of consecutive flights are uncorrelated.
+	 */
+	static Random getFlightRandom(long seed, int index) {
+		return new Random(new SplittableRandom(seed + index).nextLong());
+	}
+
+	private DispersedFlightResult runFlight(int index, BlockingQueue<Simulation> templates,
+			Dispersion[] dispersionArray, DispersionStatistics stats, DispersionListener[] listenerArray) {
+		DispersedFlightResult result;
+		if (cancelled) {
+			result = new DispersedFlightResult(index, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+					new SimulationCancelledException("The dispersion analysis was cancelled."));
+		} else {
+			result = simulateFlight(index, templates, dispersionArray);
+		}
+
+		stats.add(result);
+		for (DispersionListener l : listenerArray) {
+			l.flightFinished(result, stats);
+		}
+		return result;
+	}
+
+	private DispersedFlightResult simulateFlight(int index, BlockingQueue<Simulation> templates,
+			Dispersion[] dispersionArray) {
+		try {
+			Simulation copy;
+			Simulation template = templates.take();
+			try {
+				copy = template.duplicateSimulation(null, template.getRocket().copyWithOriginalID());
+			} finally {
+				templates.add(template);
+			}
+
+			Random random = getFlightRandom(seed, index);
+			copy.getOptions().setRandomSeed(random.nextInt());
+
+			List<SimulationListener> flightListeners = new ArrayList<>();
+			flightListeners.add(new CancelListener());
+			for (Dispersion d : dispersionArray) {
+				d.apply(copy, random, flightListeners);
+			}
+
+			copy.simulate(flightListeners.toArray(new SimulationListener[0]));
+
+			FlightData data = copy.getSimulatedData();
+			FlightDataBranch branch = data.getBranch(0);
+			return new DispersedFlightResult(index, data.getMaxAltitude(),
+					branch.getLast(FlightDataType.TYPE_POSITION_X), branch.getLast(FlightDataType.TYPE_POSITION_Y),
+					data.getFlightTime(), null);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new DispersedFlightResult(index, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+					new SimulationCancelledException("The dispersion analysis was interrupted."));
+		} catch (Throwable e) {
+			log.debug("Dispersed flight " + index + " ended with exception", e);
+			return new DispersedFlightResult(index, Double.NaN, Double.NaN, Double.NaN, Double.NaN, e);
+		}
+	}
+
+
+	/**
+	 * A simulation listener that stops the flight if the analysis has been cancelled.
+	 */
+	private class CancelListener extends AbstractSimulationListener {
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+			if (cancelled) {
+				throw new SimulationCancelledException("The dispersion analysis was cancelled.");
+			}
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+}
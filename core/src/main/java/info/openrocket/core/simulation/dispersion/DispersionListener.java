@@ -0,0 +1,20 @@
+package info.openrocket.core.simulation.dispersion;
+
+/**
+ * A listener notified of every finished flight of a {@link DispersionAnalysis}.
+ * <p>
+ * The method is called from the worker threads of the analysis, so implementations
+ * must be thread-safe and should return quickly.
+ */
+public interface DispersionListener {
+
+	/**
+	 * Called when a flight has finished, either successfully, with an error or
+	 * because the analysis was cancelled.
+	 *
+	 * @param result		the summary of the flight.
+	 * @param statistics	the statistics of the analysis, already including this flight.
+	 */
+	public void flightFinished(DispersedFlightResult result, DispersionStatistics statistics);
+
+}
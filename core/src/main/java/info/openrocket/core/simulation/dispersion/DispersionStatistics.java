@@ -0,0 +1,212 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of the flights of a {@link DispersionAnalysis}, updated as the flights finish.
+ * <p>
+ * Means and (co)variances are accumulated using Welford's online algorithm.  For the
+ * percentiles only the scalar summary values of each flight are kept in primitive arrays,
+ * so the memory used is a few dozen bytes per flight regardless of the flight length.
+ * <p>
+ * The landing position is given in meters east (x) and north (y) of the launch site.
+ * Failed and cancelled flights are counted but do not contribute to the statistics.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class DispersionStatistics {
+
+	private final Samples apogee = new Samples();
+	private final Samples flightTime = new Samples();
+	private final Samples landingDistance = new Samples();
+
+	// Landing position moments
+	private int landingCount = 0;
+	private double meanX = 0;
+	private double meanY = 0;
+	private double m2X = 0;
+	private double m2Y = 0;
+	private double cXY = 0;
+
+	private int failedCount = 0;
+
+
+	/**
+	 * Add the result of a flight to the statistics.
+	 */
+	synchronized void add(DispersedFlightResult result) {
+		if (!result.isSuccessful()) {
+			failedCount++;
+			return;
+		}
+
+		apogee.add(result.getApogee());
+		flightTime.add(result.getFlightTime());
+
+		double x = result.getLandingX();
+		double y = result.getLandingY();
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			return;
+		}
+		landingDistance.add(Math.hypot(x, y));
+
+		landingCount++;
+		double dx = x - meanX;
+		double dy = y - meanY;
+		meanX += dx / landingCount;
+		meanY += dy / landingCount;
+		m2X += dx * (x - meanX);
+		m2Y += dy * (y - meanY);
+		cXY += dx * (y - meanY);
+	}
+
+
+	/**
+	 * @return	the number of flights that finished successfully.
+	 */
+	public synchronized int getFlightCount() {
+		return apogee.size;
+	}
+
+	/**
+	 * @return	the number of flights that failed or were cancelled.
+	 */
+	public synchronized int getFailedCount() {
+		return failedCount;
+	}
+
+
+	public synchronized double getApogeeMean() {
+		return apogee.mean;
+	}
+
+	public synchronized double getApogeeStandardDeviation() {
+		return apogee.getStandardDeviation();
+	}
+
+	/**
+	 * Return a percentile of the apogee altitude.
+	 *
+	 * @param p		the fraction of flights below the returned value, in the range [0, 1].
+	 * @return		the percentile, or NaN if no flights have finished.
+	 */
+	public synchronized double getApogeePercentile(double p) {
+		return apogee.getPercentile(p);
+	}
+
+
+	public synchronized double getFlightTimeMean() {
+		return flightTime.mean;
+	}
+
+	public synchronized double getFlightTimeStandardDeviation() {
+		return flightTime.getStandardDeviation();
+	}
+
+	public synchronized double getFlightTimePercentile(double p) {
+		return flightTime.getPercentile(p);
+	}
+
+
+	public synchronized double getLandingMeanX() {
+		return landingCount > 0 ? meanX : Double.NaN;
+	}
+
+	public synchronized double getLandingMeanY() {
+		return landingCount > 0 ? meanY : Double.NaN;
+	}
+
+	public synchronized double getLandingVarianceX() {
+		return landingCount > 1 ? m2X / (landingCount - 1) : Double.NaN;
+	}
+
+	public synchronized double getLandingVarianceY() {
+		return landingCount > 1 ? m2Y / (landingCount - 1) : Double.NaN;
+	}
+
+	public synchronized double getLandingCovariance() {
+		return landingCount > 1 ? cXY / (landingCount - 1) : Double.NaN;
+	}
+
+	/**
+	 * Return a percentile of the distance between the launch site and the landing point.
+	 *
+	 * @param p		the fraction of flights landing closer than the returned distance, in the range [0, 1].
+	 * @return		the percentile, or NaN if no flights have finished.
+	 */
+	public synchronized double getLandingDistancePercentile(double p) {
+		return landingDistance.getPercentile(p);
+	}
+
+	/**
+	 * Return the confidence ellipse of the landing point, assuming the landing points
+	 * are normally distributed.
+	 *
+	 * @param probability	the probability of landing inside the ellipse, e.g. 0.95.
+	 * @return				the confidence ellipse, or <code>null</code> if fewer than two flights have landed.
+	 */
+	public synchronized ConfidenceEllipse getLandingEllipse(double probability) {
+		if (landingCount < 2) {
+			return null;
+		}
+		int n = landingCount - 1;
+		return ConfidenceEllipse.fromCovariance(meanX, meanY, m2X / n, m2Y / n, cXY / n, probability);
+	}
+
+
+	@Override
+	public synchronized String toString() {
+		return "DispersionStatistics[flights=" + apogee.size + ", failed=" + failedCount +
+				", apogee=" + apogee.mean + "+-" + apogee.getStandardDeviation() +
+				", landing=(" + getLandingMeanX() + ", " + getLandingMeanY() + ")]";
+	}
+
+
+	/**
+	 * Samples of a scalar value with their running mean and variance.
+	 */
+	private static class Samples {
+		private double[] values = new double[64];
+		private int size = 0;
+		private double mean = Double.NaN;
+		private double m2 = 0;
+
+		void add(double value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+
+			if (size == 1) {
+				mean = value;
+				m2 = 0;
+			} else {
+				double delta = value - mean;
+				mean += delta / size;
+				m2 += delta * (value - mean);
+			}
+		}
+
+		double getStandardDeviation() {
+			return size > 1 ? Math.sqrt(m2 / (size - 1)) : Double.NaN;
+		}
+
+		double getPercentile(double p) {
+			if (p < 0 || p > 1) {
+				throw new IllegalArgumentException("Percentile must be in the range [0, 1], was " + p);
+			}
+			if (size == 0) {
+				return Double.NaN;
+			}
+			double[] sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+
+			// Linear interpolation between the closest ranks
+			double position = p * (size - 1);
+			int lower = (int) Math.floor(position);
+			int upper = Math.min(lower + 1, size - 1);
+			double fraction = position - lower;
+			return sorted[lower] + fraction * (sorted[upper] - sorted[lower]);
+		}
+	}
+}
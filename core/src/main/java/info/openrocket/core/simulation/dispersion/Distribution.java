@@ -0,0 +1,104 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.Random;
+
+/**
+ * A probability distribution from which dispersed parameter values are drawn.
+ */
+public interface Distribution {
+
+	/**
+	 * Draw a value from the distribution.
+	 *
+	 * @param random	the random number source to use.
+	 * @return			the sampled value.
+	 */
+	public double sample(Random random);
+
+
+	/**
+	 * Return a distribution that always returns the specified value.
+	 */
+	public static Distribution constant(double value) {
+		return new Constant(value);
+	}
+
+	/**
+	 * Return a uniform distribution over the range [min, max).
+	 */
+	public static Distribution uniform(double min, double max) {
+		if (max < min) {
+			throw new IllegalArgumentException("max < min: min=" + min + " max=" + max);
+		}
+		return new Uniform(min, max);
+	}
+
+	/**
+	 * Return a normal distribution with the specified mean and standard deviation.
+	 */
+	public static Distribution normal(double mean, double standardDeviation) {
+		if (standardDeviation < 0) {
+			throw new IllegalArgumentException("Negative standard deviation: " + standardDeviation);
+		}
+		return new Normal(mean, standardDeviation);
+	}
+
+
+	static final class Constant implements Distribution {
+		private final double value;
+
+		Constant(double value) {
+			this.value = value;
+		}
+
+		@Override
+		public double sample(Random random) {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return "Constant[" + value + "]";
+		}
+	}
+
+	static final class Uniform implements Distribution {
+		private final double min;
+		private final double max;
+
+		Uniform(double min, double max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		public double sample(Random random) {
+			return min + random.nextDouble() * (max - min);
+		}
+
+		@Override
+		public String toString() {
+			return "Uniform[" + min + ", " + max + "]";
+		}
+	}
+
+	static final class Normal implements Distribution {
+		private final double mean;
+		private final double standardDeviation;
+
+		Normal(double mean, double standardDeviation) {
+			this.mean = mean;
+			this.standardDeviation = standardDeviation;
+		}
+
+		@Override
+		public double sample(Random random) {
+			return mean + random.nextGaussian() * standardDeviation;
+		}
+
+		@Override
+		public String toString() {
+			return "Normal[mean=" + mean + ", sigma=" + standardDeviation + "]";
+		}
+	}
+}
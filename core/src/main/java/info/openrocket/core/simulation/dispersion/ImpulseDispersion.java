@@ -0,0 +1,55 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.List;
+import java.util.Random;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+
+/**
+ * Disperses the total impulse of the motors.  The thrust of all motors is multiplied
+ * by the sampled scale factor during the whole flight, which scales the total impulse
+ * while keeping the burn time and propellant mass of the motors unchanged.
+ */
+public class ImpulseDispersion implements Dispersion {
+
+	private final Distribution scale;
+
+	/**
+	 * @param scale		the distribution of the total impulse multiplier.
+	 */
+	public ImpulseDispersion(Distribution scale) {
+		this.scale = scale;
+	}
+
+	@Override
+	public void apply(Simulation simulation, Random random, List<SimulationListener> listeners) {
+		listeners.add(new ThrustScaleListener(Math.max(scale.sample(random), 0)));
+	}
+
+	@Override
+	public String toString() {
+		return "ImpulseDispersion[scale=" + scale + "]";
+	}
+
+
+	private static class ThrustScaleListener extends AbstractSimulationListener {
+		private final double multiplier;
+
+		public ThrustScaleListener(double multiplier) {
+			this.multiplier = multiplier;
+		}
+
+		@Override
+		public double postSimpleThrustCalculation(SimulationStatus status, double thrust) {
+			return thrust * multiplier;
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.List;
+import java.util.Random;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+
+/**
+ * Disperses the launch rod angle and direction.  The sampled values are offsets
+ * (in radians) added to the nominal angle and direction of the simulation.
+ * <p>
+ * If the simulation launches into the wind, the nominal direction is the wind
+ * direction at the time the dispersion is applied, so this dispersion should be
+ * added after any {@link WindDispersion}.
+ */
+public class LaunchRodDispersion implements Dispersion {
+
+	private final Distribution angleOffset;
+	private final Distribution directionOffset;
+
+	/**
+	 * @param angleOffset		the distribution of the launch rod angle offset (radians).
+	 * @param directionOffset	the distribution of the launch rod direction offset (radians).
+	 */
+	public LaunchRodDispersion(Distribution angleOffset, Distribution directionOffset) {
+		this.angleOffset = angleOffset;
+		this.directionOffset = directionOffset;
+	}
+
+	@Override
+	public void apply(Simulation simulation, Random random, List<SimulationListener> listeners) {
+		SimulationOptions options = simulation.getOptions();
+		double direction = options.getLaunchRodDirection();
+		options.setLaunchIntoWind(false);
+		options.setLaunchRodAngle(options.getLaunchRodAngle() + angleOffset.sample(random));
+		options.setLaunchRodDirection(direction + directionOffset.sample(random));
+	}
+
+	@Override
+	public String toString() {
+		return "LaunchRodDispersion[angle=" + angleOffset + ", direction=" + directionOffset + "]";
+	}
+}
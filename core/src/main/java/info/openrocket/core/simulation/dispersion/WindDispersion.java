@@ -0,0 +1,63 @@
+package info.openrocket.core.simulation.dispersion;
+
+import java.util.List;
+import java.util.Random;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.models.wind.MultiLevelPinkNoiseWindModel;
+import info.openrocket.core.models.wind.PinkNoiseWindModel;
+import info.openrocket.core.models.wind.WindModelType;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+
+/**
+ * Disperses the wind of the simulation.  The speed and direction offsets are added to
+ * the average wind speed (m/s) and direction (radians), and the turbulence intensity
+ * is multiplied by the turbulence scale.  For a multi-level wind model
+ * the same sampled values are applied to every level, so the shape of the wind
+ * profile is preserved.
+ */
+public class WindDispersion implements Dispersion {
+
+	private final Distribution speedOffset;
+	private final Distribution directionOffset;
+	private final Distribution turbulenceScale;
+
+	/**
+	 * @param speedOffset		the distribution of the wind speed offset (m/s).
+	 * @param directionOffset	the distribution of the wind direction offset (radians).
+	 * @param turbulenceScale	the distribution of the turbulence intensity multiplier.
+	 */
+	public WindDispersion(Distribution speedOffset, Distribution directionOffset, Distribution turbulenceScale) {
+		this.speedOffset = speedOffset;
+		this.directionOffset = directionOffset;
+		this.turbulenceScale = turbulenceScale;
+	}
+
+	@Override
+	public void apply(Simulation simulation, Random random, List<SimulationListener> listeners) {
+		double speed = speedOffset.sample(random);
+		double direction = directionOffset.sample(random);
+		double turbulence = Math.max(turbulenceScale.sample(random), 0);
+
+		SimulationOptions options = simulation.getOptions();
+		if (options.getWindModelType() == WindModelType.AVERAGE) {
+			PinkNoiseWindModel model = options.getAverageWindModel();
+			model.setAverage(model.getAverage() + speed);
+			model.setDirection(model.getDirection() + direction);
+			model.setTurbulenceIntensity(model.getTurbulenceIntensity() * turbulence);
+		} else {
+			for (MultiLevelPinkNoiseWindModel.LevelWindModel level : options.getMultiLevelWindModel().getLevels()) {
+				level.setSpeed(level.getSpeed() + speed);
+				level.setDirection(level.getDirection() + direction);
+				level.setTurbulenceIntensity(level.getTurblenceIntensity() * turbulence);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "WindDispersion[speed=" + speedOffset + ", direction=" + directionOffset +
+				", turbulence=" + turbulenceScale + "]";
+	}
+}
@@ -248,11 +248,14 @@ public class SimulationListenerHelper {
 			AtmosphericConditions conditions)
 			throws SimulationException {
 		AtmosphericConditions c;
-		AtmosphericConditions clone = conditions.clone();
+		AtmosphericConditions clone = null;
 		ModID modID = status.getModID();
 
 		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
 			if (l instanceof SimulationComputationListener) {
+				if (clone == null) {
+					clone = conditions.clone();
+				}
 				c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
 				if (modID != status.getModID()) {
 					warn(status, l);
@@ -406,11 +409,14 @@ public class SimulationListenerHelper {
 	public static FlightConditions firePostFlightConditions(SimulationStatus status, FlightConditions conditions)
 			throws SimulationException {
 		FlightConditions c;
-		FlightConditions clone = conditions.clone();
+		FlightConditions clone = null;
 		ModID modID = status.getModID();
 
 		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
 			if (l instanceof SimulationComputationListener) {
+				if (clone == null) {
+					clone = conditions.clone();
+				}
 				c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
 				if (modID != status.getModID()) {
 					warn(status, l);
@@ -460,11 +466,14 @@ public class SimulationListenerHelper {
 	public static AerodynamicForces firePostAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces)
 			throws SimulationException {
 		AerodynamicForces f;
-		AerodynamicForces clone = forces.clone();
+		AerodynamicForces clone = null;
 		ModID modID = status.getModID();
 
 		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
 			if (l instanceof SimulationComputationListener) {
+				if (clone == null) {
+					clone = forces.clone();
+				}
 				f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
 				if (modID != status.getModID()) {
 					warn(status, l);
@@ -1,10 +1,11 @@
 package info.openrocket.core.thrustcurve;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,6 +13,7 @@ import org.xml.sax.SAXException;
 
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
+import info.openrocket.core.file.motor.BinaryMotorDatabase;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
 import info.openrocket.core.motor.Motor;
@@ -62,16 +64,15 @@ public class SerializeThrustcurveMotors {
 
 		loadFromThrustCurve(allMotors);
 
-		File outFile = new File(outputFile);
-
-		FileOutputStream ofs = new FileOutputStream(outFile);
-		final ObjectOutputStream oos = new ObjectOutputStream(ofs);
-
-		oos.writeObject(allMotors);
+		List<ThrustCurveMotor> thrustCurveMotors = new ArrayList<>();
+		for (Motor m : allMotors) {
+			thrustCurveMotors.add((ThrustCurveMotor) m);
+		}
 
-		oos.flush();
-		ofs.flush();
-		ofs.close();
+		File outFile = new File(outputFile);
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+			BinaryMotorDatabase.write(thrustCurveMotors, out);
+		}
 
 	}
 
@@ -0,0 +1,60 @@
+package info.openrocket.core.util;
+
+/**
+ * A flag for cooperatively cancelling a long-running computation, such as a simulation.
+ * <p>
+ * A token can be bound to the current thread using {@link #bind(CancellationToken)}.
+ * Code deep within the computation, such as the simulation engine, obtains the bound
+ * token through {@link #current()} and stops at its next convenient point once the token
+ * is cancelled.  Unlike thread interruption, cancellation cannot be lost by code that
+ * clears the interrupt status of the thread.
+ * <p>
+ * This class is thread-safe; a token is typically cancelled from another thread than
+ * the one performing the computation.
+ */
+public final class CancellationToken {
+
+	private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Request cancellation of the computations using this token.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return	whether cancellation has been requested.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Return the token bound to the current thread.
+	 *
+	 * @return	the current token, or <code>null</code> if none is bound.
+	 */
+	public static CancellationToken current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Bind a token to the current thread.  The previous token should be restored when the
+	 * computation ends, typically in a finally block.
+	 *
+	 * @param token		the token to bind, or <code>null</code> to unbind the current token.
+	 * @return			the previously bound token, or <code>null</code> if none was bound.
+	 */
+	public static CancellationToken bind(CancellationToken token) {
+		CancellationToken previous = CURRENT.get();
+		if (token == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(token);
+		}
+		return previous;
+	}
+}
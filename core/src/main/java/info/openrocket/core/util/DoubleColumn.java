@@ -0,0 +1,186 @@
+package info.openrocket.core.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A growable, append-only column of primitive double values.
+ * <p>
+ * The values are stored in fixed-size chunks, so appending a value never copies the
+ * existing data and no boxed <code>Double</code> objects are created.  Values can be
+ * read individually, copied out as a <code>double[]</code>, or accessed through a
+ * read-only <code>List&lt;Double&gt;</code> view for code using the boxed API.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class DoubleColumn implements Cloneable {
+
+	private static final int CHUNK_BITS = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private double[][] chunks = new double[4][];
+	private int size = 0;
+
+	/**
+	 * Construct an empty column.
+	 */
+	public DoubleColumn() {
+	}
+
+	/**
+	 * Construct a column containing <code>length</code> copies of the specified value.
+	 *
+	 * @param length	the number of values.
+	 * @param value		the value to fill the column with.
+	 */
+	public DoubleColumn(int length, double value) {
+		for (int i = 0; i < length; i++) {
+			add(value);
+		}
+	}
+
+
+	/**
+	 * Append a value to the end of the column.
+	 */
+	public void add(double value) {
+		int chunk = size >>> CHUNK_BITS;
+		if (chunk == chunks.length) {
+			chunks = Arrays.copyOf(chunks, chunks.length * 2);
+		}
+		if (chunks[chunk] == null) {
+			chunks[chunk] = new double[CHUNK_SIZE];
+		}
+		chunks[chunk][size & CHUNK_MASK] = value;
+		size++;
+	}
+
+	/**
+	 * Return the value at the specified index.
+	 *
+	 * @throws IndexOutOfBoundsException	if the index is out of range.
+	 */
+	public double get(int index) {
+		checkIndex(index);
+		return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+	}
+
+	/**
+	 * Set the value at the specified index.
+	 *
+	 * @throws IndexOutOfBoundsException	if the index is out of range.
+	 */
+	public void set(int index, double value) {
+		checkIndex(index);
+		chunks[index >>> CHUNK_BITS][index & CHUNK_MASK] = value;
+	}
+
+	/**
+	 * Return the last value of the column, or NaN if the column is empty.
+	 */
+	public double getLast() {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		return get(size - 1);
+	}
+
+	/**
+	 * Set the last value of the column.  Does nothing if the column is empty.
+	 */
+	public void setLast(double value) {
+		if (size > 0) {
+			set(size - 1, value);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Return a copy of the values as a primitive array.
+	 */
+	public double[] toArray() {
+		double[] array = new double[size];
+		int full = size >>> CHUNK_BITS;
+		for (int i = 0; i < full; i++) {
+			System.arraycopy(chunks[i], 0, array, i << CHUNK_BITS, CHUNK_SIZE);
+		}
+		int rest = size & CHUNK_MASK;
+		if (rest > 0) {
+			System.arraycopy(chunks[full], 0, array, full << CHUNK_BITS, rest);
+		}
+		return array;
+	}
+
+	/**
+	 * Return a read-only list view of a snapshot of the current values.  Later changes
+	 * to the column are not reflected in the returned list.
+	 */
+	public List<Double> toList() {
+		return new DoubleArrayView(toArray());
+	}
+
+	/**
+	 * Return a read-only list view of the specified array.  The values are boxed only
+	 * when they are read.
+	 */
+	public static List<Double> asList(double[] array) {
+		return new DoubleArrayView(array);
+	}
+
+	@Override
+	public DoubleColumn clone() {
+		try {
+			DoubleColumn copy = (DoubleColumn) super.clone();
+			copy.chunks = chunks.clone();
+			for (int i = 0; i < copy.chunks.length && copy.chunks[i] != null; i++) {
+				copy.chunks[i] = copy.chunks[i].clone();
+			}
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new BugException("CloneNotSupportedException encountered", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		}
+	}
+
+
+	/**
+	 * A read-only list backed by a primitive array.
+	 */
+	private static class DoubleArrayView extends AbstractList<Double> implements RandomAccess {
+		private final double[] array;
+
+		DoubleArrayView(double[] array) {
+			this.array = array;
+		}
+
+		@Override
+		public Double get(int index) {
+			return array[index];
+		}
+
+		@Override
+		public int size() {
+			return array.length;
+		}
+	}
+}
@@ -92,6 +92,27 @@ public class Quaternion {
 				sin * rotation.x / length, sin * rotation.y / length, sin * rotation.z / length);
 	}
 
+	/**
+	 * Return the product of the rotation quaternion corresponding to the rotation
+	 * vector (x, y, z) and this quaternion.  This is equivalent to
+	 * <code>this.multiplyLeft(Quaternion.rotation(new Coordinate(x, y, z)))</code>
+	 * but does not create the intermediate objects.
+	 * 
+	 * @param x the x component of the rotation vector
+	 * @param y the y component of the rotation vector
+	 * @param z the z component of the rotation vector
+	 * @return the rotated quaternion
+	 */
+	public Quaternion multiplyLeftRotation(double x, double y, double z) {
+		double length = MathUtil.safeSqrt(x * x + y * y + z * z);
+		if (length < 0.000001) {
+			return multiplyLeft(1, 0, 0, 0);
+		}
+		double sin = Math.sin(length / 2);
+		double cos = Math.cos(length / 2);
+		return multiplyLeft(cos, sin * x / length, sin * y / length, sin * z / length);
+	}
+
 	/**
 	 * Create a rotation quaternion corresponding to the rotation around the
 	 * provided vector with
@@ -157,12 +178,16 @@ public class Quaternion {
 	 * @return this quaternion.
 	 */
 	public Quaternion multiplyLeft(Quaternion other) {
+		return multiplyLeft(other.w, other.x, other.y, other.z);
+	}
+
+	private Quaternion multiplyLeft(double ow, double ox, double oy, double oz) {
 		/* other(abcd) * this(wxyz) */
 
-		double newW = (other.w * this.w - other.x * this.x - other.y * this.y - other.z * this.z);
-		double newX = (other.w * this.x + other.x * this.w + other.y * this.z - other.z * this.y);
-		double newY = (other.w * this.y + other.y * this.w + other.z * this.x - other.x * this.z);
-		double newZ = (other.w * this.z + other.z * this.w + other.x * this.y - other.y * this.x);
+		double newW = (ow * this.w - ox * this.x - oy * this.y - oz * this.z);
+		double newX = (ow * this.x + ox * this.w + oy * this.z - oz * this.y);
+		double newY = (ow * this.y + oy * this.w + oz * this.x - ox * this.z);
+		double newZ = (ow * this.z + oz * this.w + ox * this.y - oy * this.x);
 
 		return new Quaternion(newW, newX, newY, newZ);
 	}
@@ -229,27 +254,47 @@ public class Quaternion {
 	 * @return the rotated coordinate.
 	 */
 	public Coordinate rotate(Coordinate coord) {
+		return rotate(coord.x, coord.y, coord.z, coord.weight);
+	}
+
+	/**
+	 * Perform a coordinate rotation of the vector (x, y, z) using this unit quaternion.
+	 * This is equivalent to <code>this.rotate(new Coordinate(x, y, z))</code> but does not
+	 * create the intermediate coordinate.
+	 * 
+	 * @param x the x component of the vector
+	 * @param y the y component of the vector
+	 * @param z the z component of the vector
+	 * @return the rotated coordinate, with zero weight
+	 */
+	public Coordinate rotate(double x, double y, double z) {
+		return rotate(x, y, z, 0);
+	}
+
+	private Coordinate rotate(double cx, double cy, double cz, double weight) {
 		double a, b, c, d;
 
 		assert (Math.abs(norm2() - 1) < 0.00001) : "Quaternion not unit length: " + this;
 
 		// (a,b,c,d) = this * coord = (w,x,y,z) * (0,cx,cy,cz)
-		a = -x * coord.x - y * coord.y - z * coord.z; // w
-		b = w * coord.x + y * coord.z - z * coord.y; // x i
-		c = w * coord.y - x * coord.z + z * coord.x; // y j
-		d = w * coord.z + x * coord.y - y * coord.x; // z k
+		a = -x * cx - y * cy - z * cz; // w
+		b = w * cx + y * cz - z * cy; // x i
+		c = w * cy - x * cz + z * cx; // y j
+		d = w * cz + x * cy - y * cx; // z k
 
 		// return = (a,b,c,d) * (this)^-1 = (a,b,c,d) * (w,-x,-y,-z)
 
 		// Assert that the w-value is zero
-		assert (Math.abs(a * w + b * x + c * y + d * z) <= coord.max() * MathUtil.EPSILON)
-				: ("Should be zero: " + (a * w + b * x + c * y + d * z) + " in " + this + " c=" + coord);
+		assert (Math.abs(a * w + b * x + c * y + d * z) <= MathUtil.max(Math.abs(cx), Math.abs(cy), Math.abs(cz))
+				* MathUtil.EPSILON)
+				: ("Should be zero: " + (a * w + b * x + c * y + d * z) + " in " + this + " c=("
+						+ cx + "," + cy + "," + cz + ")");
 
 		return new Coordinate(
 				-a * x + b * w - c * z + d * y,
 				-a * y + b * z + c * w - d * x,
 				-a * z - b * y + c * x + d * w,
-				coord.weight);
+				weight);
 	}
 
 	/**
@@ -2,7 +2,6 @@ package info.openrocket.core.util;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Locale;
 
 public class TextUtil {
 	public static final int DEFAULT_DECIMAL_PLACES = 3;
@@ -54,29 +53,131 @@ public class TextUtil {
 	 * @return a representation with suitable precision.
 	 */
 	public static String doubleToString(double d, int decimalPlaces, boolean isExponentialNotation) {
+		StringBuilder sb = new StringBuilder(16);
+		appendDouble(sb, d, decimalPlaces, isExponentialNotation);
+		return sb.toString();
+	}
+
+	/**
+	 * Append the string representation of a double value to a string builder.  The result
+	 * is the same as that of {@link #doubleToString(double, int, boolean)}, but it is formatted
+	 * directly from the shortest decimal digits of the value without using a
+	 * {@link java.util.Formatter} or any intermediate strings apart from those digits.
+	 *
+	 * @param sb                    the string builder to append to.
+	 * @param d                     the value to present.
+	 * @param decimalPlaces         the number of decimal places to save the value with.
+	 * @param isExponentialNotation if true, the value is presented in exponential
+	 *                              notation if it is smaller than 0.001 or at least 10000.
+	 * @return the string builder.
+	 */
+	public static StringBuilder appendDouble(StringBuilder sb, double d, int decimalPlaces, boolean isExponentialNotation) {
 		// Check for special cases
 		if (MathUtil.equals(d, 0))
-			return "0";
+			return sb.append('0');
 
 		if (Double.isNaN(d))
-			return "NaN";
+			return sb.append("NaN");
+
+		if (Double.isInfinite(d))
+			return sb.append(d < 0 ? "-Inf" : "Inf");
 
-		if (Double.isInfinite(d)) {
-			if (d < 0)
-				return "-Inf";
-			else
-				return "Inf";
+		final double abs = Math.abs(d);
+		final boolean exponential = isExponentialNotation && (abs < 0.001 || abs >= 10000);
+
+		// Extract the significant digits, the value being 0.ddd * 10^point
+		final String str = Double.toString(abs);
+		final int length = str.length();
+		final char[] digits = new char[length];
+		int count = 0;
+		int point = 0;
+		boolean fraction = false;
+		int i;
+		for (i = 0; i < length; i++) {
+			char c = str.charAt(i);
+			if (c == '.') {
+				fraction = true;
+			} else if (c == 'E') {
+				break;
+			} else if (count == 0 && c == '0') {
+				if (fraction)
+					point--;
+			} else {
+				digits[count++] = c;
+				if (!fraction)
+					point++;
+			}
+		}
+		if (i < length) {
+			point += Integer.parseInt(str, i + 1, length, 10);
 		}
 
-		String format = "%." + decimalPlaces + "f";
+		// Round half up to the number of digits shown, as Formatter does
+		final int keep = exponential ? decimalPlaces + 1 : point + decimalPlaces;
+		if (keep < count) {
+			if (keep < 0 || digits[keep] < '5') {
+				count = Math.max(keep, 0);
+			} else {
+				int j = keep - 1;
+				while (j >= 0 && digits[j] == '9') {
+					j--;
+				}
+				if (j >= 0) {
+					digits[j]++;
+					count = j + 1;
+				} else {
+					digits[0] = '1';
+					count = 1;
+					point++;
+				}
+			}
+		}
+		// Trailing zeros are never shown
+		while (count > 0 && digits[count - 1] == '0') {
+			count--;
+		}
+
+		if (d < 0)
+			sb.append('-');
 
-		// Print in exponential notation if value < 0.001 or >= 10000
-		if (isExponentialNotation && (Math.abs(d) < 0.001 || Math.abs(d) >= 10000)) {
-			format = "%." + decimalPlaces + "e";
+		if (exponential) {
+			sb.append(digits[0]);
+			if (count > 1) {
+				sb.append('.').append(digits, 1, count - 1);
+			}
+			final int exponent = point - 1;
+			sb.append('e');
+			if (exponent != 0)
+				sb.append(exponent);
+			return sb;
 		}
 
-		String formatted = String.format(Locale.ENGLISH, format, d);
-		return reformatExponent(trimTrailingZeros(formatted));
+		if (point <= 0) {
+			sb.append('0');
+		} else {
+			for (int j = 0; j < point; j++) {
+				sb.append(j < count ? digits[j] : '0');
+			}
+		}
+		if (count > 0 && count > point) {
+			sb.append('.');
+			for (int j = point; j < count; j++) {
+				sb.append(j < 0 ? '0' : digits[j]);
+			}
+		}
+		return sb;
+	}
+
+	/**
+	 * Append the string representation of a double value to a string builder, as
+	 * returned by {@link #doubleToString(double)}.
+	 *
+	 * @param sb the string builder to append to.
+	 * @param d  the value to present.
+	 * @return the string builder.
+	 */
+	public static StringBuilder appendDouble(StringBuilder sb, double d) {
+		return appendDouble(sb, d, DEFAULT_DECIMAL_PLACES, true);
 	}
 
 	/**
@@ -107,51 +208,6 @@ public class TextUtil {
 		return doubleToString(d, DEFAULT_DECIMAL_PLACES, true);
 	}
 
-	/**
-	 * Trims trailing zeros of a string formatted decimal number (can be in
-	 * exponential notation e.g. 1.2000E+06).
-	 * 
-	 * @param number the String formatted decimal number.
-	 * @return the String formatted decimal number without trailing zeros.
-	 */
-	private static String trimTrailingZeros(String number) {
-		if (number == null)
-			return null;
-
-		if (!number.contains(".")) {
-			return number;
-		}
-
-		// Deal with exponential notation
-		if (number.contains("e")) {
-			String[] split = number.split("e");
-			number = split[0];
-			String exponent = split[1];
-			return number.replaceAll("\\.?0*$", "") + "e" + exponent;
-		}
-
-		return number.replaceAll("\\.?0*$", "");
-	}
-
-	/**
-	 * Replaces Java's default exponential notation (e.g. e+06 or e-06) with a
-	 * custom notation (e.g. e6 or e-6).
-	 * 
-	 * @param number exponential formatted number (e.g. 3.1415927e+06).
-	 * @return the exponential formatted number, with custom exponential notation
-	 *         (e.g. 3.1415927e6).
-	 */
-	private static String reformatExponent(String number) {
-		// I don't wanna become an expert in regex to get this in one nice expression,
-		// leave me be.
-		if (number.contains("e+")) {
-			return number.replaceAll("e\\+?0*", "e");
-		} else if (number.contains("e-")) {
-			return number.replaceAll("e-?0*", "e-");
-		}
-		return number;
-	}
-
 	/**
 	 * Escape a string as XML or HTML. Encodes the following characters:
 	 * <ul>
@@ -169,7 +225,22 @@ public class TextUtil {
 			return "";
 		}
 		String s = obj.toString();
-		StringBuilder sb = new StringBuilder(s.length());
+		return appendEscapedXML(new StringBuilder(s.length()), s).toString();
+	}
+
+	/**
+	 * Append a string escaped as XML or HTML to a string builder, as returned by
+	 * {@link #escapeXML(Object)}.
+	 *
+	 * @param sb  the string builder to append to.
+	 * @param obj the object to escape, or <code>null</code> to append nothing.
+	 * @return the string builder.
+	 */
+	public static StringBuilder appendEscapedXML(StringBuilder sb, Object obj) {
+		if (obj == null) {
+			return sb;
+		}
+		String s = obj.toString();
 
 		for (int i = 0; i < s.length(); i++) {
 			char c = s.charAt(i);
@@ -190,7 +261,7 @@ public class TextUtil {
 			}
 		}
 
-		return sb.toString();
+		return sb;
 	}
 
 }
@@ -375,6 +375,18 @@ public class Transformation implements java.io.Serializable {
 		return this.translate;
 	}
 
+	/**
+	 * Copy the rotation matrix of this transformation to an array in row-major order.
+	 *
+	 * @param dest		the destination array.
+	 * @param offset	the index of the first of the nine elements to write.
+	 */
+	public void getRotation(double[] dest, int offset) {
+		for (int i = 0; i < 3; i++) {
+			System.arraycopy(rotation[i], 0, dest, offset + 3 * i, 3);
+		}
+	}
+
 	/**
 	 * Calculate X, Y, and Z rotation angles from rotation matrices
 	 */
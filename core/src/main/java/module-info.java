@@ -75,6 +75,7 @@ open module info.openrocket.core {
 	exports info.openrocket.core.optimization.rocketoptimization.modifiers;
 	exports info.openrocket.core.optimization.rocketoptimization.parameters;
 	exports info.openrocket.core.optimization.services;
+	exports info.openrocket.core.optimization.sweep;
 	exports info.openrocket.core.plugin;
 	exports info.openrocket.core.preset;
 	exports info.openrocket.core.preset.loader;
@@ -84,6 +85,8 @@ open module info.openrocket.core {
 	exports info.openrocket.core.rocketvisitors;
 	exports info.openrocket.core.scripting;
 	exports info.openrocket.core.simulation;
+	exports info.openrocket.core.simulation.batch;
+	exports info.openrocket.core.simulation.dispersion;
 	exports info.openrocket.core.simulation.customexpression;
 	exports info.openrocket.core.simulation.exception;
 	exports info.openrocket.core.simulation.extension;
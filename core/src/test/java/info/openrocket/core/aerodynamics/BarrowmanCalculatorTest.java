@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
+
+import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -664,4 +667,77 @@ public class BarrowmanCalculatorTest {
 		final double zeroCD = zeroForces.getCD();
 		assertEquals(epsCD, zeroCD, EPSILON, "drag at mach 0 should equal drag at mach MathUtil.EPSILON");
 	}
+
+	/**
+	 * Test that the forces interpolated from the coefficient table match the direct calculation.
+	 */
+	@Test
+	public void testCoefficientTable() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator direct = new BarrowmanCalculator();
+		BarrowmanCalculator tabulated = new BarrowmanCalculator();
+		tabulated.setCoefficientTablePolicy(CoefficientTablePolicy.DEFAULT);
+		FlightConditions conditions = new FlightConditions(config);
+
+		Random random = new Random(1234);
+		for (int n = 0; n < 200; n++) {
+			conditions.setMach(0.05 + 1.5 * random.nextDouble());
+			conditions.setAOA(Math.toRadians(20) * random.nextDouble());
+			conditions.setTheta(2 * Math.PI * random.nextDouble());
+			conditions.setRollRate(n % 2 == 0 ? 0 : 20 * random.nextDouble());
+
+			AerodynamicForces expected = direct.getAerodynamicForces(config, conditions, new WarningSet());
+			AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, new WarningSet());
+
+			String msg = " at " + conditions;
+			assertEquals(expected.getCD(), actual.getCD(), 0.005 * expected.getCD(), "CD" + msg);
+			assertEquals(expected.getCDaxial(), actual.getCDaxial(), 0.005 * expected.getCD(), "CDaxial" + msg);
+			assertEquals(expected.getCNa(), actual.getCNa(), 0.005 * expected.getCNa(), "CNa" + msg);
+			assertEquals(expected.getCN(), actual.getCN(), 0.005 * expected.getCNa(), "CN" + msg);
+			assertEquals(expected.getCP().x, actual.getCP().x, 0.001, "CP" + msg);
+			assertEquals(expected.getCm(), actual.getCm(), 0.005 * expected.getCNa(), "Cm" + msg);
+			assertEquals(expected.getCrollDamp(), actual.getCrollDamp(), EPSILON, "Croll damping" + msg);
+			assertEquals(expected.getCroll(), actual.getCroll(), 0.005 * Math.abs(expected.getCroll()) + EPSILON,
+					"Croll" + msg);
+		}
+
+		// Conditions outside the table are calculated directly
+		for (double mach : new double[] { 0, 0.001, 6 }) {
+			conditions.setMach(mach);
+			conditions.setAOA(0.1);
+			AerodynamicForces expected = direct.getAerodynamicForces(config, conditions, null);
+			AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions, null);
+			assertEquals(expected.getCD(), actual.getCD(), 0, "CD at Mach " + mach);
+			assertEquals(expected.getCN(), actual.getCN(), 0, "CN at Mach " + mach);
+		}
+	}
+
+	/**
+	 * Test that the warnings of the direct calculation are reported by the coefficient table.
+	 */
+	@Test
+	public void testCoefficientTableWarnings() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator tabulated = new BarrowmanCalculator();
+		tabulated.setCoefficientTablePolicy(CoefficientTablePolicy.DEFAULT);
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setAOA(0.05);
+
+		conditions.setMach(2.0);
+		WarningSet warnings = new WarningSet();
+		tabulated.getAerodynamicForces(config, conditions, warnings);
+		assertTrue(warnings.contains(Warning.SUPERSONIC));
+
+		// The same nodes report the warnings again for a new warning set
+		warnings = new WarningSet();
+		tabulated.getAerodynamicForces(config, conditions, warnings);
+		assertTrue(warnings.contains(Warning.SUPERSONIC));
+
+		conditions.setMach(0.5);
+		warnings = new WarningSet();
+		tabulated.getAerodynamicForces(config, conditions, warnings);
+		assertFalse(warnings.contains(Warning.SUPERSONIC));
+	}
 }
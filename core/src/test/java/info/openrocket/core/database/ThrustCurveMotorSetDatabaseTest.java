@@ -0,0 +1,196 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSet;
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+
+public class ThrustCurveMotorSetDatabaseTest {
+
+	private static final String[] MANUFACTURERS = { "Estes", "AeroTech", "Cesaroni" };
+	private static final String[] DESIGNATIONS = { "C6", "D12", "F32", "G80", "H128" };
+	private static final double[] DIAMETERS = { 0.018, 0.024, 0.029, 0.038 };
+	private static final double[] LENGTHS = { 0.070, 0.095, 0.124 };
+	private static final Motor.Type[] TYPES = { Motor.Type.UNKNOWN, Motor.Type.SINGLE, Motor.Type.RELOAD };
+
+	private static ThrustCurveMotor makeMotor(String manufacturer, String designation, Motor.Type type,
+			double diameter, double length, double thrust, String description, String digest) {
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer(manufacturer))
+				.setCommonName(designation)
+				.setDesignation(designation)
+				.setDescription(description)
+				.setMotorType(type)
+				.setStandardDelays(new double[] { 5 })
+				.setDiameter(diameter)
+				.setLength(length)
+				.setTimePoints(new double[] { 0, 1, 2 })
+				.setThrustPoints(new double[] { 0, thrust, 0 })
+				.setCGPoints(new Coordinate[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL })
+				.setDigest(digest)
+				.build();
+	}
+
+	private static List<ThrustCurveMotor> makeMotors(Random random, int count) {
+		List<ThrustCurveMotor> motors = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String designation = DESIGNATIONS[random.nextInt(DESIGNATIONS.length)];
+			motors.add(makeMotor(MANUFACTURERS[random.nextInt(MANUFACTURERS.length)],
+					random.nextBoolean() ? designation : designation.toLowerCase(),
+					TYPES[random.nextInt(TYPES.length)],
+					DIAMETERS[random.nextInt(DIAMETERS.length)],
+					LENGTHS[random.nextInt(LENGTHS.length)],
+					1 + random.nextInt(5),
+					random.nextBoolean() ? "" : "Description " + random.nextInt(3),
+					"digest" + random.nextInt(count / 2)));
+		}
+		return motors;
+	}
+
+	/**
+	 * The motor search implemented by scanning all motors of the database.
+	 */
+	private static List<ThrustCurveMotor> scan(ThrustCurveMotorSetDatabase db, String digest, Motor.Type type,
+			String manufacturer, String designation, double diameter, double length) {
+		List<ThrustCurveMotor> fullMatches = new ArrayList<>();
+		List<ThrustCurveMotor> digestMatches = new ArrayList<>();
+		List<ThrustCurveMotor> descriptionMatches = new ArrayList<>();
+		for (ThrustCurveMotorSet set : db.getMotorSets()) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				boolean matchDigest = digest != null && digest.equals(m.getDigest());
+				boolean matchDescription = true;
+				if (type != null && type != set.getType())
+					matchDescription = false;
+				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+					matchDescription = false;
+				else if (designation != null &&
+						!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
+						!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
+					matchDescription = false;
+				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
+					matchDescription = false;
+				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
+					matchDescription = false;
+
+				if (matchDigest)
+					digestMatches.add(m);
+				if (matchDescription)
+					descriptionMatches.add(m);
+				if (matchDigest && matchDescription)
+					fullMatches.add(m);
+			}
+		}
+		if (!fullMatches.isEmpty())
+			return fullMatches;
+		if (!digestMatches.isEmpty())
+			return digestMatches;
+		return descriptionMatches;
+	}
+
+	private static void assertSameMotors(List<ThrustCurveMotor> expected, List<ThrustCurveMotor> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), actual.get(i));
+		}
+	}
+
+	@Test
+	public void testFindMotorsMatchesScan() {
+		Random random = new Random(1234);
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		for (ThrustCurveMotor m : makeMotors(random, 400)) {
+			db.addMotor(m);
+		}
+
+		for (int i = 0; i < 2000; i++) {
+			String digest = random.nextInt(3) == 0 ? null : "digest" + random.nextInt(250);
+			Motor.Type type = random.nextInt(3) == 0 ? TYPES[random.nextInt(TYPES.length)] : null;
+			String manufacturer = random.nextBoolean() ? MANUFACTURERS[random.nextInt(MANUFACTURERS.length)] : null;
+			String designation = random.nextBoolean() ? DESIGNATIONS[random.nextInt(DESIGNATIONS.length)] : null;
+			double diameter = random.nextBoolean() ? DIAMETERS[random.nextInt(DIAMETERS.length)] + 0.004 : Double.NaN;
+			double length = random.nextBoolean() ? LENGTHS[random.nextInt(LENGTHS.length)] - 0.003 : Double.NaN;
+
+			assertSameMotors(scan(db, digest, type, manufacturer, designation, diameter, length),
+					db.findMotors(digest, type, manufacturer, designation, diameter, length));
+		}
+	}
+
+	@Test
+	public void testIndexesFollowReplacedMotors() {
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		ThrustCurveMotor original = makeMotor("Estes", "C6", Motor.Type.UNKNOWN, 0.018, 0.07, 2, "", "digestC6");
+		ThrustCurveMotor duplicate = makeMotor("Estes", "C6", Motor.Type.UNKNOWN, 0.018, 0.07, 2, "", "digestC6");
+		ThrustCurveMotor replacement = makeMotor("Estes", "C6", Motor.Type.SINGLE, 0.018, 0.07, 2, "Better", "digestC6");
+
+		db.addMotor(original);
+		assertEquals(1, db.getMotorCount());
+		assertEquals(1, db.getMotorSets(Motor.Type.UNKNOWN).size());
+
+		// A duplicate without a description is ignored
+		db.addMotor(duplicate);
+		assertEquals(1, db.getMotorCount());
+		assertSameMotors(List.of(original), db.findMotorsByDigest("digestC6"));
+
+		// A motor with a description replaces the one without, and the set type becomes known
+		db.addMotor(replacement);
+		assertEquals(1, db.getMotorSets().size());
+		assertEquals(1, db.getMotorCount());
+		assertSameMotors(List.of(replacement), db.findMotorsByDigest("digestC6"));
+		assertSameMotors(List.of(replacement), db.findMotorsByDiameter(0.017, 0.019));
+		assertEquals(0, db.getMotorSets(Motor.Type.UNKNOWN).size());
+		assertEquals(1, db.getMotorSets(Motor.Type.SINGLE).size());
+		assertEquals(1, db.getMotorSets(Manufacturer.getManufacturer("Estes")).size());
+	}
+
+	@Test
+	public void testRangeQueries() {
+		Random random = new Random(42);
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		List<ThrustCurveMotor> motors = makeMotors(random, 200);
+		for (ThrustCurveMotor m : motors) {
+			db.addMotor(m);
+		}
+
+		List<ThrustCurveMotor> all = new ArrayList<>();
+		for (ThrustCurveMotorSet set : db.getMotorSets()) {
+			all.addAll(set.getMotors());
+		}
+		assertEquals(all.size(), db.getMotorCount());
+
+		List<ThrustCurveMotor> found = db.findMotorsByDiameter(0.024, 0.029);
+		int expected = 0;
+		for (ThrustCurveMotor m : all) {
+			if (m.getDiameter() >= 0.024 && m.getDiameter() <= 0.029) {
+				expected++;
+				assertTrue(found.contains(m));
+			}
+		}
+		assertEquals(expected, found.size());
+		for (int i = 1; i < found.size(); i++) {
+			assertTrue(found.get(i - 1).getDiameter() <= found.get(i).getDiameter());
+		}
+
+		found = db.findMotorsByTotalImpulse(2.5, 4.5);
+		expected = 0;
+		for (ThrustCurveMotor m : all) {
+			if (m.getTotalImpulseEstimate() >= 2.5 && m.getTotalImpulseEstimate() <= 4.5) {
+				expected++;
+			}
+		}
+		assertEquals(expected, found.size());
+		assertEquals(all.size(), db.findMotorsByLength(0, 1).size());
+		assertEquals(0, db.findMotorsByLength(1, 0).size());
+	}
+}
@@ -0,0 +1,205 @@
+package info.openrocket.core.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.file.openrocket.OpenRocketSaverTest;
+import info.openrocket.core.l10n.DebugTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.rocketcomponent.FlightConfigurationId;
+import info.openrocket.core.rocketcomponent.MotorMount;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.startup.Application;
+
+public class BulkRocketLoaderTest {
+
+	private static final String[] RESOURCES = {
+			"/datafiles/examples/Two-stage rocket.ork",
+			"/datafiles/examples/Clustered motors.ork",
+			"/datafiles/examples/Parallel booster staging.ork",
+			"/datafiles/examples/Dual parachute deployment.ork",
+			"/file/rocksim/importt/PodFins.rkt",
+			"/file/rasaero/importt/Show-off.CDX1",
+	};
+
+	@BeforeAll
+	public static void setup() {
+		Module applicationModule = new ServicesForTesting();
+		Module pluginModule = new PluginModule();
+
+		Module dbOverrides = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(ComponentPresetDao.class).toProvider(new OpenRocketSaverTest.EmptyComponentDbProvider());
+				bind(MotorDatabase.class).toProvider(new OpenRocketSaverTest.MotorDbProvider());
+				bind(Translator.class).toInstance(new DebugTranslator(null));
+			}
+		};
+
+		Injector injector = Guice.createInjector(Modules.override(applicationModule).with(dbOverrides), pluginModule);
+		Application.setInjector(injector);
+	}
+
+	private static File copyToFile(String resource) throws IOException {
+		String name = resource.substring(resource.lastIndexOf('/') + 1);
+		File file = File.createTempFile("bulk", "-" + name.replace(' ', '_'));
+		file.deleteOnExit();
+		try (InputStream in = BulkRocketLoaderTest.class.getResourceAsStream(resource);
+				OutputStream out = new FileOutputStream(file)) {
+			assertNotNull(in, resource);
+			in.transferTo(out);
+		}
+		return file;
+	}
+
+	@Test
+	public void testBulkLoadMatchesSequentialLoad() throws Exception {
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			for (String resource : RESOURCES) {
+				files.add(copyToFile(resource));
+			}
+		}
+
+		BulkRocketLoader loader = new BulkRocketLoader(4);
+		try {
+			List<BulkLoadResult> results = loader.load(files);
+			assertEquals(files.size(), results.size());
+			for (int i = 0; i < files.size(); i++) {
+				BulkLoadResult result = results.get(i);
+				assertEquals(i, result.getIndex());
+				assertSame(files.get(i), result.getFile());
+				assertTrue(result.isSuccessful(), "Loading failed: " + result.getException());
+				assertTrue(result.getLoadTimeMillis() >= 0);
+
+				GeneralRocketLoader reference = new GeneralRocketLoader(files.get(i));
+				OpenRocketDocument expected = reference.load();
+				OpenRocketDocument actual = result.getDocument();
+				assertSameComponents(expected, actual);
+				assertEquals(expected.getSimulationCount(), actual.getSimulationCount());
+				assertEquals(reference.getWarnings(), result.getWarnings(), files.get(i).getName());
+			}
+		} finally {
+			loader.shutdown();
+		}
+	}
+
+	@Test
+	public void testConcurrentRASAeroLoad() throws Exception {
+		String[] rasaero = {
+				"/file/rasaero/importt/Show-off.CDX1",
+				"/file/rasaero/importt/Three-stage rocket.CDX1",
+				"/file/rasaero/importt/Complex.Two-Stage.CDX1",
+		};
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			for (String resource : rasaero) {
+				files.add(copyToFile(resource));
+			}
+		}
+
+		BulkRocketLoader loader = new BulkRocketLoader(4);
+		try {
+			List<BulkLoadResult> results = loader.load(files);
+			for (int i = 0; i < files.size(); i++) {
+				BulkLoadResult result = results.get(i);
+				assertTrue(result.isSuccessful(), "Loading failed: " + result.getException());
+
+				GeneralRocketLoader reference = new GeneralRocketLoader(files.get(i));
+				OpenRocketDocument expected = reference.load();
+				OpenRocketDocument actual = result.getDocument();
+				assertSameComponents(expected, actual);
+				assertEquals(getMotors(expected), getMotors(actual), files.get(i).getName());
+				assertEquals(reference.getWarnings(), result.getWarnings(), files.get(i).getName());
+			}
+		} finally {
+			loader.shutdown();
+		}
+	}
+
+	/**
+	 * Return the motor designations of the motor mounts in each flight configuration.
+	 */
+	private static List<String> getMotors(OpenRocketDocument document) {
+		Rocket rocket = document.getRocket();
+		List<String> motors = new ArrayList<>();
+		for (FlightConfigurationId fcid : rocket.getIds()) {
+			for (RocketComponent c : rocket) {
+				if (c instanceof MotorMount mount) {
+					Motor motor = mount.getMotorConfig(fcid).getMotor();
+					motors.add(motor == null ? null : motor.getDesignation());
+				}
+			}
+		}
+		return motors;
+	}
+
+	private static void assertSameComponents(OpenRocketDocument expected, OpenRocketDocument actual) {
+		Iterator<RocketComponent> e = expected.getRocket().iterator(true);
+		Iterator<RocketComponent> a = actual.getRocket().iterator(true);
+		while (e.hasNext()) {
+			assertTrue(a.hasNext());
+			RocketComponent ec = e.next();
+			RocketComponent ac = a.next();
+			assertSame(ec.getClass(), ac.getClass());
+			assertEquals(ec.getName(), ac.getName());
+			assertEquals(ec.getLength(), ac.getLength(), 0);
+			assertEquals(ec.getComponentMass(), ac.getComponentMass(), 0);
+		}
+		assertFalse(a.hasNext());
+	}
+
+	@Test
+	public void testFailedFileIsReported() throws Exception {
+		File corrupt = File.createTempFile("bulk", ".ork");
+		corrupt.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(corrupt)) {
+			out.write("This is not a rocket design file".getBytes());
+		}
+		List<File> files = List.of(copyToFile(RESOURCES[0]), corrupt, new File(corrupt.getPath() + ".missing"));
+
+		BulkRocketLoader loader = new BulkRocketLoader(2);
+		try {
+			List<BulkLoadResult> results = loader.load(files);
+			assertTrue(results.get(0).isSuccessful());
+			assertNotNull(results.get(0).getDocument());
+			for (int i = 1; i < 3; i++) {
+				assertFalse(results.get(i).isSuccessful());
+				assertNull(results.get(i).getDocument());
+				assertNotNull(results.get(i).getException());
+			}
+			assertTrue(loader.getMotorFinder().getCacheSize() > 0);
+		} finally {
+			loader.shutdown();
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package info.openrocket.core.file.motor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.BaseTestCase;
+
+public class BinaryMotorDatabaseTest extends BaseTestCase {
+
+	private List<ThrustCurveMotor> loadMotors() throws IOException {
+		List<ThrustCurveMotor> motors = new ArrayList<>();
+		GeneralMotorLoader loader = new GeneralMotorLoader();
+		for (String file : new String[] { "/file/motor/test.zip", "/file/motor/test3.rse" }) {
+			try (InputStream is = this.getClass().getResourceAsStream(file)) {
+				for (ThrustCurveMotor.Builder b : loader.load(is, file)) {
+					motors.add(b.build());
+				}
+			}
+		}
+		// A motor without case info
+		try (InputStream is = this.getClass().getResourceAsStream("/file/motor/test1.eng")) {
+			ThrustCurveMotor.Builder b = loader.load(is, "test1.eng").get(0);
+			b.setCaseInfo(null);
+			motors.add(b.build());
+		}
+		return motors;
+	}
+
+	private static byte[] write(List<ThrustCurveMotor> motors) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryMotorDatabase.write(motors, out);
+		return out.toByteArray();
+	}
+
+	private static void assertMotorEquals(ThrustCurveMotor expected, ThrustCurveMotor actual) {
+		assertSame(expected.getManufacturer(), actual.getManufacturer());
+		assertEquals(expected.getCode(), actual.getCode());
+		assertEquals(expected.getCommonName(), actual.getCommonName());
+		assertEquals(expected.getDesignation(), actual.getDesignation());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getDigest(), actual.getDigest());
+		assertEquals(expected.getCaseInfo(), actual.getCaseInfo());
+		assertEquals(expected.getPropellantInfo(), actual.getPropellantInfo());
+		assertEquals(expected.getMotorType(), actual.getMotorType());
+		assertEquals(expected.isAvailable(), actual.isAvailable());
+		assertEquals(expected.getDiameter(), actual.getDiameter(), 0);
+		assertEquals(expected.getLength(), actual.getLength(), 0);
+		assertEquals(expected.getInitialMass(), actual.getInitialMass(), 0);
+		assertArrayEquals(expected.getStandardDelays(), actual.getStandardDelays(), 0);
+		assertArrayEquals(expected.getTimePoints(), actual.getTimePoints(), 0);
+		assertArrayEquals(expected.getThrustPoints(), actual.getThrustPoints(), 0);
+		assertArrayEquals(expected.getCGPoints(), actual.getCGPoints());
+		assertEquals(expected.getTotalImpulseEstimate(), actual.getTotalImpulseEstimate(), 0);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<ThrustCurveMotor> motors = loadMotors();
+		BinaryMotorDatabase db = BinaryMotorDatabase.read(new ByteArrayInputStream(write(motors)));
+
+		assertEquals(motors.size(), db.size());
+		for (int i = 0; i < motors.size(); i++) {
+			assertEquals(motors.get(i).getDigest(), db.getDigest(i));
+			assertMotorEquals(motors.get(i), db.getMotor(i));
+		}
+		assertNull(db.getMotor(motors.size() - 1).getCaseInfo());
+	}
+
+	@Test
+	public void testMemoryMappedFile() throws IOException {
+		List<ThrustCurveMotor> motors = loadMotors();
+		File file = File.createTempFile("motors", "." + BinaryMotorDatabase.EXTENSION);
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(write(motors));
+		}
+
+		BinaryMotorDatabase db = BinaryMotorDatabase.open(file);
+		List<ThrustCurveMotor> loaded = db.getMotors();
+		assertEquals(motors.size(), loaded.size());
+		for (int i = 0; i < motors.size(); i++) {
+			assertMotorEquals(motors.get(i), loaded.get(i));
+		}
+	}
+
+	@Test
+	public void testMotorsAreMaterializedOnce() throws IOException {
+		BinaryMotorDatabase db = BinaryMotorDatabase.read(new ByteArrayInputStream(write(loadMotors())));
+		assertSame(db.getMotor(0), db.getMotor(0));
+		assertSame(db.getMotor(1), db.getMotors().get(1));
+	}
+
+	@Test
+	public void testFindMotorsByDigest() throws IOException {
+		List<ThrustCurveMotor> motors = loadMotors();
+		BinaryMotorDatabase db = BinaryMotorDatabase.read(new ByteArrayInputStream(write(motors)));
+
+		for (ThrustCurveMotor m : motors) {
+			List<ThrustCurveMotor> found = db.findMotorsByDigest(m.getDigest());
+			assertTrue(found.size() >= 1);
+			for (ThrustCurveMotor f : found) {
+				assertEquals(m.getDigest(), f.getDigest());
+			}
+		}
+		assertTrue(db.findMotorsByDigest("no such digest").isEmpty());
+	}
+
+	@Test
+	public void testInvalidHeaderIsRejected() throws IOException {
+		byte[] data = write(loadMotors());
+
+		byte[] badMagic = data.clone();
+		badMagic[0] ^= 0x55;
+		assertThrows(IOException.class, () -> new BinaryMotorDatabase(ByteBuffer.wrap(badMagic)));
+
+		byte[] badVersion = data.clone();
+		ByteBuffer.wrap(badVersion).putInt(4, 999);
+		assertThrows(IOException.class, () -> new BinaryMotorDatabase(ByteBuffer.wrap(badVersion)));
+	}
+}
@@ -0,0 +1,145 @@
+package info.openrocket.core.file.motor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.BaseTestCase;
+
+public class MotorFileCacheTest extends BaseTestCase {
+
+	private static File createTempFile(String suffix) throws IOException {
+		File file = File.createTempFile("motorcache", suffix);
+		file.deleteOnExit();
+		return file;
+	}
+
+	private File copyResource(String resource, String suffix) throws IOException {
+		File file = createTempFile(suffix);
+		try (InputStream is = this.getClass().getResourceAsStream(resource);
+				OutputStream os = new FileOutputStream(file)) {
+			is.transferTo(os);
+		}
+		return file;
+	}
+
+	private static List<ThrustCurveMotor> parse(File file) throws IOException {
+		List<ThrustCurveMotor> motors = new ArrayList<>();
+		try (InputStream is = Files.newInputStream(file.toPath())) {
+			for (ThrustCurveMotor.Builder b : new GeneralMotorLoader().load(is, file.getName())) {
+				motors.add(b.build());
+			}
+		}
+		return motors;
+	}
+
+	private static void assertSameMotors(List<ThrustCurveMotor> expected, List<ThrustCurveMotor> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getDigest(), actual.get(i).getDigest());
+			assertEquals(expected.get(i).getDesignation(), actual.get(i).getDesignation());
+			assertArrayEquals(expected.get(i).getThrustPoints(), actual.get(i).getThrustPoints(), 0);
+		}
+	}
+
+	@Test
+	public void testCacheIsPersisted() throws IOException {
+		File eng = copyResource("/file/motor/test1.eng", ".eng");
+		File zip = copyResource("/file/motor/test.zip", ".zip");
+		File cacheFile = createTempFile(".dat");
+		cacheFile.delete();
+
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.load();
+		assertEquals(0, cache.size());
+		assertNull(cache.get(eng));
+
+		List<ThrustCurveMotor> engMotors = parse(eng);
+		List<ThrustCurveMotor> zipMotors = parse(zip);
+		cache.put(eng, engMotors);
+		cache.put(zip, zipMotors);
+		assertSame(engMotors.get(0), cache.get(eng).get(0));
+		cache.save();
+
+		MotorFileCache loaded = new MotorFileCache(cacheFile);
+		loaded.load();
+		assertEquals(2, loaded.size());
+		assertSameMotors(engMotors, loaded.get(eng));
+		assertSameMotors(zipMotors, loaded.get(zip));
+	}
+
+	@Test
+	public void testChangedFileIsNotReturned() throws IOException {
+		File eng = copyResource("/file/motor/test1.eng", ".eng");
+		File cacheFile = createTempFile(".dat");
+
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.put(eng, parse(eng));
+		cache.save();
+		assertNotNull(cache.get(eng));
+
+		assertEquals(true, eng.setLastModified(eng.lastModified() - 10000));
+		assertNull(cache.get(eng));
+
+		MotorFileCache loaded = new MotorFileCache(cacheFile);
+		loaded.load();
+		assertNull(loaded.get(eng));
+
+		try (OutputStream os = new FileOutputStream(eng, true)) {
+			os.write('\n');
+		}
+		cache.put(eng, parse(eng));
+		assertNotNull(cache.get(eng));
+		eng.delete();
+		assertNull(cache.get(eng));
+	}
+
+	@Test
+	public void testRetain() throws IOException {
+		File eng = copyResource("/file/motor/test1.eng", ".eng");
+		File rse = copyResource("/file/motor/test2.rse", ".rse");
+		File cacheFile = createTempFile(".dat");
+
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.put(eng, parse(eng));
+		cache.put(rse, parse(rse));
+		cache.save();
+
+		cache.retain(Arrays.asList(rse));
+		assertEquals(1, cache.size());
+		assertNull(cache.get(eng));
+		cache.save();
+
+		MotorFileCache loaded = new MotorFileCache(cacheFile);
+		loaded.load();
+		assertEquals(1, loaded.size());
+		assertNotNull(loaded.get(rse));
+	}
+
+	@Test
+	public void testInvalidCacheFileIsIgnored() throws IOException {
+		File cacheFile = createTempFile(".dat");
+		try (OutputStream os = new FileOutputStream(cacheFile)) {
+			os.write(new byte[] { 'O', 'R', 'M', 'C', 0, 0, 0, 1, 0, 0 });
+		}
+
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.load();
+		assertEquals(0, cache.size());
+	}
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileNotFoundException;
@@ -13,6 +14,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import info.openrocket.core.ServicesForTesting;
@@ -327,6 +329,39 @@ public class OpenRocketSaverTest {
 		assertEquals(Simulation.Status.OUTDATED, rocketDocLoaded.getSimulations().get(3).getStatus());
 	}
 	
+	/**
+	 * Test that saving the simulations concurrently produces the same output as a sequential save.
+	 */
+	@Test
+	public void testParallelSimulationSave() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		for (int i = 0; i < 6; i++) {
+			Simulation sim = new Simulation(rocket);
+			sim.setName("Simulation <" + i + ">");
+			sim.getOptions().setISAAtmosphere(true);
+			sim.getOptions().setTimeStep(0.01 * (i + 1));
+			sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+			if (i != 3) {
+				sim.simulate();
+			}
+			rocketDoc.addSimulation(sim);
+		}
+
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+
+		ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		new OpenRocketSaver(false).save(sequential, rocketDoc, options, new WarningSet(), new ErrorSet());
+		ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+		new OpenRocketSaver(true).save(parallel, rocketDoc, options, new WarningSet(), new ErrorSet());
+
+		String output = sequential.toString(StandardCharsets.UTF_8);
+		assertTrue(output.contains("<datapoint>"));
+		assertTrue(output.contains("<name>Simulation &lt;5&gt;</name>"));
+		assertEquals(output, parallel.toString(StandardCharsets.UTF_8));
+	}
+	
 	////////////////////////////////
 	// Tests for File Version 1.10 //
 	////////////////////////////////
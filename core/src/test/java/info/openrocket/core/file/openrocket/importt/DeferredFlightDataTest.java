@@ -0,0 +1,190 @@
+package info.openrocket.core.file.openrocket.importt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.database.ComponentPresetDao;
+import info.openrocket.core.database.motor.MotorDatabase;
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.file.openrocket.OpenRocketSaverTest;
+import info.openrocket.core.l10n.DebugTranslator;
+import info.openrocket.core.l10n.Translator;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.TestRockets;
+
+public class DeferredFlightDataTest {
+
+	@BeforeAll
+	public static void setup() {
+		Module applicationModule = new ServicesForTesting();
+		Module pluginModule = new PluginModule();
+
+		Module dbOverrides = new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(ComponentPresetDao.class).toProvider(new OpenRocketSaverTest.EmptyComponentDbProvider());
+				bind(MotorDatabase.class).toProvider(new OpenRocketSaverTest.MotorDbProvider());
+				bind(Translator.class).toInstance(new DebugTranslator(null));
+			}
+		};
+
+		Injector injector = Guice.createInjector(Modules.override(applicationModule).with(dbOverrides), pluginModule);
+		Application.setInjector(injector);
+	}
+
+	private static byte[] saveSimulatedDocument() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		for (double timeStep : new double[] { 0.05, 0.01 }) {
+			Simulation simulation = new Simulation(document, rocket);
+			simulation.getOptions().setISAAtmosphere(true);
+			simulation.getOptions().setTimeStep(timeStep);
+			simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+			simulation.simulate();
+			document.addSimulation(simulation);
+		}
+		// A simulation without data
+		document.addSimulation(new Simulation(document, rocket));
+
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new OpenRocketSaver().save(out, document, options, new WarningSet(), new ErrorSet());
+		return out.toByteArray();
+	}
+
+	private static OpenRocketDocument load(byte[] file, boolean defer) throws Exception {
+		GeneralRocketLoader loader = new GeneralRocketLoader(new File("deferred.ork"));
+		loader.setDeferFlightData(defer);
+		return loader.load(new ByteArrayInputStream(file), "deferred");
+	}
+
+	@Test
+	public void testDeferredDataMatchesLoadedData() throws Exception {
+		byte[] file = saveSimulatedDocument();
+		OpenRocketDocument expected = load(file, false);
+		OpenRocketDocument actual = load(file, true);
+		assertTrue(expected.getDefaultStorageOptions().getSaveSimulationData());
+		assertTrue(actual.getDefaultStorageOptions().getSaveSimulationData());
+
+		List<Simulation> expectedSims = expected.getSimulations();
+		List<Simulation> actualSims = actual.getSimulations();
+		assertEquals(3, actualSims.size());
+		assertEquals(expectedSims.size(), actualSims.size());
+		for (int i = 0; i < 2; i++) {
+			FlightData e = expectedSims.get(i).getSimulatedData();
+			FlightData a = actualSims.get(i).getSimulatedData();
+			assertEquals(expectedSims.get(i).getStatus(), actualSims.get(i).getStatus());
+			assertFalse(e.hasDeferredBranches());
+			assertTrue(a.hasDeferredBranches());
+			assertTrue(actualSims.get(i).hasSimulationData());
+
+			// The summary values are read from the file
+			assertEquals(e.getBranchCount(), a.getBranchCount());
+			assertEquals(e.getMaxAltitude(), a.getMaxAltitude(), 1e-3 * e.getMaxAltitude());
+			assertEquals(e.getFlightTime(), a.getFlightTime(), 1e-3 * e.getFlightTime());
+			assertTrue(a.hasDeferredBranches());
+
+			// A clone reads its branches independently
+			FlightData clone = a.clone();
+			assertSameBranches(e, a);
+			assertFalse(a.hasDeferredBranches());
+			assertTrue(clone.hasDeferredBranches());
+			assertSameBranches(e.clone(), clone);
+		}
+		assertNull(actualSims.get(2).getSimulatedData());
+	}
+
+	@Test
+	public void testMalformedPointsAreIgnoredAsWhenLoaded() throws Exception {
+		String xml = new String(saveSimulatedDocument(), StandardCharsets.UTF_8);
+
+		// Values of the first data point, without the last one
+		int pointStart = xml.indexOf("<datapoint>") + "<datapoint>".length();
+		String point = xml.substring(pointStart, xml.indexOf("</datapoint>", pointStart));
+		String partial = point.substring(0, point.lastIndexOf(',') + 1);
+
+		// Add malformed points to the first branch, and a branch containing only malformed points
+		int branchStart = xml.indexOf("<databranch");
+		String branchTag = xml.substring(branchStart, xml.indexOf('>', branchStart) + 1);
+		int branchEnd = xml.indexOf("</databranch>");
+		String malformed = "<datapoint>" + partial + "</datapoint>"
+				+ "<datapoint>" + partial + "x</datapoint>";
+		xml = xml.substring(0, branchEnd) + malformed + "</databranch>" + branchTag + malformed
+				+ xml.substring(branchEnd);
+
+		byte[] file = xml.getBytes(StandardCharsets.UTF_8);
+		GeneralRocketLoader eager = new GeneralRocketLoader(new File("deferred.ork"));
+		OpenRocketDocument expected = eager.load(new ByteArrayInputStream(file), "deferred");
+		GeneralRocketLoader deferred = new GeneralRocketLoader(new File("deferred.ork"));
+		deferred.setDeferFlightData(true);
+		OpenRocketDocument actual = deferred.load(new ByteArrayInputStream(file), "deferred");
+
+		assertEquals(eager.getWarnings(), deferred.getWarnings());
+		assertTrue(eager.getWarnings().toString().contains("Data point format error"));
+		assertTrue(eager.getWarnings().toString().contains("did not contain correct amount of values"));
+		FlightData e = expected.getSimulation(0).getSimulatedData();
+		FlightData a = actual.getSimulation(0).getSimulatedData();
+		assertTrue(a.hasDeferredBranches());
+		assertEquals(1, a.getBranchCount());
+		assertSameBranches(e, a);
+	}
+
+	private static void assertSameBranches(FlightData expected, FlightData actual) {
+		assertEquals(expected.getBranchCount(), actual.getBranchCount());
+		for (int b = 0; b < expected.getBranchCount(); b++) {
+			FlightDataBranch e = expected.getBranch(b);
+			FlightDataBranch a = actual.getBranch(b);
+			assertEquals(e.getName(), a.getName());
+			assertEquals(e.getLength(), a.getLength());
+			assertEquals(e.isMutable(), a.isMutable());
+			assertArrayEquals(e.getTypes(), a.getTypes());
+			for (FlightDataType type : e.getTypes()) {
+				assertArrayEquals(e.getDoubleArray(type), a.getDoubleArray(type), 0);
+			}
+			assertEquals(e.getOptimumAltitude(), a.getOptimumAltitude(), 0);
+			assertEquals(e.getTimeToOptimumAltitude(), a.getTimeToOptimumAltitude(), 0);
+			assertEquals(e.getSeparationTime(), a.getSeparationTime(), 0);
+
+			List<FlightEvent> ee = e.getEvents();
+			List<FlightEvent> ae = a.getEvents();
+			assertEquals(ee.size(), ae.size());
+			for (int i = 0; i < ee.size(); i++) {
+				assertEquals(ee.get(i).getType(), ae.get(i).getType());
+				assertEquals(ee.get(i).getTime(), ae.get(i).getTime(), 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package info.openrocket.core.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.ModID;
+
+public class WarningSetTest extends BaseTestCase {
+
+	@Test
+	public void testAddReplacesWorseWarning() {
+		WarningSet set = new WarningSet();
+		Warning small = new Warning.LargeAOA(0.3);
+		Warning large = new Warning.LargeAOA(0.5);
+
+		assertFalse(set.add(small));
+		assertTrue(set.add(large));
+		assertTrue(set.add(new Warning.LargeAOA(0.4)));
+		assertEquals(1, set.size());
+		assertSame(large, set.iterator().next());
+		assertEquals(3, set.getOccurrenceCount(small));
+		assertTrue(set.contains(new Warning.LargeAOA(1.0)));
+
+		set.add(Warning.SUPERSONIC);
+		set.add("Some warning");
+		assertEquals(3, set.size());
+		assertTrue(set.contains(Warning.fromString("Some warning")));
+		assertFalse(set.contains(Warning.fromString("Other warning")));
+	}
+
+	@Test
+	public void testRecordOccurrences() {
+		WarningSet set = new WarningSet();
+		Warning first = new Warning.LargeAOA(0.3);
+		assertTrue(set.record(first, 1.5));
+		ModID modID = set.getModID();
+		for (int i = 0; i < 100; i++) {
+			assertFalse(set.record(new Warning.LargeAOA(0.5), 1.6 + i * 0.01));
+		}
+
+		// The first message is kept and the set is unchanged
+		assertEquals(1, set.size());
+		assertSame(first, set.iterator().next());
+		assertSame(modID, set.getModID());
+
+		assertEquals(101, set.getOccurrenceCount(first));
+		assertEquals(1.5, set.getFirstOccurrenceTime(first), 0);
+		assertEquals(1.6 + 99 * 0.01, set.getLastOccurrenceTime(first), 0);
+		assertEquals(0, set.getOccurrenceCount(Warning.SUPERSONIC));
+		assertTrue(Double.isNaN(set.getFirstOccurrenceTime(Warning.SUPERSONIC)));
+	}
+
+	@Test
+	public void testAddAllMergesOccurrences() {
+		WarningSet a = new WarningSet();
+		a.record(Warning.SUPERSONIC, 2.0);
+		a.record(Warning.SUPERSONIC, 3.0);
+		WarningSet b = new WarningSet();
+		b.record(Warning.SUPERSONIC, 1.0);
+		b.record(Warning.PARALLEL_FINS, 4.0);
+
+		WarningSet total = new WarningSet();
+		total.addAll(a);
+		total.addAll(b);
+		assertEquals(2, total.size());
+		assertEquals(3, total.getOccurrenceCount(Warning.SUPERSONIC));
+		assertEquals(1.0, total.getFirstOccurrenceTime(Warning.SUPERSONIC), 0);
+		assertEquals(3.0, total.getLastOccurrenceTime(Warning.SUPERSONIC), 0);
+		assertEquals(4.0, total.getFirstOccurrenceTime(Warning.PARALLEL_FINS), 0);
+	}
+
+	@Test
+	public void testCloneAndRemove() {
+		WarningSet set = new WarningSet();
+		set.record(Warning.SUPERSONIC, 1.0);
+		set.record(Warning.PARALLEL_FINS, 2.0);
+		set.record(Warning.PARALLEL_FINS, 3.0);
+
+		WarningSet copy = set.clone();
+		assertNotSame(set, copy);
+		copy.record(Warning.PARALLEL_FINS, 4.0);
+		assertEquals(2, set.getOccurrenceCount(Warning.PARALLEL_FINS));
+		assertEquals(3, copy.getOccurrenceCount(Warning.PARALLEL_FINS));
+
+		Iterator<Warning> iterator = copy.iterator();
+		iterator.next();
+		iterator.remove();
+		assertEquals(1, copy.size());
+		assertFalse(copy.contains(Warning.SUPERSONIC));
+		assertEquals(4.0, copy.getLastOccurrenceTime(Warning.PARALLEL_FINS), 0);
+		assertTrue(copy.record(Warning.SUPERSONIC, 5.0));
+		assertEquals(2, set.size());
+	}
+}
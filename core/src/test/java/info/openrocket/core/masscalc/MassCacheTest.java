@@ -1,15 +1,24 @@
 package info.openrocket.core.masscalc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import info.openrocket.core.rocketcomponent.AxialStage;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.TestRockets;
 import info.openrocket.core.util.BaseTestCase;
 
 public class MassCacheTest extends BaseTestCase {
 
+	// tolerance for compared double test results
+	private static final double EPSILON = 0.00000001;
+
 	@Test
 	public void testCMCache() {
 		Rocket rocket = TestRockets.makeFalcon9Heavy();
@@ -19,6 +28,64 @@ public class MassCacheTest extends BaseTestCase {
 		// .... soooo we have this waste of space. -DMW
 		assertTrue(true);
 	}
+
+	@Test
+	public void testStructureCacheMatchesCalculation() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		MassCalculator calculator = new MassCalculator();
+
+		// Check every combination of active stages, including the nested boosters
+		int stageCount = rocket.getStageCount();
+		for (int mask = 0; mask < (1 << stageCount); mask++) {
+			for (AxialStage stage : rocket.getStageList()) {
+				config._setStageActive(stage.getStageNumber(), (mask & (1 << stage.getStageNumber())) != 0, false);
+			}
+			assertStructureEquals(MassCalculator.calculateStructure(config), calculator.getStructure(config));
+			assertSame(calculator.getStructure(config), calculator.getStructure(config));
+		}
+	}
+
+	@Test
+	public void testStructureCacheInvalidation() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		config.setAllStages();
+		MassCalculator calculator = new MassCalculator();
+
+		RigidBody before = calculator.getStructure(config);
+		assertSame(before, calculator.getStructure(config));
+
+		// A change not affecting the mass keeps the cached data
+		RocketComponent component = rocket.getChild(0).getChild(0);
+		component.setName("Renamed component");
+		assertSame(before, calculator.getStructure(config));
+
+		// A mass change discards the cached data
+		component.setOverrideMass(component.getMass() + 0.5);
+		component.setMassOverridden(true);
+		RigidBody after = calculator.getStructure(config);
+		assertNotSame(before, after);
+		assertEquals(before.getMass() + 0.5, after.getMass(), 0.001);
+		assertStructureEquals(MassCalculator.calculateStructure(config), after);
+
+		// A copy of the rocket has its own cache
+		Rocket copy = rocket.copyWithOriginalID();
+		RigidBody copied = calculator.getStructure(copy.getSelectedConfiguration());
+		assertNotSame(after, copied);
+		assertStructureEquals(after, copied);
+	}
+
+	private static void assertStructureEquals(RigidBody expected, RigidBody actual) {
+		assertEquals(expected.getMass(), actual.getMass(), EPSILON, "Structure mass is incorrect");
+		assertEquals(expected.getCM().x, actual.getCM().x, EPSILON, "Structure CM.x is incorrect");
+		assertEquals(expected.getCM().y, actual.getCM().y, EPSILON, "Structure CM.y is incorrect");
+		assertEquals(expected.getCM().z, actual.getCM().z, EPSILON, "Structure CM.z is incorrect");
+		assertEquals(expected.getRotationalInertia(), actual.getRotationalInertia(), EPSILON,
+				"Structure rotational MOI is incorrect");
+		assertEquals(expected.getLongitudinalInertia(), actual.getLongitudinalInertia(), EPSILON,
+				"Structure longitudinal MOI is incorrect");
+	}
 	//
 	// FlightConfiguration config = rocket.getEmptyConfiguration();
 	// MassCalculator mc = new MassCalculator();
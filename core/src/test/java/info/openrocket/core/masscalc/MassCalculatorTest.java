@@ -1,6 +1,7 @@
 package info.openrocket.core.masscalc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 
@@ -35,6 +36,7 @@ import info.openrocket.core.simulation.SimulationConditions;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.TestRockets;
+import info.openrocket.core.util.Transformation;
 import info.openrocket.core.util.BaseTestCase;
 
 public class MassCalculatorTest extends BaseTestCase {
@@ -1419,4 +1421,30 @@ public class MassCalculatorTest extends BaseTestCase {
 		assertEquals(0.02, tubeFinSet.getMass(), EPSILON);
 	}
 
+	@Test
+	public void testMotorInstancesMatchTreeWalk() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		for (double time : new double[] { Motor.PSEUDO_TIME_LAUNCH, 0.1, 0.5, 1.0, Motor.PSEUDO_TIME_BURNOUT }) {
+			MassCalculation walk = new MassCalculation(MassCalculation.Type.MOTOR, config, time, null, rocket,
+					Transformation.IDENTITY, null);
+			walk.calculateMotors();
+			RigidBody expected = walk.calculateMomentOfInertia();
+
+			MassCalculation table = new MassCalculation(MassCalculation.Type.MOTOR, config, time, null, rocket,
+					Transformation.IDENTITY, null);
+			table.calculateMotorInstances();
+			RigidBody actual = table.calculateMomentOfInertia();
+
+			assertTrue(expected.getMass() > 0);
+			assertEquals(expected.getMass(), actual.getMass(), EPSILON, "time " + time);
+			assertEquals(expected.getCM().x, actual.getCM().x, EPSILON, "time " + time);
+			assertEquals(expected.getCM().y, actual.getCM().y, EPSILON, "time " + time);
+			assertEquals(expected.getCM().z, actual.getCM().z, EPSILON, "time " + time);
+			assertEquals(expected.getIxx(), actual.getIxx(), EPSILON, "time " + time);
+			assertEquals(expected.getIyy(), actual.getIyy(), EPSILON, "time " + time);
+		}
+	}
+
 }
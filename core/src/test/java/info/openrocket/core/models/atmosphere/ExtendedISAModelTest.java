@@ -0,0 +1,117 @@
+package info.openrocket.core.models.atmosphere;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.models.atmosphere.InterpolatingAtmosphericModel.Interpolation;
+
+public class ExtendedISAModelTest {
+
+	@Test
+	public void testStandardValues() {
+		ExtendedISAModel model = new ExtendedISAModel();
+
+		AtmosphericConditions c = model.getConditions(0);
+		assertEquals(288.15, c.getTemperature(), 1e-9);
+		assertEquals(101325, c.getPressure(), 1e-6);
+
+		c = model.getConditions(11000);
+		assertEquals(216.65, c.getTemperature(), 0.01);
+		assertEquals(22632, c.getPressure(), 5);
+
+		// Below the ground and above the model the boundary values are returned
+		assertEquals(model.getConditions(0), model.getConditions(-100));
+		assertEquals(model.getConditions(90000), model.getConditions(100000));
+	}
+
+	@Test
+	public void testInterpolationAccuracy() {
+		ExtendedISAModel linear = new ExtendedISAModel();
+		ExtendedISAModel cubic = new ExtendedISAModel(0, ExtendedISAModel.STANDARD_TEMPERATURE,
+				ExtendedISAModel.STANDARD_PRESSURE, Interpolation.CUBIC);
+		assertEquals(Interpolation.LINEAR, linear.getInterpolation());
+		assertEquals(Interpolation.CUBIC, cubic.getInterpolation());
+
+		Random rnd = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			double altitude = rnd.nextDouble() * 30000;
+			AtmosphericConditions exact = linear.getExactConditions(altitude);
+			AtmosphericConditions l = linear.getConditions(altitude);
+			AtmosphericConditions c = cubic.getConditions(altitude);
+
+			assertEquals(exact.getTemperature(), l.getTemperature(), 1e-6, "altitude " + altitude);
+			assertEquals(exact.getTemperature(), c.getTemperature(), 0.01, "altitude " + altitude);
+			if (Math.abs(altitude - 11000) > 100 && Math.abs(altitude - 20000) > 100) {
+				assertEquals(exact.getPressure(), l.getPressure(), exact.getPressure() * 1e-5, "altitude " + altitude);
+				assertEquals(exact.getPressure(), c.getPressure(), exact.getPressure() * 2e-6, "altitude " + altitude);
+			} else {
+				// The exact model has a small pressure step at the layer boundaries
+				assertEquals(exact.getPressure(), l.getPressure(), exact.getPressure() * 2e-4, "altitude " + altitude);
+				assertEquals(exact.getPressure(), c.getPressure(), exact.getPressure() * 2e-4, "altitude " + altitude);
+			}
+		}
+	}
+
+	@Test
+	public void testConditionsIntoExistingObject() {
+		ExtendedISAModel model = new ExtendedISAModel(1000, 280, 90000);
+		AtmosphericConditions result = new AtmosphericConditions();
+
+		for (double altitude = -500; altitude < 90000; altitude += 777) {
+			AtmosphericConditions expected = model.getConditions(altitude);
+			assertSame(result, model.getConditions(altitude, result));
+			assertEquals(expected.getTemperature(), result.getTemperature(), 0);
+			assertEquals(expected.getPressure(), result.getPressure(), 0);
+		}
+	}
+
+	@Test
+	public void testModIDChangesWithConditions() {
+		AtmosphericConditions c = new AtmosphericConditions();
+		Object id = c.getModID();
+		assertSame(id, c.getModID());
+		assertSame(id, c.clone().getModID());
+
+		c.setConditions(250, 50000);
+		assertTrue(id != c.getModID());
+	}
+
+	@Test
+	public void testConcurrentFirstUse() throws Exception {
+		for (int round = 0; round < 10; round++) {
+			ExtendedISAModel model = new ExtendedISAModel();
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			try {
+				List<Future<Double>> results = new ArrayList<>();
+				for (int i = 0; i < 4; i++) {
+					Callable<Double> task = () -> {
+						AtmosphericConditions c = new AtmosphericConditions();
+						double sum = 0;
+						for (double altitude = 0; altitude < 20000; altitude += 10) {
+							sum += model.getConditions(altitude, c).getPressure();
+						}
+						return sum;
+					};
+					results.add(executor.submit(task));
+				}
+				double expected = results.get(0).get();
+				for (Future<Double> f : results) {
+					assertEquals(expected, f.get(), 0);
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+}
@@ -151,7 +151,16 @@ class MultiLevelWindModelTest {
 	@Test
 	@DisplayName("Get ModID")
 	void testGetModID() {
-		assertEquals(ModID.ZERO, model.getModID());
+		ModID id = model.getModID();
+		assertNotEquals(ModID.ZERO, id);
+		assertSame(id, model.getModID());
+
+		model.addWindLevel(100, 5, Math.PI / 4, 1);
+		ModID added = model.getModID();
+		assertNotSame(id, added);
+
+		model.getLevels().get(0).setSpeed(6);
+		assertNotSame(added, model.getModID());
 	}
 
 	@Test
@@ -0,0 +1,134 @@
+package info.openrocket.core.models.wind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.Coordinate;
+
+public class WindGridTest {
+	private static final double EPSILON = 1e-9;
+	private static final double DELTA_T = PinkNoiseWindModel.DELTA_T;
+
+	private MultiLevelPinkNoiseWindModel model;
+
+	@BeforeEach
+	public void setUp() {
+		model = new MultiLevelPinkNoiseWindModel();
+		model.addWindLevel(1000, 10, Math.PI / 2, 3);
+		model.addWindLevel(0, 4, Math.PI / 4, 1);
+		model.addWindLevel(3000, 20, Math.PI, 5);
+	}
+
+	/**
+	 * The model accumulates its sample times, so the tolerance is relative to the velocity.
+	 */
+	private static void assertVelocityEquals(Coordinate expected, Coordinate actual, String message) {
+		double tolerance = EPSILON * (1 + expected.length());
+		assertEquals(expected.x, actual.x, tolerance, message);
+		assertEquals(expected.y, actual.y, tolerance, message);
+		assertEquals(0, actual.z, 0, message);
+	}
+
+	@Test
+	public void testGridMatchesModel() {
+		WindGrid grid = model.getWindGrid();
+		double[] altitudes = { -100, 0, 500, 999.9, 1000, 1700, 3000, 10000 };
+
+		for (double altitude : altitudes) {
+			// A copy of the model starts the pink noise sequences from the beginning
+			MultiLevelPinkNoiseWindModel reference = model.clone();
+			for (double time = 0; time < 2000 * DELTA_T; time += 0.37 * DELTA_T) {
+				assertVelocityEquals(reference.getWindVelocity(time, altitude), grid.getWindVelocity(time, altitude),
+						"time " + time + " altitude " + altitude);
+			}
+		}
+		assertTrue(grid.getSampleCount() >= 2000);
+	}
+
+	@Test
+	public void testNonMonotonicQueries() {
+		WindGrid grid = model.getWindGrid();
+		Random rnd = new Random(17);
+		for (int i = 0; i < 200; i++) {
+			double time = rnd.nextDouble() * 500 * DELTA_T;
+			double altitude = rnd.nextDouble() * 4000 - 500;
+			Coordinate expected = model.clone().getWindVelocity(time, altitude);
+			assertVelocityEquals(expected, grid.getWindVelocity(time, altitude), "time " + time + " altitude " + altitude);
+		}
+	}
+
+	@Test
+	public void testEmptyAndInvalid() {
+		WindGrid grid = new MultiLevelPinkNoiseWindModel().getWindGrid();
+		assertSame(Coordinate.ZERO, grid.getWindVelocity(10, 100));
+		assertThrows(IllegalArgumentException.class, () -> model.getWindGrid().getWindVelocity(-1, 0));
+	}
+
+	@Test
+	public void testGridIsShared() {
+		WindGrid grid = model.getWindGrid();
+		assertSame(grid, model.getWindGrid());
+		assertSame(grid, grid.clone());
+		assertSame(model.getModID(), grid.getModID());
+
+		// Copies share the grid until they are changed
+		MultiLevelPinkNoiseWindModel copy = model.clone();
+		assertSame(grid, copy.getWindGrid());
+		copy.getLevels().get(1).setSpeed(12);
+		WindGrid changed = copy.getWindGrid();
+		assertNotSame(grid, changed);
+		assertNotSame(grid.getModID(), copy.getModID());
+		assertSame(changed, copy.getWindGrid());
+		assertVelocityEquals(copy.clone().getWindVelocity(3.3, 1000), changed.getWindVelocity(3.3, 1000), "changed level");
+
+		model.addWindLevel(5000, 30, 0, 5);
+		assertNotSame(grid, model.getWindGrid());
+	}
+
+	@Test
+	public void testConcurrentQueries() throws Exception {
+		WindGrid grid = model.getWindGrid();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Double>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				final double end = (i + 1) * 3000 * DELTA_T;
+				Callable<Double> task = () -> {
+					double sum = 0;
+					for (double time = 0; time < 3000 * DELTA_T; time += DELTA_T / 3) {
+						sum += grid.getWindVelocity(time, 1500).x;
+					}
+					// Extend the grid concurrently
+					grid.getWindVelocity(end, 1500);
+					return sum;
+				};
+				results.add(executor.submit(task));
+			}
+			double expected = results.get(0).get();
+			for (Future<Double> f : results) {
+				assertEquals(expected, f.get(), 0);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		MultiLevelPinkNoiseWindModel reference = model.clone();
+		for (double time = 0; time < 12000 * DELTA_T; time += 7 * DELTA_T) {
+			assertVelocityEquals(reference.getWindVelocity(time, 1500), grid.getWindVelocity(time, 1500), "time " + time);
+		}
+	}
+}
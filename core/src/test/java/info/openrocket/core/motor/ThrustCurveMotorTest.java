@@ -3,9 +3,12 @@ package info.openrocket.core.motor;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.MathUtil;
 import info.openrocket.core.util.Pair;
 
 public class ThrustCurveMotorTest {
@@ -188,6 +191,82 @@ public class ThrustCurveMotorTest {
 		assertEquals(3.0, motorX6.getThrust(3), 0.001);
 	}
 
+	/**
+	 * Reference implementation of the average thrust by integrating over the thrust
+	 * curve from its start.
+	 */
+	private static double referenceAverageThrust(ThrustCurveMotor mtr, double startTime, double endTime) {
+		double[] time = mtr.getTimePoints();
+		double[] thrust = mtr.getThrustPoints();
+		double impulse = 0;
+		for (int i = 0; i < time.length - 1; i++) {
+			double t0 = Math.max(time[i], startTime);
+			double t1 = Math.min(time[i + 1], endTime);
+			if (t1 <= t0) {
+				continue;
+			}
+			double f0 = MathUtil.map(t0, time[i], time[i + 1], thrust[i], thrust[i + 1]);
+			double f1 = MathUtil.map(t1, time[i], time[i + 1], thrust[i], thrust[i + 1]);
+			impulse += (t1 - t0) * (f0 + f1) / 2;
+		}
+		return impulse / (endTime - startTime);
+	}
+
+	@Test
+	public void testAverageThrust() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+
+		// Within a single time slice
+		assertEquals((1.220 + 1.593) / 2, mtr.getAverageThrust(0.060, 0.070), 0.001);
+
+		// Over the whole curve and past burnout
+		assertEquals(mtr.getTotalImpulseEstimate() / 0.73, mtr.getAverageThrust(0, 0.73), 1e-9);
+		assertEquals(mtr.getTotalImpulseEstimate() / 1.0, mtr.getAverageThrust(0, 1.0), 1e-9);
+		assertEquals(0.0, mtr.getAverageThrust(0.8, 0.9), 0);
+
+		// Random intervals in random order, so that the segment cursor is exercised
+		Random rnd = new Random(1234);
+		for (int i = 0; i < 1000; i++) {
+			double start = rnd.nextDouble() * 0.8;
+			double end = start + 0.0001 + rnd.nextDouble() * (rnd.nextBoolean() ? 0.01 : 0.3);
+			assertEquals(referenceAverageThrust(mtr, start, end), mtr.getAverageThrust(start, end), 1e-9,
+					"Average thrust from " + start + " to " + end);
+		}
+
+		// Successive steps as taken by a simulation
+		for (double t = 0; t < 1.0; t += 0.01) {
+			assertEquals(referenceAverageThrust(mtr, t, t + 0.01), mtr.getAverageThrust(t, t + 0.01), 1e-9);
+		}
+	}
+
+	@Test
+	public void testImpulse() {
+		final ThrustCurveMotor mtr = motorX6;
+
+		assertEquals(0.0, mtr.getImpulse(-1), 0);
+		assertEquals(0.0, mtr.getImpulse(0), 0);
+		assertEquals(0.25, mtr.getImpulse(0.5), 1e-12);
+		assertEquals(1.0, mtr.getImpulse(1), 1e-12);
+		assertEquals(1.0 + 2.25, mtr.getImpulse(2), 1e-12);
+		assertEquals(mtr.getTotalImpulseEstimate(), mtr.getImpulse(4), 1e-12);
+		assertEquals(mtr.getTotalImpulseEstimate(), mtr.getImpulse(100), 1e-12);
+	}
+
+	@Test
+	public void testMassAndCGMatchCoordinateInterpolation() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+
+		Random rnd = new Random(4321);
+		for (int i = 0; i < 1000; i++) {
+			double t = rnd.nextDouble() * 0.8;
+			Coordinate expected = mtr.interpolateCenterOfMassAtIndex(mtr.getPseudoIndex(t));
+			assertEquals(expected.weight, mtr.getTotalMass(t), 0);
+			assertEquals(expected.x, mtr.getCMx(t), 0);
+		}
+		assertEquals(mtr.getBurnoutMass(), mtr.getTotalMass(Double.MAX_VALUE), 0);
+		assertEquals(mtr.getLaunchCGx(), mtr.getCMx(0), 0);
+	}
+
 	@Test
 	public void testSimplifyDesignation() {
 		assertEquals(ThrustCurveMotor.Builder.simplifyDesignation("J115"), "J115");
@@ -0,0 +1,133 @@
+package info.openrocket.core.optimization.general;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationCancelledException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.CancellationToken;
+import info.openrocket.core.util.TestRockets;
+
+public class EvaluationServiceTest extends BaseTestCase {
+
+	@Test
+	public void testComputeValues() throws Exception {
+		final AtomicInteger evaluations = new AtomicInteger();
+		EvaluationService service = new EvaluationService(2, 1);
+		try {
+			service.setFunction(point -> {
+				evaluations.incrementAndGet();
+				return point.get(0) + 2 * point.get(1);
+			});
+
+			Point[] points = new Point[10];
+			for (int i = 0; i < points.length; i++) {
+				points[i] = new Point(i / 10.0, 0.5);
+				service.compute(points[i]);
+			}
+			// Computing a point again does not evaluate it again
+			service.compute(points[0]);
+
+			for (int i = 0; i < points.length; i++) {
+				service.waitFor(points[i]);
+				assertEquals(i / 10.0 + 1.0, service.getValue(points[i]), 0);
+			}
+			assertEquals(10, evaluations.get());
+
+			// Points outside of the range are not evaluated
+			Point outside = new Point(1.5, 0.5);
+			service.compute(outside);
+			service.waitFor(outside);
+			assertEquals(Double.MAX_VALUE, service.getValue(outside), 0);
+			assertEquals(10, evaluations.get());
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void testAbortRunningEvaluation() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch stopped = new CountDownLatch(1);
+		EvaluationService service = new EvaluationService(1);
+		try {
+			service.setFunction(point -> {
+				started.countDown();
+				CancellationToken token = CancellationToken.current();
+				while (!token.isCancelled()) {
+					Thread.onSpinWait();
+				}
+				stopped.countDown();
+				return 0;
+			});
+
+			Point point = new Point(0.5);
+			Point queued = new Point(0.25);
+			service.compute(point);
+			service.compute(queued);
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+			assertEquals(1, service.getQueuedCount());
+
+			service.abortAll();
+			assertTrue(stopped.await(10, TimeUnit.SECONDS));
+			assertEquals(0, service.getQueuedCount());
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void testAbortCancelsSimulation() throws Exception {
+		final Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch finished = new CountDownLatch(1);
+		final AtomicReference<Exception> exception = new AtomicReference<>();
+
+		EvaluationService service = new EvaluationService(1);
+		try {
+			service.setFunction(point -> {
+				try {
+					simulation.simulate(new AbstractSimulationListener() {
+						@Override
+						public void postStep(SimulationStatus status) {
+							// Stall the simulation until the evaluation is aborted
+							started.countDown();
+							CancellationToken token = CancellationToken.current();
+							while (!token.isCancelled()) {
+								Thread.onSpinWait();
+							}
+						}
+					});
+				} catch (Exception e) {
+					exception.set(e);
+				}
+				finished.countDown();
+				return 0;
+			});
+
+			Point point = new Point(0.5);
+			service.compute(point);
+			assertTrue(started.await(10, TimeUnit.SECONDS));
+			assertFalse(service.abort(point));
+
+			assertTrue(finished.await(10, TimeUnit.SECONDS));
+			assertTrue(exception.get() instanceof SimulationCancelledException, "Exception was " + exception.get());
+		} finally {
+			service.shutdown();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.optimization.general.EvaluationService;
+import info.openrocket.core.optimization.general.Function;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.BaseTestCase;
+
+public class PopulationOptimizerTest extends BaseTestCase {
+
+	/** Rotated, badly scaled quadratic with its minimum at (0.3, 0.7, 0.55) */
+	private static final Function QUADRATIC = point -> {
+		double x = point.get(0) - 0.3;
+		double y = point.get(1) - 0.7;
+		double z = point.get(2) - 0.55;
+		double u = x + y;
+		double v = x - y;
+		return u * u + 100 * v * v + 10 * z * z;
+	};
+
+	/** Function with its minimum on the boundary of the unit cube, at (1, 0) */
+	private static final Function BOUNDARY = point -> (point.get(0) - 1.5) * (point.get(0) - 1.5) +
+			(point.get(1) + 0.2) * (point.get(1) + 0.2);
+
+	private static void optimize(PopulationOptimizer optimizer, Function function, Point initial,
+			final int maxGenerations) throws Exception {
+		EvaluationService service = new EvaluationService(4);
+		try {
+			service.setFunction(function);
+			optimizer.setFunctionCache(service);
+			final AtomicInteger generations = new AtomicInteger();
+			optimizer.optimize(initial, new OptimizationController() {
+				@Override
+				public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue,
+						double stepSize) {
+					assertTrue(newValue <= oldValue);
+					return generations.incrementAndGet() < maxGenerations && stepSize > 1e-6;
+				}
+			});
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void testCMAESQuadratic() throws Exception {
+		CMAESOptimizer optimizer = new CMAESOptimizer(null, 12, 0.3, 1234);
+		optimize(optimizer, QUADRATIC, new Point(0.9, 0.1, 0.1), 300);
+
+		Point optimum = optimizer.getOptimumPoint();
+		assertEquals(0.3, optimum.get(0), 1e-3);
+		assertEquals(0.7, optimum.get(1), 1e-3);
+		assertEquals(0.55, optimum.get(2), 1e-3);
+		assertEquals(0, optimizer.getOptimumValue(), 1e-5);
+		assertTrue(optimizer.getSigma() < 0.01);
+	}
+
+	@Test
+	public void testDifferentialEvolutionQuadratic() throws Exception {
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer(null, 20,
+				DifferentialEvolutionOptimizer.DEFAULT_DIFFERENTIAL_WEIGHT,
+				DifferentialEvolutionOptimizer.DEFAULT_CROSSOVER_PROBABILITY, 1234);
+		optimize(optimizer, QUADRATIC, new Point(0.9, 0.1, 0.1), 500);
+
+		Point optimum = optimizer.getOptimumPoint();
+		assertEquals(0.3, optimum.get(0), 1e-3);
+		assertEquals(0.7, optimum.get(1), 1e-3);
+		assertEquals(0.55, optimum.get(2), 1e-3);
+		assertEquals(20, optimizer.getPopulation().size());
+	}
+
+	@Test
+	public void testBoundedOptimum() throws Exception {
+		CMAESOptimizer cmaes = new CMAESOptimizer(null, 8, 0.3, 42);
+		optimize(cmaes, BOUNDARY, new Point(0.5, 0.5), 200);
+		assertEquals(1.0, cmaes.getOptimumPoint().get(0), 1e-6);
+		assertEquals(0.0, cmaes.getOptimumPoint().get(1), 1e-6);
+
+		DifferentialEvolutionOptimizer de = new DifferentialEvolutionOptimizer(null, 10, 0.8, 0.9, 42);
+		optimize(de, BOUNDARY, new Point(0.5, 0.5), 200);
+		assertEquals(1.0, de.getOptimumPoint().get(0), 1e-3);
+		assertEquals(0.0, de.getOptimumPoint().get(1), 1e-3);
+		for (Point p : de.getPopulation()) {
+			for (int i = 0; i < p.dim(); i++) {
+				assertTrue(p.get(i) >= 0 && p.get(i) <= 1, "Point outside bounds: " + p);
+			}
+		}
+	}
+
+	@Test
+	public void testGlobalMinimumOneDimension() throws Exception {
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer(null, 0,
+				DifferentialEvolutionOptimizer.DEFAULT_DIFFERENTIAL_WEIGHT,
+				DifferentialEvolutionOptimizer.DEFAULT_CROSSOVER_PROBABILITY, 7);
+		// Start next to the local minimum near x = 0.79
+		optimize(optimizer, point -> Math.cos(12 * point.get(0)) + point.get(0), new Point(0.8), 200);
+		assertEquals((Math.PI - Math.asin(1.0 / 12)) / 12, optimizer.getOptimumPoint().get(0), 1e-4);
+	}
+}
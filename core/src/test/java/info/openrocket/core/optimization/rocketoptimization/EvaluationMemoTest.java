@@ -0,0 +1,120 @@
+package info.openrocket.core.optimization.rocketoptimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.domains.IdentitySimulationDomain;
+import info.openrocket.core.optimization.rocketoptimization.goals.MaximizationGoal;
+import info.openrocket.core.optimization.rocketoptimization.goals.MinimizationGoal;
+import info.openrocket.core.optimization.rocketoptimization.modifiers.GenericComponentModifier;
+import info.openrocket.core.rocketcomponent.NoseCone;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class EvaluationMemoTest extends BaseTestCase {
+
+	@Test
+	public void testWarmStartFromFile() throws Exception {
+		File file = File.createTempFile("memo", ".txt");
+		file.deleteOnExit();
+
+		try (EvaluationMemo memo = new EvaluationMemo(file)) {
+			memo.put(EvaluationMemo.getKey("f", new double[] { 0.1, 0.2 }), 1.5);
+			memo.put(EvaluationMemo.getKey("f", new double[] { 0.3, 0.2 }), Double.NaN);
+		}
+
+		// A line truncated by a crash is ignored
+		try (FileWriter writer = new FileWriter(file, true)) {
+			writer.write("f:0x1.0p0");
+		}
+
+		try (EvaluationMemo memo = new EvaluationMemo(file)) {
+			assertEquals(2, memo.size());
+			assertEquals(1.5, memo.get(EvaluationMemo.getKey("f", new double[] { 0.1, 0.2 })), 0);
+			assertEquals(Double.NaN, memo.get(EvaluationMemo.getKey("f", new double[] { 0.3, 0.2 })), 0);
+			assertNull(memo.get(EvaluationMemo.getKey("g", new double[] { 0.1, 0.2 })));
+		}
+	}
+
+	@Test
+	public void testMemoReusedWithDifferentGoal() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		GenericComponentModifier modifier = new GenericComponentModifier("Nose length", "Nose length",
+				nose, UnitGroup.UNITS_LENGTH, 1.0, NoseCone.class, nose.getID(), "Length");
+		modifier.setMinValue(0.05);
+		modifier.setMaxValue(0.15);
+
+		final AtomicInteger simulations = new AtomicInteger();
+		OptimizableParameter parameter = new CountingParameter(simulations);
+		EvaluationMemo memo = new EvaluationMemo();
+
+		RocketOptimizationFunction maximize = new RocketOptimizationFunction(simulation, parameter,
+				new MaximizationGoal(), new IdentitySimulationDomain(), modifier);
+		maximize.setEvaluationMemo(memo);
+		double max = maximize.evaluate(new Point(0.5));
+		assertEquals(1, simulations.get());
+		assertEquals(1, memo.size());
+
+		RocketOptimizationFunction minimize = new RocketOptimizationFunction(simulation, parameter,
+				new MinimizationGoal(), new IdentitySimulationDomain(), modifier);
+		minimize.setEvaluationMemo(memo);
+		double min = minimize.evaluate(new Point(0.5));
+		assertEquals(1, simulations.get());
+		assertEquals(-max, min, 0);
+
+		minimize.evaluate(new Point(0.25));
+		assertEquals(2, simulations.get());
+		assertEquals(2, memo.size());
+
+		// Changing the design changes the key
+		rocket.getChild(0).getChild(1).setName("Renamed body tube");
+		RocketOptimizationFunction changed = new RocketOptimizationFunction(simulation, parameter,
+				new MinimizationGoal(), new IdentitySimulationDomain(), modifier);
+		changed.setEvaluationMemo(memo);
+		changed.evaluate(new Point(0.5));
+		assertEquals(3, simulations.get());
+	}
+
+	/**
+	 * A parameter counting its evaluations, returning the length of the rocket.
+	 */
+	private static class CountingParameter implements OptimizableParameter {
+		private final AtomicInteger count;
+
+		CountingParameter(AtomicInteger count) {
+			this.count = count;
+		}
+
+		@Override
+		public String getName() {
+			return "Counting parameter";
+		}
+
+		@Override
+		public double computeValue(Simulation simulation) throws OptimizationException, InterruptedException {
+			count.incrementAndGet();
+			return simulation.getRocket().getLength();
+		}
+
+		@Override
+		public UnitGroup getUnitGroup() {
+			return UnitGroup.UNITS_LENGTH;
+		}
+	}
+}
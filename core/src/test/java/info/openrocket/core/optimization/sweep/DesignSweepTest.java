@@ -0,0 +1,177 @@
+package info.openrocket.core.optimization.sweep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.SimulationModifier;
+import info.openrocket.core.optimization.rocketoptimization.modifiers.GenericComponentModifier;
+import info.openrocket.core.optimization.rocketoptimization.parameters.MaximumAltitudeParameter;
+import info.openrocket.core.optimization.rocketoptimization.parameters.MaximumVelocityParameter;
+import info.openrocket.core.optimization.rocketoptimization.parameters.StabilityParameter;
+import info.openrocket.core.rocketcomponent.NoseCone;
+import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class DesignSweepTest extends BaseTestCase {
+
+	private static final double EPSILON = 1e-9;
+
+	private static Simulation makeSimulation() {
+		Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		return simulation;
+	}
+
+	private static SimulationModifier makeNoseLengthModifier(Simulation simulation) {
+		NoseCone nose = (NoseCone) simulation.getRocket().getChild(0).getChild(0);
+		SimulationModifier modifier = new GenericComponentModifier("Nose cone length", "Nose cone length", nose,
+				UnitGroup.UNITS_LENGTH, 1.0, NoseCone.class, nose.getID(), "Length");
+		modifier.setMinValue(0.05);
+		modifier.setMaxValue(0.15);
+		return modifier;
+	}
+
+	@Test
+	public void testGridSampling() {
+		List<Point> points = new GridSampling(3, 2).getPoints(2);
+		assertEquals(6, points.size());
+		assertEquals(new Point(0.0, 0.0), points.get(0));
+		assertEquals(new Point(0.0, 1.0), points.get(1));
+		assertEquals(new Point(0.5, 0.0), points.get(2));
+		assertEquals(new Point(1.0, 1.0), points.get(5));
+
+		points = new GridSampling(1).getPoints(3);
+		assertEquals(1, points.size());
+		assertEquals(new Point(0.5, 0.5, 0.5), points.get(0));
+
+		assertEquals(27, new GridSampling(3).getPoints(3).size());
+		assertThrows(IllegalArgumentException.class, () -> new GridSampling(3, 2).getPoints(3));
+		assertThrows(IllegalArgumentException.class, () -> new GridSampling(0));
+	}
+
+	@Test
+	public void testLatinHypercubeSampling() {
+		final int samples = 10;
+		List<Point> points = new LatinHypercubeSampling(samples, 42).getPoints(3);
+		assertEquals(samples, points.size());
+
+		// Each stratum of each dimension is sampled exactly once
+		for (int i = 0; i < 3; i++) {
+			List<Integer> strata = new ArrayList<>();
+			for (Point p : points) {
+				assertTrue(p.get(i) >= 0 && p.get(i) < 1);
+				strata.add((int) (p.get(i) * samples));
+			}
+			Collections.sort(strata);
+			for (int n = 0; n < samples; n++) {
+				assertEquals(n, (int) strata.get(n));
+			}
+		}
+
+		assertEquals(points, new LatinHypercubeSampling(samples, 42).getPoints(3));
+	}
+
+	@Test
+	public void testSweep() throws Exception {
+		Simulation simulation = makeSimulation();
+		double originalLength = ((NoseCone) simulation.getRocket().getChild(0).getChild(0)).getLength();
+
+		final List<DesignSweepResult> results = Collections.synchronizedList(new ArrayList<>());
+		DesignSweep sweep = new DesignSweep(simulation, 2);
+		try {
+			SimulationModifier modifier = makeNoseLengthModifier(simulation);
+			sweep.addModifier(modifier);
+			sweep.addParameter(new MaximumAltitudeParameter());
+			sweep.addParameter(new MaximumVelocityParameter());
+			sweep.addParameter(new StabilityParameter(true));
+			sweep.setSampling(new GridSampling(3));
+			sweep.addDesignSweepListener(results::add);
+
+			StringWriter table = new StringWriter();
+			DesignSweepTableWriter tableWriter = new DesignSweepTableWriter(table, sweep, ",");
+			sweep.addDesignSweepListener(tableWriter);
+
+			assertEquals(3, sweep.run());
+			tableWriter.close();
+
+			assertEquals(3, results.size());
+			results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+			double[] expectedLengths = { 0.05, 0.10, 0.15 };
+			for (int i = 0; i < 3; i++) {
+				DesignSweepResult result = results.get(i);
+				assertTrue(result.isSuccessful(), "Point failed: " + result.getThrowable());
+				assertEquals(expectedLengths[i], result.getModifierValue(0), EPSILON);
+
+				// The values must equal evaluating the point by itself
+				Simulation copy = simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+				modifier.modify(copy, result.getPoint().get(0));
+				assertEquals(new MaximumAltitudeParameter().computeValue(copy), result.getParameterValue(0), EPSILON);
+				assertEquals(new MaximumVelocityParameter().computeValue(copy), result.getParameterValue(1), EPSILON);
+				assertEquals(new StabilityParameter(true).computeValue(copy), result.getParameterValue(2), EPSILON);
+			}
+
+			// A longer nose cone is heavier and moves the CG forward
+			assertTrue(results.get(2).getParameterValue(2) > results.get(0).getParameterValue(2));
+
+			String[] lines = table.toString().split(System.lineSeparator());
+			assertEquals(4, lines.length);
+			assertTrue(lines[0].startsWith("Index,Nose cone length (m),"));
+			for (int i = 1; i < lines.length; i++) {
+				assertTrue(lines[i].startsWith((i - 1) + ","));
+				assertEquals(5, lines[i].split(",").length);
+			}
+
+			// The source simulation is not touched
+			assertEquals(originalLength, ((NoseCone) simulation.getRocket().getChild(0).getChild(0)).getLength(), 0);
+			assertNull(simulation.getSimulatedData());
+		} finally {
+			sweep.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		Simulation simulation = makeSimulation();
+		final DesignSweep sweep = new DesignSweep(simulation, 1);
+		try {
+			sweep.addModifier(makeNoseLengthModifier(simulation));
+			sweep.addParameter(new MaximumAltitudeParameter());
+			sweep.setSampling(new GridSampling(4));
+			final List<DesignSweepResult> results = Collections.synchronizedList(new ArrayList<>());
+			sweep.addDesignSweepListener(result -> {
+				results.add(result);
+				sweep.cancel();
+			});
+
+			assertEquals(1, sweep.run());
+			assertTrue(sweep.isCancelled());
+			assertEquals(4, results.size());
+			int cancelled = 0;
+			for (DesignSweepResult result : results) {
+				if (result.isCancelled()) {
+					assertFalse(result.isSuccessful());
+					assertTrue(Double.isNaN(result.getParameterValue(0)));
+					cancelled++;
+				}
+			}
+			assertEquals(3, cancelled);
+		} finally {
+			sweep.shutdown();
+		}
+	}
+}
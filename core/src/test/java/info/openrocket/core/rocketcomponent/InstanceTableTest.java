@@ -0,0 +1,131 @@
+package info.openrocket.core.rocketcomponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.TestRockets;
+
+public class InstanceTableTest extends BaseTestCase {
+	private static final double EPSILON = 1e-12;
+
+	private static void assertTableMatchesMap(FlightConfiguration config) {
+		final InstanceMap map = config.getActiveInstances();
+		final InstanceTable table = config.getInstanceTable();
+
+		assertEquals(map.size(), table.getComponentCount());
+		int size = 0;
+		for (Map.Entry<RocketComponent, ? extends List<InstanceContext>> entry : map.entrySet()) {
+			final RocketComponent component = entry.getKey();
+			final List<InstanceContext> contexts = entry.getValue();
+			final int index = table.indexOf(component);
+			assertTrue(index >= 0, component.getName());
+			assertSame(component, table.getComponent(index));
+			assertEquals(contexts.size(), table.getInstanceCount(index), component.getName());
+
+			for (int i = 0; i < contexts.size(); i++) {
+				final InstanceContext context = contexts.get(i);
+				final int row = table.getFirstInstance(index) + i;
+				assertEquals(index, table.getComponentIndex(row));
+				assertSame(component, table.getInstanceComponent(row));
+				assertEquals(context.instanceNumber, table.getInstanceNumber(row));
+				assertSame(context.transform, table.getTransform(row));
+
+				final Coordinate location = context.getLocation();
+				assertEquals(location, table.getLocation(row));
+				assertEquals(location.x, table.getX(row), 0);
+				assertEquals(location.y, table.getY(row), 0);
+				assertEquals(location.z, table.getZ(row), 0);
+
+				final Coordinate c = new Coordinate(0.1, -0.2, 0.3, 2);
+				final Coordinate expected = context.transform.transform(c);
+				final Coordinate actual = table.transform(row, c);
+				assertEquals(expected.x, actual.x, EPSILON);
+				assertEquals(expected.y, actual.y, EPSILON);
+				assertEquals(expected.z, actual.z, EPSILON);
+				assertEquals(expected.weight, actual.weight, 0);
+			}
+			size += contexts.size();
+		}
+		assertEquals(size, table.size());
+
+		// Parents are listed before their children
+		for (int index = 0; index < table.getComponentCount(); index++) {
+			final RocketComponent parent = table.getComponent(index).getParent();
+			if (parent != null && table.contains(parent)) {
+				assertTrue(table.indexOf(parent) < index, table.getComponent(index).getName());
+			}
+		}
+	}
+
+	private static ParallelStage findBoosters(Rocket rocket) {
+		for (RocketComponent c : rocket) {
+			if (c instanceof ParallelStage) {
+				return (ParallelStage) c;
+			}
+		}
+		throw new IllegalStateException("No boosters");
+	}
+
+	@Test
+	public void testSingleStageRocket() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		assertTableMatchesMap(config);
+
+		InstanceTable table = config.getInstanceTable();
+		assertEquals(0, table.indexOf(rocket));
+		assertEquals(-1, table.indexOf(new BodyTube()));
+		assertEquals(0, table.getInstanceCount(new BodyTube()));
+	}
+
+	@Test
+	public void testBoostersAndPods() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		assertTableMatchesMap(config);
+
+		// The boosters and their children have multiple instances with rotated frames
+		ParallelStage boosters = findBoosters(rocket);
+		InstanceTable table = config.getInstanceTable();
+		int index = table.indexOf(boosters);
+		assertEquals(boosters.getInstanceCount(), table.getInstanceCount(index));
+		for (int row = table.getFirstInstance(index); row < table.getEndInstance(index); row++) {
+			assertSame(table.getTransform(row), config.getActiveInstances().get(boosters)
+					.get(table.getInstanceNumber(row)).transform);
+		}
+	}
+
+	@Test
+	public void testTableIsRebuiltOnChange() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		InstanceTable table = config.getInstanceTable();
+		assertSame(table, config.getInstanceTable());
+
+		ParallelStage boosters = findBoosters(rocket);
+		config.setOnlyStage(0);
+		InstanceTable changed = config.getInstanceTable();
+		assertNotSame(table, changed);
+		assertNotSame(table.getModID(), changed.getModID());
+		assertFalse(changed.contains(boosters));
+		assertTableMatchesMap(config);
+
+		// The previous table is unaffected
+		assertTrue(table.contains(boosters));
+
+		config.setAllStages();
+		boosters.setInstanceCount(4);
+		assertEquals(4, config.getInstanceTable().getInstanceCount(boosters));
+		assertTableMatchesMap(config);
+	}
+}
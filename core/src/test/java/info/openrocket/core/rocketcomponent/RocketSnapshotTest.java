@@ -0,0 +1,155 @@
+package info.openrocket.core.rocketcomponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class RocketSnapshotTest extends BaseTestCase {
+
+	private static void assertSameStructure(Rocket expected, Rocket actual) {
+		Iterator<RocketComponent> e = expected.iterator(true);
+		Iterator<RocketComponent> a = actual.iterator(true);
+		while (e.hasNext()) {
+			assertTrue(a.hasNext());
+			RocketComponent ec = e.next();
+			RocketComponent ac = a.next();
+			assertNotSame(ec, ac);
+			assertEquals(ec.getID(), ac.getID());
+			assertSame(ec.getClass(), ac.getClass());
+			assertEquals(ec.getName(), ac.getName());
+			assertEquals(ec.getLength(), ac.getLength(), 0);
+			assertEquals(ec.getPosition(), ac.getPosition());
+			assertEquals(ec.getChildCount(), ac.getChildCount());
+		}
+		assertFalse(a.hasNext());
+	}
+
+	@Test
+	public void testRestoredRocketMatches() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		config._setStageActive(0, false);
+
+		RocketSnapshot snapshot = RocketSnapshot.create(rocket, null);
+		Rocket restored = snapshot.toRocket();
+
+		assertSameStructure(rocket, restored);
+		assertSame(rocket.getModID(), snapshot.getModID());
+		FlightConfiguration restoredConfig = restored.getFlightConfiguration(config.getId());
+		for (int stage = 0; stage < rocket.getStageCount(); stage++) {
+			assertEquals(config.isStageActive(stage), restoredConfig.isStageActive(stage), "stage " + stage);
+		}
+		assertFalse(restoredConfig.isStageActive(0));
+	}
+
+	@Test
+	public void testStateCopyHasNoChildren() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		final int stageCount = rocket.getStageCount();
+		final int childCount = rocket.getChildCount();
+		RocketComponent stage = rocket.getChild(0);
+		final int stageChildCount = stage.getChildCount();
+
+		Rocket state = rocket.copyStateWithOriginalID();
+		RocketComponent stageState = stage.copyStateWithOriginalID();
+
+		assertEquals(0, state.getChildCount());
+		assertEquals(0, state.getStageCount());
+		assertEquals(rocket.getID(), state.getID());
+		assertEquals(rocket.getFlightConfigurationCount(), state.getFlightConfigurationCount());
+		assertEquals(0, stageState.getChildCount());
+		assertEquals(stage.getID(), stageState.getID());
+
+		// The source is left intact
+		assertEquals(childCount, rocket.getChildCount());
+		assertEquals(stageCount, rocket.getStageCount());
+		assertEquals(stageChildCount, stage.getChildCount());
+		assertSame(rocket, stage.getParent());
+	}
+
+	@Test
+	public void testUnchangedComponentsAreShared() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		final double oldLength = nose.getLength();
+
+		RocketSnapshot first = RocketSnapshot.create(rocket, null);
+		assertEquals(first.getEstimatedSize(), first.getEstimatedAddedSize());
+
+		nose.setLength(oldLength * 2);
+		RocketSnapshot second = RocketSnapshot.create(rocket, first);
+		assertEquals(first.getEstimatedSize(), second.getEstimatedSize());
+		assertTrue(second.getEstimatedAddedSize() < first.getEstimatedSize() / 2,
+				"added " + second.getEstimatedAddedSize() + " of " + second.getEstimatedSize());
+
+		// The snapshots are independent of each other and of the rocket
+		nose.setLength(oldLength * 3);
+		Rocket restoredFirst = first.toRocket();
+		Rocket restoredSecond = second.toRocket();
+		assertEquals(oldLength, restoredFirst.getChild(0).getChild(0).getLength(), 0);
+		assertEquals(oldLength * 2, restoredSecond.getChild(0).getChild(0).getLength(), 0);
+		assertEquals(restoredFirst.getChildCount(), restoredSecond.getChildCount());
+	}
+
+	@Test
+	public void testSilentParameterChangesAreCopied() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		Parachute parachute = findParachute(rocket);
+		RocketSnapshot first = RocketSnapshot.create(rocket, null);
+
+		// Deployment configurations are modified without firing an event
+		parachute.getDeploymentConfigurations().getDefault().setDeployAltitude(123);
+		RocketSnapshot second = RocketSnapshot.create(rocket, first);
+
+		assertEquals(123, findParachute(second.toRocket()).getDeploymentConfigurations().getDefault().getDeployAltitude(), 0);
+		assertNotEquals(123, findParachute(first.toRocket()).getDeploymentConfigurations().getDefault().getDeployAltitude(), 0);
+	}
+
+	private static Parachute findParachute(Rocket rocket) {
+		for (RocketComponent c : rocket) {
+			if (c instanceof Parachute) {
+				return (Parachute) c;
+			}
+		}
+		throw new AssertionError("no parachute");
+	}
+
+	@Test
+	public void testDocumentUndoRedo() {
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(TestRockets.makeFalcon9Heavy());
+		Rocket rocket = document.getRocket();
+		final double oldLength = rocket.getChild(0).getChild(0).getLength();
+
+		document.addUndoPosition("Modify nose");
+		((NoseCone) rocket.getChild(0).getChild(0)).setLength(oldLength * 2);
+		document.addUndoPosition("Remove stage");
+		rocket.removeChild(rocket.getChild(0));
+		assertEquals(1, rocket.getChildCount());
+
+		document.undo();
+		assertEquals(2, rocket.getChildCount());
+		assertEquals(oldLength * 2, rocket.getChild(0).getChild(0).getLength(), 0);
+		document.undo();
+		assertEquals(oldLength, rocket.getChild(0).getChild(0).getLength(), 0);
+		assertFalse(document.isUndoAvailable());
+
+		document.redo();
+		assertEquals(oldLength * 2, rocket.getChild(0).getChild(0).getLength(), 0);
+		document.redo();
+		assertEquals(1, rocket.getChildCount());
+		assertFalse(document.isRedoAvailable());
+		assertTrue(document.isUndoAvailable());
+	}
+}
@@ -1,7 +1,12 @@
 package info.openrocket.core.rocketcomponent;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
 
 import info.openrocket.core.util.ArrayList;
 import org.junit.jupiter.api.Test;
@@ -12,12 +17,66 @@ import info.openrocket.core.rocketcomponent.position.RadiusMethod;
 import info.openrocket.core.util.BoundingBox;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.MathUtil;
+import info.openrocket.core.util.ModID;
 import info.openrocket.core.util.TestRockets;
 import info.openrocket.core.util.BaseTestCase;
 
 public class RocketTest extends BaseTestCase {
 	final double EPSILON = MathUtil.EPSILON;
 
+	@Test
+	public void testBatchedChangeEvents() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		List<ComponentChangeEvent> events = new ArrayList<>();
+		rocket.addComponentChangeListener(events::add);
+		BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		ModID massModID = rocket.getMassModID();
+
+		rocket.beginBatch();
+		try {
+			body.setName("Renamed body");
+			for (int i = 1; i <= 50; i++) {
+				body.setLength(0.1 + i * 0.001);
+			}
+			rocket.beginBatch();
+			try {
+				nose.setName("Renamed nose");
+			} finally {
+				rocket.commitBatch();
+			}
+			assertTrue(rocket.isBatching());
+			assertTrue(events.isEmpty(), "events were dispatched during the batch");
+			// Modification IDs are still updated during a batch
+			assertNotEquals(massModID, rocket.getMassModID());
+		} finally {
+			rocket.commitBatch();
+		}
+
+		assertFalse(rocket.isBatching());
+		assertEquals(1, events.size());
+		ComponentChangeEvent e = events.get(0);
+		assertSame(nose, e.getSource());
+		assertTrue(e.isMassChange());
+		assertTrue(e.isAerodynamicChange());
+		assertTrue(e.isFunctionalChange(), "combined event should be a functional change");
+
+		// A batch of only non-functional changes stays non-functional
+		events.clear();
+		rocket.beginBatch();
+		body.setName("Body");
+		nose.setName("Nose");
+		rocket.commitBatch();
+		assertEquals(1, events.size());
+		assertTrue(events.get(0).isNonFunctionalChange());
+
+		// An empty batch fires no event
+		events.clear();
+		rocket.beginBatch();
+		rocket.commitBatch();
+		assertTrue(events.isEmpty());
+	}
+
 	@Test
 	public void testCopyIndependence() {
 		Rocket rkt1 = TestRockets.makeEstesAlphaIII();
@@ -0,0 +1,63 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class DormandPrinceSimulationStepperTest extends BaseTestCase {
+
+	private static Simulation makeSimulation(FlightStepperType type, double timeStep) {
+		Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(timeStep);
+		simulation.getOptions().setFlightStepperType(type);
+		return simulation;
+	}
+
+	@Test
+	public void testApogeeMatchesReference() throws Exception {
+		Simulation reference = makeSimulation(FlightStepperType.RK4, 0.002);
+		reference.simulate();
+		Simulation rk4 = makeSimulation(FlightStepperType.RK4, 0.05);
+		rk4.simulate();
+		Simulation adaptive = makeSimulation(FlightStepperType.DORMAND_PRINCE, 0.05);
+		adaptive.simulate();
+
+		FlightData referenceData = reference.getSimulatedData();
+		FlightData adaptiveData = adaptive.getSimulatedData();
+		assertEquals(referenceData.getMaxAltitude(), adaptiveData.getMaxAltitude(),
+				0.01 * referenceData.getMaxAltitude());
+		assertEquals(referenceData.getTimeToApogee(), adaptiveData.getTimeToApogee(),
+				0.01 * referenceData.getTimeToApogee());
+
+		int rk4Steps = rk4.getSimulatedData().getBranch(0).getLength();
+		int adaptiveSteps = adaptiveData.getBranch(0).getLength();
+		assertTrue(adaptiveSteps < rk4Steps, "Adaptive steps " + adaptiveSteps + ", RK4 steps " + rk4Steps);
+	}
+
+	@Test
+	public void testTolerancesPassedToConditions() {
+		SimulationOptions options = new SimulationOptions();
+		options.setFlightStepperType(FlightStepperType.DORMAND_PRINCE);
+		options.setAbsoluteTolerance(1e-2);
+		options.setRelativeTolerance(1e-5);
+
+		SimulationConditions conditions = options.toSimulationConditions();
+		assertEquals(FlightStepperType.DORMAND_PRINCE, conditions.getFlightStepperType());
+		assertEquals(1e-2, conditions.getAbsoluteTolerance(), 0);
+		assertEquals(1e-5, conditions.getRelativeTolerance(), 0);
+	}
+
+	@Test
+	public void testFromString() {
+		for (FlightStepperType type : FlightStepperType.values()) {
+			assertEquals(type, FlightStepperType.fromString(type.toStringValue()));
+		}
+	}
+}
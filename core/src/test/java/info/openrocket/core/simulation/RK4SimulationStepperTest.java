@@ -0,0 +1,158 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.Quaternion;
+import info.openrocket.core.util.TestRockets;
+
+public class RK4SimulationStepperTest extends BaseTestCase {
+
+	private static RK4SimulationStepper.RK4Parameters params(double seed) {
+		RK4SimulationStepper.RK4Parameters k = new RK4SimulationStepper.RK4Parameters();
+		k.set(new Coordinate(seed, 2 * seed, -seed), new Coordinate(3 * seed, seed + 1, 0.5),
+				new Coordinate(-0.1 * seed, 0.2, seed), new Coordinate(0.01, -0.02 * seed, 0.03));
+		return k;
+	}
+
+	@Test
+	public void testCombineMatchesCoordinateArithmetic() {
+		RK4SimulationStepper.RK4Parameters k1 = params(1.1), k2 = params(-2.3), k3 = params(0.7), k4 = params(5.9);
+		RK4SimulationStepper.RK4Parameters out = new RK4SimulationStepper.RK4Parameters();
+		double h = 0.0137;
+		RK4SimulationStepper.RK4Parameters.combine(k1, k2, k3, k4, h, out);
+
+		Coordinate a1 = new Coordinate(k1.ax, k1.ay, k1.az), a2 = new Coordinate(k2.ax, k2.ay, k2.az);
+		Coordinate a3 = new Coordinate(k3.ax, k3.ay, k3.az), a4 = new Coordinate(k4.ax, k4.ay, k4.az);
+		Coordinate expected = a2.add(a3).multiply(2).add(a1).add(a4).multiply(h / 6);
+		assertEquals(expected.x, out.ax, 0);
+		assertEquals(expected.y, out.ay, 0);
+		assertEquals(expected.z, out.az, 0);
+
+		Coordinate rv1 = new Coordinate(k1.rvx, k1.rvy, k1.rvz), rv2 = new Coordinate(k2.rvx, k2.rvy, k2.rvz);
+		Coordinate rv3 = new Coordinate(k3.rvx, k3.rvy, k3.rvz), rv4 = new Coordinate(k4.rvx, k4.rvy, k4.rvz);
+		expected = rv2.add(rv3).multiply(2).add(rv1).add(rv4).multiply(h / 6);
+		assertEquals(expected.x, out.rvx, 0);
+		assertEquals(expected.y, out.rvy, 0);
+		assertEquals(expected.z, out.rvz, 0);
+	}
+
+	@Test
+	public void testMultiplyLeftRotation() {
+		Quaternion q = new Quaternion(0.9, 0.1, -0.3, 0.2).normalize();
+		Coordinate r = new Coordinate(0.02, -0.05, 0.11);
+		Quaternion expected = q.multiplyLeft(Quaternion.rotation(r));
+		Quaternion actual = q.multiplyLeftRotation(r.x, r.y, r.z);
+		assertEquals(expected.getW(), actual.getW(), 0);
+		assertEquals(expected.getX(), actual.getX(), 0);
+		assertEquals(expected.getY(), actual.getY(), 0);
+		assertEquals(expected.getZ(), actual.getZ(), 0);
+
+		// Tiny rotations are treated as identity
+		actual = q.multiplyLeftRotation(0, 0, 1e-9);
+		assertEquals(q.getW(), actual.getW(), 0);
+		assertEquals(q.getZ(), actual.getZ(), 0);
+	}
+
+	@Test
+	public void testRotateComponents() {
+		Quaternion q = new Quaternion(0.9, 0.1, -0.3, 0.2).normalize();
+		Coordinate expected = q.rotate(new Coordinate(1.5, -0.25, 9.81));
+		Coordinate actual = q.rotate(1.5, -0.25, 9.81);
+		assertEquals(expected.x, actual.x, 0);
+		assertEquals(expected.y, actual.y, 0);
+		assertEquals(expected.z, actual.z, 0);
+		assertEquals(0, actual.weight, 0);
+	}
+
+	/**
+	 * Supplies constant aerodynamic forces and mass data, so that the allocation
+	 * measurement covers the stepper itself rather than the aerodynamic and mass models.
+	 */
+	private static class FixedModelListener extends AbstractSimulationListener {
+		private final AerodynamicForces forces = new AerodynamicForces().zero();
+		private final RigidBody mass = new RigidBody(new Coordinate(0.15, 0, 0, 0.02), 2e-6, 1e-3);
+
+		FixedModelListener() {
+			forces.setCDaxial(0.45);
+			forces.setCN(0.01);
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return true;
+		}
+
+		@Override
+		public AerodynamicForces preAerodynamicCalculation(SimulationStatus status) {
+			return forces;
+		}
+
+		@Override
+		public RigidBody preMassCalculation(SimulationStatus status) {
+			return mass;
+		}
+	}
+
+	@Test
+	public void testStepAllocation() throws Exception {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+				"Thread allocation measurement not available");
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) bean;
+		Assumptions.assumeTrue(mx.isThreadAllocatedMemorySupported(), "Thread allocation measurement not supported");
+		mx.setThreadAllocatedMemoryEnabled(true);
+
+		Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.01);
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		conditions.getSimulationListenerList().add(new FixedModelListener());
+
+		long threadId = Thread.currentThread().getId();
+		long allocated = Long.MAX_VALUE;
+		int steps = 300;
+		// Fly repeatedly and use the smallest measurement, so that the early runs warm up the
+		// code.  The data points of the measured steps fit in the first chunk of the data
+		// columns, which is allocated by the unmeasured steps.
+		for (int run = 0; run < 20; run++) {
+			SimulationStatus status = new SimulationStatus(simulation.getActiveConfiguration().clone(), conditions);
+			status.setFlightDataBranch(new FlightDataBranch("test", FlightDataType.TYPE_TIME));
+			status.setRocketVelocity(new Coordinate(0.5, 0, 50));
+			status.setLaunchRodCleared(true);
+
+			RK4SimulationStepper stepper = new RK4SimulationStepper();
+			status = stepper.initialize(status);
+			for (int i = 0; i < steps; i++) {
+				stepper.step(status, 0.01);
+			}
+			long before = mx.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < steps; i++) {
+				stepper.step(status, 0.01);
+			}
+			allocated = Math.min(allocated, mx.getThreadAllocatedBytes(threadId) - before);
+		}
+
+		// The remaining allocation is mostly the immutable state values stored in the status, the
+		// acceleration data and flight conditions passed to listeners, and the extreme values of the
+		// data branch.  It measured about 4.8 kB per step, or 6.2 kB without escape analysis.  Cloning
+		// the status for every sub-step, building the intermediate acceleration and mass vectors,
+		// creating a modification ID for every stored value and formatting the trace message took
+		// 8.7 kB per step, or 11.1 kB without escape analysis.
+		long perStep = allocated / steps;
+		assertTrue(perStep < 7500, "RK4 step allocated " + perStep + " bytes");
+	}
+}
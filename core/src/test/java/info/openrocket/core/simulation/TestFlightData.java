@@ -2,11 +2,14 @@ package info.openrocket.core.simulation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
 import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.util.ModID;
 
 /**
  * Tests the FlightData object.
@@ -288,4 +291,28 @@ public class TestFlightData {
 		assertEquals(6.2, data.getGroundHitVelocity(), 0.000);
 	}
 
+	/**
+	 * Tests that the modification ID of a branch changes with every modification.
+	 */
+	@Test
+	public void testBranchModID() {
+		FlightDataBranch branch = new FlightDataBranch("ModID", FlightDataType.TYPE_TIME);
+		ModID initial = branch.getModID();
+
+		branch.addPoint();
+		ModID added = branch.getModID();
+		assertNotSame(initial, added);
+		assertSame(added, branch.getModID());
+
+		branch.setValue(FlightDataType.TYPE_TIME, 1.0);
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, 2.0);
+		ModID set = branch.getModID();
+		assertNotSame(added, set);
+		assertSame(set, branch.getModID());
+		assertSame(set, branch.clone().getModID());
+
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, 3.0);
+		assertNotSame(set, branch.getModID());
+	}
+
 }
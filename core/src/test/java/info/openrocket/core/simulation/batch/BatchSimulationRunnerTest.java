@@ -0,0 +1,127 @@
+package info.openrocket.core.simulation.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class BatchSimulationRunnerTest extends BaseTestCase {
+
+	private static Simulation makeSimulation() {
+		Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		return simulation;
+	}
+
+	@Test
+	public void testRunMatchesSequentialSimulation() throws Exception {
+		Simulation source = makeSimulation();
+		Simulation reference = source.duplicateSimulation(source.getRocket().copyWithOriginalID());
+		reference.simulate();
+		double referenceApogee = reference.getSimulatedData().getMaxAltitude();
+
+		BatchSimulationRunner runner = new BatchSimulationRunner(4);
+		try {
+			for (int i = 0; i < 8; i++) {
+				runner.addSimulation(source);
+			}
+			List<BatchSimulationResult> results = runner.run();
+
+			assertEquals(8, results.size());
+			for (int i = 0; i < results.size(); i++) {
+				BatchSimulationResult result = results.get(i);
+				assertEquals(i, result.getIndex());
+				assertTrue(result.isSuccessful(), "Simulation failed: " + result.getThrowable());
+				assertSame(source, result.getSourceSimulation());
+				assertNotSame(source, result.getSimulation());
+				assertNotNull(result.getFlightData());
+				assertEquals(referenceApogee, result.getFlightData().getMaxAltitude(), 0.001);
+			}
+
+			// The source simulation must not be touched by the batch
+			assertNull(source.getSimulatedData());
+		} finally {
+			runner.shutdown();
+		}
+	}
+
+	@Test
+	public void testListenerProgress() throws Exception {
+		final AtomicInteger started = new AtomicInteger();
+		final AtomicInteger steps = new AtomicInteger();
+		final AtomicInteger finished = new AtomicInteger();
+
+		BatchSimulationRunner runner = new BatchSimulationRunner(2);
+		try {
+			runner.addSimulation(makeSimulation());
+			runner.addSimulation(makeSimulation());
+			runner.addBatchSimulationListener(new BatchSimulationListener() {
+				@Override
+				public void simulationStarted(int index, Simulation simulation) {
+					started.incrementAndGet();
+				}
+
+				@Override
+				public void simulationProgress(int index, SimulationStatus status) {
+					steps.incrementAndGet();
+				}
+
+				@Override
+				public void simulationFinished(BatchSimulationResult result) {
+					finished.incrementAndGet();
+				}
+			});
+			runner.run();
+
+			assertEquals(2, started.get());
+			assertEquals(2, finished.get());
+			assertTrue(steps.get() > 0);
+		} finally {
+			runner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final BatchSimulationRunner runner = new BatchSimulationRunner(1);
+		try {
+			for (int i = 0; i < 3; i++) {
+				runner.addSimulation(makeSimulation());
+			}
+			runner.addBatchSimulationListener(new BatchSimulationListener() {
+				@Override
+				public void simulationProgress(int index, SimulationStatus status) {
+					if (status.getFlightDataBranch().getLast(FlightDataType.TYPE_TIME) > 0.5) {
+						runner.cancel();
+					}
+				}
+			});
+			List<BatchSimulationResult> results = runner.run();
+
+			assertTrue(runner.isCancelled());
+			assertEquals(3, results.size());
+			for (BatchSimulationResult result : results) {
+				assertFalse(result.isSuccessful());
+				assertTrue(result.isCancelled());
+			}
+		} finally {
+			runner.shutdown();
+		}
+	}
+}
@@ -1,11 +1,35 @@
 package info.openrocket.core.simulation.customexpression;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.ArrayUtils;
 import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.LinearInterpolator;
+import info.openrocket.core.util.TestRockets;
 
 import org.junit.jupiter.api.Test;
 
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.ExpressionBuilder;
+import de.congrace.exp4j.Variable;
+
 public class TestExpressions extends BaseTestCase {
 
 	@Test
@@ -21,4 +45,205 @@ public class TestExpressions extends BaseTestCase {
 		// System.out.println(exp.getExpressionString());
 
 	}
+
+	@Test
+	public void testCompiledCalculation() throws Exception {
+		String[] expressions = { "a+b*c", "-a^2", "(a-b)/c%3", "sqrt(abs(a))*cos(b)-2^(-c)", "c", "3.5",
+				"a*a*a+b", "floor(c*10)/exp(b)" };
+		Random rnd = new Random(42);
+		for (String expression : expressions) {
+			ExpressionBuilder builder = new ExpressionBuilder(expression);
+			for (String name : new String[] { "a", "b", "c" }) {
+				builder.withVariable(new Variable(name));
+			}
+			builder.withCustomFunctions(Functions.getInstance().getAllFunction());
+			Calculable calc = builder.build();
+			assertTrue(calc.isScalar(), expression);
+
+			String[] names = calc.getReferencedVariables();
+			for (int i = 0; i < 20; i++) {
+				double[] values = new double[names.length];
+				Variable[] variables = new Variable[names.length];
+				for (int j = 0; j < names.length; j++) {
+					values[j] = rnd.nextGaussian() * 10;
+					variables[j] = new Variable(names[j], values[j]);
+					calc.setVariable(variables[j]);
+				}
+				double expected = calc.calculate().getDoubleValue();
+				assertEquals(expected, calc.calculate(values), 0, expression);
+				assertEquals(expected, calc.calculate(variables).getDoubleValue(), 0, expression);
+			}
+		}
+
+		// Array functions are not scalar
+		ExpressionBuilder builder = new ExpressionBuilder("mean(a)").withVariable(new Variable("a"));
+		builder.withCustomFunctions(Functions.getInstance().getAllFunction());
+		Calculable calc = builder.build();
+		assertFalse(calc.isScalar());
+		assertEquals(2, calc.calculate(new Variable[] { new Variable("a", new double[] { 1, 2, 3 }) })
+				.getDoubleValue(), 1e-12);
+	}
+
+	@Test
+	public void testSimulationWithCustomExpressions() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2").addToDocument();
+		new CustomExpression(doc, "Initial mass", "Mi", "kg", "m[0]").addToDocument();
+		new CustomExpression(doc, "Average mass", "Mavg", "kg", "mean(m[0:t])").addToDocument();
+		assertEquals(3, doc.getCustomExpressions().size());
+
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		sim.simulate(new CustomExpressionSimulationListener(doc.getCustomExpressions()));
+
+		FlightDataBranch branch = sim.getSimulatedData().getBranch(0);
+		double[] mass = branch.getDoubleArray(FlightDataType.TYPE_MASS);
+		double[] velocity = branch.getDoubleArray(FlightDataType.TYPE_VELOCITY_TOTAL);
+		double[] energy = branch.getDoubleArray(doc.getCustomExpressions().get(0).getType());
+		double[] initialMass = branch.getDoubleArray(doc.getCustomExpressions().get(1).getType());
+		double[] averageMass = branch.getDoubleArray(doc.getCustomExpressions().get(2).getType());
+
+		int evaluated = 0;
+		for (int i = 0; i < mass.length; i++) {
+			if (Double.isNaN(energy[i])) {
+				continue;
+			}
+			evaluated++;
+			assertEquals(0.5 * mass[i] * velocity[i] * velocity[i], energy[i], 1e-9 * Math.max(1, energy[i]));
+			assertEquals(mass[0], initialMass[i], 1e-9);
+			assertTrue(averageMass[i] <= mass[0] + 1e-9 && averageMass[i] >= mass[i] - 1e-9, "index " + i);
+		}
+		assertTrue(evaluated > 10);
+	}
+
+	@Test
+	public void testRangeExpressionsMatchInterpolation() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		String[] expressions = { "mean(m[0:t])", "max(Vt[0:t])", "min(h[0:t])", "trapz(Vt[0:t])",
+				"stdev(Vt[t-0.5:t])", "mean(h[t-0.33:t-0.1])", "h[t-0.33]" };
+		for (int i = 0; i < expressions.length; i++) {
+			new CustomExpression(doc, "Expression " + i, "E" + (char) ('a' + i), "", expressions[i]).addToDocument();
+		}
+		assertEquals(expressions.length, doc.getCustomExpressions().size());
+
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		// The listener is copied for the simulation
+		AtomicInteger evaluated = new AtomicInteger();
+		sim.simulate(new RangeCheckListener(doc.getCustomExpressions(), 0.05, evaluated));
+		assertTrue(evaluated.get() > 10);
+	}
+
+	@Test
+	public void testRangeSamplesAreKeptPerBranch() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		RangeExpression range = new RangeExpression(doc, "0", "t", "m");
+
+		// The status of another simulation evaluating the same expression
+		AtomicReference<SimulationStatus> other = new AtomicReference<>();
+		createSimulation(rocket).simulate(new AbstractSimulationListener() {
+			@Override
+			public void postStep(SimulationStatus status) {
+				other.set(status);
+			}
+		});
+
+		AtomicInteger reused = new AtomicInteger();
+		createSimulation(rocket).simulate(new AbstractSimulationListener() {
+			private RangeSamples previous = null;
+
+			@Override
+			public void postStep(SimulationStatus status) {
+				FlightDataBranch branch = status.getFlightDataBranch();
+				range.evaluate(status);
+				RangeSamples samples = range.getSamples(branch);
+				if (samples == previous) {
+					reused.incrementAndGet();
+				}
+				previous = samples;
+
+				// Evaluating the other branch does not discard the samples of this one
+				range.evaluate(other.get());
+				assertSame(samples, range.getSamples(branch));
+			}
+		});
+		assertTrue(reused.get() > 10);
+	}
+
+	private static Simulation createSimulation(Rocket rocket) {
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		return sim;
+	}
+
+	/**
+	 * Compares the values of the expressions with those computed by interpolating all the
+	 * data in the branch at the time of evaluation.
+	 */
+	private static class RangeCheckListener extends CustomExpressionSimulationListener {
+		private final List<CustomExpression> expressions;
+		private final double step;
+		private final AtomicInteger evaluated;
+
+		RangeCheckListener(List<CustomExpression> expressions, double step, AtomicInteger evaluated) {
+			super(expressions);
+			this.expressions = expressions;
+			this.step = step;
+			this.evaluated = evaluated;
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+			super.postStep(status);
+			FlightDataBranch branch = status.getFlightDataBranch();
+			double[] time = branch.getDoubleArray(FlightDataType.TYPE_TIME);
+			if (time.length < 2) {
+				return;
+			}
+			evaluated.incrementAndGet();
+			double t = time[time.length - 1];
+			double[] m = range(branch, time, FlightDataType.TYPE_MASS, 0, t);
+			double[] vt = range(branch, time, FlightDataType.TYPE_VELOCITY_TOTAL, 0, t);
+			double[] h = range(branch, time, FlightDataType.TYPE_ALTITUDE, 0, t);
+			double[] window = range(branch, time, FlightDataType.TYPE_ALTITUDE, Math.max(t - 0.33, 0), t - 0.1);
+			LinearInterpolator interp = new LinearInterpolator(time, branch.getDoubleArray(FlightDataType.TYPE_ALTITUDE));
+
+			assertEquals(ArrayUtils.mean(m), getValue(branch, 0), 0, "at " + t);
+			assertEquals(ArrayUtils.max(vt), getValue(branch, 1), 0, "at " + t);
+			assertEquals(ArrayUtils.min(h), getValue(branch, 2), 0, "at " + t);
+			assertEquals(ArrayUtils.trapz(vt, step), getValue(branch, 3), 0, "at " + t);
+			assertEquals(ArrayUtils.stdev(range(branch, time, FlightDataType.TYPE_VELOCITY_TOTAL, Math.max(t - 0.5, 0), t)),
+					getValue(branch, 4), 0, "at " + t);
+			if (window.length > 0) {
+				assertEquals(ArrayUtils.mean(window), getValue(branch, 5), 0, "at " + t);
+			}
+			assertEquals(interp.getValue(t - 0.33), getValue(branch, 6), 0, "at " + t);
+		}
+
+		private double getValue(FlightDataBranch branch, int expression) {
+			return branch.getLast(expressions.get(expression).getType());
+		}
+
+		private double[] range(FlightDataBranch branch, double[] time, FlightDataType type, double start, double end) {
+			if (end < start) {
+				return new double[0];
+			}
+			LinearInterpolator interp = new LinearInterpolator(time, branch.getDoubleArray(type));
+			double[] t = ArrayUtils.range(start, end, step);
+			double[] y = new double[t.length];
+			for (int i = 0; i < t.length; i++) {
+				y[i] = interp.getValue(t[i]);
+			}
+			return y;
+		}
+	}
 }
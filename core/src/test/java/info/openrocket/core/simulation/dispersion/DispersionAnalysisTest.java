@@ -0,0 +1,143 @@
+package info.openrocket.core.simulation.dispersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class DispersionAnalysisTest extends BaseTestCase {
+
+	private static Simulation makeSimulation() {
+		Simulation simulation = new Simulation(TestRockets.makeEstesAlphaIII());
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().getAverageWindModel().setAverage(0);
+		return simulation;
+	}
+
+	private static double simulateApogee(Simulation source) throws Exception {
+		Simulation reference = source.duplicateSimulation(source.getRocket().copyWithOriginalID());
+		reference.simulate();
+		return reference.getSimulatedData().getMaxAltitude();
+	}
+
+	@Test
+	public void testNoDispersion() throws Exception {
+		Simulation simulation = makeSimulation();
+		double apogee = simulateApogee(simulation);
+
+		DispersionAnalysis analysis = new DispersionAnalysis(simulation, 4);
+		try {
+			analysis.setFlightCount(8);
+			DispersionStatistics stats = analysis.run();
+
+			assertEquals(8, stats.getFlightCount());
+			assertEquals(0, stats.getFailedCount());
+			assertEquals(apogee, stats.getApogeeMean(), 0.01);
+			assertEquals(0, stats.getApogeeStandardDeviation(), 0.01);
+			assertEquals(apogee, stats.getApogeePercentile(0.5), 0.01);
+			assertNull(simulation.getSimulatedData());
+		} finally {
+			analysis.shutdown();
+		}
+	}
+
+	@Test
+	public void testImpulseScaling() throws Exception {
+		Simulation simulation = makeSimulation();
+		double apogee = simulateApogee(simulation);
+
+		DispersionAnalysis analysis = new DispersionAnalysis(simulation, 2);
+		try {
+			analysis.setFlightCount(2);
+			analysis.addDispersion(new ImpulseDispersion(Distribution.constant(1.2)));
+			DispersionStatistics stats = analysis.run();
+
+			assertEquals(2, stats.getFlightCount());
+			assertTrue(stats.getApogeeMean() > apogee + 1,
+					"Scaled impulse apogee " + stats.getApogeeMean() + " not above nominal " + apogee);
+		} finally {
+			analysis.shutdown();
+		}
+	}
+
+	@Test
+	public void testComponentDispersion() throws Exception {
+		Simulation simulation = makeSimulation();
+		double apogee = simulateApogee(simulation);
+		RocketComponent body = simulation.getRocket().getChild(0).getChild(1);
+
+		DispersionAnalysis analysis = new DispersionAnalysis(simulation, 2);
+		try {
+			analysis.setFlightCount(2);
+			analysis.addDispersion(new ComponentMassDispersion(body.getID(), Distribution.constant(2)));
+			analysis.addDispersion(new ComponentCDDispersion(body.getID(), Distribution.constant(2)));
+			DispersionStatistics stats = analysis.run();
+
+			assertEquals(2, stats.getFlightCount());
+			assertTrue(stats.getApogeeMean() < apogee - 1);
+			// The source rocket is not modified
+			assertTrue(!body.isMassOverridden() && !body.isCDOverridden());
+		} finally {
+			analysis.shutdown();
+		}
+	}
+
+	@Test
+	public void testReproducible() throws Exception {
+		Simulation simulation = makeSimulation();
+		final AtomicInteger finished = new AtomicInteger();
+
+		DispersionStatistics[] stats = new DispersionStatistics[2];
+		for (int i = 0; i < 2; i++) {
+			DispersionAnalysis analysis = new DispersionAnalysis(simulation, i + 1);
+			try {
+				analysis.setFlightCount(12);
+				analysis.setSeed(42);
+				analysis.addDispersion(new WindDispersion(Distribution.uniform(2, 6),
+						Distribution.normal(0, 0.3), Distribution.constant(1)));
+				analysis.addDispersion(new LaunchRodDispersion(Distribution.normal(0, Math.toRadians(2)),
+						Distribution.uniform(0, 2 * Math.PI)));
+				analysis.addDispersion(new ImpulseDispersion(Distribution.normal(1, 0.05)));
+				analysis.addDispersionListener((result, s) -> finished.incrementAndGet());
+				stats[i] = analysis.run();
+			} finally {
+				analysis.shutdown();
+			}
+		}
+
+		assertEquals(24, finished.get());
+		assertEquals(12, stats[0].getFlightCount());
+		assertTrue(stats[0].getApogeeStandardDeviation() > 0);
+		assertEquals(stats[0].getApogeeMean(), stats[1].getApogeeMean(), 1e-6);
+		assertEquals(stats[0].getLandingMeanX(), stats[1].getLandingMeanX(), 1e-6);
+		assertEquals(stats[0].getLandingMeanY(), stats[1].getLandingMeanY(), 1e-6);
+		assertNotNull(stats[0].getLandingEllipse(0.95));
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final DispersionAnalysis analysis = new DispersionAnalysis(makeSimulation(), 1);
+		try {
+			analysis.setFlightCount(5);
+			analysis.addDispersionListener((result, s) -> analysis.cancel());
+			DispersionStatistics stats = analysis.run();
+
+			assertTrue(analysis.isCancelled());
+			assertEquals(1, stats.getFlightCount());
+			assertEquals(4, stats.getFailedCount());
+		} finally {
+			analysis.shutdown();
+		}
+	}
+}
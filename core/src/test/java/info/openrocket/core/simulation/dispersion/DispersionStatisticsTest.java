@@ -0,0 +1,61 @@
+package info.openrocket.core.simulation.dispersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.BaseTestCase;
+
+public class DispersionStatisticsTest extends BaseTestCase {
+
+	private static DispersedFlightResult flight(double apogee, double x, double y) {
+		return new DispersedFlightResult(0, apogee, x, y, 10, null);
+	}
+
+	@Test
+	public void testMomentsAndPercentiles() {
+		DispersionStatistics stats = new DispersionStatistics();
+		assertNull(stats.getLandingEllipse(0.5));
+		assertEquals(Double.NaN, stats.getApogeePercentile(0.5));
+
+		for (int i = 1; i <= 5; i++) {
+			stats.add(flight(100 * i, i, 2 * i));
+		}
+		stats.add(new DispersedFlightResult(5, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+				new RuntimeException()));
+
+		assertEquals(5, stats.getFlightCount());
+		assertEquals(1, stats.getFailedCount());
+		assertEquals(300, stats.getApogeeMean(), 1e-9);
+		assertEquals(Math.sqrt(25000), stats.getApogeeStandardDeviation(), 1e-9);
+		assertEquals(100, stats.getApogeePercentile(0), 1e-9);
+		assertEquals(300, stats.getApogeePercentile(0.5), 1e-9);
+		assertEquals(450, stats.getApogeePercentile(0.875), 1e-9);
+		assertEquals(500, stats.getApogeePercentile(1), 1e-9);
+
+		assertEquals(3, stats.getLandingMeanX(), 1e-9);
+		assertEquals(6, stats.getLandingMeanY(), 1e-9);
+		assertEquals(2.5, stats.getLandingVarianceX(), 1e-9);
+		assertEquals(10, stats.getLandingVarianceY(), 1e-9);
+		assertEquals(5, stats.getLandingCovariance(), 1e-9);
+		assertEquals(3 * Math.sqrt(5), stats.getLandingDistancePercentile(0.5), 1e-9);
+	}
+
+	@Test
+	public void testEllipse() {
+		// Uncorrelated, larger variance along y
+		ConfidenceEllipse e = ConfidenceEllipse.fromCovariance(1, 2, 4, 9, 0, 1 - Math.exp(-0.5));
+		assertEquals(1, e.getCenterX(), 1e-9);
+		assertEquals(2, e.getCenterY(), 1e-9);
+		assertEquals(3, e.getSemiMajorAxis(), 1e-9);
+		assertEquals(2, e.getSemiMinorAxis(), 1e-9);
+		assertEquals(Math.PI / 2, e.getOrientation(), 1e-9);
+
+		// Perfectly correlated along the diagonal
+		e = ConfidenceEllipse.fromCovariance(0, 0, 1, 1, 1, 1 - Math.exp(-0.5));
+		assertEquals(Math.sqrt(2), e.getSemiMajorAxis(), 1e-9);
+		assertEquals(0, e.getSemiMinorAxis(), 1e-9);
+		assertEquals(Math.PI / 4, e.getOrientation(), 1e-9);
+	}
+}
@@ -0,0 +1,74 @@
+package info.openrocket.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleColumnTest {
+
+	@Test
+	public void testAppendAcrossChunks() {
+		DoubleColumn column = new DoubleColumn();
+		assertTrue(column.isEmpty());
+		assertEquals(Double.NaN, column.getLast());
+
+		int n = 5000;
+		for (int i = 0; i < n; i++) {
+			column.add(i);
+		}
+		column.setLast(-1);
+
+		assertEquals(n, column.size());
+		assertEquals(0, column.get(0), 0);
+		assertEquals(1024, column.get(1024), 0);
+		assertEquals(-1, column.getLast(), 0);
+
+		double[] array = column.toArray();
+		assertEquals(n, array.length);
+		for (int i = 0; i < n - 1; i++) {
+			assertEquals(i, array[i], 0);
+		}
+		assertEquals(-1, array[n - 1], 0);
+
+		assertThrows(IndexOutOfBoundsException.class, () -> column.get(n));
+		assertThrows(IndexOutOfBoundsException.class, () -> column.set(-1, 0));
+	}
+
+	@Test
+	public void testFillAndClone() {
+		DoubleColumn column = new DoubleColumn(3, Double.NaN);
+		assertEquals(3, column.size());
+		assertTrue(Double.isNaN(column.get(2)));
+
+		DoubleColumn copy = column.clone();
+		column.set(0, 1);
+		column.add(2);
+		assertEquals(3, copy.size());
+		assertTrue(Double.isNaN(copy.get(0)));
+
+		copy.add(5);
+		assertEquals(4, column.size());
+		assertEquals(2, column.get(3), 0);
+		assertEquals(5, copy.get(3), 0);
+	}
+
+	@Test
+	public void testListView() {
+		DoubleColumn column = new DoubleColumn();
+		column.add(1);
+		column.add(2);
+
+		List<Double> list = column.toList();
+		column.add(3);
+		column.set(0, 10);
+
+		assertEquals(List.of(1.0, 2.0), list);
+		assertThrows(UnsupportedOperationException.class, () -> list.add(4.0));
+		assertArrayEquals(new double[] { 10, 2, 3 }, column.toArray(), 0);
+	}
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 import java.util.Random;
 
 import org.junit.jupiter.api.Test;
@@ -280,6 +281,70 @@ public class TextUtilTest {
 		}
 	}
 
+	/**
+	 * The original Formatter based implementation of doubleToString.
+	 */
+	private static String formatDouble(double d, int decimalPlaces, boolean isExponentialNotation) {
+		if (MathUtil.equals(d, 0))
+			return "0";
+		if (Double.isNaN(d))
+			return "NaN";
+		if (Double.isInfinite(d))
+			return d < 0 ? "-Inf" : "Inf";
+
+		String format = "%." + decimalPlaces + "f";
+		if (isExponentialNotation && (Math.abs(d) < 0.001 || Math.abs(d) >= 10000)) {
+			format = "%." + decimalPlaces + "e";
+		}
+		String number = String.format(Locale.ENGLISH, format, d);
+
+		if (number.contains(".")) {
+			if (number.contains("e")) {
+				String[] split = number.split("e");
+				number = split[0].replaceAll("\\.?0*$", "") + "e" + split[1];
+			} else {
+				number = number.replaceAll("\\.?0*$", "");
+			}
+		}
+		if (number.contains("e+")) {
+			return number.replaceAll("e\\+?0*", "e");
+		} else if (number.contains("e-")) {
+			return number.replaceAll("e-?0*", "e-");
+		}
+		return number;
+	}
+
+	@Test
+	public void testMatchesFormatter() {
+		double[] values = { 1.2345, 1.2355, 0.0012345, 9.9995, 9999.9995, 9999.9996, 0.00099995, 0.00099994,
+				123456789, 1e-300, 4.9e-324, Double.MAX_VALUE, 0.5, 0.0005, 0.00049, 1e7, 1.5e-3, 2.5e-4 };
+		for (double v : values) {
+			for (int places = 0; places <= 5; places++) {
+				assertEquals(formatDouble(v, places, true), TextUtil.doubleToString(v, places, true), v + " " + places);
+				assertEquals(formatDouble(-v, places, true), TextUtil.doubleToString(-v, places, true), -v + " " + places);
+				assertEquals(formatDouble(v, places, false), TextUtil.doubleToString(v, places, false), v + " " + places);
+				assertEquals(formatDouble(-v, places, false), TextUtil.doubleToString(-v, places, false), -v + " " + places);
+			}
+		}
+
+		Random rnd = new Random(1234);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			double v = (rnd.nextDouble() - 0.5) * Math.pow(10, rnd.nextInt(24) - 12);
+			if (rnd.nextBoolean()) {
+				// Values with few digits hit the rounding ties
+				v = Math.rint(v * 1e4) / 1e4;
+			}
+			String expected = formatDouble(v, TextUtil.DEFAULT_DECIMAL_PLACES, true);
+			assertEquals(expected, TextUtil.doubleToString(v), Double.toString(v));
+
+			sb.setLength(0);
+			assertEquals(expected, TextUtil.appendDouble(sb, v).toString());
+			int places = rnd.nextInt(6);
+			assertEquals(formatDouble(v, places, false), TextUtil.doubleToString(v, places, false), v + " " + places);
+		}
+	}
+
 	@Test
 	public void testEscapeXML() {
 		assertEquals(TextUtil.escapeXML(""), "");
@@ -288,6 +353,8 @@ public class TextUtilTest {
 		assertEquals(TextUtil.escapeXML("\"'"), "&quot;&#39;");
 		assertEquals(TextUtil.escapeXML("foo\n\r\tbar"), "foo\n\r\tbar");
 		assertEquals(TextUtil.escapeXML("foo" + ((char) 0) + ((char) 1) + ((char) 31) + ((char) 127) + "bar"), "foo&#0;&#1;&#31;&#127;bar");
+		assertEquals(TextUtil.appendEscapedXML(new StringBuilder("a"), "<b>").toString(), "a&lt;b&gt;");
+		assertEquals(TextUtil.appendEscapedXML(new StringBuilder("a"), null).toString(), "a");
 	}
 
 }
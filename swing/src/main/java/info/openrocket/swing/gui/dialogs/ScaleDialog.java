@@ -550,17 +550,23 @@ public class ScaleDialog extends JDialog {
 			throw new BugException("Unknown item selected, item=" + item);
 		}
 
-		// Perform the scaling
+		// Perform the scaling, firing a single change event for the whole operation
+		final Rocket rocket = document.getRocket();
 		try {
-			// Scale the offsets
-			if (scaleOffsets.isSelected()) {
+			rocket.beginBatch();
+			try {
+				// Scale the offsets
+				if (scaleOffsets.isSelected()) {
+					for (RocketComponent component : scaleComponents) {
+						scaleOffset(component, mul, scaleMass);
+					}
+				}
+				// Scale the components
 				for (RocketComponent component : scaleComponents) {
-					scaleOffset(component, mul, scaleMass);
+					scale(component, mul, scaleMass);
 				}
-			}
-			// Scale the components
-			for (RocketComponent component : scaleComponents) {
-				scale(component, mul, scaleMass);
+			} finally {
+				rocket.commitBatch();
 			}
 		} finally {
 			document.stopUndo();
@@ -60,6 +60,7 @@ import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.logging.Markers;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.EvaluationMemo;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
 import info.openrocket.core.optimization.rocketoptimization.OptimizationGoal;
 import info.openrocket.core.optimization.rocketoptimization.SimulationDomain;
@@ -119,6 +120,10 @@ public class GeneralOptimizationDialog extends JDialog {
 	private static final String GOAL_MINIMIZE = trans.get("goal.minimize");
 	private static final String GOAL_SEEK = trans.get("goal.seek");
 	
+	private static final String ALGORITHM_PATTERN_SEARCH = trans.get("algorithm.patternSearch");
+	private static final String ALGORITHM_DIFFERENTIAL_EVOLUTION = trans.get("algorithm.differentialEvolution");
+	private static final String ALGORITHM_CMAES = trans.get("algorithm.cmaes");
+	
 	private static final String START_TEXT = trans.get("btn.start");
 	private static final String STOP_TEXT = trans.get("btn.stop");
 	
@@ -145,6 +150,7 @@ public class GeneralOptimizationDialog extends JDialog {
 	private final JComboBox<Named<OptimizableParameter>> optimizationParameterCombo;
 	
 	private final JComboBox<?> optimizationGoalCombo;
+	private final JComboBox<?> optimizationAlgorithmCombo;
 	private final JSpinner optimizationGoalSpinner;
 	private final UnitSelector optimizationGoalUnitSelector;
 	private final DoubleModel optimizationSeekValue;
@@ -178,6 +184,9 @@ public class GeneralOptimizationDialog extends JDialog {
 	/** The optimization worker that is running */
 	private OptimizationWorker worker = null;
 	
+	/** Parameter values computed during the lifetime of the dialog, reused when changing the goal */
+	private final EvaluationMemo evaluationMemo = new EvaluationMemo();
+	
 	private double bestValue = Double.NaN;
 	private Unit bestValueUnit = Unit.NOUNIT;
 	private int stepCount = 0;
@@ -422,6 +431,20 @@ public class GeneralOptimizationDialog extends JDialog {
 		disableComponents.add(optimizationGoalUnitSelector);
 		sub.add(optimizationGoalUnitSelector, "width 20lp, wrap unrel");
 		
+		// // Optimization algorithm
+		label = new JLabel(trans.get("lbl.algorithm"));
+		tip = trans.get("lbl.algorithm.ttip");
+		label.setToolTipText(tip);
+		disableComponents.add(label);
+		sub.add(label, "");
+		
+		optimizationAlgorithmCombo = new JComboBox<>(new String[] { ALGORITHM_PATTERN_SEARCH,
+				ALGORITHM_DIFFERENTIAL_EVOLUTION, ALGORITHM_CMAES });
+		optimizationAlgorithmCombo.setToolTipText(tip);
+		optimizationAlgorithmCombo.setEditable(false);
+		disableComponents.add(optimizationAlgorithmCombo);
+		sub.add(optimizationAlgorithmCombo, "growx, wrap unrel");
+		
 		panel.add(sub, "grow");
 		
 		// // Required stability sub-panel
@@ -666,6 +689,18 @@ public class GeneralOptimizationDialog extends JDialog {
 			throw new BugException("optimizationGoalCombo had invalid value: " + value);
 		}
 		
+		OptimizationWorker.Algorithm algorithm;
+		value = (String) optimizationAlgorithmCombo.getSelectedItem();
+		if (ALGORITHM_PATTERN_SEARCH.equals(value)) {
+			algorithm = OptimizationWorker.Algorithm.PATTERN_SEARCH;
+		} else if (ALGORITHM_DIFFERENTIAL_EVOLUTION.equals(value)) {
+			algorithm = OptimizationWorker.Algorithm.DIFFERENTIAL_EVOLUTION;
+		} else if (ALGORITHM_CMAES.equals(value)) {
+			algorithm = OptimizationWorker.Algorithm.CMA_ES;
+		} else {
+			throw new BugException("optimizationAlgorithmCombo had invalid value: " + value);
+		}
+		
 		SimulationDomain domain;
 		if (minimumStabilitySelected.isSelected() || maximumStabilitySelected.isSelected()) {
 			double min, max;
@@ -726,7 +761,7 @@ public class GeneralOptimizationDialog extends JDialog {
 		}
 		
 		// Create and start the background worker
-		worker = new OptimizationWorker(simulation, parameter, goal, domain, modifiers) {
+		worker = new OptimizationWorker(simulation, parameter, goal, domain, algorithm, modifiers) {
 			@Override
 			protected void done(OptimizationException exception) {
 				log.info("Optimization finished, exception=" + exception, exception);
@@ -807,6 +842,7 @@ public class GeneralOptimizationDialog extends JDialog {
 				updateCounters();
 			}
 		};
+		worker.setEvaluationMemo(evaluationMemo);
 		worker.start();
 		
 		clearHistory();
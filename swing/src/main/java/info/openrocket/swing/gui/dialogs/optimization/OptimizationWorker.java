@@ -10,14 +10,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.EvaluationService;
 import info.openrocket.core.optimization.general.FunctionOptimizer;
 import info.openrocket.core.optimization.general.OptimizationController;
 import info.openrocket.core.optimization.general.OptimizationException;
-import info.openrocket.core.optimization.general.ParallelExecutorCache;
-import info.openrocket.core.optimization.general.ParallelFunctionCache;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+import info.openrocket.core.optimization.general.multidim.DifferentialEvolutionOptimizer;
 import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
 import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
+import info.openrocket.core.optimization.rocketoptimization.EvaluationMemo;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
 import info.openrocket.core.optimization.rocketoptimization.OptimizationGoal;
 import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationFunction;
@@ -49,6 +51,18 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 
 	private static final Logger log = LoggerFactory.getLogger(OptimizationWorker.class);
 	
+	/**
+	 * The optimization algorithms available.
+	 */
+	public enum Algorithm {
+		/** Golden section search for one parameter, multidirectional search for several */
+		PATTERN_SEARCH,
+		/** Differential evolution, evaluating a population concurrently */
+		DIFFERENTIAL_EVOLUTION,
+		/** Covariance matrix adaptation evolution strategy, evaluating a population concurrently */
+		CMA_ES
+	}
+	
 	/** Notify listeners every this many milliseconds */
 	private static final long PURGE_TIMEOUT = 500;
 	/** End optimization when step size is below this threshold */
@@ -60,7 +74,7 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private final Simulation simulation;
 	private final SimulationModifier[] modifiers;
 	
-	private final ParallelFunctionCache cache;
+	private final EvaluationService cache;
 
 	private final LinkedBlockingQueue<FunctionEvaluationData> evaluationQueue = new LinkedBlockingQueue<>();
 	private final LinkedBlockingQueue<OptimizationStepData> stepQueue = new LinkedBlockingQueue<>();
@@ -70,7 +84,7 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	
 	
 	/**
-	 * Sole constructor
+	 * Construct a worker using pattern search.
 	 * @param simulation	the simulation
 	 * @param parameter			the optimization parameter
 	 * @param goal				the optimization goal
@@ -79,6 +93,21 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	 */
 	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
 			OptimizationGoal goal, SimulationDomain domain, SimulationModifier... modifiers) {
+		this(simulation, parameter, goal, domain, Algorithm.PATTERN_SEARCH, modifiers);
+	}
+	
+	/**
+	 * Construct a worker using the specified algorithm.  The population-based algorithms
+	 * evaluate points on as many threads as there are processors available.
+	 * @param simulation	the simulation
+	 * @param parameter			the optimization parameter
+	 * @param goal				the optimization goal
+	 * @param domain			the optimization domain
+	 * @param algorithm			the optimization algorithm
+	 * @param modifiers			the simulation modifiers
+	 */
+	public OptimizationWorker(Simulation simulation, OptimizableParameter parameter,
+			OptimizationGoal goal, SimulationDomain domain, Algorithm algorithm, SimulationModifier... modifiers) {
 		
 		this.simulation = simulation;
 		this.modifiers = modifiers.clone();
@@ -86,14 +115,36 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		function = new RocketOptimizationFunction(simulation, parameter, goal, domain, modifiers);
 		function.addRocketOptimizationListener(this);
 		
-		cache = new ParallelExecutorCache(1);
-		cache.setFunction(function);
-		
-		if (modifiers.length == 1) {
-			optimizer = new GoldenSectionSearchOptimizer(cache);
-		} else {
-			optimizer = new MultidirectionalSearchOptimizer(cache);
+		switch (algorithm) {
+			case DIFFERENTIAL_EVOLUTION:
+				cache = new EvaluationService();
+				optimizer = new DifferentialEvolutionOptimizer(cache);
+				break;
+			case CMA_ES:
+				cache = new EvaluationService();
+				optimizer = new CMAESOptimizer(cache);
+				break;
+			default:
+				cache = new EvaluationService(1);
+				if (modifiers.length == 1) {
+					optimizer = new GoldenSectionSearchOptimizer(cache);
+				} else {
+					optimizer = new MultidirectionalSearchOptimizer(cache);
+				}
+				break;
 		}
+		cache.setFunction(function);
+	}
+	
+	
+	/**
+	 * Set the memo of computed parameter values used by the optimization.  Must be
+	 * called before starting the worker.
+	 * 
+	 * @param memo	the memo, or <code>null</code> to simulate every evaluated point.
+	 */
+	public void setEvaluationMemo(EvaluationMemo memo) {
+		function.setEvaluationMemo(memo);
 	}
 	
 	
@@ -112,6 +163,7 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			cache.shutdown();
 			SwingUtilities.invokeLater(() -> {
 				lastPurge = System.currentTimeMillis() + 24L * 3600L * 1000L;
 				processQueue();
@@ -24,8 +24,7 @@ import info.openrocket.swing.gui.figure3d.geometry.Geometry.Surface;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
-import info.openrocket.core.rocketcomponent.InstanceContext;
-import info.openrocket.core.rocketcomponent.InstanceMap;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.util.Coordinate;
@@ -171,20 +170,14 @@ public abstract class RocketRenderer {
 	
 	private Collection<Geometry> getTreeGeometry( FlightConfiguration config){
 		// input
-		final InstanceMap imap = config.getActiveInstances();
+		final InstanceTable instances = config.getInstanceTable();
 
 		// output buffer
-		final Collection<Geometry> treeGeometry = new ArrayList<>();
+		final Collection<Geometry> treeGeometry = new ArrayList<>(instances.size());
 
-		for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: imap.entrySet() ) {
-			final RocketComponent comp = entry.getKey();
-			
-			final ArrayList<InstanceContext> contextList = entry.getValue();
-
-			for(InstanceContext context: contextList ) {
-				Geometry instanceGeometry = cr.getComponentGeometry( comp, context.transform );
-				treeGeometry.add( instanceGeometry );
-			}
+		for (int row = 0; row < instances.size(); row++) {
+			Geometry instanceGeometry = cr.getComponentGeometry( instances.getInstanceComponent(row), instances.getTransform(row) );
+			treeGeometry.add( instanceGeometry );
 		}
 		return treeGeometry;
 	}
@@ -30,6 +30,7 @@ import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.MotorConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.InstanceTable;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
@@ -423,26 +424,30 @@ public class RocketFigure extends AbstractScaleFigure {
 		// allShapes is an output buffer -- it stores all the generated shapes
 		allShapes.clear();
 
-		addShapesFromInstanceEntries(allShapes, config.getActiveInstances().entrySet());
+		addShapesFromInstanceTable(allShapes, config.getInstanceTable());
 		addShapesFromInstanceEntries(allShapes, config.getExtraRenderInstances().entrySet());
 	}
 
+	private void addShapesFromInstanceTable(PriorityQueue<RocketComponentShapes> allShapes, InstanceTable instances) {
+		final Transformation figureRotation = getFigureRotation();
+		for (int index = 0; index < instances.getComponentCount(); index++) {
+			final RocketComponent comp = instances.getComponent(index);
+			if (isHiddenMarker(comp)) {
+				continue;
+			}
+
+			for (int row = instances.getFirstInstance(index); row < instances.getEndInstance(index); row++) {
+				final Transformation currentTransform = figureRotation.applyTransformation(instances.getTransform(row));
+				allShapes = addThisShape(allShapes, this.currentViewType, comp, currentTransform);
+			}
+		}
+	}
+
 	private void addShapesFromInstanceEntries(PriorityQueue<RocketComponentShapes> allShapes, Set<Entry<RocketComponent, ArrayList<InstanceContext>>> entries) {
 		for (Entry<RocketComponent, ArrayList<InstanceContext>> entry : entries) {
 			final RocketComponent comp = entry.getKey();
-
-			// Only draw pod sets and boosters when they are selected
-			if (preferences.isShowMarkers() && (comp instanceof PodSet || comp instanceof ParallelStage)) {
-				boolean selected = false;
-
-				// Check if component is in the selection
-				for (RocketComponent component : selection) {
-					if (comp == component) {
-						selected = true;
-						break;
-					}
-				}
-				if (!selected) continue;
+			if (isHiddenMarker(comp)) {
+				continue;
 			}
 
 			final ArrayList<InstanceContext> contextList = entry.getValue();
@@ -454,6 +459,21 @@ public class RocketFigure extends AbstractScaleFigure {
 		}
 	}
 
+	/**
+	 * Pod sets and boosters are only drawn when they are selected.
+	 */
+	private boolean isHiddenMarker(RocketComponent comp) {
+		if (!preferences.isShowMarkers() || !(comp instanceof PodSet || comp instanceof ParallelStage)) {
+			return false;
+		}
+		for (RocketComponent component : selection) {
+			if (comp == component) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Gets the shapes required to draw the component.
 	 *